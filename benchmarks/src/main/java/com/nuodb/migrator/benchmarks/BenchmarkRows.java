@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.SimpleValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.model.SimpleField;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.copy;
+import static java.lang.Math.min;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Synthetic table with a mix of numeric, decimal, temporal, character and binary columns used by the benchmarks.
+ * Every 10th row has nulls in the nullable columns.
+ *
+ * @author Sergey Bushik
+ */
+public class BenchmarkRows {
+
+    public static final String[] NAMES = {
+            "id", "quantity", "price", "amount", "name", "created", "active", "payload"
+    };
+    public static final int[] TYPE_CODES = {
+            Types.BIGINT, Types.INTEGER, Types.DOUBLE, Types.DECIMAL, Types.VARCHAR, Types.TIMESTAMP, Types.BOOLEAN,
+            Types.VARBINARY
+    };
+    public static final String[] TYPE_NAMES = {
+            "BIGINT", "INTEGER", "DOUBLE", "DECIMAL", "VARCHAR", "TIMESTAMP", "BOOLEAN", "VARBINARY"
+    };
+
+    private static final long SEED = 42;
+    private static final long TIMESTAMP = Timestamp.valueOf("2014-01-01 00:00:00").getTime();
+
+    private static final Dialect DIALECT = new NuoDBDialect();
+
+    /**
+     * Generates rows of objects as they are returned by the result set getters
+     *
+     * @param rows number of rows to generate
+     * @return generated rows
+     */
+    public static Object[][] createRows(int rows) {
+        Random random = new Random(SEED);
+        Object[][] objects = new Object[rows][];
+        for (int row = 0; row < rows; row++) {
+            boolean nulls = row % 10 == 9;
+            byte[] payload = new byte[16 + random.nextInt(48)];
+            random.nextBytes(payload);
+            objects[row] = new Object[]{
+                    (long) row,
+                    random.nextInt(1000),
+                    random.nextDouble() * 100,
+                    nulls ? null : BigDecimal.valueOf(random.nextInt(1000000), 2),
+                    nulls ? null : "name " + random.nextInt(10000),
+                    new Timestamp(TIMESTAMP + row * 1000L),
+                    random.nextBoolean(),
+                    nulls ? null : payload
+            };
+        }
+        return objects;
+    }
+
+    public static Collection<Field> createFields() {
+        Collection<Field> fields = newArrayList();
+        for (int column = 0; column < NAMES.length; column++) {
+            SimpleField field = new SimpleField();
+            field.setName(NAMES[column]);
+            field.setTypeCode(TYPE_CODES[column]);
+            field.setTypeName(TYPE_NAMES[column]);
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    /**
+     * Creates value handles reading columns from the result set the same way dump does
+     */
+    public static ValueHandleList createValueHandleList(Connection connection, ResultSet resultSet) {
+        return init(ValueHandleListBuilder.newBuilder(connection, resultSet)).build();
+    }
+
+    /**
+     * Creates value handles binding values to the statement parameters the same way load does
+     */
+    public static ValueHandleList createValueHandleList(Connection connection, PreparedStatement statement) {
+        return init(ValueHandleListBuilder.newBuilder(connection, statement)).build();
+    }
+
+    protected static ValueHandleListBuilder init(ValueHandleListBuilder builder) {
+        return builder.withDialect(DIALECT).withFields(createFields()).withTimeZone(TimeZone.getDefault()).
+                withValueFormatRegistry(new SimpleValueFormatRegistry());
+    }
+
+    /**
+     * Reads generated rows into detached values as they are passed from the result set to a format output on dump
+     *
+     * @param rows generated rows
+     * @return values of each row
+     * @throws SQLException if reading from the stub result set fails
+     */
+    public static Value[][] readValues(Object[][] rows) throws SQLException {
+        ResultSet resultSet = JdbcStubs.newResultSet(rows);
+        ValueHandleList valueHandleList = createValueHandleList(JdbcStubs.newConnection(), resultSet);
+        Value[][] values = new Value[rows.length][];
+        for (int row = 0; row < rows.length; row++) {
+            resultSet.next();
+            values[row] = new Value[valueHandleList.size()];
+            readValues(valueHandleList, values[row]);
+            for (int column = 0; column < values[row].length; column++) {
+                values[row][column] = copy(values[row][column]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Refills values from the current row of the result set behind the value handles
+     */
+    @SuppressWarnings("unchecked")
+    public static void readValues(ValueHandleList valueHandleList, Value[] values) {
+        int column = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            values[column] = valueHandle.getValueFormat().getValue(valueHandle.getJdbcValueAccess(),
+                    valueHandle.getJdbcValueAccessOptions(), values[column]);
+            column++;
+        }
+    }
+
+    /**
+     * Binds values to the statement parameters behind the value handles
+     */
+    @SuppressWarnings("unchecked")
+    public static void setValues(ValueHandleList valueHandleList, Value[] values) {
+        int column = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            valueHandle.getValueFormat().setValue(values[column++], valueHandle.getJdbcValueAccess(),
+                    valueHandle.getJdbcValueAccessOptions());
+        }
+    }
+
+    /**
+     * Creates row set with the value types assigned to the columns by the value formats
+     *
+     * @param format backup format type
+     * @return row set of the synthetic table
+     */
+    public static RowSet createRowSet(String format) {
+        ValueHandleList valueHandleList = createValueHandleList(JdbcStubs.newConnection(),
+                JdbcStubs.newResultSet(createRows(1)));
+        RowSet rowSet = new TableRowSet();
+        rowSet.setName("benchmark");
+        rowSet.setBackup(new Backup(format));
+        Collection<Column> columns = newArrayList();
+        for (ValueHandle valueHandle : valueHandleList) {
+            columns.add(new Column(valueHandle.getName(), valueHandle.getValueType()));
+        }
+        rowSet.setColumns(columns);
+        return rowSet;
+    }
+
+    /**
+     * Writes values to the given number of chunks of a new row set
+     *
+     * @param backupOps backup operations writing chunk files
+     * @param format    backup format type
+     * @param values    rows to write
+     * @param chunks    number of chunks to spread rows over
+     * @return row set with the written chunks
+     */
+    public static RowSet writeRowSet(BackupOps backupOps, String format, Value[][] values, int chunks) {
+        RowSet rowSet = createRowSet(format);
+        FormatFactory formatFactory = new SimpleFormatFactory();
+        int rows = (values.length + chunks - 1) / chunks;
+        for (int index = 0; index < chunks; index++) {
+            Chunk chunk = new Chunk();
+            chunk.setName(rowSet.getName() + "." + index + "." + format);
+            OutputStream outputStream = backupOps.openOutput(chunk.getName());
+            try {
+                Output output = formatFactory.createOutput(format, Collections.<String, Object>emptyMap());
+                output.setRowSet(rowSet);
+                output.setOutputStream(outputStream);
+                output.init();
+                output.writeStart();
+                int end = min(values.length, (index + 1) * rows);
+                for (int row = index * rows; row < end; row++) {
+                    output.writeValues(values[row]);
+                }
+                output.writeEnd();
+                output.close();
+                chunk.setRowCount(end - index * rows);
+            } finally {
+                closeQuietly(outputStream);
+            }
+            rowSet.addChunk(chunk);
+        }
+        return rowSet;
+    }
+}
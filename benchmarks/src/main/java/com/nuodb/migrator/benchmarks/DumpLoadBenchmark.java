@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.XmlBackupOps;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.RowReaders;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.google.common.io.Files.createTempDir;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRowSet;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRows;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createValueHandleList;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.readValues;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.setValues;
+import static com.nuodb.migrator.benchmarks.JdbcStubs.newConnection;
+import static com.nuodb.migrator.benchmarks.JdbcStubs.newResultSet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * End to end dump and load of the synthetic table through a backup on disk: values are read from an in-memory result
+ * set, written to a chunk in the given format, read back by a row reader and bound to insert statement parameters in
+ * batches. One operation is a dump and a load of the whole table.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DumpLoadBenchmark {
+
+    private static final Map<String, Object> FORMAT_ATTRIBUTES = Collections.emptyMap();
+
+    @Param({"csv", "bson", "columnar"})
+    public String format;
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private File dir;
+    private XmlBackupOps backupOps;
+    private FormatFactory formatFactory;
+    private Object[][] objects;
+    private Connection connection;
+
+    @Setup
+    public void setUp() {
+        dir = createTempDir();
+        backupOps = new XmlBackupOps();
+        backupOps.setDir(dir.getAbsolutePath());
+        formatFactory = new SimpleFormatFactory();
+        objects = createRows(rows);
+        connection = newConnection();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public long dumpLoad() throws SQLException {
+        return load(dump());
+    }
+
+    protected RowSet dump() throws SQLException {
+        ResultSet resultSet = newResultSet(objects);
+        ValueHandleList valueHandleList = createValueHandleList(connection, resultSet);
+        RowSet rowSet = createRowSet(format);
+        Chunk chunk = new Chunk();
+        chunk.setName(rowSet.getName() + "." + format);
+        OutputStream outputStream = backupOps.openOutput(chunk.getName());
+        try {
+            Output output = formatFactory.createOutput(format, FORMAT_ATTRIBUTES);
+            output.setRowSet(rowSet);
+            output.setOutputStream(outputStream);
+            output.init();
+            output.writeStart();
+            Value[] values = new Value[valueHandleList.size()];
+            for (int row = 0; row < rows; row++) {
+                resultSet.next();
+                readValues(valueHandleList, values);
+                output.writeValues(values);
+            }
+            output.writeEnd();
+            output.close();
+        } finally {
+            closeQuietly(outputStream);
+        }
+        chunk.setRowCount(rows);
+        rowSet.addChunk(chunk);
+        return rowSet;
+    }
+
+    protected long load(RowSet rowSet) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement("INSERT INTO \"benchmark\" VALUES (?)");
+        ValueHandleList valueHandleList = createValueHandleList(connection, statement);
+        RowReader rowReader = RowReaders.newSequentialRowReader(rowSet, backupOps, formatFactory,
+                FORMAT_ATTRIBUTES);
+        long count = 0;
+        try {
+            Row row;
+            while ((row = rowReader.readRow()) != null) {
+                setValues(valueHandleList, row.getValues());
+                statement.addBatch();
+                if (++count % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        } finally {
+            rowReader.close();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.Input;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRowSet;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRows;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.output.NullOutputStream.NULL_OUTPUT_STREAM;
+
+/**
+ * Measures encoding and decoding of a row set by each backup format, one operation is a whole row set.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FormatBenchmark {
+
+    @Param({"csv", "xml", "bson", "columnar"})
+    public String format;
+
+    @Param({"10000"})
+    public int rows;
+
+    private FormatFactory formatFactory;
+    private RowSet rowSet;
+    private Value[][] values;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        formatFactory = new SimpleFormatFactory();
+        rowSet = createRowSet(format);
+        values = BenchmarkRows.readValues(createRows(rows));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(outputStream);
+        bytes = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public long writeValues() {
+        CountingOutputStream outputStream = new CountingOutputStream(NULL_OUTPUT_STREAM);
+        write(outputStream);
+        return outputStream.getByteCount();
+    }
+
+    @Benchmark
+    public void readValues(Blackhole blackhole) {
+        Input input = formatFactory.createInput(format, Collections.<String, Object>emptyMap());
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(bytes));
+        input.init();
+        input.readStart();
+        Value[] row;
+        while ((row = input.readValues()) != null) {
+            blackhole.consume(row);
+        }
+        input.readEnd();
+        input.close();
+    }
+
+    protected void write(OutputStream outputStream) {
+        Output output = formatFactory.createOutput(format, Collections.<String, Object>emptyMap());
+        output.setRowSet(rowSet);
+        output.setOutputStream(outputStream);
+        output.init();
+        output.writeStart();
+        for (Value[] row : values) {
+            output.writeValues(row);
+        }
+        output.writeEnd();
+        output.close();
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * In-memory result set, prepared statement and connection backed by dynamic proxies, so that value formats can be
+ * measured without a database. Result set cycles through the given rows, prepared statement keeps the last bound
+ * parameters.
+ *
+ * @author Sergey Bushik
+ */
+public class JdbcStubs {
+
+    private static final String NEXT_METHOD = "next";
+    private static final String WAS_NULL_METHOD = "wasNull";
+    private static final String GET_METHOD = "get";
+    private static final String SET_METHOD = "set";
+    private static final String EXECUTE_UPDATE_METHOD = "executeUpdate";
+    private static final String EXECUTE_BATCH_METHOD = "executeBatch";
+    private static final String PREPARE_STATEMENT_METHOD = "prepareStatement";
+
+    public static Connection newConnection() {
+        return newProxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+                if (method.getName().equals(PREPARE_STATEMENT_METHOD)) {
+                    return newPreparedStatement((Connection) proxy);
+                }
+                return getDefaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    public static ResultSet newResultSet(final Object[][] rows) {
+        return newProxy(ResultSet.class, new InvocationHandler() {
+            private int row = -1;
+            private boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+                String name = method.getName();
+                if (name.equals(NEXT_METHOD)) {
+                    row = (row + 1) % rows.length;
+                    return true;
+                } else if (name.equals(WAS_NULL_METHOD)) {
+                    return wasNull;
+                } else if (name.startsWith(GET_METHOD) && arguments != null && arguments[0] instanceof Integer) {
+                    Object value = rows[row][(Integer) arguments[0] - 1];
+                    wasNull = value == null;
+                    return convert(value, method.getReturnType());
+                }
+                return getDefaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    public static PreparedStatement newPreparedStatement(final Connection connection) {
+        return newProxy(PreparedStatement.class, new InvocationHandler() {
+            private Object[] parameters = new Object[16];
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+                String name = method.getName();
+                if (name.startsWith(SET_METHOD) && arguments != null && arguments.length > 1 &&
+                        arguments[0] instanceof Integer) {
+                    int parameter = (Integer) arguments[0];
+                    if (parameter > parameters.length) {
+                        Object[] resized = new Object[parameter * 2];
+                        System.arraycopy(parameters, 0, resized, 0, parameters.length);
+                        parameters = resized;
+                    }
+                    parameters[parameter - 1] = arguments[1];
+                    return null;
+                } else if (name.equals(EXECUTE_UPDATE_METHOD)) {
+                    return 1;
+                } else if (name.equals(EXECUTE_BATCH_METHOD)) {
+                    return new int[0];
+                } else if (method.getReturnType() == Connection.class) {
+                    return connection;
+                }
+                return getDefaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> T newProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcStubs.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    protected static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            return getDefaultValue(type);
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            if (type == int.class || type == Integer.class) {
+                return number.intValue();
+            } else if (type == long.class || type == Long.class) {
+                return number.longValue();
+            } else if (type == short.class || type == Short.class) {
+                return number.shortValue();
+            } else if (type == byte.class || type == Byte.class) {
+                return number.byteValue();
+            } else if (type == double.class || type == Double.class) {
+                return number.doubleValue();
+            } else if (type == float.class || type == Float.class) {
+                return number.floatValue();
+            } else if (type == BigDecimal.class && !(number instanceof BigDecimal)) {
+                return new BigDecimal(number.toString());
+            }
+        }
+        return type == String.class ? value.toString() : value;
+    }
+
+    protected static Object getDefaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return (char) 0;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else {
+            return (byte) 0;
+        }
+    }
+}
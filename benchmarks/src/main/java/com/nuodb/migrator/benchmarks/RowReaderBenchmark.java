@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.XmlBackupOps;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.RowReaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.io.Files.createTempDir;
+import static com.nuodb.migrator.backup.format.csv.CsvFormat.TYPE;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRows;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.writeRowSet;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+
+/**
+ * Compares a single synchronized row reader shared by loader threads with partitioned row readers, each thread
+ * decoding its own chunks. One operation reads all rows of a multi chunk row set.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RowReaderBenchmark {
+
+    private static final Map<String, Object> FORMAT_ATTRIBUTES = Collections.emptyMap();
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"16"})
+    public int chunks;
+
+    private File dir;
+    private XmlBackupOps backupOps;
+    private FormatFactory formatFactory;
+    private RowSet rowSet;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = createTempDir();
+        backupOps = new XmlBackupOps();
+        backupOps.setDir(dir.getAbsolutePath());
+        formatFactory = new SimpleFormatFactory();
+        rowSet = writeRowSet(backupOps, TYPE, BenchmarkRows.readValues(createRows(rows)), chunks);
+        executor = newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public long sequential() throws Exception {
+        RowReader rowReader = RowReaders.newSequentialRowReader(rowSet, backupOps, formatFactory,
+                FORMAT_ATTRIBUTES);
+        try {
+            return readRows(rowReader);
+        } finally {
+            rowReader.close();
+        }
+    }
+
+    @Benchmark
+    public long synchronizedRowReader() throws Exception {
+        RowReader rowReader = RowReaders.newSynchronizedRowReader(
+                RowReaders.newSequentialRowReader(rowSet, backupOps, formatFactory, FORMAT_ATTRIBUTES));
+        try {
+            return readRows(Collections.nCopies(threads, rowReader));
+        } finally {
+            rowReader.close();
+        }
+    }
+
+    @Benchmark
+    public long partitionedRowReaders() throws Exception {
+        List<RowReader> rowReaders = RowReaders.newPartitionedRowReaders(rowSet, backupOps, formatFactory,
+                FORMAT_ATTRIBUTES, threads);
+        try {
+            return readRows(rowReaders);
+        } finally {
+            for (RowReader rowReader : rowReaders) {
+                rowReader.close();
+            }
+        }
+    }
+
+    protected long readRows(Collection<RowReader> rowReaders) throws Exception {
+        Collection<Future<Long>> futures = newArrayList();
+        for (final RowReader rowReader : rowReaders) {
+            futures.add(executor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return readRows(rowReader);
+                }
+            }));
+        }
+        long count = 0;
+        for (Future<Long> future : futures) {
+            count += future.get();
+        }
+        return count;
+    }
+
+    protected static long readRows(RowReader rowReader) {
+        long count = 0;
+        Row row;
+        while ((row = rowReader.readRow()) != null) {
+            count += row.getValues().length;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmarks;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createRows;
+import static com.nuodb.migrator.benchmarks.BenchmarkRows.createValueHandleList;
+import static com.nuodb.migrator.benchmarks.JdbcStubs.newConnection;
+import static com.nuodb.migrator.benchmarks.JdbcStubs.newPreparedStatement;
+import static com.nuodb.migrator.benchmarks.JdbcStubs.newResultSet;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures value formats reading a row from a result set on dump and binding a row to statement parameters on load,
+ * one operation is a single row of the synthetic table.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ValueFormatBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private ResultSet resultSet;
+    private ValueHandleList getValueHandleList;
+    private ValueHandleList setValueHandleList;
+    private Value[] values;
+    private Value[][] rows;
+    private int row;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Connection connection = newConnection();
+        Object[][] objects = createRows(ROWS);
+        resultSet = newResultSet(objects);
+        getValueHandleList = createValueHandleList(connection, resultSet);
+        setValueHandleList = createValueHandleList(connection, newPreparedStatement(connection));
+        values = new Value[getValueHandleList.size()];
+        rows = BenchmarkRows.readValues(objects);
+    }
+
+    @Benchmark
+    public Value[] getValues() throws SQLException {
+        resultSet.next();
+        BenchmarkRows.readValues(getValueHandleList, values);
+        return values;
+    }
+
+    @Benchmark
+    public void setValues() {
+        BenchmarkRows.setValues(setValueHandleList, rows[row++ % ROWS]);
+    }
+}
@@ -30,15 +30,18 @@ package com.nuodb.migrator;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistryResolver;
 import com.nuodb.migrator.config.Config;
+import com.nuodb.migrator.copy.CopyJob;
 import com.nuodb.migrator.dump.DumpJob;
 import com.nuodb.migrator.jdbc.connection.ConnectionProviderFactory;
 import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
 import com.nuodb.migrator.job.Job;
 import com.nuodb.migrator.job.JobExecutor;
+import com.nuodb.migrator.job.MetricsJobExecutionListener;
 import com.nuodb.migrator.job.TraceJobExecutionListener;
 import com.nuodb.migrator.load.LoadJob;
 import com.nuodb.migrator.schema.SchemaJob;
+import com.nuodb.migrator.spec.CopyJobSpec;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.LoadJobSpec;
 import com.nuodb.migrator.spec.SchemaJobSpec;
@@ -69,6 +72,10 @@ public class Migrator {
         execute(new LoadJob(jobSpec), context);
     }
 
+    public void execute(CopyJobSpec jobSpec, Map<Object, Object> context) {
+        execute(new CopyJob(jobSpec), context);
+    }
+
     public void execute(SchemaJobSpec jobSpec, Map<Object, Object> context) {
         execute(new SchemaJob(jobSpec), context);
     }
@@ -76,6 +83,7 @@ public class Migrator {
     public void execute(Job job, Map<Object, Object> context) {
         JobExecutor jobExecutor = createJobExecutor(job);
         jobExecutor.addListener(new TraceJobExecutionListener());
+        jobExecutor.addListener(new MetricsJobExecutionListener());
         jobExecutor.execute(context);
         Throwable failure = jobExecutor.getJobStatus().getFailure();
         if (failure != null) {
@@ -60,6 +60,10 @@ public interface BackupOps {
 
     OutputStream openOutput(String name);
 
+    InputStream openInput(String name, String compression);
+
+    OutputStream openOutput(String name, String compression);
+
     Backup read();
 
     Backup read(Map context);
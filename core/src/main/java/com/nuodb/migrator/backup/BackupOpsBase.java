@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.backup;
 
+import com.nuodb.migrator.backup.compression.Compression;
 import com.nuodb.migrator.jdbc.metadata.Catalog;
 import com.nuodb.migrator.jdbc.metadata.Identifier;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
@@ -55,6 +56,7 @@ import java.util.Map;
 
 import static com.nuodb.migrator.match.AntRegexCompiler.INSTANCE;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.META_DATA_SPEC;
+import static com.nuodb.migrator.backup.compression.Compressions.getCompression;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static java.lang.String.format;
 import static org.apache.commons.io.FileUtils.*;
@@ -144,6 +146,36 @@ public abstract class BackupOpsBase implements BackupOps {
         }
     }
 
+    @Override
+    public InputStream openInput(String name, String compression) {
+        InputStream input = openInput(name);
+        Compression codec = getCompression(compression);
+        if (codec != null) {
+            try {
+                input = codec.decompress(input);
+            } catch (IOException exception) {
+                closeQuietly(input);
+                throw new BackupException("Error opening compressed file for reading", exception);
+            }
+        }
+        return input;
+    }
+
+    @Override
+    public OutputStream openOutput(String name, String compression) {
+        OutputStream output = openOutput(name);
+        Compression codec = getCompression(compression);
+        if (codec != null) {
+            try {
+                output = codec.compress(output);
+            } catch (IOException exception) {
+                closeQuietly(output);
+                throw new BackupException("Error opening compressed file for writing", exception);
+            }
+        }
+        return output;
+    }
+
     @Override
     public Backup read() {
         return read((Map) null);
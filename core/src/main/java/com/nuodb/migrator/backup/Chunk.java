@@ -29,8 +29,15 @@ package com.nuodb.migrator.backup;
 
 import com.nuodb.migrator.utils.ObjectUtils;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+
 /**
  * @author Sergey Bushik
  */
@@ -38,7 +45,14 @@ public class Chunk implements HasSize {
 
     private String name;
     private Long size;
+    private Long rawSize;
+    private String compression;
+    private Integer splitIndex;
+    private Integer splitCount;
+    private String splitBounds;
     private AtomicLong rowCount = new AtomicLong();
+    private Collection<Lob> lobs = newArrayList();
+    private transient Map<Long, List<Lob>> rowLobs = newHashMap();
     private transient RowSet rowSet;
 
     public String getName() {
@@ -68,6 +82,72 @@ public class Chunk implements HasSize {
         return size;
     }
 
+    /**
+     * Size of the chunk content before compression, which equals to the size of the file for uncompressed chunks
+     *
+     * @return raw size or null if it's not recorded
+     */
+    public Long getRawSize() {
+        return rawSize;
+    }
+
+    public void setRawSize(Long rawSize) {
+        this.rawSize = rawSize;
+    }
+
+    public Long getRawSize(BackupOps backupOps) {
+        Long rawSize = getRawSize();
+        return rawSize != null ? rawSize : getSize(backupOps);
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Index of the query split the chunk was written by, so that a resumed dump reuses chunks of completed splits
+     *
+     * @return split index or null if it's not recorded
+     */
+    public Integer getSplitIndex() {
+        return splitIndex;
+    }
+
+    public void setSplitIndex(Integer splitIndex) {
+        this.splitIndex = splitIndex;
+    }
+
+    /**
+     * Number of splits of the query the chunk was written by, so that chunks are not reused if the query is split
+     * differently
+     *
+     * @return split count or null if it's not known
+     */
+    public Integer getSplitCount() {
+        return splitCount;
+    }
+
+    public void setSplitCount(Integer splitCount) {
+        this.splitCount = splitCount;
+    }
+
+    /**
+     * Limit and offset or key bounds of the query split the chunk was written by
+     *
+     * @return split bounds or null if the split selected all the rows
+     */
+    public String getSplitBounds() {
+        return splitBounds;
+    }
+
+    public void setSplitBounds(String splitBounds) {
+        this.splitBounds = splitBounds;
+    }
+
     public long getRowCount() {
         return rowCount.get();
     }
@@ -84,6 +164,30 @@ public class Chunk implements HasSize {
         return rowCount;
     }
 
+    public void addLob(Lob lob) {
+        lobs.add(lob);
+        List<Lob> lobs = rowLobs.get(lob.getRow());
+        if (lobs == null) {
+            rowLobs.put(lob.getRow(), lobs = newArrayList());
+        }
+        lobs.add(lob);
+    }
+
+    public Collection<Lob> getLobs() {
+        return lobs;
+    }
+
+    /**
+     * Returns large objects of a row streamed to separate files
+     *
+     * @param row number of the row in the chunk
+     * @return lobs of the row or an empty collection
+     */
+    public Collection<Lob> getLobs(long row) {
+        List<Lob> lobs = rowLobs.get(row);
+        return lobs != null ? lobs : Collections.<Lob>emptyList();
+    }
+
     public RowSet getRowSet() {
         return rowSet;
     }
@@ -79,6 +79,21 @@ public class RowSet implements HasSize {
         return size;
     }
 
+    /**
+     * Sums up sizes of the chunks before compression, so that the sizes of compressed and uncompressed row sets are
+     * comparable
+     *
+     * @param backupOps backup ops to get length of the chunks with unknown raw size
+     * @return total raw size of the chunks
+     */
+    public Long getRawSize(BackupOps backupOps) {
+        long rawSize = 0L;
+        for (Chunk chunk : getChunks()) {
+            rawSize += chunk.getRawSize(backupOps);
+        }
+        return rawSize;
+    }
+
     public long getRowCount() {
         return rowCount.get();
     }
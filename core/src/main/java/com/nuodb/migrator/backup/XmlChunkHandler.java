@@ -40,6 +40,12 @@ public class XmlChunkHandler extends XmlReadWriteHandlerBase<Chunk> implements X
 
     private static final String NAME = "name";
     private static final String ROW_COUNT = "row-count";
+    private static final String RAW_SIZE = "raw-size";
+    private static final String COMPRESSION = "compression";
+    private static final String SPLIT_INDEX = "split-index";
+    private static final String SPLIT_COUNT = "split-count";
+    private static final String SPLIT_BOUNDS = "split-bounds";
+    private static final String LOB_ELEMENT = "lob";
 
     public XmlChunkHandler() {
         super(Chunk.class);
@@ -49,11 +55,35 @@ public class XmlChunkHandler extends XmlReadWriteHandlerBase<Chunk> implements X
     protected void readAttributes(InputNode input, Chunk chunk, XmlReadContext context) throws Exception {
         chunk.setName(context.readAttribute(input, NAME, String.class));
         chunk.setRowCount(context.readAttribute(input, ROW_COUNT, Long.class));
+        chunk.setRawSize(context.readAttribute(input, RAW_SIZE, Long.class));
+        chunk.setCompression(context.readAttribute(input, COMPRESSION, String.class));
+        chunk.setSplitIndex(context.readAttribute(input, SPLIT_INDEX, Integer.class));
+        chunk.setSplitCount(context.readAttribute(input, SPLIT_COUNT, Integer.class));
+        chunk.setSplitBounds(context.readAttribute(input, SPLIT_BOUNDS, String.class));
     }
 
     @Override
     protected void writeAttributes(Chunk chunk, OutputNode output, XmlWriteContext context) throws Exception {
         context.writeAttribute(output, NAME, chunk.getName());
         context.writeAttribute(output, ROW_COUNT, chunk.getRowCount());
+        context.writeAttribute(output, RAW_SIZE, chunk.getRawSize());
+        context.writeAttribute(output, COMPRESSION, chunk.getCompression());
+        context.writeAttribute(output, SPLIT_INDEX, chunk.getSplitIndex());
+        context.writeAttribute(output, SPLIT_COUNT, chunk.getSplitCount());
+        context.writeAttribute(output, SPLIT_BOUNDS, chunk.getSplitBounds());
+    }
+
+    @Override
+    protected void readElement(InputNode input, Chunk chunk, XmlReadContext context) throws Exception {
+        if (LOB_ELEMENT.equals(input.getName())) {
+            chunk.addLob(context.read(input, Lob.class));
+        }
+    }
+
+    @Override
+    protected void writeElements(Chunk chunk, OutputNode output, XmlWriteContext context) throws Exception {
+        for (Lob lob : chunk.getLobs()) {
+            context.writeElement(output, LOB_ELEMENT, lob);
+        }
     }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.compression;
+
+import com.nuodb.migrator.backup.BackupException;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.nuodb.migrator.utils.ReflectionUtils.newInstance;
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Resolves compression by its name or by a class name of a custom {@link Compression} implementation.
+ *
+ * @author Sergey Bushik
+ */
+public class Compressions {
+
+    public static final String NONE = "none";
+
+    private static final Map<String, Compression> COMPRESSIONS =
+            new TreeMap<String, Compression>(CASE_INSENSITIVE_ORDER);
+
+    static {
+        addCompression(new GzipCompression());
+        addCompression(new DeflateCompression());
+    }
+
+    private Compressions() {
+    }
+
+    private static void addCompression(Compression compression) {
+        COMPRESSIONS.put(compression.getName(), compression);
+    }
+
+    /**
+     * Returns compression for the given name or null if the name is empty or none
+     *
+     * @param name compression name or class name
+     * @return compression or null if chunks are not compressed
+     */
+    public static Compression getCompression(String name) {
+        if (isEmpty(name) || NONE.equalsIgnoreCase(name)) {
+            return null;
+        }
+        Compression compression = COMPRESSIONS.get(name);
+        if (compression == null) {
+            try {
+                compression = newInstance(name);
+            } catch (Exception exception) {
+                throw new BackupException(format("Compression %s is not supported", name), exception);
+            }
+        }
+        return compression;
+    }
+
+    /**
+     * Returns name to record in the backup catalog, so that the compression can be resolved back on load
+     *
+     * @param compression compression to get name for
+     * @return name of a registered compression or class name of a custom one
+     */
+    public static String getCompressionName(Compression compression) {
+        return COMPRESSIONS.get(compression.getName()) != null ?
+                compression.getName() : compression.getClass().getName();
+    }
+}
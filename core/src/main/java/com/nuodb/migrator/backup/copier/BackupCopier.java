@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.loader.BackupLoader;
+import com.nuodb.migrator.backup.loader.BackupLoaderContext;
+import com.nuodb.migrator.backup.loader.BackupLoaderManager;
+import com.nuodb.migrator.backup.loader.LoadTable;
+import com.nuodb.migrator.backup.writer.BackupWriterAdapter;
+import com.nuodb.migrator.backup.writer.BackupWriterManager;
+import com.nuodb.migrator.backup.writer.WriteQuery;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkEvent;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Queue;
+
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.nuodb.migrator.backup.copier.RowQueue.CAPACITY;
+
+/**
+ * Copies tables from the source database to the target database directly, without intermediate backup files. Source
+ * query splits are read by {@link CopyQueryWork}s of the {@link CopyBackupWriter} pool and rows are passed through a
+ * bounded {@link RowQueue} per table to the {@link CopyTableWork} executing inserts on the loader pool, while schema,
+ * indexes and foreign keys are loaded exactly as the {@link BackupLoader} does it.
+ *
+ * @author Sergey Bushik
+ */
+public class BackupCopier extends BackupLoader {
+
+    public static final String BACKUP_WRITER_MANAGER = "backup.writer.manager";
+
+    private CopyBackupWriter backupWriter;
+    private int queueSize = CAPACITY;
+
+    public Backup copy() throws Exception {
+        return copy(newHashMap());
+    }
+
+    public Backup copy(Map context) throws Exception {
+        final BackupWriterManager backupWriterManager = getBackupWriter().open(context);
+        backupWriterManager.addListener(new BackupWriterAdapter() {
+            @Override
+            public void onFailure(WorkEvent event) {
+                Work work = event.getWork();
+                if (work instanceof CopyQueryWork) {
+                    ((CopyQueryWork) work).getRowQueue().fail(event.getFailure());
+                }
+            }
+        });
+        Map backupOpsContext = newHashMap(context);
+        backupOpsContext.put(BACKUP_WRITER_MANAGER, backupWriterManager);
+        Backup backup;
+        try {
+            backup = load((BackupOps) null, backupOpsContext);
+        } catch (Exception exception) {
+            backupWriterManager.writeFailed();
+            try {
+                backupWriterManager.close();
+            } catch (Exception failure) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Backup writer failure", failure);
+                }
+            }
+            throw exception;
+        }
+        backupWriterManager.writeDataDone();
+        backupWriterManager.close();
+        return backup;
+    }
+
+    @Override
+    protected Backup readBackup(BackupOps backupOps, Map context) throws Exception {
+        return getBackupWriterManager(context).getBackupWriterContext().getBackup();
+    }
+
+    /**
+     * Reuses source session factory of the writer rather than connection spec stored in the backup.
+     */
+    @Override
+    protected void openSourceSession(BackupLoaderContext backupLoaderContext) throws SQLException {
+        SessionFactory sourceSessionFactory = getBackupWriterManager(backupLoaderContext.getBackupOpsContext()).
+                getBackupWriterContext().getSourceSessionFactory();
+        backupLoaderContext.setSourceSessionFactory(sourceSessionFactory);
+        Session sourceSession = sourceSessionFactory.openSession();
+        backupLoaderContext.setSourceSession(sourceSession);
+        backupLoaderContext.setSourceSpec(sourceSession.getConnectionSpec());
+    }
+
+    /**
+     * Starts a copy table work per table followed by copy query works for its query splits. Number of tables copied
+     * simultaneously is limited to the number of loader threads, so that every open row queue has its reader running
+     * and writers blocked on a full queue always make progress.
+     *
+     * @param backupLoaderManager to manage this copy.
+     * @throws Exception if copying failed.
+     */
+    @Override
+    protected void loadData(BackupLoaderManager backupLoaderManager) throws Exception {
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        BackupWriterManager backupWriterManager = getBackupWriterManager(backupLoaderContext.getBackupOpsContext());
+        Database database = getDatabase();
+        backupLoaderContext.setDatabase(database != null ? database :
+                openDatabase(backupLoaderContext.getTargetSession()));
+        initLoadTables(backupLoaderContext);
+
+        Map<RowSet, WriteQuery> writeQueries = newIdentityHashMap();
+        for (WriteQuery writeQuery : backupWriterManager.getBackupWriterContext().getWriteQueries()) {
+            writeQueries.put(writeQuery.getRowSet(), writeQuery);
+        }
+        ForkJoinPool executor = (ForkJoinPool) backupLoaderContext.getExecutorService();
+        Queue<CopyTableWork> copyTableWorks = newLinkedList();
+        for (LoadTable loadTable : backupLoaderContext.getLoadTables()) {
+            if (copyTableWorks.size() >= getThreads()) {
+                copyTableWorks.remove().join();
+            }
+            if (!backupLoaderManager.getFailures().isEmpty() || !backupWriterManager.getFailures().isEmpty()) {
+                break;
+            }
+            RowSet rowSet = loadTable.getRowSet();
+            RowQueue rowQueue = createRowQueue(rowSet);
+            CopyTableWork copyTableWork = new CopyTableWork(loadTable, rowQueue, backupLoaderManager);
+            executor.execute(copyTableWork);
+            copyTableWorks.add(copyTableWork);
+            getBackupWriter().write(backupWriterManager, writeQueries.get(rowSet), rowQueue);
+        }
+        for (CopyTableWork copyTableWork : copyTableWorks) {
+            copyTableWork.join();
+        }
+        backupWriterManager.writeDataDone();
+        backupLoaderManager.loadDataDone();
+    }
+
+    protected RowQueue createRowQueue(RowSet rowSet) {
+        return new RowQueue(get(rowSet.getChunks(), 0), getQueueSize());
+    }
+
+    protected BackupWriterManager getBackupWriterManager(Map context) {
+        return (BackupWriterManager) context.get(BACKUP_WRITER_MANAGER);
+    }
+
+    public CopyBackupWriter getBackupWriter() {
+        return backupWriter;
+    }
+
+    public void setBackupWriter(CopyBackupWriter backupWriter) {
+        this.backupWriter = backupWriter;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+}
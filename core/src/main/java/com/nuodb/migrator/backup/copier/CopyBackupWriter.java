@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.writer.BackupWriter;
+import com.nuodb.migrator.backup.writer.BackupWriterContext;
+import com.nuodb.migrator.backup.writer.BackupWriterManager;
+import com.nuodb.migrator.backup.writer.WriteQuery;
+import com.nuodb.migrator.backup.writer.WriteTable;
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.spec.MigrationMode.DATA;
+import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * Source side of the copy, which inspects the source database and splits table queries the same way as the backup
+ * writer does, but passes rows of every split to the row queue of the table instead of writing chunks.
+ *
+ * @author Sergey Bushik
+ */
+public class CopyBackupWriter extends BackupWriter {
+
+    public CopyBackupWriter() {
+        setMigrationModes(newHashSet(DATA, SCHEMA));
+    }
+
+    /**
+     * Opens source session, inspects source database and creates in memory backup with a row set per table, so that
+     * it can be handed over to the loader.
+     *
+     * @param context of the copy.
+     * @return backup writer manager to copy tables with.
+     * @throws Exception if source database can't be inspected.
+     */
+    public BackupWriterManager open(Map context) throws Exception {
+        BackupWriterManager backupWriterManager = createBackupWriterManager(null, context);
+        try {
+            BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
+            Collection<WriteQuery> writeQueries = newArrayList();
+            for (WriteQuery writeQuery : createWriteQueries(backupWriterContext)) {
+                if (writeQuery instanceof WriteTable) {
+                    writeQueries.add(writeQuery);
+                } else {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn(format("Query %s skipped, only tables are copied", writeQuery.getRowSet()));
+                    }
+                }
+            }
+            backupWriterContext.setWriteQueries(writeQueries);
+            Backup backup = backupWriterContext.getBackup();
+            for (WriteQuery writeQuery : writeQueries) {
+                backup.addRowSet(createRowSet((WriteTable) writeQuery));
+            }
+            writeSchema(backupWriterManager);
+        } catch (Exception exception) {
+            backupWriterManager.writeFailed();
+            backupWriterManager.close();
+            throw exception;
+        }
+        return backupWriterManager;
+    }
+
+    /**
+     * Row set columns are known upfront for the loader to build insert statements before rows are selected, the
+     * single chunk stands for the row queue of the table.
+     */
+    protected RowSet createRowSet(WriteTable writeTable) {
+        RowSet rowSet = writeTable.getRowSet();
+        rowSet.setName(lowerCase(writeTable.getTable().getQualifiedName(null)));
+        Collection<Column> columns = newArrayList();
+        for (Field field : writeTable.getColumns()) {
+            columns.add(new Column(field.getName(), null));
+        }
+        rowSet.setColumns(columns);
+        Chunk chunk = new Chunk();
+        chunk.setName(rowSet.getName());
+        rowSet.addChunk(chunk);
+        return rowSet;
+    }
+
+    /**
+     * Splits query on the calling thread and submits a copy query work per split to the writer pool.
+     *
+     * @param backupWriterManager to execute query works with.
+     * @param writeQuery          to split.
+     * @param rowQueue            to pass rows to.
+     * @throws Exception if query can't be split.
+     */
+    public void write(BackupWriterManager backupWriterManager, WriteQuery writeQuery,
+                      RowQueue rowQueue) throws Exception {
+        BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
+        ForkJoinPool executor = (ForkJoinPool) backupWriterContext.getExecutorService();
+        Connection connection = backupWriterContext.getSourceSession().getConnection();
+        QuerySplitter querySplitter = writeQuery.getQuerySplitter();
+        try {
+            while (querySplitter.hasNextQuerySplit(connection)) {
+                QuerySplit querySplit = querySplitter.getNextQuerySplit(connection);
+                boolean hasNextQuerySplit = querySplitter.hasNextQuerySplit(connection);
+                rowQueue.addWriter();
+                executor.execute(createWork(writeQuery, querySplit, hasNextQuerySplit,
+                        backupWriterManager, rowQueue));
+            }
+        } catch (Exception exception) {
+            rowQueue.fail(exception);
+            throw exception;
+        } finally {
+            rowQueue.seal();
+        }
+    }
+
+    protected CopyQueryWork createWork(WriteQuery writeQuery, QuerySplit querySplit, boolean hasNextQuerySplit,
+                                       BackupWriterManager backupWriterManager, RowQueue rowQueue) {
+        return new CopyQueryWork(writeQuery, querySplit, hasNextQuerySplit, backupWriterManager, rowQueue);
+    }
+}
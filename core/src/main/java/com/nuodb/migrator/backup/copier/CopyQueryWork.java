@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.writer.BackupWriterManager;
+import com.nuodb.migrator.backup.writer.WriteQuery;
+import com.nuodb.migrator.backup.writer.WriteQueryWork;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+
+/**
+ * Reads a query split from the source and passes rows to the row queue of the target table.
+ *
+ * @author Sergey Bushik
+ */
+public class CopyQueryWork extends WriteQueryWork {
+
+    private final RowQueue rowQueue;
+
+    public CopyQueryWork(WriteQuery writeQuery, QuerySplit querySplit, boolean hasNextQuerySplit,
+                         BackupWriterManager backupWriterManager, RowQueue rowQueue) {
+        super(writeQuery, querySplit, hasNextQuerySplit, backupWriterManager);
+        this.rowQueue = rowQueue;
+    }
+
+    @Override
+    protected Output createOutput() {
+        return new RowQueueOutput(rowQueue);
+    }
+
+    @Override
+    protected void openOutput(Output output, Chunk chunk) throws Exception {
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            super.close();
+        } finally {
+            rowQueue.removeWriter();
+        }
+    }
+
+    public RowQueue getRowQueue() {
+        return rowQueue;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.Value;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Bounded queue of rows handed over from the query works reading source result sets to the table works inserting
+ * into the target. Writers block once the queue is full, so at most capacity rows of a table are held in memory.
+ * Readers receive null once the queue is sealed and every registered writer is removed.
+ *
+ * @author Sergey Bushik
+ */
+public class RowQueue implements RowReader {
+
+    public static final int CAPACITY = 1024;
+    private static final long TIMEOUT = 100;
+    private static final Value[] END = new Value[0];
+
+    private final Chunk chunk;
+    private final BlockingQueue<Value[]> queue;
+    private final AtomicInteger writers = new AtomicInteger();
+    private final AtomicBoolean end = new AtomicBoolean();
+    private final AtomicLong number = new AtomicLong();
+    private volatile boolean sealed;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    public RowQueue(Chunk chunk) {
+        this(chunk, CAPACITY);
+    }
+
+    public RowQueue(Chunk chunk, int capacity) {
+        this.chunk = chunk;
+        this.queue = new ArrayBlockingQueue<Value[]>(capacity);
+    }
+
+    public void addWriter() {
+        writers.incrementAndGet();
+    }
+
+    public void removeWriter() {
+        if (writers.decrementAndGet() == 0 && sealed) {
+            end();
+        }
+    }
+
+    /**
+     * Signals that no more writers will be added.
+     */
+    public void seal() {
+        sealed = true;
+        if (writers.get() == 0) {
+            end();
+        }
+    }
+
+    /**
+     * Fails readers with the cause of writer failure.
+     *
+     * @param failure of the writer.
+     */
+    public void fail(Throwable failure) {
+        this.failure = failure;
+        queue.clear();
+    }
+
+    public void writeValues(Value[] values) {
+        put(values);
+    }
+
+    @Override
+    public Row readRow() {
+        Value[] values;
+        try {
+            while ((values = queue.poll(TIMEOUT, MILLISECONDS)) == null) {
+                checkFailure();
+                if (closed) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InputException("Reading from row queue interrupted", exception);
+        }
+        checkFailure();
+        if (values == END) {
+            // let other readers of the queue see the end too
+            queue.offer(END);
+            return null;
+        }
+        return new Row(chunk, values, number.getAndIncrement());
+    }
+
+    protected void put(Value[] values) {
+        try {
+            while (!queue.offer(values, TIMEOUT, MILLISECONDS)) {
+                if (closed) {
+                    throw new OutputException("Row queue is closed");
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new OutputException("Writing to row queue interrupted", exception);
+        }
+    }
+
+    protected void end() {
+        if (end.compareAndSet(false, true)) {
+            put(END);
+        }
+    }
+
+    protected void checkFailure() {
+        if (failure != null) {
+            throw new InputException("Rows writer failed", failure);
+        }
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+}
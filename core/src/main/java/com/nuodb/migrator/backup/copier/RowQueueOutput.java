@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.format.FormatBase;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.value.Value;
+
+import java.io.OutputStream;
+import java.io.Writer;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.copy;
+
+/**
+ * Output passing rows to the {@link RowQueue} instead of serializing them to a chunk.
+ *
+ * @author Sergey Bushik
+ */
+public class RowQueueOutput extends FormatBase implements Output {
+
+    public static final String FORMAT = "queue";
+
+    private final RowQueue rowQueue;
+
+    public RowQueueOutput(RowQueue rowQueue) {
+        this.rowQueue = rowQueue;
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public void writeStart() {
+    }
+
+    @Override
+    public boolean canWrite() {
+        return true;
+    }
+
+    /**
+     * Copies values as value formats reuse holders across rows, which are consumed here by another thread.
+     *
+     * @param values to pass to the queue.
+     */
+    @Override
+    public void writeValues(Value[] values) {
+        Value[] row = new Value[values.length];
+        for (int index = 0; index < values.length; index++) {
+            row[index] = copy(values[index]);
+        }
+        rowQueue.writeValues(row);
+    }
+
+    @Override
+    public void writeEnd() {
+    }
+
+    @Override
+    public Writer getWriter() {
+        return null;
+    }
+
+    @Override
+    public void setWriter(Writer writer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return null;
+    }
+
+    @Override
+    public void setOutputStream(OutputStream outputStream) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public RowQueue getRowQueue() {
+        return rowQueue;
+    }
+}
@@ -38,6 +38,7 @@ import de.undercouch.bson4jackson.BsonFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.math.BigDecimal;
 import java.util.BitSet;
 import java.util.List;
 
@@ -45,9 +46,9 @@ import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.EMPTY;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
 import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
 
 /**
@@ -109,22 +110,13 @@ public class BsonInput extends InputBase implements BsonFormat {
                 BitSet nulls = isNextToken(VALUE_NULL) ? EMPTY :
                         fromByteArray((byte[]) bsonReader.getEmbeddedObject());
                 while (index < length) {
-                    Object value;
+                    ValueType valueType = valueTypes.get(index);
+                    valueType = valueType != null ? valueType : STRING;
                     if (nulls.get(index)) {
-                        value = null;
+                        values[index] = valueType == BINARY ? BINARY_NULL : STRING_NULL;
                     } else {
                         bsonReader.nextToken();
-                        value = bsonReader.getEmbeddedObject();
-                    }
-                    ValueType valueType = valueTypes.get(index);
-                    valueType = valueType != null ? valueType : STRING;
-                    switch (valueType) {
-                        case BINARY:
-                            values[index] = binary((byte[]) value);
-                            break;
-                        case STRING:
-                            values[index] = string((String) value);
-                            break;
+                        values[index] = readValue(valueType);
                     }
                     index++;
                 }
@@ -136,6 +128,34 @@ public class BsonInput extends InputBase implements BsonFormat {
         return values;
     }
 
+    protected Value readValue(ValueType valueType) throws IOException {
+        Value value;
+        switch (valueType) {
+            case BINARY:
+                value = binary((byte[]) bsonReader.getEmbeddedObject());
+                break;
+            case LONG:
+                value = longValue(bsonReader.getLongValue());
+                break;
+            case TIMESTAMP:
+                value = timestamp(bsonReader.getLongValue());
+                break;
+            case DOUBLE:
+                value = doubleValue(bsonReader.getDoubleValue());
+                break;
+            case BOOLEAN:
+                value = bool(bsonReader.getBooleanValue());
+                break;
+            case DECIMAL:
+                value = decimal(new BigDecimal((String) bsonReader.getEmbeddedObject()));
+                break;
+            default:
+                value = string((String) bsonReader.getEmbeddedObject());
+                break;
+        }
+        return value;
+    }
+
     protected boolean isNextToken(JsonToken... tokens) throws IOException {
         return isToken(bsonReader.nextToken(), tokens);
     }
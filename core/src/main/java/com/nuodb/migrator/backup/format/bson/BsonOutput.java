@@ -115,7 +115,17 @@ public class BsonOutput extends OutputBase implements BsonFormat {
                         case BINARY:
                             bsonWriter.writeBinary(value.asBytes());
                             break;
-                        case STRING:
+                        case LONG:
+                        case TIMESTAMP:
+                            bsonWriter.writeNumber(value.asLong());
+                            break;
+                        case DOUBLE:
+                            bsonWriter.writeNumber(value.asDouble());
+                            break;
+                        case BOOLEAN:
+                            bsonWriter.writeBoolean(value.asBoolean());
+                            break;
+                        default:
                             bsonWriter.writeString(value.asString());
                             break;
                     }
@@ -0,0 +1,462 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.*;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
+import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toByteArray;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.TIMESTAMP;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Math.max;
+
+/**
+ * Values of a column in a row group. Integral, floating point and boolean values are kept in primitive arrays, which
+ * are reused for every row group of a chunk, strings, decimals and binaries are kept as objects.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnVector {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ValueType valueType;
+    private final BitSet nulls = new BitSet();
+    private long[] longs;
+    private double[] doubles;
+    private Object[] objects;
+    private int size;
+
+    public ColumnVector(ValueType valueType, int capacity) {
+        this.valueType = valueType != null ? valueType : STRING;
+        ensureCapacity(capacity);
+    }
+
+    protected void ensureCapacity(int capacity) {
+        switch (valueType) {
+            case LONG:
+            case TIMESTAMP:
+            case BOOLEAN:
+                if (longs == null) {
+                    longs = new long[capacity];
+                } else if (longs.length < capacity) {
+                    longs = Arrays.copyOf(longs, max(capacity, longs.length * 2));
+                }
+                break;
+            case DOUBLE:
+                if (doubles == null) {
+                    doubles = new double[capacity];
+                } else if (doubles.length < capacity) {
+                    doubles = Arrays.copyOf(doubles, max(capacity, doubles.length * 2));
+                }
+                break;
+            default:
+                if (objects == null) {
+                    objects = new Object[capacity];
+                } else if (objects.length < capacity) {
+                    objects = Arrays.copyOf(objects, max(capacity, objects.length * 2));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Copies content of the value to the vector, as the value can be a holder refilled for the next row
+     *
+     * @param value to add
+     */
+    public void add(Value value) {
+        int row = size++;
+        ensureCapacity(size);
+        if (value == null || value.isNull()) {
+            nulls.set(row);
+            return;
+        }
+        switch (valueType) {
+            case LONG:
+                longs[row] = value.asLong();
+                break;
+            case TIMESTAMP:
+                longs[row] = value.getValueType() == TIMESTAMP ? value.asLong() : toMicros(value.asTimestamp());
+                break;
+            case BOOLEAN:
+                longs[row] = value.asBoolean() ? 1 : 0;
+                break;
+            case DOUBLE:
+                doubles[row] = value.asDouble();
+                break;
+            case BINARY:
+                objects[row] = value.asBytes();
+                break;
+            default:
+                objects[row] = value.asString();
+                break;
+        }
+    }
+
+    public Value getValue(int row) {
+        if (nulls.get(row)) {
+            return valueType == BINARY ? BINARY_NULL : STRING_NULL;
+        }
+        switch (valueType) {
+            case LONG:
+                return longValue(longs[row]);
+            case TIMESTAMP:
+                return timestamp(longs[row]);
+            case BOOLEAN:
+                return bool(longs[row] != 0);
+            case DOUBLE:
+                return doubleValue(doubles[row]);
+            case DECIMAL:
+                return decimal(new BigDecimal((String) objects[row]));
+            case BINARY:
+                return binary((byte[]) objects[row]);
+            default:
+                return string((String) objects[row]);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    public void clear() {
+        if (objects != null) {
+            Arrays.fill(objects, 0, size, null);
+        }
+        nulls.clear();
+        size = 0;
+    }
+
+    public void write(DataOutput output) throws IOException {
+        byte[] bytes = toByteArray(nulls);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+        switch (valueType) {
+            case LONG:
+            case TIMESTAMP:
+                if (isRunLength()) {
+                    output.writeByte(RLE);
+                    writeRunLength(output);
+                } else {
+                    output.writeByte(DELTA);
+                    writeDelta(output);
+                }
+                break;
+            case BOOLEAN:
+                if (isRunLength()) {
+                    output.writeByte(RLE);
+                    writeRunLength(output);
+                } else {
+                    output.writeByte(PLAIN);
+                    writeBits(output);
+                }
+                break;
+            case DOUBLE:
+                output.writeByte(PLAIN);
+                for (int row = 0; row < size; row++) {
+                    if (!nulls.get(row)) {
+                        output.writeLong(doubleToRawLongBits(doubles[row]));
+                    }
+                }
+                break;
+            case BINARY:
+                output.writeByte(PLAIN);
+                for (int row = 0; row < size; row++) {
+                    if (!nulls.get(row)) {
+                        writeBytes(output, (byte[]) objects[row]);
+                    }
+                }
+                break;
+            default:
+                Map<String, Integer> dictionary = createDictionary();
+                if (dictionary != null) {
+                    output.writeByte(DICTIONARY);
+                    writeDictionary(output, dictionary);
+                } else {
+                    output.writeByte(PLAIN);
+                    for (int row = 0; row < size; row++) {
+                        if (!nulls.get(row)) {
+                            writeBytes(output, ((String) objects[row]).getBytes(UTF_8));
+                        }
+                    }
+                }
+                break;
+        }
+    }
+
+    public void read(DataInput input, int rows) throws IOException {
+        clear();
+        ensureCapacity(rows);
+        byte[] bytes = new byte[readVarInt(input)];
+        input.readFully(bytes);
+        nulls.or(fromByteArray(bytes));
+        size = rows;
+        byte encoding = input.readByte();
+        switch (encoding) {
+            case RLE:
+                readRunLength(input);
+                break;
+            case DELTA:
+                readDelta(input);
+                break;
+            case DICTIONARY:
+                readDictionary(input);
+                break;
+            case PLAIN:
+                readPlain(input);
+                break;
+            default:
+                throw new IOException("Unknown column encoding " + encoding);
+        }
+    }
+
+    protected boolean isRunLength() {
+        int values = 0;
+        int runs = 0;
+        long last = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                if (values++ == 0 || longs[row] != last) {
+                    runs++;
+                    last = longs[row];
+                }
+            }
+        }
+        return runs * 2 <= values;
+    }
+
+    protected void writeRunLength(DataOutput output) throws IOException {
+        long value = 0;
+        int run = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                if (run > 0 && longs[row] == value) {
+                    run++;
+                } else {
+                    if (run > 0) {
+                        writeVarLong(output, value);
+                        writeVarInt(output, run);
+                    }
+                    value = longs[row];
+                    run = 1;
+                }
+            }
+        }
+        if (run > 0) {
+            writeVarLong(output, value);
+            writeVarInt(output, run);
+        }
+    }
+
+    protected void readRunLength(DataInput input) throws IOException {
+        long value = 0;
+        int run = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                if (run == 0) {
+                    value = readVarLong(input);
+                    run = readVarInt(input);
+                }
+                longs[row] = value;
+                run--;
+            }
+        }
+    }
+
+    protected void writeDelta(DataOutput output) throws IOException {
+        long last = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                writeVarLong(output, longs[row] - last);
+                last = longs[row];
+            }
+        }
+    }
+
+    protected void readDelta(DataInput input) throws IOException {
+        long last = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                longs[row] = last += readVarLong(input);
+            }
+        }
+    }
+
+    protected void writeBits(DataOutput output) throws IOException {
+        BitSet bits = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            bits.set(row, !nulls.get(row) && longs[row] != 0);
+        }
+        byte[] bytes = toByteArray(bits);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Builds dictionary of distinct strings if they repeat, so that at least half of the values are replaced with
+     * indexes
+     *
+     * @return dictionary mapping strings to their indexes or null if plain encoding should be used
+     */
+    protected Map<String, Integer> createDictionary() {
+        Map<String, Integer> dictionary = newHashMap();
+        int values = size - nulls.cardinality();
+        int limit = values / 2;
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                String value = (String) objects[row];
+                if (!dictionary.containsKey(value)) {
+                    if (dictionary.size() >= limit) {
+                        return null;
+                    }
+                    dictionary.put(value, dictionary.size());
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    protected void writeDictionary(DataOutput output, Map<String, Integer> dictionary) throws IOException {
+        String[] entries = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            entries[entry.getValue()] = entry.getKey();
+        }
+        writeVarInt(output, entries.length);
+        for (String entry : entries) {
+            writeBytes(output, entry.getBytes(UTF_8));
+        }
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                writeVarInt(output, dictionary.get(objects[row]));
+            }
+        }
+    }
+
+    protected void readDictionary(DataInput input) throws IOException {
+        String[] entries = new String[readVarInt(input)];
+        for (int index = 0; index < entries.length; index++) {
+            entries[index] = new String(readBytes(input), UTF_8);
+        }
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                objects[row] = entries[readVarInt(input)];
+            }
+        }
+    }
+
+    protected void readPlain(DataInput input) throws IOException {
+        BitSet bits = null;
+        if (valueType == ValueType.BOOLEAN) {
+            byte[] bytes = new byte[readVarInt(input)];
+            input.readFully(bytes);
+            bits = fromByteArray(bytes);
+        }
+        for (int row = 0; row < size; row++) {
+            if (!nulls.get(row)) {
+                switch (valueType) {
+                    case BOOLEAN:
+                        longs[row] = bits.get(row) ? 1 : 0;
+                        break;
+                    case DOUBLE:
+                        doubles[row] = longBitsToDouble(input.readLong());
+                        break;
+                    case BINARY:
+                        objects[row] = readBytes(input);
+                        break;
+                    default:
+                        objects[row] = new String(readBytes(input), UTF_8);
+                        break;
+                }
+            }
+        }
+    }
+
+    protected static void writeBytes(DataOutput output, byte[] bytes) throws IOException {
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    protected static byte[] readBytes(DataInput input) throws IOException {
+        byte[] bytes = new byte[readVarInt(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    protected static void writeVarInt(DataOutput output, int value) throws IOException {
+        writeVarLong(output, value);
+    }
+
+    protected static int readVarInt(DataInput input) throws IOException {
+        return (int) readVarLong(input);
+    }
+
+    /**
+     * Writes zig-zag encoded value in groups of 7 bits, so that small positive & negative numbers take a single byte
+     */
+    protected static void writeVarLong(DataOutput output, long value) throws IOException {
+        long bits = (value << 1) ^ (value >> 63);
+        while ((bits & ~0x7FL) != 0) {
+            output.writeByte((int) ((bits & 0x7F) | 0x80));
+            bits >>>= 7;
+        }
+        output.writeByte((int) bits);
+    }
+
+    protected static long readVarLong(DataInput input) throws IOException {
+        long bits = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = input.readByte();
+            bits |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+}
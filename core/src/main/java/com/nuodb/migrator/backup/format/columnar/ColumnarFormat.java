@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+/**
+ * Binary format storing rows in row groups, where each column of a row group is written as a separate block with a
+ * null bitmap followed by the non null values encoded in a way chosen from the value type of the column and the
+ * values themselves.
+ *
+ * @author Sergey Bushik
+ */
+public interface ColumnarFormat {
+
+    final String TYPE = "columnar";
+    /**
+     * Attribute name to set number of rows in a row group, default is 8192
+     */
+    final String ATTRIBUTE_ROW_GROUP_SIZE = "row.group.size";
+
+    final int ROW_GROUP_SIZE = 8192;
+
+    final int MAGIC = 0x4E434F4C;
+
+    final byte VERSION = 1;
+
+    final byte ROW_GROUP = 1;
+
+    final byte END = 0;
+    /**
+     * Values are written one after another, strings & binaries are prefixed with their lengths
+     */
+    final byte PLAIN = 0;
+    /**
+     * First integral value is written followed by differences between adjacent values as variable length integers
+     */
+    final byte DELTA = 1;
+    /**
+     * Integral values are written as runs of a value and a number of its repetitions
+     */
+    final byte RLE = 2;
+    /**
+     * Distinct strings are written once and values are written as variable length indexes in the dictionary
+     */
+    final byte DICTIONARY = 3;
+}
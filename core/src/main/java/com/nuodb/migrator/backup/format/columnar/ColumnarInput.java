@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.InputBase;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Decodes a whole row group into column vectors at once and then hands out its rows one by one.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarInput extends InputBase implements ColumnarFormat {
+
+    private DataInputStream dataInput;
+    private ColumnVector[] columnVectors;
+    private int rows;
+    private int row;
+    private boolean end;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(InputStream inputStream) {
+        dataInput = new DataInputStream(wrapInputStream(inputStream));
+    }
+
+    @Override
+    protected void init(Reader reader) {
+        throw new InputException("Columnar format requires input stream");
+    }
+
+    @Override
+    public void readStart() {
+        List<ValueType> valueTypes = getValueTypes();
+        try {
+            if (dataInput.readInt() != MAGIC) {
+                throw new InputException("Input is not in columnar format");
+            }
+            byte version = dataInput.readByte();
+            if (version != VERSION) {
+                throw new InputException(format("Columnar format version %d is not supported", version));
+            }
+            int columns = dataInput.readInt();
+            if (columns != valueTypes.size()) {
+                throw new InputException(format("Row set has %d columns, while input has %d",
+                        valueTypes.size(), columns));
+            }
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+        columnVectors = new ColumnVector[valueTypes.size()];
+        for (int index = 0; index < columnVectors.length; index++) {
+            columnVectors[index] = new ColumnVector(valueTypes.get(index), ROW_GROUP_SIZE);
+        }
+    }
+
+    @Override
+    public Value[] readValues() {
+        if (row == rows && !readRowGroup()) {
+            return null;
+        }
+        Value[] values = new Value[columnVectors.length];
+        for (int index = 0; index < columnVectors.length; index++) {
+            values[index] = columnVectors[index].getValue(row);
+        }
+        row++;
+        return values;
+    }
+
+    protected boolean readRowGroup() {
+        if (end) {
+            return false;
+        }
+        try {
+            if (dataInput.readByte() != ROW_GROUP) {
+                end = true;
+                return false;
+            }
+            rows = dataInput.readInt();
+            row = 0;
+            for (ColumnVector columnVector : columnVectors) {
+                columnVector.read(dataInput, rows);
+            }
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+        return rows > 0 || readRowGroup();
+    }
+
+    @Override
+    public void readEnd() {
+    }
+
+    @Override
+    public void close() {
+        if (dataInput != null) {
+            try {
+                dataInput.close();
+            } catch (IOException exception) {
+                throw new InputException(exception);
+            }
+            dataInput = null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.OutputBase;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.Value;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collection;
+
+import static java.lang.Integer.parseInt;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Buffers rows into column vectors and writes them out column by column once a row group is full.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarOutput extends OutputBase implements ColumnarFormat {
+
+    private DataOutputStream dataOutput;
+    private ColumnVector[] columnVectors;
+    private int rowGroupSize;
+    private int rows;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(OutputStream outputStream) {
+        dataOutput = new DataOutputStream(wrapOutputStream(outputStream));
+    }
+
+    @Override
+    protected void init(Writer writer) {
+        throw new OutputException("Columnar format requires output stream");
+    }
+
+    public int getRowGroupSize() {
+        String rowGroupSize = (String) getAttribute(ATTRIBUTE_ROW_GROUP_SIZE);
+        return isEmpty(rowGroupSize) ? ROW_GROUP_SIZE : parseInt(rowGroupSize);
+    }
+
+    @Override
+    public void writeStart() {
+        Collection<Column> columns = getRowSet().getColumns();
+        rowGroupSize = getRowGroupSize();
+        columnVectors = new ColumnVector[columns.size()];
+        int index = 0;
+        for (Column column : columns) {
+            columnVectors[index++] = new ColumnVector(column.getValueType(), rowGroupSize);
+        }
+        try {
+            dataOutput.writeInt(MAGIC);
+            dataOutput.writeByte(VERSION);
+            dataOutput.writeInt(columnVectors.length);
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void writeValues(Value[] values) {
+        for (int index = 0; index < columnVectors.length; index++) {
+            columnVectors[index].add(values[index]);
+        }
+        if (++rows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    protected void writeRowGroup() {
+        try {
+            dataOutput.writeByte(ROW_GROUP);
+            dataOutput.writeInt(rows);
+            for (ColumnVector columnVector : columnVectors) {
+                columnVector.write(dataOutput);
+                columnVector.clear();
+            }
+            rows = 0;
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void writeEnd() {
+        if (rows > 0) {
+            writeRowGroup();
+        }
+        try {
+            dataOutput.writeByte(END);
+            dataOutput.flush();
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dataOutput != null) {
+            try {
+                dataOutput.close();
+            } catch (IOException exception) {
+                throw new OutputException(exception);
+            }
+            dataOutput = null;
+        }
+    }
+}
@@ -117,7 +117,7 @@ public class CsvInput extends InputBase implements CsvFormat {
                 case BINARY:
                     values[index] = binary(BASE64.decode(value));
                     break;
-                case STRING:
+                default:
                     values[index] = string(value);
                     break;
             }
@@ -99,7 +99,7 @@ public class CsvOutput extends OutputBase implements CsvFormat {
                     case BINARY:
                         value = BASE64.encode(values[i].asBytes());
                         break;
-                    case STRING:
+                    default:
                         value = values[i].asString();
                         break;
                 }
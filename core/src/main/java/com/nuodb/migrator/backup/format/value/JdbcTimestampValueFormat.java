@@ -38,7 +38,10 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.TIMESTAMP;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.timestampHolder;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -48,6 +51,20 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
     private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
+    /**
+     * Local epoch microseconds hold up to 6 fractional digits, more precise timestamps are kept as strings
+     */
+    private static final int MAX_SCALE = 6;
+
+    @Override
+    protected Value doGetValue(JdbcValueAccess<Timestamp> access, Map<String, Object> options,
+                               Value value) throws SQLException {
+        if (getValueType(access.getField()) == TIMESTAMP) {
+            return timestampHolder(value).set(access.getValue(options));
+        } else {
+            return doGetValue(access, options);
+        }
+    }
 
     @Override
     protected Value doGetValue(JdbcValueAccess<Timestamp> access,
@@ -59,7 +76,9 @@ public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Timestamp> access,
                               Map<String, Object> options) throws SQLException {
-        if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value,
+        if (value.getValueType() == TIMESTAMP) {
+            access.setValue(value.asTimestamp(), options);
+        } else if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value,
                 access, options) ||
                 doSetValueAsYear(value, access, options))) {
             throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", value));
@@ -101,6 +120,7 @@ public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
     @Override
     public ValueType getValueType(Field field) {
-        return ValueType.STRING;
+        Integer scale = field.getScale();
+        return scale != null && scale > MAX_SCALE ? STRING : TIMESTAMP;
     }
 }
\ No newline at end of file
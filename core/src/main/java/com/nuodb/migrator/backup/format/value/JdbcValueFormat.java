@@ -27,31 +27,119 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import com.google.common.primitives.Shorts;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.sql.rowset.serial.SerialRef;
 import java.io.*;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URL;
 import java.sql.Ref;
 import java.sql.RowId;
 import java.sql.Types;
 import java.util.Map;
 
-import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
-import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.google.common.primitives.Ints.checkedCast;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
 import static java.lang.String.format;
 import static org.apache.commons.io.IOUtils.closeQuietly;
-import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * @author Sergey Bushik
  */
 public class JdbcValueFormat extends ValueFormatBase<Object> {
 
+    /**
+     * Reads integral, double, decimal and boolean columns into typed holders, refilling the holder passed for the
+     * previous row, other columns are read to string or binary values. Integral values out of long range, i.e.
+     * unsigned big integers, are read to decimal values.
+     */
+    @Override
+    protected Value doGetValue(JdbcValueAccess<Object> access, Map<String, Object> options,
+                               Value value) throws Exception {
+        Object result;
+        switch (access.getField().getTypeCode()) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                result = access.getValue(options);
+                if (result != null && !(result instanceof Number) && !(result instanceof Boolean)) {
+                    result = new BigDecimal(result.toString());
+                }
+                if (result instanceof Number && !isLong((Number) result)) {
+                    return decimalHolder(value).set(result instanceof BigDecimal ?
+                            (BigDecimal) result : new BigDecimal(result.toString()));
+                }
+                LongValue longValue = longHolder(value);
+                if (result == null) {
+                    longValue.setNull();
+                } else if (result instanceof Number) {
+                    longValue.set(((Number) result).longValue());
+                } else {
+                    longValue.set((Boolean) result ? 1 : 0);
+                }
+                return longValue;
+            case Types.DOUBLE:
+                result = access.getValue(options);
+                DoubleValue doubleValue = doubleHolder(value);
+                if (result == null) {
+                    doubleValue.setNull();
+                } else if (result instanceof Number) {
+                    doubleValue.set(((Number) result).doubleValue());
+                } else {
+                    doubleValue.set(Double.parseDouble(result.toString()));
+                }
+                return doubleValue;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                result = access.getValue(options);
+                return decimalHolder(value).set(result == null || result instanceof BigDecimal ?
+                        (BigDecimal) result : new BigDecimal(result.toString()));
+            case Types.BOOLEAN:
+                result = access.getValue(options);
+                BooleanValue booleanValue = booleanHolder(value);
+                if (result == null) {
+                    booleanValue.setNull();
+                } else {
+                    booleanValue.set(result instanceof Boolean ? (Boolean) result :
+                            Boolean.parseBoolean(result.toString()));
+                }
+                return booleanValue;
+            default:
+                return doGetValue(access, options);
+        }
+    }
+
+    /**
+     * Checks if the number is integral and fits long, so that it's read without loss to a long value
+     *
+     * @param number to check
+     * @return true if the number can be held by a long value
+     */
+    protected boolean isLong(Number number) {
+        if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+            return true;
+        }
+        BigInteger integer;
+        if (number instanceof BigInteger) {
+            integer = (BigInteger) number;
+        } else if (number instanceof BigDecimal) {
+            try {
+                integer = ((BigDecimal) number).toBigIntegerExact();
+            } catch (ArithmeticException exception) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        return integer.bitLength() < 64;
+    }
+
     @Override
     protected Value doGetValue(JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
         Object result;
@@ -124,34 +212,38 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
         Field field = access.getField();
-        final String result = value.asString();
+        if (value instanceof LobValue && isLob(field)) {
+            setLob((LobValue) value, access, options);
+            return;
+        }
+        // typed values bound to typed columns skip string conversion
+        final String result = isTyped(value) && isTyped(getValueType(field)) ? null : value.asString();
         switch (field.getTypeCode()) {
             case Types.BIT:
             case Types.BOOLEAN:
-                access.setValue(!isEmpty(result) ? Boolean.parseBoolean(result) : null,
-                        options);
+                access.setValue(!isEmpty(value, result) ? value.asBoolean() : null, options);
                 break;
             case Types.TINYINT:
             case Types.SMALLINT:
-                access.setValue(!isEmpty(result) ? Short.parseShort(result) : null, options);
+                access.setValue(!isEmpty(value, result) ? Shorts.checkedCast(value.asLong()) : null, options);
                 break;
             case Types.INTEGER:
-                access.setValue(!isEmpty(result) ? Integer.parseInt(result) : null,
-                        options);
+                access.setValue(!isEmpty(value, result) ? checkedCast(value.asLong()) : null, options);
                 break;
             case Types.BIGINT:
-                access.setValue(!isEmpty(result) ? Long.parseLong(result) : null, options);
+                access.setValue(!isEmpty(value, result) ? value.asLong() : null, options);
                 break;
             case Types.FLOAT:
             case Types.REAL:
-                access.setValue(!isEmpty(result) ? Float.parseFloat(result) : null, options);
+                access.setValue(!isEmpty(value, result) ? (isTyped(value) ?
+                        (float) value.asDouble() : Float.parseFloat(result)) : null, options);
                 break;
             case Types.DOUBLE:
-                access.setValue(!isEmpty(result) ? Double.parseDouble(result) : null, options);
+                access.setValue(!isEmpty(value, result) ? value.asDouble() : null, options);
                 break;
             case Types.NUMERIC:
             case Types.DECIMAL:
-                access.setValue(!isEmpty(result) ? new BigDecimal(result) : null, options);
+                access.setValue(!isEmpty(value, result) ? value.asDecimal() : null, options);
                 break;
             case Types.CHAR:
             case Types.VARCHAR:
@@ -164,7 +256,7 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.BINARY:
             case Types.VARBINARY:
             case Types.LONGVARBINARY:
-                access.setValue(!isEmpty(result) ? result : null, options);
+                access.setValue(!StringUtils.isEmpty(result) ? result : null, options);
                 break;
             case Types.OTHER:
             case Types.JAVA_OBJECT:
@@ -181,14 +273,14 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
                 access.setValue(result, options);
                 break;
             case Types.REF:
-                access.setValue(!isEmpty(result) ? read(value.asBytes()) : null,
+                access.setValue(!StringUtils.isEmpty(result) ? read(value.asBytes()) : null,
                         options);
                 break;
             case Types.DATALINK:
-                access.setValue(!isEmpty(result) ? new URL(result) : null, options);
+                access.setValue(!StringUtils.isEmpty(result) ? new URL(result) : null, options);
                 break;
             case Types.SQLXML:
-                access.setValue(!isEmpty(result) ? result : null, options);
+                access.setValue(!StringUtils.isEmpty(result) ? result : null, options);
                 break;
             default:
                 throw new ValueFormatException(format("Unsupported data type %s, type code %d on %s column",
@@ -196,6 +288,47 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         }
     }
 
+    protected boolean isLob(Field field) {
+        switch (field.getTypeCode()) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Streams large object from its file to the target, binary stream is bound to BLOB and character stream is bound
+     * to CLOB and NCLOB columns
+     */
+    protected void setLob(LobValue value, JdbcValueAccess<Object> access, Map<String, Object> options)
+            throws Exception {
+        Closeable lob = access.getField().getTypeCode() == Types.BLOB ?
+                value.openInputStream() : value.openReader();
+        try {
+            access.setValue(lob, options);
+        } finally {
+            closeQuietly(lob);
+        }
+    }
+
+    /**
+     * Typed values are bound as is, string values are parsed, i.e. when loaded from a text format.
+     */
+    protected boolean isTyped(Value value) {
+        return isTyped(value.getValueType());
+    }
+
+    protected boolean isTyped(ValueType valueType) {
+        return valueType != STRING && valueType != BINARY;
+    }
+
+    protected boolean isEmpty(Value value, String result) {
+        return isTyped(value) ? value.isNull() : StringUtils.isEmpty(result);
+    }
+
     protected byte[] write(Object object) throws IOException {
         if (object == null) {
             return null;
@@ -243,6 +376,22 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.ROWID:
                 valueType = BINARY;
                 break;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                valueType = LONG;
+                break;
+            case Types.DOUBLE:
+                valueType = DOUBLE;
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                valueType = DECIMAL;
+                break;
+            case Types.BOOLEAN:
+                valueType = BOOLEAN;
+                break;
             default:
                 valueType = STRING;
                 break;
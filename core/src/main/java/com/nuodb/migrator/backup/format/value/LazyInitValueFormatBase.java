@@ -39,9 +39,9 @@ public abstract class LazyInitValueFormatBase<T> extends ValueFormatBase<T> {
     private boolean lazyInit;
 
     @Override
-    public Value getValue(JdbcValueAccess<T> access, Map<String, Object> options) {
+    public Value getValue(JdbcValueAccess<T> access, Map<String, Object> options, Value value) {
         lazyInit();
-        return super.getValue(access, options);
+        return super.getValue(access, options, value);
     }
 
     @Override
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Lob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.apache.commons.io.IOUtils.toByteArray;
+
+/**
+ * Refers to a large object streamed to a separate file of the backup. Binary large objects are stored as is,
+ * character large objects are stored in UTF-8. Content is read from the file on demand, so that it can be streamed
+ * to the target without loading it to memory.
+ *
+ * @author Sergey Bushik
+ */
+public class LobValue extends ValueUtils.ValueBase {
+
+    public static final Charset ENCODING = Charset.forName("UTF-8");
+
+    private final Lob lob;
+    private final ValueType valueType;
+    private final transient BackupOps backupOps;
+
+    public LobValue(Lob lob, ValueType valueType) {
+        this(lob, valueType, null);
+    }
+
+    public LobValue(Lob lob, ValueType valueType, BackupOps backupOps) {
+        this.lob = lob;
+        this.valueType = valueType;
+        this.backupOps = backupOps;
+    }
+
+    public Lob getLob() {
+        return lob;
+    }
+
+    public InputStream openInputStream() {
+        return backupOps.openInput(lob.getName(), lob.getCompression());
+    }
+
+    public Reader openReader() {
+        return new InputStreamReader(openInputStream(), ENCODING);
+    }
+
+    @Override
+    public byte[] asBytes() {
+        InputStream input = openInputStream();
+        try {
+            return toByteArray(input);
+        } catch (IOException exception) {
+            throw new ValueFormatException(exception);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    @Override
+    public String asString() {
+        return new String(asBytes(), ENCODING);
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return valueType != null ? valueType : BINARY;
+    }
+
+    @Override
+    public String toString() {
+        return "Lob{" + lob.getName() + '}';
+    }
+}
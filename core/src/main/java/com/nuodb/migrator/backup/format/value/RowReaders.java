@@ -29,13 +29,20 @@ package com.nuodb.migrator.backup.format.value;
 
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.Lob;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.Input;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
@@ -46,7 +53,46 @@ public class RowReaders {
     public static RowReader newSequentialRowReader(RowSet rowSet, BackupOps backupOps,
                                                    FormatFactory formatFactory,
                                                    Map<String, Object> formatAttributes) {
-        return new SequentialRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+        return newSequentialRowReader(rowSet, rowSet.getChunks(), backupOps, formatFactory, formatAttributes);
+    }
+
+    /**
+     * Creates row reader for the given chunks of the row set only, e.g. for chunks not yet loaded by a resumed load.
+     */
+    public static RowReader newSequentialRowReader(RowSet rowSet, Collection<Chunk> chunks, BackupOps backupOps,
+                                                   FormatFactory formatFactory,
+                                                   Map<String, Object> formatAttributes) {
+        return new SequentialRowReader(rowSet, chunks, backupOps, formatFactory, formatAttributes);
+    }
+
+    /**
+     * Creates row readers sharing a single chunk cursor. Each reader claims the next unread chunk of the row set and
+     * decodes it on its own input, so that the readers can be used from different threads without synchronization.
+     *
+     * @param partitions number of row readers to create, one per thread
+     * @return list of row readers, each to be used by a single thread
+     */
+    public static List<RowReader> newPartitionedRowReaders(RowSet rowSet, BackupOps backupOps,
+                                                           FormatFactory formatFactory,
+                                                           Map<String, Object> formatAttributes,
+                                                           int partitions) {
+        return newPartitionedRowReaders(rowSet, rowSet.getChunks(), backupOps, formatFactory, formatAttributes,
+                partitions);
+    }
+
+    public static List<RowReader> newPartitionedRowReaders(RowSet rowSet, Collection<Chunk> rowSetChunks,
+                                                           BackupOps backupOps,
+                                                           FormatFactory formatFactory,
+                                                           Map<String, Object> formatAttributes,
+                                                           int partitions) {
+        List<Chunk> chunks = newArrayList(rowSetChunks);
+        AtomicInteger cursor = new AtomicInteger();
+        List<RowReader> rowReaders = newArrayList();
+        for (int partition = 0; partition < partitions; partition++) {
+            rowReaders.add(new PartitionedRowReader(rowSet, backupOps, formatFactory, formatAttributes,
+                    chunks, cursor));
+        }
+        return rowReaders;
     }
 
     public static RowReader newSynchronizedRowReader(RowReader rowReader) {
@@ -60,6 +106,7 @@ public class RowReaders {
     static class SequentialRowReader implements RowReader {
 
         private final RowSet rowSet;
+        private final Collection<Chunk> rowSetChunks;
         private final BackupOps backupOps;
         private final FormatFactory formatFactory;
         private final Map<String, Object> formatAttributes;
@@ -70,10 +117,11 @@ public class RowReaders {
         private Row row;
         private volatile long number;
 
-        SequentialRowReader(RowSet rowSet, BackupOps backupOps,
+        SequentialRowReader(RowSet rowSet, Collection<Chunk> rowSetChunks, BackupOps backupOps,
                             FormatFactory formatFactory,
                             Map<String, Object> formatAttributes) {
             this.rowSet = rowSet;
+            this.rowSetChunks = rowSetChunks;
             this.backupOps = backupOps;
             this.formatFactory = formatFactory;
             this.formatAttributes = formatAttributes;
@@ -81,9 +129,11 @@ public class RowReaders {
 
         @Override
         public Row readRow() {
-            initChunk();
-            initInput();
-            initRowValues();
+            do {
+                initChunk();
+                initInput();
+                initRowValues();
+            } while (row == null && chunk == null && hasNextChunk());
             return row;
         }
 
@@ -96,18 +146,31 @@ public class RowReaders {
         }
 
         protected void initChunk() {
-            if (chunks == null) {
-                chunks = rowSet.getChunks().iterator();
+            if (chunk == null) {
+                chunk = nextChunk();
             }
-            if (chunks.hasNext() && chunk == null) {
-                chunk = chunks.next();
+        }
+
+        protected boolean hasNextChunk() {
+            return getChunks().hasNext();
+        }
+
+        protected Chunk nextChunk() {
+            Iterator<Chunk> chunks = getChunks();
+            return chunks.hasNext() ? chunks.next() : null;
+        }
+
+        private Iterator<Chunk> getChunks() {
+            if (chunks == null) {
+                chunks = rowSetChunks.iterator();
             }
+            return chunks;
         }
 
         protected void initInput() {
             if (chunk != null && input == null) {
                 input = formatFactory.createInput(rowSet.getBackup().getFormat(), formatAttributes);
-                input.setInputStream(backupOps.openInput(chunk.getName()));
+                input.setInputStream(backupOps.openInput(chunk.getName(), chunk.getCompression()));
                 input.setRowSet(rowSet);
                 input.init();
                 input.readStart();
@@ -129,8 +192,47 @@ public class RowReaders {
                     }
                 }
             }
+            if (values != null) {
+                initLobValues(values);
+            }
             row = values != null ? new Row(chunk, values, number++) : null;
         }
+
+        /**
+         * Replaces values of the large objects streamed to separate files with the values referring to the files
+         */
+        protected void initLobValues(Value[] values) {
+            for (Lob lob : chunk.getLobs(number)) {
+                Column column = get(rowSet.getColumns(), lob.getColumn());
+                values[lob.getColumn()] = new LobValue(lob, column.getValueType(), backupOps);
+            }
+        }
+    }
+
+    static class PartitionedRowReader extends SequentialRowReader {
+
+        private final List<Chunk> chunks;
+        private final AtomicInteger cursor;
+
+        PartitionedRowReader(RowSet rowSet, BackupOps backupOps,
+                             FormatFactory formatFactory,
+                             Map<String, Object> formatAttributes,
+                             List<Chunk> chunks, AtomicInteger cursor) {
+            super(rowSet, chunks, backupOps, formatFactory, formatAttributes);
+            this.chunks = chunks;
+            this.cursor = cursor;
+        }
+
+        @Override
+        protected boolean hasNextChunk() {
+            return cursor.get() < chunks.size();
+        }
+
+        @Override
+        protected Chunk nextChunk() {
+            int index = cursor.getAndIncrement();
+            return index < chunks.size() ? chunks.get(index) : null;
+        }
     }
 
     static class SynchronizedRowReader implements RowReader {
@@ -28,6 +28,8 @@
 package com.nuodb.migrator.backup.format.value;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 
 /**
  * @author Sergey Bushik
@@ -40,5 +42,15 @@ public interface Value extends Serializable {
 
     byte[] asBytes();
 
+    long asLong();
+
+    double asDouble();
+
+    BigDecimal asDecimal();
+
+    boolean asBoolean();
+
+    Timestamp asTimestamp();
+
     ValueType getValueType();
 }
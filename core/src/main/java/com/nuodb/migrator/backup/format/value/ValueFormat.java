@@ -39,6 +39,18 @@ public interface ValueFormat<T> {
 
     Value getValue(JdbcValueAccess<T> access, Map<String, Object> options) throws ValueFormatException;
 
+    /**
+     * Gets column value refilling the value returned for the previous row, if its type allows, instead of allocating
+     * a new one.
+     *
+     * @param access  column value access.
+     * @param options access options.
+     * @param value   value returned for the same column for the previous row or null.
+     * @return column value, which is either the refilled value or a new one.
+     * @throws ValueFormatException if value can't be read.
+     */
+    Value getValue(JdbcValueAccess<T> access, Map<String, Object> options, Value value) throws ValueFormatException;
+
     void setValue(Value value, JdbcValueAccess<T> access, Map<String, Object> options) throws ValueFormatException;
 
     ValueType getValueType(Field field);
@@ -46,8 +46,13 @@ public abstract class ValueFormatBase<T> implements ValueFormat<T> {
 
     @Override
     public Value getValue(JdbcValueAccess<T> access, Map<String, Object> options) {
+        return getValue(access, options, null);
+    }
+
+    @Override
+    public Value getValue(JdbcValueAccess<T> access, Map<String, Object> options, Value value) {
         try {
-            return doGetValue(access, options);
+            return doGetValue(access, options, value);
         } catch (ValueFormatException exception) {
             throw exception;
         } catch (Throwable cause) {
@@ -55,6 +60,11 @@ public abstract class ValueFormatBase<T> implements ValueFormat<T> {
         }
     }
 
+    protected Value doGetValue(JdbcValueAccess<T> access, Map<String, Object> options,
+                               Value value) throws Throwable {
+        return doGetValue(access, options);
+    }
+
     protected abstract Value doGetValue(JdbcValueAccess<T> access, Map<String, Object> options) throws Throwable;
 
     protected Value onGetValueError(JdbcValueAccess access, Throwable cause) {
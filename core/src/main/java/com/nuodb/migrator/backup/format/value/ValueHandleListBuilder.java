@@ -71,9 +71,22 @@ public abstract class ValueHandleListBuilder {
         };
     }
 
-    public static ValueHandleListBuilder newBuilder(final Connection connection, final PreparedStatement statement) {
+    public static ValueHandleListBuilder newBuilder(Connection connection, PreparedStatement statement) {
+        return newBuilder(connection, statement, 1);
+    }
+
+    /**
+     * Creates builder of value handles bound to the statement parameters starting from the given parameter index
+     *
+     * @param connection connection of the statement
+     * @param statement  statement to bind values to
+     * @param parameter  index of the statement parameter bound to the first value handle
+     * @return value handle list builder
+     */
+    public static ValueHandleListBuilder newBuilder(final Connection connection, final PreparedStatement statement,
+                                                    final int parameter) {
         return new ValueHandleListBuilder() {
-            private int column = 1;
+            private int column = parameter;
 
             @Override
             protected JdbcValueAccess buildJdbcValueAccess(ValueHandle valueHandle) {
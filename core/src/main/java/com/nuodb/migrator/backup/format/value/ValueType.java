@@ -34,7 +34,7 @@ import com.nuodb.migrator.utils.EnumAlias;
  */
 public enum ValueType {
 
-    STRING, BINARY;
+    STRING, BINARY, LONG, DOUBLE, DECIMAL, TIMESTAMP, BOOLEAN;
 
     private static final EnumAlias<ValueType> VALUE_TYPES = new EnumAlias<ValueType>(ValueType.class);
 
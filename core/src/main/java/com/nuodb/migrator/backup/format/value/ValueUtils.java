@@ -27,11 +27,15 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
+import java.util.TimeZone;
 
-import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
-import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static java.lang.String.format;
 
 /**
  * @author Sergey Bushik
@@ -41,6 +45,9 @@ public class ValueUtils {
     public static final Value BINARY_NULL = new BinaryValue(null);
     public static final Value STRING_NULL = new StringValue(null);
 
+    private static final long MICROS_PER_SECOND = 1000000L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+
     public static void fill(Value[] values, List<ValueType> valueTypes, int offset) {
         for (; offset < values.length; offset++) {
             ValueType valueType = valueTypes.get(offset);
@@ -49,7 +56,7 @@ public class ValueUtils {
                 case BINARY:
                     values[offset] = ValueUtils.BINARY_NULL;
                     break;
-                case STRING:
+                default:
                     values[offset] = ValueUtils.STRING_NULL;
                     break;
             }
@@ -64,7 +71,137 @@ public class ValueUtils {
         return value == null ? STRING_NULL : new StringValue(value);
     }
 
-    static class BinaryValue implements Value {
+    public static Value longValue(long value) {
+        return new LongValue().set(value);
+    }
+
+    public static Value doubleValue(double value) {
+        return new DoubleValue().set(value);
+    }
+
+    public static Value decimal(BigDecimal value) {
+        return new DecimalValue().set(value);
+    }
+
+    public static Value timestamp(long micros) {
+        return new TimestampValue().set(micros);
+    }
+
+    public static Value bool(boolean value) {
+        return new BooleanValue().set(value);
+    }
+
+    /**
+     * Detaches a value from the holder reused by a format, so that it can be passed to another thread.
+     *
+     * @param value to copy.
+     * @return value itself if it's immutable or a copy of the holder.
+     */
+    public static Value copy(Value value) {
+        return value instanceof PrimitiveValue ? ((PrimitiveValue) value).copy() : value;
+    }
+
+    /**
+     * Returns the holder if it's already a long value or allocates a new one, so that formats reuse the same holder
+     * for a column across rows.
+     */
+    static LongValue longHolder(Value holder) {
+        return holder instanceof LongValue ? (LongValue) holder : new LongValue();
+    }
+
+    static DoubleValue doubleHolder(Value holder) {
+        return holder instanceof DoubleValue ? (DoubleValue) holder : new DoubleValue();
+    }
+
+    static DecimalValue decimalHolder(Value holder) {
+        return holder instanceof DecimalValue ? (DecimalValue) holder : new DecimalValue();
+    }
+
+    static TimestampValue timestampHolder(Value holder) {
+        return holder instanceof TimestampValue ? (TimestampValue) holder : new TimestampValue();
+    }
+
+    static BooleanValue booleanHolder(Value holder) {
+        return holder instanceof BooleanValue ? (BooleanValue) holder : new BooleanValue();
+    }
+
+    /**
+     * Converts timestamp to microseconds since epoch of its local date & time, i.e. 2014-01-01 00:00:00 is encoded
+     * the same way regardless of the default time zone, exactly as its string representation is.
+     *
+     * @param timestamp to convert.
+     * @return local epoch microseconds.
+     */
+    public static long toMicros(Timestamp timestamp) {
+        long millis = timestamp.getTime();
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return floorDiv(local, MILLIS_PER_SECOND) * MICROS_PER_SECOND + timestamp.getNanos() / 1000;
+    }
+
+    /**
+     * Converts local epoch microseconds back to a timestamp in the default time zone.
+     *
+     * @param micros local epoch microseconds.
+     * @return timestamp with microseconds precision.
+     */
+    public static Timestamp toTimestamp(long micros) {
+        long seconds = floorDiv(micros, MICROS_PER_SECOND);
+        long local = seconds * MILLIS_PER_SECOND;
+        TimeZone timeZone = TimeZone.getDefault();
+        long millis = local - timeZone.getOffset(local);
+        Timestamp timestamp = new Timestamp(local - timeZone.getOffset(millis));
+        timestamp.setNanos((int) (micros - seconds * MICROS_PER_SECOND) * 1000);
+        return timestamp;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            r--;
+        }
+        return r;
+    }
+
+    /**
+     * Converts value from its string representation, typed values override conversions they support natively.
+     */
+    static abstract class ValueBase implements Value {
+
+        @Override
+        public byte[] asBytes() {
+            String value = asString();
+            return value != null ? value.getBytes() : null;
+        }
+
+        @Override
+        public long asLong() {
+            return Long.parseLong(asString());
+        }
+
+        @Override
+        public double asDouble() {
+            return Double.parseDouble(asString());
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            String value = asString();
+            return value != null ? new BigDecimal(value) : null;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return Boolean.parseBoolean(asString());
+        }
+
+        @Override
+        public Timestamp asTimestamp() {
+            String value = asString();
+            return value != null ? Timestamp.valueOf(value) : null;
+        }
+    }
+
+    static class BinaryValue extends ValueBase {
 
         private final byte[] value;
 
@@ -115,7 +252,7 @@ public class ValueUtils {
         }
     }
 
-    static class StringValue implements Value {
+    static class StringValue extends ValueBase {
 
         public String value;
 
@@ -128,11 +265,6 @@ public class ValueUtils {
             return value;
         }
 
-        @Override
-        public byte[] asBytes() {
-            return value != null ? value.getBytes() : null;
-        }
-
         @Override
         public boolean isNull() {
             return value == null;
@@ -165,4 +297,262 @@ public class ValueUtils {
             return "String{'" + value + "'}";
         }
     }
+
+    /**
+     * Base for mutable primitive holders, which are refilled for every row instead of allocating a value per cell.
+     */
+    static abstract class PrimitiveValue extends ValueBase {
+
+        protected boolean isNull = true;
+
+        public void setNull() {
+            isNull = true;
+        }
+
+        public abstract PrimitiveValue copy();
+
+        @Override
+        public boolean isNull() {
+            return isNull;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            PrimitiveValue that = (PrimitiveValue) o;
+
+            if (isNull != that.isNull) return false;
+            if (!isNull && !asString().equals(that.asString())) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return isNull ? 0 : asString().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getValueType().name().charAt(0) + getValueType().name().substring(1).toLowerCase() +
+                    "{" + asString() + '}';
+        }
+    }
+
+    static class LongValue extends PrimitiveValue {
+
+        private long value;
+
+        public LongValue set(long value) {
+            this.value = value;
+            this.isNull = false;
+            return this;
+        }
+
+        @Override
+        public LongValue copy() {
+            return isNull ? new LongValue() : new LongValue().set(value);
+        }
+
+        @Override
+        public String asString() {
+            return isNull ? null : Long.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return isNull ? null : BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return LONG;
+        }
+    }
+
+    static class DoubleValue extends PrimitiveValue {
+
+        private double value;
+
+        public DoubleValue set(double value) {
+            this.value = value;
+            this.isNull = false;
+            return this;
+        }
+
+        @Override
+        public DoubleValue copy() {
+            return isNull ? new DoubleValue() : new DoubleValue().set(value);
+        }
+
+        @Override
+        public String asString() {
+            return isNull ? null : Double.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return (long) value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return DOUBLE;
+        }
+    }
+
+    static class DecimalValue extends PrimitiveValue {
+
+        private BigDecimal value;
+
+        public DecimalValue set(BigDecimal value) {
+            this.value = value;
+            this.isNull = value == null;
+            return this;
+        }
+
+        @Override
+        public void setNull() {
+            set(null);
+        }
+
+        @Override
+        public DecimalValue copy() {
+            return new DecimalValue().set(value);
+        }
+
+        @Override
+        public String asString() {
+            return value != null ? value.toString() : null;
+        }
+
+        /**
+         * Truncates fraction as {@link BigDecimal#longValue()} does, but fails instead of wrapping values out of long
+         * range
+         */
+        @Override
+        public long asLong() {
+            BigInteger integer = value.toBigInteger();
+            if (integer.bitLength() >= 64) {
+                throw new ArithmeticException(format("Decimal %s is out of long range", value));
+            }
+            return integer.longValue();
+        }
+
+        @Override
+        public double asDouble() {
+            return value.doubleValue();
+        }
+
+        @Override
+        public BigDecimal asDecimal() {
+            return value;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return DECIMAL;
+        }
+    }
+
+    /**
+     * Holds timestamp as local epoch microseconds, see {@link #toMicros(Timestamp)}.
+     */
+    static class TimestampValue extends PrimitiveValue {
+
+        private long micros;
+
+        public TimestampValue set(long micros) {
+            this.micros = micros;
+            this.isNull = false;
+            return this;
+        }
+
+        public TimestampValue set(Timestamp timestamp) {
+            if (timestamp != null) {
+                set(toMicros(timestamp));
+            } else {
+                setNull();
+            }
+            return this;
+        }
+
+        @Override
+        public TimestampValue copy() {
+            return isNull ? new TimestampValue() : new TimestampValue().set(micros);
+        }
+
+        @Override
+        public String asString() {
+            return isNull ? null : asTimestamp().toString();
+        }
+
+        @Override
+        public long asLong() {
+            return micros;
+        }
+
+        @Override
+        public Timestamp asTimestamp() {
+            return isNull ? null : toTimestamp(micros);
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return TIMESTAMP;
+        }
+    }
+
+    static class BooleanValue extends PrimitiveValue {
+
+        private boolean value;
+
+        public BooleanValue set(boolean value) {
+            this.value = value;
+            this.isNull = false;
+            return this;
+        }
+
+        @Override
+        public BooleanValue copy() {
+            return isNull ? new BooleanValue() : new BooleanValue().set(value);
+        }
+
+        @Override
+        public String asString() {
+            return isNull ? null : Boolean.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value ? 1 : 0;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return BOOLEAN;
+        }
+    }
 }
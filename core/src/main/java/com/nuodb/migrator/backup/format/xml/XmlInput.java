@@ -114,7 +114,7 @@ public class XmlInput extends InputBase implements XmlFormat {
                     case BINARY:
                         values[index] = binary(BASE64.decode(value));
                         break;
-                    case STRING:
+                    default:
                         values[index] = string(value);
                         break;
                 }
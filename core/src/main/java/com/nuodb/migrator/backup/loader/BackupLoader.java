@@ -83,8 +83,11 @@ import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.utils.PrioritySet;
 import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Map;
@@ -148,8 +151,11 @@ public class BackupLoader {
     private ConnectionSpec targetSpec;
     private SessionFactory targetSessionFactory;
     private TimeZone timeZone;
+    private MetricRegistry metricRegistry = new MetricRegistry();
     private TranslationConfig translationConfig;
     private int threads = THREADS;
+    private boolean resume;
+    private Integer constraintThreads;
     private ScriptExporter scriptExporter;
     private ValueFormatRegistryResolver valueFormatRegistryResolver;
 
@@ -178,9 +184,12 @@ public class BackupLoader {
 
     protected BackupLoaderContext createBackupLoaderContext(BackupOps backupOps, Map context) throws Exception {
         BackupLoaderContext backupLoaderContext = new SimpleBackupLoaderContext();
-        backupLoaderContext.setBackup(backupOps.read(context));
+        backupLoaderContext.setBackup(readBackup(backupOps, context));
         backupLoaderContext.setBackupOps(backupOps);
         backupLoaderContext.setBackupOpsContext(context);
+        if (backupOps != null) {
+            backupLoaderContext.setLoadJournal(openLoadJournal(backupOps));
+        }
         backupLoaderContext.setCommitStrategy(getCommitStrategy());
 
         ExecutorService executorService = getExecutorService();
@@ -194,6 +203,7 @@ public class BackupLoader {
         backupLoaderContext.setRowSetMapper(getRowSetMapper());
         backupLoaderContext.setSourceTables(getSourceTables(backupLoaderContext));
         backupLoaderContext.setTimeZone(getTimeZone());
+        backupLoaderContext.setMetricRegistry(getMetricRegistry());
         openSourceSession(backupLoaderContext);
         openTargetSession(backupLoaderContext);
         if (backupLoaderContext.isLoadSchema()) {
@@ -203,6 +213,31 @@ public class BackupLoader {
         return backupLoaderContext;
     }
 
+    /**
+     * Opens journal of the load progress in the backup directory, resuming the interrupted load if requested. Load
+     * proceeds without a journal if it can't be opened, e.g. when the backup directory is read-only.
+     *
+     * @param backupOps backup to be loaded.
+     * @return load journal or null if it can't be opened.
+     */
+    protected LoadJournal openLoadJournal(BackupOps backupOps) {
+        LoadJournal loadJournal = new LoadJournal(new File(backupOps.getDir(), LoadJournal.FILE));
+        try {
+            loadJournal.open(isResume());
+        } catch (IOException exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't open load journal %s, load won't be resumable", loadJournal.getFile()),
+                        exception);
+            }
+            loadJournal = null;
+        }
+        return loadJournal;
+    }
+
+    protected Backup readBackup(BackupOps backupOps, Map context) throws Exception {
+        return backupOps.read(context);
+    }
+
     /**
      * Returns a filtered list of source tables to load depending on the requested source table names and their patterns
      * or all source tables if filter is not provided.
@@ -232,8 +267,10 @@ public class BackupLoader {
         backupLoaderManager.setBackupLoaderContext(backupLoaderContext);
         // add listener after load constraints is created
         if (backupLoaderManager.isLoadSchema()) {
-            backupLoaderManager.addListener(
-                    new LoadConstraintListener(this, backupLoaderManager));
+            LoadConstraintScheduler loadConstraintScheduler =
+                    new LoadConstraintScheduler(this, backupLoaderManager, getConstraintThreads());
+            backupLoaderContext.setLoadConstraintScheduler(loadConstraintScheduler);
+            backupLoaderManager.addListener(loadConstraintScheduler);
         }
         for (BackupLoaderListener listener : getListeners()) {
             backupLoaderManager.addListener(listener);
@@ -355,6 +392,7 @@ public class BackupLoader {
 
     protected Backup load(BackupLoaderManager backupLoaderManager) throws Exception {
         HasTablesScriptGenerator hasTablesScriptGenerator = new HasTablesScriptGenerator<HasTables>();
+        LoadJournal loadJournal = backupLoaderManager.getBackupLoaderContext().getLoadJournal();
         try {
             if (backupLoaderManager.isLoadSchema()) {
                 loadSchema(backupLoaderManager);
@@ -371,6 +409,12 @@ public class BackupLoader {
                     (MigratorException) failure : new BackupLoaderException(failure);
         } finally {
             backupLoaderManager.close();
+            if (loadJournal != null) {
+                loadJournal.close();
+            }
+        }
+        if (loadJournal != null) {
+            loadJournal.delete();
         }
         hasTablesScriptGenerator.migratorSummary(backupLoaderManager.getBackupLoaderContext().getScriptGeneratorManager());
         return backupLoaderManager.getBackupLoaderContext().getBackup();
@@ -378,6 +422,11 @@ public class BackupLoader {
 
     protected void loadSchema(BackupLoaderManager backupLoaderManager) throws Exception {
         BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        LoadJournal loadJournal = backupLoaderContext.getLoadJournal();
+        if (loadJournal != null && loadJournal.isSchemaLoaded()) {
+            backupLoaderManager.loadSchemaDone();
+            return;
+        }
         ScriptGeneratorManager scriptGeneratorManager =
                 backupLoaderContext.getScriptGeneratorManager();
         Collection<MetaDataType> objectTypes = getObjectTypes();
@@ -404,6 +453,9 @@ public class BackupLoader {
             }
             Session targetSession = backupLoaderContext.getTargetSession();
             targetSession.getConnection().commit();
+            if (loadJournal != null) {
+                loadJournal.schemaLoaded();
+            }
         } finally {
             closeQuietly(scriptExporter);
             scriptGeneratorManager.setObjectTypes(objectTypes);
@@ -449,29 +501,18 @@ public class BackupLoader {
     }
 
     /**
-     * Load constraints for source tables without row sets
+     * Starts constraints of source tables without row sets, constraints of loaded tables are started by the scheduler
+     * as soon as their dependencies are loaded
      *
      * @param backupLoaderManager to manage this load
      * @throws Exception if constraints loading caused error
      */
     protected void loadConstraints(BackupLoaderManager backupLoaderManager) throws Exception {
-        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
-        LoadConstraints loadConstraints = backupLoaderContext.getLoadConstraints();
-        LoadConstraints loadConstraintsNow = new LoadConstraints(
-                loadConstraints.getLoadConstraints(INDEX, PRIMARY_KEY));
-        LoadTables loadTables = backupLoaderContext.getLoadTables();
-        if (!isEmpty(loadTables)) {
-            for (LoadTable loadTable : loadTables) {
-                Table table = getTable(loadTable, backupLoaderContext);
-                if (table != null) {
-                    loadConstraintsNow.getLoadConstraints().removeAll(table);
-                }
-            }
-        }
-        for (LoadConstraint loadConstraint : loadConstraintsNow) {
-            loadConstraint(loadConstraint, backupLoaderManager);
-        }
-        if (isEmpty(loadConstraints)) {
+        LoadConstraintScheduler loadConstraintScheduler =
+                backupLoaderManager.getBackupLoaderContext().getLoadConstraintScheduler();
+        if (loadConstraintScheduler != null) {
+            loadConstraintScheduler.start();
+        } else {
             backupLoaderManager.loadConstraintsDone();
         }
     }
@@ -481,15 +522,6 @@ public class BackupLoader {
         executeWork(work, backupLoaderManager);
     }
 
-    protected void loadConstraints(Collection<LoadConstraint> loadConstraints,
-                                   BackupLoaderManager backupLoaderManager) {
-        if (!isEmpty(loadConstraints)) {
-            for (LoadConstraint loadConstraint : loadConstraints) {
-                loadConstraint(loadConstraint, backupLoaderManager);
-            }
-        }
-    }
-
     protected LoadConstraints createLoadConstraints(BackupLoaderContext backupLoaderContext) {
         LoadConstraints loadConstraints = new LoadConstraints();
         boolean loadIndex = contains(getObjectTypes(), INDEX);
@@ -861,6 +893,14 @@ public class BackupLoader {
         this.timeZone = timeZone;
     }
 
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
     public TranslationConfig getTranslationConfig() {
         return translationConfig;
     }
@@ -869,6 +909,22 @@ public class BackupLoader {
         this.translationConfig = translationConfig;
     }
 
+    public Integer getConstraintThreads() {
+        return constraintThreads;
+    }
+
+    public void setConstraintThreads(Integer constraintThreads) {
+        this.constraintThreads = constraintThreads;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
     public int getThreads() {
         return threads;
     }
@@ -40,7 +40,7 @@ public class BackupLoaderAdapter extends WorkAdapter
     }
 
     @Override
-    public void onLoadRow(LoadRowEvent event) {
+    public void onLoadRows(LoadRowsEvent event) {
     }
 
     @Override
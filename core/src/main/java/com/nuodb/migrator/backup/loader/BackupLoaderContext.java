@@ -40,6 +40,7 @@ import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 
 import java.util.Collection;
 import java.util.Map;
@@ -99,6 +100,17 @@ public interface BackupLoaderContext {
 
     void setLoadConstraints(LoadConstraints loadConstraints);
 
+    LoadJournal getLoadJournal();
+
+    void setLoadJournal(LoadJournal loadJournal);
+
+    /**
+     * Scheduler starting constraints as their dependencies are loaded, null if schema is not loaded
+     */
+    LoadConstraintScheduler getLoadConstraintScheduler();
+
+    void setLoadConstraintScheduler(LoadConstraintScheduler loadConstraintScheduler);
+
     LoadTables getLoadTables();
 
     void setLoadTables(LoadTables loadTables);
@@ -151,6 +163,10 @@ public interface BackupLoaderContext {
 
     void setTimeZone(TimeZone timeZone);
 
+    MetricRegistry getMetricRegistry();
+
+    void setMetricRegistry(MetricRegistry metricRegistry);
+
     ValueFormatRegistry getValueFormatRegistry();
 
     void setValueFormatRegistry(ValueFormatRegistry valueFormatRegistry);
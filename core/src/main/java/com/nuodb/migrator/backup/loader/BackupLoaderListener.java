@@ -36,7 +36,7 @@ public interface BackupLoaderListener extends WorkListener {
 
     void onLoadStart(LoadChunkEvent event);
 
-    void onLoadRow(LoadRowEvent event);
+    void onLoadRows(LoadRowsEvent event);
 
     void onLoadEnd(LoadChunkEvent event);
 }
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.Work;
 import com.nuodb.migrator.jdbc.session.WorkManager;
@@ -54,6 +55,15 @@ public interface BackupLoaderManager extends WorkManager<BackupLoaderListener> {
 
     void afterLoadRow(Work work, LoadTable loadTable, Row row);
 
+    /**
+     * Checks if any of the listeners opted in for per row events by implementing {@link LoadRowListener}
+     *
+     * @return true if there are per row listeners
+     */
+    boolean hasRowListeners();
+
+    void loadRows(Work work, LoadTable loadTable, Chunk chunk, long rows);
+
     BackupLoaderContext getBackupLoaderContext();
 
     void setBackupLoaderContext(BackupLoaderContext backupLoaderContext);
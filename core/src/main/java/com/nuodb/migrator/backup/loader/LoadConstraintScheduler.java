@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.google.common.collect.Multimap;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkEvent;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static com.google.common.collect.ArrayListMultimap.create;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.FOREIGN_KEY;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.PRIMARY_KEY;
+
+/**
+ * Schedules loading of primary keys, indexes and foreign keys as a graph of dependencies: table load precedes its
+ * primary key, primary key precedes indexes of the table, and a foreign key depends only on the loads, primary keys
+ * and indexes of its own two tables. A constraint is started as soon as its dependencies are done, so foreign keys of
+ * the loaded tables are validated while other tables are still being loaded. Ready constraints are started heaviest
+ * first by the number of rows to index or validate, no more than constraint threads at once if they are limited.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadConstraintScheduler extends BackupLoaderAdapter {
+
+    private static final int INITIAL_CAPACITY = 11;
+
+    private final BackupLoader backupLoader;
+    private final BackupLoaderManager backupLoaderManager;
+    private final Integer constraintThreads;
+    private Map<Table, Node> tableNodes;
+    private Map<LoadConstraint, Node> constraintNodes;
+    private PriorityQueue<Node> readyNodes;
+    private int runningNodes;
+    private int pendingNodes;
+    private boolean started;
+
+    public LoadConstraintScheduler(BackupLoader backupLoader, BackupLoaderManager backupLoaderManager,
+                                   Integer constraintThreads) {
+        this.backupLoader = backupLoader;
+        this.backupLoaderManager = backupLoaderManager;
+        this.constraintThreads = constraintThreads;
+    }
+
+    /**
+     * Builds the graph once row sets to load are known, weighing tables by the number of rows in their row sets
+     */
+    protected void init() {
+        if (constraintNodes != null) {
+            return;
+        }
+        tableNodes = newHashMap();
+        constraintNodes = newHashMap();
+        readyNodes = new PriorityQueue<Node>(INITIAL_CAPACITY, new Comparator<Node>() {
+            @Override
+            public int compare(Node node1, Node node2) {
+                return node1.weight < node2.weight ? 1 : node1.weight > node2.weight ? -1 : 0;
+            }
+        });
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        Map<Table, Long> rows = newHashMap();
+        LoadTables loadTables = backupLoaderContext.getLoadTables();
+        if (loadTables != null) {
+            for (LoadTable loadTable : loadTables) {
+                Table table = backupLoader.getTable(loadTable, backupLoaderContext);
+                if (table != null) {
+                    rows.put(table, loadTable.getRowSet().getRowCount());
+                }
+            }
+        }
+        Map<Table, Node> primaryKeyNodes = newHashMap();
+        Multimap<Table, Node> indexNodes = create();
+        Collection<LoadConstraint> foreignKeys = newArrayList();
+        for (LoadConstraint loadConstraint : backupLoaderContext.getLoadConstraints()) {
+            MetaDataType objectType = loadConstraint.getConstraint().getObjectType();
+            if (objectType == FOREIGN_KEY) {
+                foreignKeys.add(loadConstraint);
+                continue;
+            }
+            Table table = loadConstraint.getTable();
+            Node tableNode = getTableNode(table, rows);
+            Node node = addConstraintNode(loadConstraint, tableNode.weight);
+            tableNode.addDependent(node);
+            if (objectType == PRIMARY_KEY) {
+                primaryKeyNodes.put(table, node);
+            } else {
+                indexNodes.put(table, node);
+            }
+        }
+        for (Map.Entry<Table, Node> primaryKeyNode : primaryKeyNodes.entrySet()) {
+            for (Node indexNode : indexNodes.get(primaryKeyNode.getKey())) {
+                primaryKeyNode.getValue().addDependent(indexNode);
+            }
+        }
+        for (LoadConstraint loadConstraint : foreignKeys) {
+            ForeignKey foreignKey = (ForeignKey) loadConstraint.getConstraint();
+            Set<Table> tables = newLinkedHashSet();
+            tables.add(foreignKey.getForeignTable());
+            tables.add(foreignKey.getPrimaryTable());
+            long weight = 0;
+            for (Table table : tables) {
+                weight += getTableNode(table, rows).weight;
+            }
+            Node foreignKeyNode = addConstraintNode(loadConstraint, weight);
+            for (Table table : tables) {
+                getTableNode(table, rows).addDependent(foreignKeyNode);
+                Node primaryKeyNode = primaryKeyNodes.get(table);
+                if (primaryKeyNode != null) {
+                    primaryKeyNode.addDependent(foreignKeyNode);
+                }
+                for (Node indexNode : indexNodes.get(table)) {
+                    indexNode.addDependent(foreignKeyNode);
+                }
+            }
+        }
+        pendingNodes = constraintNodes.size();
+    }
+
+    protected Node getTableNode(Table table, Map<Table, Long> rows) {
+        Node tableNode = tableNodes.get(table);
+        if (tableNode == null) {
+            Long weight = rows.get(table);
+            tableNodes.put(table, tableNode = new Node(null, weight != null ? weight : 0));
+        }
+        return tableNode;
+    }
+
+    protected Node addConstraintNode(LoadConstraint loadConstraint, long weight) {
+        Node node = new Node(loadConstraint, weight);
+        constraintNodes.put(loadConstraint, node);
+        return node;
+    }
+
+    /**
+     * Marks loads of the tables without row sets done, or all the table loads if data is not loaded, and starts ready
+     * constraints
+     */
+    public synchronized void start() {
+        init();
+        started = true;
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        Collection<Table> loadedTables = newArrayList(tableNodes.keySet());
+        LoadTables loadTables = backupLoaderContext.getLoadTables();
+        if (backupLoaderManager.isLoadData() && loadTables != null) {
+            for (LoadTable loadTable : loadTables) {
+                loadedTables.remove(backupLoader.getTable(loadTable, backupLoaderContext));
+            }
+        }
+        for (Table table : loadedTables) {
+            done(tableNodes.get(table));
+        }
+        schedule();
+    }
+
+    /**
+     * Marks table load or constraint load done and starts constraints depending on it
+     *
+     * @param event defining work completion
+     */
+    @Override
+    public synchronized void onExecuteEnd(WorkEvent event) {
+        Work work = event.getWork();
+        if (work instanceof LoadTableWork) {
+            init();
+            LoadTable loadTable = ((LoadTableWork) work).getLoadTable();
+            Table table = backupLoader.getTable(loadTable,
+                    backupLoaderManager.getBackupLoaderContext());
+            Node tableNode = table != null ? tableNodes.get(table) : null;
+            if (tableNode != null) {
+                done(tableNode);
+            }
+        } else if (work instanceof LoadConstraintWork) {
+            init();
+            Node node = constraintNodes.get(((LoadConstraintWork) work).getLoadConstraint());
+            if (node != null) {
+                runningNodes--;
+                done(node);
+            }
+        }
+        schedule();
+    }
+
+    protected void done(Node node) {
+        if (node.done) {
+            return;
+        }
+        node.done = true;
+        if (node.loadConstraint != null) {
+            pendingNodes--;
+        }
+        for (Node dependent : node.dependents) {
+            if (--dependent.dependencies == 0) {
+                readyNodes.add(dependent);
+            }
+        }
+    }
+
+    protected void schedule() {
+        while (!readyNodes.isEmpty() && (constraintThreads == null || constraintThreads <= 0 ||
+                runningNodes < constraintThreads)) {
+            runningNodes++;
+            backupLoader.loadConstraint(readyNodes.poll().loadConstraint, backupLoaderManager);
+        }
+        if (started && pendingNodes == 0) {
+            backupLoaderManager.loadConstraintsDone();
+        }
+    }
+
+    static class Node {
+
+        private final LoadConstraint loadConstraint;
+        private final long weight;
+        private final Collection<Node> dependents = newLinkedHashSet();
+        private int dependencies;
+        private boolean done;
+
+        public Node(LoadConstraint loadConstraint, long weight) {
+            this.loadConstraint = loadConstraint;
+            this.weight = weight;
+        }
+
+        public void addDependent(Node dependent) {
+            if (dependents.add(dependent)) {
+                dependent.dependencies++;
+            }
+        }
+    }
+}
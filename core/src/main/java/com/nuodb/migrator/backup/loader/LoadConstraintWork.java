@@ -111,6 +111,10 @@ public class LoadConstraintWork extends WorkBase {
     @Override
     public void execute() throws Exception {
         if (backupLoaderManager.canExecute(this)) {
+            LoadJournal loadJournal = backupLoaderContext.getLoadJournal();
+            if (loadJournal != null && loadJournal.isLoaded(loadConstraint)) {
+                return;
+            }
             ScriptGeneratorManager scriptGeneratorManager = backupLoaderContext.getScriptGeneratorManager();
             Schema schema = getLoadConstraint().getTable().getSchema();
             scriptExporter.exportScript(getUseSchema(schema, scriptGeneratorManager));
@@ -123,6 +127,9 @@ public class LoadConstraintWork extends WorkBase {
             }
             scriptExporter.exportScripts(scripts);
             getSession().getConnection().commit();
+            if (loadJournal != null) {
+                loadJournal.loaded(loadConstraint);
+            }
         }
     }
 
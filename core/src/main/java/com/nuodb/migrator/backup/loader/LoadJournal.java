@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.jdbc.metadata.Constraint;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.utils.ReflectionUtils.getClassName;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.commons.lang3.StringUtils.splitPreserveAllTokens;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Journal of the load progress appended to a file in the backup directory, so that an interrupted load can be resumed.
+ * Records loaded schema, loaded constraints and ranges of rows of each chunk committed to the target. Rows of a chunk
+ * are committed out of order by the loader threads sharing a row reader, so each commit appends the ranges of rows it
+ * has committed, e.g. {@code 0-99,200-299}, rather than an offset of the chunk.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadJournal {
+
+    public static final String FILE = "load.journal";
+    public static final String ENCODING = "UTF-8";
+
+    private static final String SCHEMA = "schema";
+    private static final String CONSTRAINT = "constraint";
+    private static final String CHUNK = "chunk";
+    private static final String SEPARATOR = "\t";
+    private static final String RANGE_SEPARATOR = ",";
+    private static final String RANGE = "-";
+
+    protected final transient Logger logger = getLogger(getClass());
+
+    private final File file;
+    private final Map<String, BitSet> committed = newHashMap();
+    private final Map<String, BitSet> resumed = newHashMap();
+    private final Collection<String> constraints = newHashSet();
+    private boolean schemaLoaded;
+    private Writer writer;
+
+    public LoadJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens journal for appending, reading progress of the interrupted load first if the load is resumed.
+     *
+     * @param resume true to resume the load recorded in the journal, false to start a new journal.
+     * @throws IOException if journal can't be read or opened.
+     */
+    public synchronized void open(boolean resume) throws IOException {
+        boolean append = resume && file.exists();
+        if (append) {
+            read();
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), ENCODING));
+    }
+
+    protected void read() throws IOException {
+        String[] lines = splitPreserveAllTokens(readFileToString(file, ENCODING), '\n');
+        // the last line isn't terminated if it's truncated by the interrupted load
+        for (int index = 0; index < lines.length - 1; index++) {
+            String[] fields = split(lines[index], SEPARATOR);
+            if (fields.length == 1 && SCHEMA.equals(fields[0])) {
+                schemaLoaded = true;
+            } else if (fields.length == 2 && CONSTRAINT.equals(fields[0])) {
+                constraints.add(fields[1]);
+            } else if (fields.length == 3 && CHUNK.equals(fields[0])) {
+                readRows(getRows(committed, fields[1]), fields[2]);
+            }
+        }
+        for (Map.Entry<String, BitSet> entry : committed.entrySet()) {
+            resumed.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Resuming load from journal %s with %d chunk(s) and %d constraint(s) in progress",
+                    file, committed.size(), constraints.size()));
+        }
+    }
+
+    protected void readRows(BitSet rows, String ranges) {
+        for (String range : split(ranges, RANGE_SEPARATOR)) {
+            String[] bounds = split(range, RANGE);
+            int from = parseInt(bounds[0]);
+            rows.set(from, (bounds.length > 1 ? parseInt(bounds[1]) : from) + 1);
+        }
+    }
+
+    protected String writeRows(BitSet rows) {
+        StringBuilder ranges = new StringBuilder();
+        for (int from = rows.nextSetBit(0); from >= 0; from = rows.nextSetBit(from)) {
+            int to = rows.nextClearBit(from);
+            if (ranges.length() > 0) {
+                ranges.append(RANGE_SEPARATOR);
+            }
+            ranges.append(from);
+            if (to - 1 > from) {
+                ranges.append(RANGE).append(to - 1);
+            }
+            from = to;
+        }
+        return ranges.toString();
+    }
+
+    public synchronized boolean isSchemaLoaded() {
+        return schemaLoaded;
+    }
+
+    public synchronized void schemaLoaded() {
+        schemaLoaded = true;
+        write(SCHEMA);
+    }
+
+    public synchronized boolean isLoaded(LoadConstraint loadConstraint) {
+        return constraints.contains(getKey(loadConstraint));
+    }
+
+    public synchronized void loaded(LoadConstraint loadConstraint) {
+        String key = getKey(loadConstraint);
+        constraints.add(key);
+        write(CONSTRAINT, key);
+    }
+
+    /**
+     * Checks if the row of the chunk was committed to the target by the interrupted load, so that the resumed load
+     * skips it. Rows committed by the resumed load itself aren't read again and aren't checked, so the check doesn't
+     * lock the journal.
+     *
+     * @param chunk  chunk of the row.
+     * @param number number of the row in the chunk.
+     * @return true if the row was committed by the interrupted load.
+     */
+    public boolean isCommitted(Chunk chunk, long number) {
+        BitSet rows = resumed.get(chunk.getName());
+        return rows != null && rows.get((int) number);
+    }
+
+    /**
+     * Number of rows of the chunk committed to the target.
+     *
+     * @param chunk chunk to return number of committed rows for.
+     * @return number of committed rows.
+     */
+    public synchronized long getCommittedRows(Chunk chunk) {
+        BitSet rows = committed.get(chunk.getName());
+        return rows != null ? rows.cardinality() : 0;
+    }
+
+    public boolean isLoaded(Chunk chunk) {
+        return getCommittedRows(chunk) >= chunk.getRowCount();
+    }
+
+    /**
+     * Records rows committed by a loader thread, appending ranges of the newly committed rows of each chunk.
+     *
+     * @param rows numbers of the committed rows per chunk.
+     */
+    public synchronized void commit(Map<Chunk, BitSet> rows) {
+        for (Map.Entry<Chunk, BitSet> entry : rows.entrySet()) {
+            String name = entry.getKey().getName();
+            BitSet bits = getRows(committed, name);
+            BitSet next = (BitSet) entry.getValue().clone();
+            next.andNot(bits);
+            if (!next.isEmpty()) {
+                bits.or(next);
+                write(CHUNK, name, writeRows(next));
+            }
+        }
+    }
+
+    protected static BitSet getRows(Map<String, BitSet> chunks, String name) {
+        BitSet rows = chunks.get(name);
+        if (rows == null) {
+            chunks.put(name, rows = new BitSet());
+        }
+        return rows;
+    }
+
+    protected String getKey(LoadConstraint loadConstraint) {
+        Constraint constraint = loadConstraint.getConstraint();
+        StringBuilder key = new StringBuilder(getClassName(constraint.getClass()));
+        key.append(' ').append(loadConstraint.getTable().getQualifiedName(null));
+        if (loadConstraint instanceof LoadIndexes) {
+            for (Index index : ((LoadIndexes) loadConstraint).getIndexes()) {
+                key.append(' ').append(index.getName());
+            }
+        } else {
+            key.append(' ').append(constraint.getName());
+        }
+        return key.toString();
+    }
+
+    protected void write(String... fields) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(join(fields, SEPARATOR));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException exception) {
+            throw new BackupLoaderException(format("Can't write load journal %s", file), exception);
+        }
+    }
+
+    public synchronized void close() {
+        closeQuietly(writer);
+        writer = null;
+    }
+
+    /**
+     * Closes and removes journal of the completed load
+     */
+    public synchronized void delete() {
+        close();
+        if (file.exists() && !file.delete() && logger.isWarnEnabled()) {
+            logger.warn(format("Can't delete load journal %s", file));
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -28,6 +28,7 @@
 package com.nuodb.migrator.backup.loader;
 
 import com.google.common.base.Function;
+import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.RowReader;
@@ -37,17 +38,29 @@ import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitExecutor;
+import com.nuodb.migrator.jdbc.commit.CommitExecutorBase;
+import com.nuodb.migrator.jdbc.commit.CommitListener;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.MultiRowCommitExecutor;
+import com.nuodb.migrator.jdbc.commit.RowBinder;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
+import com.nuodb.migrator.utils.metrics.Counter;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
 
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newIdentityHashMap;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_FORK_WORK;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.copy;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -60,6 +73,13 @@ import static org.slf4j.LoggerFactory.getLogger;
 @SuppressWarnings("all")
 public class LoadTableForkWork extends WorkForkJoinTaskBase {
 
+    /**
+     * Number of loaded rows reported to the listeners by a single event
+     */
+    private static final int ROWS_EVENT_SIZE = 1024;
+
+    public static final String ROWS_METRIC = "load.rows";
+
     private transient Logger logger = getLogger(getClass());
 
     private LoadTable loadTable;
@@ -70,6 +90,13 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
     private PreparedStatement statement;
     private CommitExecutor commitExecutor;
     private ValueHandleList valueHandleList;
+    private Map<PreparedStatement, List<ValueHandleList>> rowValueHandleLists;
+    private Counter rowsCounter;
+    private Counter rowSetRowsCounter;
+    private Chunk chunk;
+    private long rows;
+    private LoadJournal loadJournal;
+    private Map<Chunk, BitSet> uncommittedRows;
 
     public LoadTableForkWork(LoadTable loadTable, RowReader rowReader, int thread,
                              BackupLoaderManager backupLoaderManager) {
@@ -92,6 +119,74 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
         CommitStrategy commitStrategy = backupLoaderContext.getCommitStrategy() != null ?
                 backupLoaderContext.getCommitStrategy() : new BatchCommitStrategy();
         commitExecutor = commitStrategy.createCommitExecutor(statement, loadTable.getQuery());
+        if (commitExecutor instanceof MultiRowCommitExecutor) {
+            initRowBinder((MultiRowCommitExecutor) commitExecutor);
+        }
+        loadJournal = backupLoaderContext.getLoadJournal();
+        if (loadJournal != null && commitExecutor instanceof CommitExecutorBase) {
+            initCommitListener((CommitExecutorBase) commitExecutor);
+        }
+        initMetrics(backupLoaderContext.getMetricRegistry());
+    }
+
+    protected void initMetrics(MetricRegistry metricRegistry) {
+        if (metricRegistry == null) {
+            metricRegistry = new MetricRegistry();
+        }
+        rowsCounter = metricRegistry.getCounter(ROWS_METRIC);
+        rowSetRowsCounter = metricRegistry.getCounter(ROWS_METRIC + "." + loadTable.getRowSet().getName());
+        if (commitExecutor instanceof CommitExecutorBase) {
+            ((CommitExecutorBase) commitExecutor).setMetricRegistry(metricRegistry);
+        }
+    }
+
+    /**
+     * Reports rows loaded from the current chunk since the last report with a single event
+     */
+    protected void loadRows() {
+        if (rows > 0) {
+            backupLoaderManager.loadRows(this, loadTable, chunk, rows);
+            rows = 0;
+        }
+    }
+
+    /**
+     * Reports rows committed by this thread to the load journal, so that a resumed load skips them
+     */
+    protected void initCommitListener(CommitExecutorBase commitExecutor) {
+        uncommittedRows = newIdentityHashMap();
+        commitExecutor.setCommitListener(new CommitListener() {
+            @Override
+            public void onCommit(CommitExecutor commitExecutor) {
+                loadJournal.commit(uncommittedRows);
+                uncommittedRows.clear();
+            }
+        });
+    }
+
+    /**
+     * Checks if the row was committed by the interrupted load according to the load journal
+     */
+    protected boolean isCommitted(Row row) {
+        return loadJournal != null && loadJournal.isCommitted(row.getChunk(), row.getNumber());
+    }
+
+    protected void addUncommittedRow(Row row) {
+        BitSet bits = uncommittedRows.get(row.getChunk());
+        if (bits == null) {
+            uncommittedRows.put(row.getChunk(), bits = new BitSet());
+        }
+        bits.set((int) row.getNumber());
+    }
+
+    protected void initRowBinder(MultiRowCommitExecutor<Value[]> commitExecutor) {
+        rowValueHandleLists = newIdentityHashMap();
+        commitExecutor.setRowBinder(new RowBinder<Value[]>() {
+            @Override
+            public void bind(PreparedStatement statement, int row, Value[] values) throws SQLException {
+                setValues(getValueHandleList(statement, row), values);
+            }
+        });
     }
 
     @Override
@@ -99,18 +194,34 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
         try {
             Row row;
             while ((row = rowReader.readRow()) != null && backupLoaderManager.canExecute(this)) {
+                if (isCommitted(row)) {
+                    continue;
+                }
                 backupLoaderManager.beforeLoadRow(this, loadTable, row);
-                int index = 0;
                 Value[] values = row.getValues();
-                initValueHandleList();
-                for (ValueHandle valueHandle : valueHandleList) {
-                    valueHandle.getValueFormat().setValue(values[index++],
-                            valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+                if (commitExecutor instanceof MultiRowCommitExecutor) {
+                    ((MultiRowCommitExecutor) commitExecutor).addRow(copyValues(values));
+                } else {
+                    initValueHandleList();
+                    setValues(valueHandleList, values);
+                }
+                if (uncommittedRows != null) {
+                    addUncommittedRow(row);
                 }
                 commitExecutor.execute();
+                rowsCounter.increment();
+                rowSetRowsCounter.increment();
                 backupLoaderManager.afterLoadRow(this, loadTable, row);
+                if (chunk != row.getChunk()) {
+                    loadRows();
+                    chunk = row.getChunk();
+                }
+                if (++rows >= ROWS_EVENT_SIZE) {
+                    loadRows();
+                }
             }
             commitExecutor.finish();
+            loadRows();
         } catch (Exception exception) {
             System.out.println("--> LoadTableForkWork.execute: " + this.getLoadTable().getTable().getQualifiedName());
             exception.printStackTrace();
@@ -118,26 +229,65 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
         }
     }
 
+    protected void setValues(ValueHandleList valueHandleList, Value[] values) {
+        int index = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            valueHandle.getValueFormat().setValue(values[index++],
+                    valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+        }
+    }
+
+    /**
+     * Values are buffered by multi-row inserts until the statement is full, while row readers reuse value holders
+     * between the rows
+     */
+    protected Value[] copyValues(Value[] values) {
+        Value[] rowValues = new Value[values.length];
+        for (int index = 0; index < values.length; index++) {
+            rowValues[index] = copy(values[index]);
+        }
+        return rowValues;
+    }
+
     protected void initValueHandleList() {
         if (valueHandleList == null) {
-            ValueHandleListBuilder builder = newBuilder(getSession().getConnection(), statement);
-            builder.withDialect(getSession().getDialect());
-            builder.withFields(newArrayList(transform(loadTable.getRowSet().getColumns(),
-                    new Function<Column, Field>() {
-                        @Override
-                        public Field apply(Column column) {
-                            return loadTable.getTable().getColumn(column.getName());
-                        }
-                    })));
-            builder.withTimeZone(backupLoaderContext.getTimeZone());
-            builder.withValueFormatRegistry(backupLoaderContext.getValueFormatRegistry());
-            valueHandleList = builder.build();
+            valueHandleList = createValueHandleList(statement, 1);
         }
     }
 
+    protected ValueHandleList getValueHandleList(PreparedStatement statement, int row) {
+        List<ValueHandleList> valueHandleLists = rowValueHandleLists.get(statement);
+        if (valueHandleLists == null) {
+            rowValueHandleLists.put(statement, valueHandleLists = newArrayList());
+        }
+        int columns = loadTable.getRowSet().getColumns().size();
+        for (int index = valueHandleLists.size(); index <= row; index++) {
+            valueHandleLists.add(createValueHandleList(statement, index * columns + 1));
+        }
+        return valueHandleLists.get(row);
+    }
+
+    protected ValueHandleList createValueHandleList(PreparedStatement statement, int parameter) {
+        ValueHandleListBuilder builder = newBuilder(getSession().getConnection(), statement, parameter);
+        builder.withDialect(getSession().getDialect());
+        builder.withFields(newArrayList(transform(loadTable.getRowSet().getColumns(),
+                new Function<Column, Field>() {
+                    @Override
+                    public Field apply(Column column) {
+                        return loadTable.getTable().getColumn(column.getName());
+                    }
+                })));
+        builder.withTimeZone(backupLoaderContext.getTimeZone());
+        builder.withValueFormatRegistry(backupLoaderContext.getValueFormatRegistry());
+        return builder.build();
+    }
+
     @Override
     public void close() throws Exception {
         super.close();
+        if (commitExecutor instanceof MultiRowCommitExecutor) {
+            ((MultiRowCommitExecutor) commitExecutor).close();
+        }
         closeQuietly(statement);
     }
 
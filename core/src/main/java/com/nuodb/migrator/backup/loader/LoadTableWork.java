@@ -27,17 +27,21 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.format.value.RowReader;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import org.slf4j.Logger;
 
 import java.util.Collection;
+import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_WORK;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newPartitionedRowReaders;
 import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
 import static com.nuodb.migrator.backup.format.value.RowReaders.newSynchronizedRowReader;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -53,7 +57,8 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
 
     private LoadTable loadTable;
     private BackupLoaderManager backupLoaderManager;
-    private RowReader rowReader;
+    private Collection<Chunk> chunks;
+    private List<RowReader> rowReaders;
 
     public LoadTableWork(LoadTable loadTable, BackupLoaderManager backupLoaderManager) {
         super(backupLoaderManager, backupLoaderManager.getBackupLoaderContext().getTargetSession());
@@ -68,15 +73,70 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
 
     @Override
     protected void init() throws Exception {
+        this.chunks = getChunks();
+        this.rowReaders = createRowReaders();
+    }
+
+    /**
+     * Chunks of the row set to load, skipping chunks fully loaded by the interrupted load if it's resumed.
+     *
+     * @return chunks to read rows from
+     */
+    protected Collection<Chunk> getChunks() {
+        Collection<Chunk> chunks = loadTable.getRowSet().getChunks();
+        LoadJournal loadJournal = backupLoaderManager.getBackupLoaderContext().getLoadJournal();
+        if (loadJournal == null) {
+            return chunks;
+        }
+        Collection<Chunk> unloaded = newArrayList();
+        for (Chunk chunk : chunks) {
+            if (!loadJournal.isLoaded(chunk)) {
+                unloaded.add(chunk);
+            }
+        }
+        return unloaded;
+    }
+
+    /**
+     * Creates either a row reader per thread claiming whole chunks of the row set if the row set is partitioned or a
+     * single row reader shared by all threads otherwise.
+     *
+     * @return row readers to be distributed among threads
+     * @throws Exception if row readers can't be created
+     */
+    protected List<RowReader> createRowReaders() throws Exception {
+        if (isPartitioned()) {
+            BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+            return newPartitionedRowReaders(
+                    loadTable.getRowSet(), chunks, backupLoaderContext.getBackupOps(),
+                    backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes(),
+                    loadTable.getThreads());
+        } else {
+            return singletonList(createRowReader());
+        }
+    }
+
+    /**
+     * Row set is read in partitions if it's loaded by several threads and has at least a chunk per thread, so that
+     * each thread parses its own chunks without contending on a shared input.
+     *
+     * @return true if each thread should read its own chunks
+     */
+    protected boolean isPartitioned() {
+        int threads = loadTable.getThreads();
+        return threads > 1 && chunks.size() >= threads;
+    }
+
+    protected RowReader createRowReader() throws Exception {
         BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
         RowReader rowReader = newSequentialRowReader(
-                loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
+                loadTable.getRowSet(), chunks, backupLoaderContext.getBackupOps(),
                 backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
         int threads = loadTable.getThreads();
         if (threads > 1) {
             rowReader = newSynchronizedRowReader(rowReader);
         }
-        this.rowReader = rowReader;
+        return rowReader;
     }
 
     @Override
@@ -84,7 +144,7 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
         Collection<LoadTableForkWork> loadTableForkWorks = newArrayList();
         for (int thread = 0; thread < loadTable.getThreads(); thread++) {
             LoadTableForkWork loadTableForkWork = new LoadTableForkWork(
-                    loadTable, rowReader, thread, backupLoaderManager);
+                    loadTable, rowReaders.get(thread % rowReaders.size()), thread, backupLoaderManager);
             loadTableForkWork.fork();
             loadTableForkWorks.add(loadTableForkWork);
         }
@@ -96,7 +156,11 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
     @Override
     public void close() throws Exception {
         super.close();
-        closeQuietly(rowReader);
+        if (rowReaders != null) {
+            for (RowReader rowReader : rowReaders) {
+                closeQuietly(rowReader);
+            }
+        }
     }
 
     public LoadTable getLoadTable() {
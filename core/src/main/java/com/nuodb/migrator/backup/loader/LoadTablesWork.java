@@ -27,14 +27,20 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.jdbc.session.WorkRunnableBase;
-import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newIdentityHashMap;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLES_WORK;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.util.Collections.sort;
 
 /**
  * @author Sergey Bushik
@@ -55,9 +61,8 @@ public class LoadTablesWork extends WorkRunnableBase {
 
     @Override
     public void execute() throws Exception {
-        LoadTables loadTables = backupLoaderManager.getBackupLoaderContext().getLoadTables();
         Collection<LoadTableWork> loadTableWorks = newArrayList();
-        for (LoadTable loadTable : loadTables) {
+        for (LoadTable loadTable : getLoadTables()) {
             LoadTableWork loadTableWork = new LoadTableWork(loadTable, backupLoaderManager);
             loadTableWork.fork();
             loadTableWorks.add(loadTableWork);
@@ -67,4 +72,39 @@ public class LoadTablesWork extends WorkRunnableBase {
         }
         backupLoaderManager.loadDataDone();
     }
+
+    /**
+     * Orders tables largest first, so that the longest loads start first and threads freed by the smaller tables
+     * steal row level works of the larger ones rather than wait on a large table started last.
+     *
+     * @return tables to load ordered by decreasing cost
+     */
+    protected List<LoadTable> getLoadTables() {
+        List<LoadTable> loadTables = newArrayList(backupLoaderManager.getBackupLoaderContext().getLoadTables());
+        final Map<LoadTable, Long> costs = newIdentityHashMap();
+        for (LoadTable loadTable : loadTables) {
+            costs.put(loadTable, getCost(loadTable));
+        }
+        sort(loadTables, new Comparator<LoadTable>() {
+            @Override
+            public int compare(LoadTable loadTable1, LoadTable loadTable2) {
+                return costs.get(loadTable2).compareTo(costs.get(loadTable1));
+            }
+        });
+        return loadTables;
+    }
+
+    /**
+     * Estimates cost of the table load as size of its chunks in bytes or as its row count if backup files are not
+     * available.
+     *
+     * @param loadTable table to estimate load cost for
+     * @return estimated load cost
+     */
+    protected long getCost(LoadTable loadTable) {
+        RowSet rowSet = loadTable.getRowSet();
+        BackupOps backupOps = backupLoaderManager.getBackupLoaderContext().getBackupOps();
+        Long size = backupOps != null ? rowSet.getSize(backupOps) : null;
+        return size != null ? size : rowSet.getRowCount();
+    }
 }
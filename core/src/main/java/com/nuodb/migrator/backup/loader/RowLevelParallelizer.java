@@ -70,10 +70,10 @@ public class RowLevelParallelizer implements Parallelizer {
     public int getThreads(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
         BackupOps backupOps = backupLoaderContext.getBackupOps();
         RowSet rowSet = loadTable.getRowSet();
-        long rowSetSize = rowSet.getSize(backupOps);
+        long rowSetSize = rowSet.getRawSize(backupOps);
         long maxRowSetSize = 0L;
         for (Iterator<LoadTable> iterator = backupLoaderContext.getLoadTables().iterator(); iterator.hasNext(); ) {
-            maxRowSetSize = max(iterator.next().getRowSet().getSize(backupOps), maxRowSetSize);
+            maxRowSetSize = max(iterator.next().getRowSet().getRawSize(backupOps), maxRowSetSize);
         }
         long threads = getThreads(backupLoaderContext);
         long minThreadsPerRowSet = getMinThreadsPerRowSet(loadTable, backupLoaderContext);
@@ -40,6 +40,7 @@ import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -69,6 +70,8 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
     private Map<String,Object> formatAttributes;
     private InsertTypeFactory insertTypeFactory;
     private LoadConstraints loadConstraints;
+    private LoadJournal loadJournal;
+    private LoadConstraintScheduler loadConstraintScheduler;
     private LoadTables loadTables;
     private Parallelizer parallelizer;
     private Collection<MigrationMode> migrationModes;
@@ -82,6 +85,7 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
     private SessionFactory targetSessionFactory;
     private ScriptExporter scriptExporter;
     private TimeZone timeZone;
+    private MetricRegistry metricRegistry;
     private ScriptGeneratorManager scriptGeneratorManager;
     private ValueFormatRegistry valueFormatRegistry;
 
@@ -205,6 +209,26 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.loadConstraints = loadConstraints;
     }
 
+    @Override
+    public LoadJournal getLoadJournal() {
+        return loadJournal;
+    }
+
+    @Override
+    public void setLoadJournal(LoadJournal loadJournal) {
+        this.loadJournal = loadJournal;
+    }
+
+    @Override
+    public LoadConstraintScheduler getLoadConstraintScheduler() {
+        return loadConstraintScheduler;
+    }
+
+    @Override
+    public void setLoadConstraintScheduler(LoadConstraintScheduler loadConstraintScheduler) {
+        this.loadConstraintScheduler = loadConstraintScheduler;
+    }
+
     @Override
     public LoadTables getLoadTables() {
         return loadTables;
@@ -324,6 +348,16 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.timeZone = timeZone;
     }
 
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    @Override
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
     @Override
     public ValueFormatRegistry getValueFormatRegistry() {
         return valueFormatRegistry;
@@ -32,8 +32,10 @@ import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
 import com.nuodb.migrator.jdbc.session.Work;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.utils.ValidationUtils.isNotNull;
 import static java.lang.Long.MAX_VALUE;
@@ -48,10 +50,33 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
 
     private BackupLoaderSync backupLoaderSync;
     private BackupLoaderContext backupLoaderContext;
+    private List<LoadRowListener> rowListeners = newCopyOnWriteArrayList();
 
     @Override
     public boolean canExecute(Work work) {
-        return getFailures().isEmpty();
+        return !hasFailures();
+    }
+
+    @Override
+    public void addListener(BackupLoaderListener listener) {
+        super.addListener(listener);
+        if (listener instanceof LoadRowListener) {
+            rowListeners.add((LoadRowListener) listener);
+        }
+    }
+
+    @Override
+    public void addListener(int index, BackupLoaderListener listener) {
+        super.addListener(index, listener);
+        if (listener instanceof LoadRowListener) {
+            rowListeners.add((LoadRowListener) listener);
+        }
+    }
+
+    @Override
+    public void removeListener(BackupLoaderListener listener) {
+        super.removeListener(listener);
+        rowListeners.remove(listener);
     }
 
     @Override
@@ -86,7 +111,9 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
                 onEndChunk(new LoadChunkEvent(work, loadTable, row.getChunk()));
             }
         }
-        onLoadRow(new LoadRowEvent(work, loadTable, row));
+        if (hasRowListeners()) {
+            onLoadRow(new LoadRowEvent(work, loadTable, row));
+        }
     }
 
     protected void onEndChunk(LoadChunkEvent loadChunkEvent) {
@@ -96,11 +123,29 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
     }
 
     protected void onLoadRow(LoadRowEvent event) {
-        for (BackupLoaderListener listener : getListeners()) {
+        for (LoadRowListener listener : rowListeners) {
             listener.onLoadRow(event);
         }
     }
 
+    @Override
+    public boolean hasRowListeners() {
+        return !rowListeners.isEmpty();
+    }
+
+    @Override
+    public void loadRows(Work work, LoadTable loadTable, Chunk chunk, long rows) {
+        if (hasListeners()) {
+            onLoadRows(new LoadRowsEvent(work, loadTable, chunk, rows));
+        }
+    }
+
+    protected void onLoadRows(LoadRowsEvent event) {
+        for (BackupLoaderListener listener : getListeners()) {
+            listener.onLoadRows(event);
+        }
+    }
+
     @Override
     public void loadFailed() {
         backupLoaderSync.loadFailed();
@@ -170,6 +215,8 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
             }
             closeQuietly(backupLoaderContext.getSourceSession());
             closeQuietly(backupLoaderContext.getTargetSession());
+            closeQuietly(backupLoaderContext.getSourceSessionFactory());
+            closeQuietly(backupLoaderContext.getTargetSessionFactory());
             closeQuietly(backupLoaderContext.getScriptExporter());
         }
         super.close();
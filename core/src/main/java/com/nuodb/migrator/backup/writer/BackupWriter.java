@@ -37,6 +37,8 @@ import com.nuodb.migrator.backup.format.csv.CsvFormat;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistryResolver;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.HasTables;
@@ -49,18 +51,23 @@ import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
 import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
 import com.nuodb.migrator.jdbc.query.Query;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.Governor;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.jdbc.session.Work;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.jdbc.split.RowCountStrategy;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.MetaDataSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.QuerySpec;
 import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
+import java.io.File;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Map;
 import java.util.TimeZone;
@@ -73,16 +80,20 @@ import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.INSPECTION_SCOPE;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.META_DATA_SPEC;
 import static com.nuodb.migrator.context.ContextUtils.createService;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newSnapshotJoiner;
 import static com.nuodb.migrator.jdbc.split.QuerySplitters.*;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newApproxStrategy;
 import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newCachingStrategy;
 import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newHandlerStrategy;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.apache.commons.lang3.ArrayUtils.indexOf;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -95,6 +106,8 @@ public class BackupWriter {
     public static final String FORMAT = CsvFormat.TYPE;
     public static final int THREADS = getRuntime().availableProcessors();
     public static final Collection<MigrationMode> MIGRATION_MODES = newHashSet(MigrationMode.values());
+    public static final RowCountType ROW_COUNT_TYPE = APPROX;
+    public static final long CHECKPOINT_INTERVAL = 10000L;
 
     protected final transient Logger logger = getLogger(getClass());
 
@@ -108,6 +121,15 @@ public class BackupWriter {
     private MetaDataSpec metaDataSpec;
     private Collection<MigrationMode> migrationModes = MIGRATION_MODES;
     private QueryLimit queryLimit;
+    private Integer querySplits;
+    private RowCountType rowCountType = ROW_COUNT_TYPE;
+    private Integer pipelineSize;
+    private boolean resume;
+    private boolean snapshot;
+    private Long checkpointInterval = CHECKPOINT_INTERVAL;
+    private String compression;
+    private Long lobThreshold;
+    private MetricRegistry metricRegistry = new MetricRegistry();
     private Collection<QuerySpec> querySpecs;
     private ConnectionSpec sourceSpec;
     private SessionFactory sourceSessionFactory;
@@ -226,7 +248,12 @@ public class BackupWriter {
         BackupWriterContext backupWriterContext = new SimpleBackupWriterContext();
         backupWriterContext.setBackup(createBackup());
         backupWriterContext.setBackupOps(backupOps);
-        backupWriterContext.setBackupOpsContext(context);
+        Map backupOpsContext = createBackupOpsContext(context);
+        backupWriterContext.setBackupOpsContext(backupOpsContext);
+        if (backupOps != null) {
+            backupWriterContext.setCheckpointInterval(getCheckpointInterval());
+            backupWriterContext.setResumeBackup(isResume() ? readResumeBackup(backupOps, backupOpsContext) : null);
+        }
 
         ExecutorService executorService = getExecutorService();
         backupWriterContext.setExecutorService(executorService == null ? createExecutorService() : executorService);
@@ -234,12 +261,56 @@ public class BackupWriter {
         backupWriterContext.setFormatAttributes(getFormatAttributes());
         backupWriterContext.setFormatFactory(getFormatFactory());
         backupWriterContext.setMigrationModes(getMigrationModes());
+        Integer pipelineSize = getPipelineSize();
+        if (pipelineSize != null && pipelineSize > 0) {
+            backupWriterContext.setPipelineSize(pipelineSize);
+            backupWriterContext.setPipelineExecutorService(createPipelineExecutorService());
+        }
+        backupWriterContext.setCompression(getCompression());
+        backupWriterContext.setLobThreshold(getLobThreshold());
+        backupWriterContext.setMetricRegistry(getMetricRegistry());
         backupWriterContext.setThreads(getThreads());
         backupWriterContext.setTimeZone(getTimeZone());
         openSourceSession(backupWriterContext);
         return backupWriterContext;
     }
 
+    protected Map createBackupOpsContext(Map context) {
+        Map backupOpsContext = newHashMap(context);
+        backupOpsContext.put(META_DATA_SPEC, getMetaDataSpec());
+        backupOpsContext.put(INSPECTION_SCOPE, getInspectionScope());
+        return backupOpsContext;
+    }
+
+    /**
+     * Reads backup checkpointed by the interrupted dump, so that chunks of its completed query splits are reused.
+     *
+     * @param backupOps        backup ops of the dump being resumed.
+     * @param backupOpsContext context to read backup with.
+     * @return checkpointed backup or null if there's nothing to resume.
+     */
+    protected Backup readResumeBackup(BackupOps backupOps, Map backupOpsContext) {
+        if (!new File(backupOps.getPath()).exists()) {
+            return null;
+        }
+        Backup backup;
+        try {
+            backup = backupOps.read(backupOpsContext);
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't read backup %s to resume, starting over", backupOps.getPath()), exception);
+            }
+            return null;
+        }
+        if (backup == null || !getFormat().equals(backup.getFormat())) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Backup %s is written in a different format, starting over", backupOps.getPath()));
+            }
+            return null;
+        }
+        return backup;
+    }
+
     protected InspectionScope getInspectionScope() {
         return new TableInspectionScope(
                 sourceSpec.getCatalog(), sourceSpec.getSchema(), getTableTypes());
@@ -273,6 +344,16 @@ public class BackupWriter {
         return new ForkJoinPool(threads);
     }
 
+    /**
+     * Encoding and file writing stages of pipelined query works block on their queues, so they run on a separate pool
+     * growing with the number of query works in progress rather than on the fork join pool of the works.
+     *
+     * @return executor service for pipeline stages
+     */
+    protected ExecutorService createPipelineExecutorService() {
+        return newCachedThreadPool();
+    }
+
     protected ValueFormatRegistry createValueFormatRegistry(Session session) throws Exception {
         return getValueFormatRegistryResolver().resolve(session);
     }
@@ -283,17 +364,81 @@ public class BackupWriter {
         backupWriterContext.setSourceSessionFactory(sourceSessionFactory);
         backupWriterContext.setSourceSession(sourceSession);
         try {
+            if (isSnapshot()) {
+                openSnapshot(backupWriterContext);
+            }
             backupWriterContext.setValueFormatRegistry(
                     createValueFormatRegistry(sourceSession));
             final Database database = getDatabase();
             backupWriterContext.setDatabase(database == null ?
                     openDatabase(backupWriterContext) : database);
         } catch (Exception exception) {
+            closeQuietly(backupWriterContext.getSnapshotSession(), backupWriterContext.getSnapshot());
+            closeQuietly(backupWriterContext.getSnapshotSession());
             closeQuietly(sourceSession);
             throw exception;
         }
     }
 
+    /**
+     * Opens snapshot on a dedicated snapshot session before meta data is inspected, so that rows of all the tables are
+     * read as of the same point in time by the sessions of the works joining the snapshot. Meta data is inspected on
+     * the source session, which is not a part of the snapshot, as inspection commits its connection and would end
+     * the snapshot transaction.
+     *
+     * @param backupWriterContext context holding source session and session factory.
+     * @throws SQLException if snapshot can't be opened.
+     */
+    protected void openSnapshot(BackupWriterContext backupWriterContext) throws SQLException {
+        Dialect dialect = backupWriterContext.getSourceSession().getDialect();
+        if (!dialect.supportsSnapshot()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("%s doesn't support snapshots, tables are read in independent transactions",
+                        dialect.getDatabaseInfo()));
+            }
+            return;
+        }
+        // snapshot session is opened before snapshot joiner is added, so that it doesn't join its own snapshot
+        SessionFactory sourceSessionFactory = backupWriterContext.getSourceSessionFactory();
+        Session snapshotSession = sourceSessionFactory.openSession();
+        backupWriterContext.setSnapshotSession(snapshotSession);
+        Snapshot snapshot = dialect.createSnapshotHandler().openSnapshot(snapshotSession);
+        backupWriterContext.setSnapshot(snapshot);
+        sourceSessionFactory.addSessionObserver(newSnapshotJoiner(snapshot));
+        if (!snapshot.isLateJoin()) {
+            joinSnapshot(sourceSessionFactory);
+        }
+        snapshot.getSnapshotHandler().releaseSnapshot(snapshotSession, snapshot);
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Snapshot %s opened", snapshot));
+        }
+    }
+
+    /**
+     * Opens sessions for the works up front, so that they join the snapshot before it's released. Unless the number
+     * of source connections is limited, it's limited to the number of threads and a session of the work submitting
+     * query works, as the snapshot can't be joined by sessions opened later.
+     *
+     * @param sourceSessionFactory pooling session factory.
+     * @throws SQLException if session can't be opened.
+     */
+    protected void joinSnapshot(SessionFactory sourceSessionFactory) throws SQLException {
+        Governor governor = sourceSessionFactory.getGovernor();
+        if (governor == null) {
+            sourceSessionFactory.setGovernor(governor = new Governor(getThreads() + 1));
+        }
+        Collection<Session> sessions = newArrayList();
+        try {
+            for (int permits = governor.getAvailablePermits(); permits > 0; permits--) {
+                sessions.add(sourceSessionFactory.openSession());
+            }
+        } finally {
+            for (Session session : sessions) {
+                closeQuietly(session);
+            }
+        }
+    }
+
     protected Database openDatabase(BackupWriterContext backupWriterContext) throws Exception {
         Session session = backupWriterContext.getSourceSession();
         return getInspectionManager().inspect(session.getConnection(), getInspectionScope(),
@@ -334,10 +479,7 @@ public class BackupWriter {
     protected Backup writeBackup(BackupWriterManager backupWriterManager) throws Exception {
         BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
         Backup backup = backupWriterContext.getBackup();
-        Map backupOpsContext = newHashMap(backupWriterContext.getBackupOpsContext());
-        backupOpsContext.put(META_DATA_SPEC, getMetaDataSpec());
-        backupOpsContext.put(INSPECTION_SCOPE, getInspectionScope());
-        backupWriterContext.getBackupOps().write(backup, backupOpsContext);
+        backupWriterContext.getBackupOps().write(backup, backupWriterContext.getBackupOpsContext());
         return backup;
     }
 
@@ -389,8 +531,14 @@ public class BackupWriter {
 
     protected WriteQuery createWriteQuery(Table table, Collection<Column> columns, String filter,
                                           QueryLimit queryLimit) {
-        return new WriteTable(table, columns, filter,
+        WriteQuery writeQuery = new WriteTable(table, columns, filter,
                 createQuerySplitter(table, columns, filter, queryLimit), new TableRowSet(table));
+        Dialect dialect = table.getDatabase().getDialect();
+        if (dialect.supportsRowCount(table, null, filter, APPROX)) {
+            writeQuery.setRowCountStrategy(newCachingStrategy(newHandlerStrategy(
+                    dialect.createRowCountHandler(table, null, filter, APPROX))));
+        }
+        return writeQuery;
     }
 
     protected QuerySplitter createQuerySplitter(Table table, Collection<Column> columns, String filter,
@@ -398,15 +546,35 @@ public class BackupWriter {
         QuerySplitter querySplitter;
         Query query = newQuery(table, columns, filter);
         Dialect dialect = table.getDatabase().getDialect();
-        if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
-            querySplitter = newLimitSplitter(dialect, newCachingStrategy(newHandlerStrategy(
-                    dialect.createRowCountHandler(table, null, filter, EXACT))), query, queryLimit);
+        Integer querySplits = getQuerySplits();
+        if (querySplits != null && querySplits > 1 && supportsRangeSplitter(dialect, table)) {
+            querySplitter = newRangeSplitter(dialect, table, columns, filter, query, querySplits);
+        } else if (queryLimit != null && supportsKeysetSplitter(dialect, table, queryLimit)) {
+            querySplitter = newKeysetSplitter(dialect, table, columns, filter, query, queryLimit);
+        } else if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
+            querySplitter = newLimitSplitter(dialect, newCachingStrategy(
+                    createRowCountStrategy(dialect, table, filter)), query, queryLimit);
         } else {
             querySplitter = newNoLimitSplitter(query);
         }
         return querySplitter;
     }
 
+    /**
+     * Estimates table rows from statistics collected by the database, when row count type is approximate and dialect
+     * supports it, as counting rows of large tables can take longer than dumping them. Limit splitter reads the rest of
+     * the table with its last split, so the estimate affects split sizes only.
+     */
+    protected RowCountStrategy createRowCountStrategy(Dialect dialect, Table table, String filter) {
+        RowCountStrategy rowCountStrategy = newHandlerStrategy(
+                dialect.createRowCountHandler(table, null, filter, EXACT));
+        if (getRowCountType() == APPROX && dialect.supportsRowCount(table, null, filter, APPROX)) {
+            rowCountStrategy = newApproxStrategy(newHandlerStrategy(
+                    dialect.createRowCountHandler(table, null, filter, APPROX)), rowCountStrategy);
+        }
+        return rowCountStrategy;
+    }
+
     protected Collection<MetaDataType> getObjectTypes() {
         final MetaDataSpec metaDataSpec = getMetaDataSpec();
         return metaDataSpec != null ? metaDataSpec.getObjectTypes() : null;
@@ -502,6 +670,84 @@ public class BackupWriter {
         this.queryLimit = queryLimit;
     }
 
+    /**
+     * Number of key ranges to partition each table into using column histograms, takes precedence over query limit for
+     * tables having numeric or temporal key.
+     *
+     * @return number of key ranges per table or null if tables are not partitioned.
+     */
+    public Integer getQuerySplits() {
+        return querySplits;
+    }
+
+    public void setQuerySplits(Integer querySplits) {
+        this.querySplits = querySplits;
+    }
+
+    public RowCountType getRowCountType() {
+        return rowCountType;
+    }
+
+    public void setRowCountType(RowCountType rowCountType) {
+        this.rowCountType = rowCountType;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(Long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public Integer getPipelineSize() {
+        return pipelineSize;
+    }
+
+    public void setPipelineSize(Integer pipelineSize) {
+        this.pipelineSize = pipelineSize;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public Long getLobThreshold() {
+        return lobThreshold;
+    }
+
+    public void setLobThreshold(Long lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
     public Collection<QuerySpec> getQuerySpecs() {
         return querySpecs;
     }
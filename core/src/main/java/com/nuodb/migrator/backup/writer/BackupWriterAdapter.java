@@ -40,7 +40,7 @@ public class BackupWriterAdapter extends WorkAdapter
     }
 
     @Override
-    public void onWriteRow(WriteRowEvent event) {
+    public void onWriteRows(WriteRowsEvent event) {
     }
 
     @Override
@@ -31,10 +31,12 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 
 import java.util.Collection;
 import java.util.Map;
@@ -62,6 +64,43 @@ public interface BackupWriterContext {
 
     void setBackupOpsContext(Map backupOpsContext);
 
+    /**
+     * Minimal interval between checkpoints of the backup catalog
+     *
+     * @return interval in milliseconds or null if checkpoints are not written
+     */
+    Long getCheckpointInterval();
+
+    void setCheckpointInterval(Long checkpointInterval);
+
+    /**
+     * Backup catalog checkpointed by the interrupted dump, which is being resumed
+     *
+     * @return backup to reuse chunks of completed query splits from or null if dump is not resumed
+     */
+    Backup getResumeBackup();
+
+    void setResumeBackup(Backup resumeBackup);
+
+    /**
+     * Snapshot opened on the snapshot session and joined by the sessions of the works
+     *
+     * @return snapshot or null if tables are read in independent transactions
+     */
+    Snapshot getSnapshot();
+
+    void setSnapshot(Snapshot snapshot);
+
+    /**
+     * Dedicated session holding the snapshot open until the dump completes, it's never used to run other queries, so
+     * that the snapshot transaction isn't ended by their commits
+     *
+     * @return snapshot session or null if no snapshot is opened
+     */
+    Session getSnapshotSession();
+
+    void setSnapshotSession(Session snapshotSession);
+
     Database getDatabase();
 
     void setDatabase(Database database);
@@ -70,6 +109,26 @@ public interface BackupWriterContext {
 
     void setExecutorService(ExecutorService executor);
 
+    Integer getPipelineSize();
+
+    void setPipelineSize(Integer pipelineSize);
+
+    ExecutorService getPipelineExecutorService();
+
+    void setPipelineExecutorService(ExecutorService pipelineExecutorService);
+
+    String getCompression();
+
+    void setCompression(String compression);
+
+    Long getLobThreshold();
+
+    void setLobThreshold(Long lobThreshold);
+
+    MetricRegistry getMetricRegistry();
+
+    void setMetricRegistry(MetricRegistry metricRegistry);
+
     String getFormat();
 
     void setFormat(String format);
@@ -42,11 +42,11 @@ public interface BackupWriterListener extends WorkListener {
     void onWriteStart(WriteChunkEvent event);
 
     /**
-     * Triggered for each exported row
+     * Triggered for each batch of exported rows and for the last rows of a chunk
      *
-     * @param event containing details about row set and chunk written
+     * @param event containing row set, chunk and number of rows written
      */
-    void onWriteRow(WriteRowEvent event);
+    void onWriteRows(WriteRowsEvent event);
 
     /**
      * Triggered when row set export is completed
@@ -31,6 +31,9 @@ import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.Work;
 import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+
+import java.util.Collection;
 
 /**
  * @author Sergey Bushik
@@ -53,12 +56,31 @@ public interface BackupWriterManager extends WorkManager<BackupWriterListener> {
 
     void writeStart(Work work, WriteQuery writeQuery, Chunk chunk);
 
+    /**
+     * Checks if any of the listeners opted in for per row events by implementing {@link WriteRowListener}, so that
+     * works create rows for {@link #writeRow(Work, WriteQuery, Row)} only when they are listened to.
+     *
+     * @return true if there are per row listeners
+     */
+    boolean hasRowListeners();
+
     void writeRow(Work work, WriteQuery writeQuery, Row row);
 
+    void writeRows(Work work, WriteQuery writeQuery, Chunk chunk, long rows);
+
     void writeEnd(Work work, WriteQuery writeQuery);
 
     void writeEnd(Work work, WriteQuery writeQuery, Chunk chunk);
 
+    /**
+     * Adds chunks written for the query split by the interrupted dump instead of writing the split again
+     *
+     * @param writeQuery query the split belongs to
+     * @param querySplit completed query split
+     * @param chunks     chunks of the split from the resumed backup
+     */
+    void writeResumed(WriteQuery writeQuery, QuerySplit querySplit, Collection<Chunk> chunks);
+
     BackupWriterContext getBackupWriterContext();
 
     void setBackupWriterContext(BackupWriterContext backupWriterContext);
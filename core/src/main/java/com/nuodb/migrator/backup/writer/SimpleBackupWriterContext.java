@@ -31,10 +31,12 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -57,8 +59,17 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
     private Backup backup;
     private BackupOps backupOps;
     private Map backupOpsContext;
+    private Long checkpointInterval;
+    private Backup resumeBackup;
+    private Snapshot snapshot;
+    private Session snapshotSession;
     private Database database;
     private ExecutorService executorService;
+    private Integer pipelineSize;
+    private ExecutorService pipelineExecutorService;
+    private String compression;
+    private Long lobThreshold;
+    private MetricRegistry metricRegistry;
     private String format;
     private Map<String, Object> formatAttributes;
     private FormatFactory formatFactory;
@@ -110,6 +121,46 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
         this.backupOpsContext = backupOpsContext;
     }
 
+    @Override
+    public Long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    @Override
+    public void setCheckpointInterval(Long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    @Override
+    public Backup getResumeBackup() {
+        return resumeBackup;
+    }
+
+    @Override
+    public void setResumeBackup(Backup resumeBackup) {
+        this.resumeBackup = resumeBackup;
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Session getSnapshotSession() {
+        return snapshotSession;
+    }
+
+    @Override
+    public void setSnapshotSession(Session snapshotSession) {
+        this.snapshotSession = snapshotSession;
+    }
+
     @Override
     public Database getDatabase() {
         return database;
@@ -130,6 +181,56 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
         this.executorService = executorService;
     }
 
+    @Override
+    public Integer getPipelineSize() {
+        return pipelineSize;
+    }
+
+    @Override
+    public void setPipelineSize(Integer pipelineSize) {
+        this.pipelineSize = pipelineSize;
+    }
+
+    @Override
+    public ExecutorService getPipelineExecutorService() {
+        return pipelineExecutorService;
+    }
+
+    @Override
+    public void setPipelineExecutorService(ExecutorService pipelineExecutorService) {
+        this.pipelineExecutorService = pipelineExecutorService;
+    }
+
+    @Override
+    public String getCompression() {
+        return compression;
+    }
+
+    @Override
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public Long getLobThreshold() {
+        return lobThreshold;
+    }
+
+    @Override
+    public void setLobThreshold(Long lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
+    @Override
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
     @Override
     public String getFormat() {
         return format;
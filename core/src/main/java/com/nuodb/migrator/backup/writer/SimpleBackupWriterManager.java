@@ -27,28 +27,38 @@
  */
 package com.nuodb.migrator.backup.writer;
 
-import com.google.common.base.Supplier;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.primitives.Ints;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupException;
+import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
 import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Set;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Multimaps.newSetMultimap;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
-import static com.google.common.collect.Sets.newTreeSet;
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Maps.newTreeMap;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static java.lang.Long.MAX_VALUE;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.moveFile;
+import static org.apache.commons.io.FileUtils.openOutputStream;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
  * @author Sergey Bushik
@@ -57,35 +67,44 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterListener>
         implements BackupWriterManager {
 
+    public static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
     private BackupWriterSync backupWriterSync;
     private BackupWriterContext backupWriterContext;
-    private Multimap<WriteQuery, WriteQueryWork> writeQueries;
-
-    public SimpleBackupWriterManager() {
-        this.writeQueries = synchronizedSetMultimap(newSetMultimap(
-                Maps.<WriteQuery, Collection<WriteQueryWork>>newHashMap(),
-                new Supplier<Set<WriteQueryWork>>() {
-                    @Override
-                    public Set<WriteQueryWork> get() {
-                        return newTreeSet(new Comparator<WriteQueryWork>() {
-                            @Override
-                            public int compare(WriteQueryWork w1, WriteQueryWork w2) {
-                                return Ints.compare(w1.getQuerySplit().getSplitIndex(),
-                                        w2.getQuerySplit().getSplitIndex());
-                            }
-                        });
-                    }
-                }));
-    }
+    private ConcurrentMap<WriteQuery, SortedMap<Integer, Collection<Chunk>>> writeQueries = newConcurrentMap();
+    private List<WriteRowListener> rowListeners = newCopyOnWriteArrayList();
+    private final Object checkpointLock = new Object();
+    private volatile long checkpointTime = currentTimeMillis();
 
     @Override
     public boolean canExecute(Work work) {
-        return getFailures().isEmpty();
+        return !hasFailures();
+    }
+
+    @Override
+    public void addListener(BackupWriterListener listener) {
+        super.addListener(listener);
+        if (listener instanceof WriteRowListener) {
+            rowListeners.add((WriteRowListener) listener);
+        }
+    }
+
+    @Override
+    public void addListener(int index, BackupWriterListener listener) {
+        super.addListener(index, listener);
+        if (listener instanceof WriteRowListener) {
+            rowListeners.add((WriteRowListener) listener);
+        }
+    }
+
+    @Override
+    public void removeListener(BackupWriterListener listener) {
+        super.removeListener(listener);
+        rowListeners.remove(listener);
     }
 
     @Override
     public void writeStart(Work work, WriteQuery writeQuery) {
-        writeQueries.put(writeQuery, (WriteQueryWork) work);
         if (hasListeners()) {
             onWriteStart(new WriteChunkEvent(work, writeQuery));
         }
@@ -104,19 +123,37 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
         }
     }
 
+    @Override
+    public boolean hasRowListeners() {
+        return !rowListeners.isEmpty();
+    }
+
     @Override
     public void writeRow(Work work, WriteQuery writeQuery, Row row) {
-        if (hasListeners()) {
+        if (hasRowListeners()) {
             onWriteRow(new WriteRowEvent(work, writeQuery, row));
         }
     }
 
     protected void onWriteRow(WriteRowEvent event) {
-        for (BackupWriterListener listener : getListeners()) {
+        for (WriteRowListener listener : rowListeners) {
             listener.onWriteRow(event);
         }
     }
 
+    @Override
+    public void writeRows(Work work, WriteQuery writeQuery, Chunk chunk, long rows) {
+        if (hasListeners()) {
+            onWriteRows(new WriteRowsEvent(work, writeQuery, chunk, rows));
+        }
+    }
+
+    protected void onWriteRows(WriteRowsEvent event) {
+        for (BackupWriterListener listener : getListeners()) {
+            listener.onWriteRows(event);
+        }
+    }
+
     @Override
     public void writeEnd(Work work, WriteQuery writeQuery, Chunk chunk) {
         if (hasListeners()) {
@@ -126,17 +163,82 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
 
     @Override
     public void writeEnd(Work work, WriteQuery writeQuery) {
+        WriteQueryWork writeQueryWork = (WriteQueryWork) work;
+        addChunks(writeQuery, writeQueryWork.getQuerySplit().getSplitIndex(), writeQueryWork.getChunks());
+        if (hasListeners()) {
+            onWriteEnd(new WriteChunkEvent(work, writeQuery));
+        }
+        checkpoint();
+    }
+
+    @Override
+    public void writeResumed(WriteQuery writeQuery, QuerySplit querySplit, Collection<Chunk> chunks) {
+        addChunks(writeQuery, querySplit.getSplitIndex(), chunks);
+    }
+
+    /**
+     * Row set is made of the chunks of completed query splits ordered by split index, so that the backup catalog
+     * checkpointed in the middle of the dump refers to the complete splits only
+     */
+    protected void addChunks(WriteQuery writeQuery, int splitIndex, Collection<Chunk> chunks) {
         RowSet rowSet = writeQuery.getRowSet();
         synchronized (rowSet) {
-            writeQueries.put(writeQuery, (WriteQueryWork) work);
-            Collection<Chunk> chunks = newArrayList();
-            for (WriteQueryWork writeQueryWork : writeQueries.get(writeQuery)) {
-                chunks.addAll(writeQueryWork.getChunks());
+            SortedMap<Integer, Collection<Chunk>> splits = writeQueries.get(writeQuery);
+            if (splits == null) {
+                writeQueries.put(writeQuery, splits = newTreeMap());
+            }
+            splits.put(splitIndex, chunks);
+            Collection<Chunk> rowSetChunks = newArrayList();
+            for (Collection<Chunk> splitChunks : splits.values()) {
+                rowSetChunks.addAll(splitChunks);
             }
-            rowSet.setChunks(chunks);
+            rowSet.setChunks(rowSetChunks);
         }
-        if (hasListeners()) {
-            onWriteEnd(new WriteChunkEvent(work, writeQuery));
+    }
+
+    /**
+     * Writes backup catalog with the row sets dumped so far if checkpoint interval elapsed since the last checkpoint
+     */
+    protected void checkpoint() {
+        Long checkpointInterval = backupWriterContext.getCheckpointInterval();
+        if (checkpointInterval == null || backupWriterContext.getBackupOps() == null ||
+                currentTimeMillis() - checkpointTime < checkpointInterval) {
+            return;
+        }
+        synchronized (checkpointLock) {
+            if (currentTimeMillis() - checkpointTime >= checkpointInterval) {
+                writeCheckpoint(backupWriterContext.getBackup(), backupWriterContext.getBackupOps());
+                checkpointTime = currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Catalog is written to a temporary file first and renamed over the previous checkpoint, so that the dump killed
+     * in the middle of a checkpoint leaves the previous one intact
+     *
+     * @param backup    backup to checkpoint
+     * @param backupOps backup ops of the dump
+     */
+    protected void writeCheckpoint(Backup backup, BackupOps backupOps) {
+        File file = new File(backupOps.getPath());
+        File checkpoint = new File(file.getPath() + CHECKPOINT_SUFFIX);
+        try {
+            OutputStream output = openOutputStream(checkpoint);
+            try {
+                backupOps.write(backup, output, backupWriterContext.getBackupOpsContext());
+            } finally {
+                closeQuietly(output);
+            }
+            if (!checkpoint.renameTo(file)) {
+                deleteQuietly(file);
+                moveFile(checkpoint, file);
+            }
+        } catch (IOException exception) {
+            throw new BackupException("Can't write backup checkpoint", exception);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Backup checkpoint written to %s", file.getPath()));
         }
     }
 
@@ -207,7 +309,14 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
                     logger.trace("Executor termination interrupted", exception);
                 }
             }
+            ExecutorService pipelineExecutorService = backupWriterContext.getPipelineExecutorService();
+            if (pipelineExecutorService != null) {
+                pipelineExecutorService.shutdown();
+            }
+            closeQuietly(backupWriterContext.getSnapshotSession(), backupWriterContext.getSnapshot());
+            closeQuietly(backupWriterContext.getSnapshotSession());
             closeQuietly(backupWriterContext.getSourceSession());
+            closeQuietly(backupWriterContext.getSourceSessionFactory());
         }
         super.close();
     }
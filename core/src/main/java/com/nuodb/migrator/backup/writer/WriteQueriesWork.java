@@ -28,23 +28,39 @@
 package com.nuodb.migrator.backup.writer;
 
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.WorkRunnableBase;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import org.slf4j.Logger;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
+import static com.google.common.base.Objects.equal;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newIdentityHashMap;
 import static com.nuodb.migrator.backup.BackupMessages.WRITE_QUERIES_WORK;
+import static com.nuodb.migrator.backup.writer.WriteQueryWork.getRowSetName;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author Sergey Bushik
  */
 public class WriteQueriesWork extends WorkRunnableBase {
 
+    private transient Logger logger = getLogger(getClass());
+
     private final BackupWriterManager backupWriterManager;
 
     public WriteQueriesWork(BackupWriterManager backupWriterManager) {
@@ -64,22 +80,197 @@ public class WriteQueriesWork extends WorkRunnableBase {
         Session session = backupWriterContext.getSourceSession();
         Connection connection = session.getConnection();
         Collection<WriteQueryWork> writeQueryWorks = newArrayList();
+        Collection<WriteQueryWork> runningWorks = newLinkedList();
 
+        // row sets are added upfront, as the backup can be checkpointed while the queries are being split
         for (WriteQuery writeQuery : backupWriterContext.getWriteQueries()) {
             backup.addRowSet(writeQuery.getRowSet());
-            QuerySplitter querySplitter = writeQuery.getQuerySplitter();
-            while (writeQuery.getQuerySplitter().hasNextQuerySplit(session.getConnection())) {
-                QuerySplit nextQuerySplit = querySplitter.getNextQuerySplit(connection);
-                boolean hasNextQuerySplit = querySplitter.hasNextQuerySplit(connection);
-                WriteQueryWork writeQueryWork = new WriteQueryWork(
-                        writeQuery, nextQuerySplit, hasNextQuerySplit, backupWriterManager);
-                writeQueryWork.fork();
-                writeQueryWorks.add(writeQueryWork);
+        }
+        List<WriteQuery> writeQueries = newArrayList();
+        Map<WriteQuery, Long> costs = newIdentityHashMap();
+        for (WriteQuery writeQuery : backupWriterContext.getWriteQueries()) {
+            costs.put(writeQuery, getCost(writeQuery, connection));
+            writeQueries.add(writeQuery);
+            // threads don't wait for the costs of all queries, the costliest query estimated so far is taken
+            while (!writeQueries.isEmpty() && isIdle(runningWorks, backupWriterContext.getThreads())) {
+                Collection<WriteQueryWork> forkedWorks = newArrayList();
+                writeQuery(nextWriteQuery(writeQueries, costs), connection, forkedWorks);
+                writeQueryWorks.addAll(forkedWorks);
+                runningWorks.addAll(forkedWorks);
             }
         }
+        while (!writeQueries.isEmpty()) {
+            writeQuery(nextWriteQuery(writeQueries, costs), connection, writeQueryWorks);
+        }
         for (WriteQueryWork writeQueryWork : writeQueryWorks) {
             writeQueryWork.join();
         }
         backupWriterManager.writeDataDone();
     }
+
+    protected void writeQuery(WriteQuery writeQuery, Connection connection,
+                              Collection<WriteQueryWork> writeQueryWorks) throws SQLException {
+        Map<Integer, Collection<Chunk>> resumeChunks = getResumeChunks(
+                writeQuery, backupWriterManager.getBackupWriterContext().getResumeBackup());
+        QuerySplitter querySplitter = writeQuery.getQuerySplitter();
+        if (resumeChunks.isEmpty()) {
+            while (querySplitter.hasNextQuerySplit(connection)) {
+                QuerySplit nextQuerySplit = querySplitter.getNextQuerySplit(connection);
+                boolean hasNextQuerySplit = querySplitter.hasNextQuerySplit(connection);
+                writeQueryWorks.add(writeQuerySplit(writeQuery, nextQuerySplit, hasNextQuerySplit));
+            }
+            return;
+        }
+        // all splits are created upfront to check they select the same rows as the checkpointed ones
+        List<QuerySplit> querySplits = newArrayList();
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplits.add(querySplitter.getNextQuerySplit(connection));
+        }
+        if (!isResumable(querySplits, resumeChunks)) {
+            if (logger.isInfoEnabled()) {
+                logger.info(format("Query splits of %s changed since checkpoint, row set is dumped again",
+                        getRowSetName(writeQuery)));
+            }
+            resumeChunks.clear();
+        }
+        for (int index = 0; index < querySplits.size(); index++) {
+            QuerySplit querySplit = querySplits.get(index);
+            Collection<Chunk> chunks = resumeChunks.get(querySplit.getSplitIndex());
+            if (chunks != null) {
+                backupWriterManager.writeResumed(writeQuery, querySplit, chunks);
+            } else {
+                writeQueryWorks.add(writeQuerySplit(writeQuery, querySplit, index < querySplits.size() - 1));
+            }
+        }
+    }
+
+    protected WriteQueryWork writeQuerySplit(WriteQuery writeQuery, QuerySplit querySplit, boolean hasNextQuerySplit) {
+        WriteQueryWork writeQueryWork = new WriteQueryWork(
+                writeQuery, querySplit, hasNextQuerySplit, backupWriterManager);
+        writeQueryWork.fork();
+        return writeQueryWork;
+    }
+
+    /**
+     * Removes the query with the largest estimated row count, so that splits of the largest tables are forked first and
+     * taken by the idle threads before the splits of the smaller ones. Queries without the estimate keep their order
+     * after the estimated ones.
+     *
+     * @param writeQueries queries estimated and not forked yet
+     * @param costs        estimated row counts of the queries
+     * @return query to fork next
+     */
+    protected WriteQuery nextWriteQuery(List<WriteQuery> writeQueries, Map<WriteQuery, Long> costs) {
+        int next = 0;
+        for (int index = 1; index < writeQueries.size(); index++) {
+            if (costs.get(writeQueries.get(index)) > costs.get(writeQueries.get(next))) {
+                next = index;
+            }
+        }
+        return writeQueries.remove(next);
+    }
+
+    /**
+     * Checks if forked works leave threads idle, removing completed works from the running ones.
+     *
+     * @param runningWorks forked works not seen completed yet
+     * @param threads      number of threads dumping queries
+     * @return true if fewer works than threads are in progress
+     */
+    protected boolean isIdle(Collection<WriteQueryWork> runningWorks, int threads) {
+        for (Iterator<WriteQueryWork> iterator = runningWorks.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+        return runningWorks.size() < threads;
+    }
+
+    /**
+     * Estimates cost of the query dump as its approximate row count.
+     *
+     * @param writeQuery query to estimate dump cost for
+     * @param connection connection to estimate row count with
+     * @return estimated row count or -1 if not available
+     */
+    protected long getCost(WriteQuery writeQuery, Connection connection) {
+        long cost = -1;
+        if (writeQuery.getRowCountStrategy() != null) {
+            try {
+                cost = writeQuery.getRowCountStrategy().getRowCount(connection);
+            } catch (SQLException exception) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(format("Can't estimate row count of %s", writeQuery.getRowSet()), exception);
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Groups chunks of the matching row set from the resumed backup by query split. Chunks are reused only if the
+     * query is split the same way, see {@link #isResumable(List, Map)}.
+     *
+     * @param writeQuery   query to find row set for
+     * @param resumeBackup backup checkpointed by the interrupted dump, may be null
+     * @return chunks keyed by index of the completed split
+     */
+    protected Map<Integer, Collection<Chunk>> getResumeChunks(WriteQuery writeQuery, Backup resumeBackup) {
+        Map<Integer, Collection<Chunk>> resumeChunks = newHashMap();
+        if (resumeBackup == null) {
+            return resumeChunks;
+        }
+        RowSet rowSet = writeQuery.getRowSet();
+        String rowSetName = getRowSetName(writeQuery);
+        for (RowSet resumeRowSet : resumeBackup.getRowSets()) {
+            if (!rowSetName.equals(resumeRowSet.getName()) || resumeRowSet.getClass() != rowSet.getClass()) {
+                continue;
+            }
+            for (Chunk chunk : resumeRowSet.getChunks()) {
+                Integer splitIndex = chunk.getSplitIndex();
+                if (splitIndex == null) {
+                    continue;
+                }
+                Collection<Chunk> chunks = resumeChunks.get(splitIndex);
+                if (chunks == null) {
+                    resumeChunks.put(splitIndex, chunks = newArrayList());
+                }
+                chunks.add(chunk);
+            }
+            if (!resumeChunks.isEmpty()) {
+                rowSet.setName(rowSetName);
+                rowSet.setColumns(newArrayList(resumeRowSet.getColumns()));
+            }
+        }
+        return resumeChunks;
+    }
+
+    /**
+     * Checks that every checkpointed chunk was written by a split with the same index, split count and bounds as the
+     * recomputed one. Split bounds are evaluated from row count estimates, histograms or live keys, which can change
+     * between the runs, and then the splits of the same index select different rows.
+     *
+     * @param querySplits  splits of the query recomputed by this run
+     * @param resumeChunks checkpointed chunks keyed by split index
+     * @return true if the checkpointed chunks can be reused
+     */
+    protected boolean isResumable(List<QuerySplit> querySplits, Map<Integer, Collection<Chunk>> resumeChunks) {
+        Map<Integer, QuerySplit> splits = newHashMap();
+        for (QuerySplit querySplit : querySplits) {
+            splits.put(querySplit.getSplitIndex(), querySplit);
+        }
+        for (Map.Entry<Integer, Collection<Chunk>> entry : resumeChunks.entrySet()) {
+            QuerySplit querySplit = splits.get(entry.getKey());
+            if (querySplit == null) {
+                return false;
+            }
+            for (Chunk chunk : entry.getValue()) {
+                if (!equal(chunk.getSplitCount(), querySplit.getSplitCount()) ||
+                        !equal(chunk.getSplitBounds(), querySplit.getSplitBounds())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 }
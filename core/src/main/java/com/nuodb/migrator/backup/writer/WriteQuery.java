@@ -30,6 +30,7 @@ package com.nuodb.migrator.backup.writer;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.jdbc.split.RowCountStrategy;
 
 import java.util.Collection;
 
@@ -43,6 +44,7 @@ public class WriteQuery {
     private RowSet rowSet;
     private QuerySplitter querySplitter;
     private Collection<? extends Field> columns;
+    private RowCountStrategy rowCountStrategy;
 
     public WriteQuery(QuerySplitter querySplitter, RowSet rowSet) {
         this.querySplitter = querySplitter;
@@ -67,4 +69,16 @@ public class WriteQuery {
     public RowSet getRowSet() {
         return rowSet;
     }
+
+    /**
+     * Estimates number of rows returned by the query, so that larger queries are dumped first. Null if the estimate
+     * is not available without counting rows.
+     */
+    public RowCountStrategy getRowCountStrategy() {
+        return rowCountStrategy;
+    }
+
+    public void setRowCountStrategy(RowCountStrategy rowCountStrategy) {
+        this.rowCountStrategy = rowCountStrategy;
+    }
 }
@@ -29,9 +29,12 @@ package com.nuodb.migrator.backup.writer;
 
 import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.Lob;
 import com.nuodb.migrator.backup.QueryRowSet;
 import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.compression.Compression;
 import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.value.LobValue;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
@@ -43,26 +46,56 @@ import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.query.StatementCallback;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.utils.AsyncOutputStream;
 import com.nuodb.migrator.utils.ObjectUtils;
+import com.nuodb.migrator.utils.metrics.Counter;
+import com.nuodb.migrator.utils.metrics.Histogram;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.indexOf;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.WRITE_QUERY_WORK;
+import static com.nuodb.migrator.backup.compression.Compressions.getCompression;
+import static com.nuodb.migrator.backup.compression.Compressions.getCompressionName;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.BINARY_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.jdbc.model.FieldFactory.newFieldList;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static com.nuodb.migrator.utils.Predicates.equalTo;
 import static com.nuodb.migrator.utils.Predicates.instanceOf;
+import static java.lang.Math.min;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.apache.commons.io.IOUtils.copyLarge;
 import static org.apache.commons.lang3.StringUtils.lowerCase;
 
 /**
@@ -74,6 +107,22 @@ import static org.apache.commons.lang3.StringUtils.lowerCase;
 public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     private static final String QUERY = "query";
+    private static final String LOB = "lob";
+    /**
+     * Number of rows in a batch passed between fetching and encoding stages of a pipelined work
+     */
+    private static final int ROW_BATCH_SIZE = 256;
+    private static final long PIPELINE_TIMEOUT = 100;
+    private static final RowBatch END_BATCH = new RowBatch(0, 0);
+    /**
+     * Number of written rows reported to the listeners by a single event
+     */
+    private static final int ROWS_EVENT_SIZE = 1024;
+
+    public static final String ROWS_METRIC = "dump.rows";
+    public static final String BYTES_METRIC = "dump.bytes";
+    public static final String FETCH_TIME_METRIC = "dump.fetch.time";
+    public static final String ENCODE_TIME_METRIC = "dump.encode.time";
 
     private final BackupWriterManager backupWriterManager;
     private final WriteQuery writeQuery;
@@ -85,6 +134,16 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     private Collection<Chunk> chunks;
     private BackupWriterContext backupWriterContext;
     private ValueHandleList valueHandleList;
+    private Chunk chunk;
+    private OutputStream outputStream;
+    private CountingOutputStream rawOutputStream;
+    private int lobs;
+    private long rows;
+    private Counter rowsCounter;
+    private Counter rowSetRowsCounter;
+    private Counter bytesCounter;
+    private Histogram fetchTime;
+    private Histogram encodeTime;
 
     public WriteQueryWork(WriteQuery writeQuery, QuerySplit querySplit,
                           boolean hasNextQuerySplit, BackupWriterManager backupWriterManager) {
@@ -131,53 +190,314 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         }
         rowSet.setName(getRowSetName());
 
-        output = backupWriterContext.getFormatFactory().createOutput(
-                backupWriterContext.getFormat(), backupWriterContext.getFormatAttributes());
+        output = createOutput();
         output.setRowSet(rowSet);
 
+        initMetrics(backupWriterContext.getMetricRegistry());
+
         chunks = newArrayList();
     }
 
+    /**
+     * Resolves metrics updated by this work once, so that the per row path only touches thread local cells
+     *
+     * @param metricRegistry registry of the job, may be null
+     */
+    protected void initMetrics(MetricRegistry metricRegistry) {
+        if (metricRegistry == null) {
+            metricRegistry = new MetricRegistry();
+        }
+        rowsCounter = metricRegistry.getCounter(ROWS_METRIC);
+        rowSetRowsCounter = metricRegistry.getCounter(ROWS_METRIC + "." + getRowSetName());
+        bytesCounter = metricRegistry.getCounter(BYTES_METRIC);
+        fetchTime = metricRegistry.getHistogram(FETCH_TIME_METRIC);
+        encodeTime = metricRegistry.getHistogram(ENCODE_TIME_METRIC);
+    }
+
     @Override
     public void execute() throws Exception {
         backupWriterManager.writeStart(this, writeQuery);
+        if (isPipelined()) {
+            writeRowsPipelined();
+        } else {
+            writeRows();
+        }
+        if (chunk != null) {
+            writeEnd(chunk);
+        }
+        backupWriterManager.writeEnd(this, writeQuery);
+    }
+
+    protected boolean isPipelined() {
+        Integer pipelineSize = backupWriterContext.getPipelineSize();
+        return pipelineSize != null && pipelineSize > 0 && backupWriterContext.getPipelineExecutorService() != null;
+    }
+
+    protected void writeRows() throws Exception {
         ResultSet resultSet = getResultSet();
-        Output output = getOutput();
-        Chunk chunk = null;
-        long number = 0;
         Value[] values = new Value[valueHandleList.size()];
+        long start = System.nanoTime();
         while (backupWriterManager.canExecute(this) && resultSet.next()) {
-            if (chunk == null) {
-                writeStart(chunk = addChunk());
+            readValues(values);
+            fetchTime.recordSince(start);
+            writeValues(values);
+            start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Fetches rows into recycled row batches on the current thread, while the batches are encoded to the output by a
+     * pipeline task and the encoded chunk is written to the file by another one. Each stage is joined with the next
+     * by a queue bounded by the pipeline size.
+     *
+     * @throws Exception if fetching or encoding fails
+     */
+    protected void writeRowsPipelined() throws Exception {
+        final int pipelineSize = backupWriterContext.getPipelineSize();
+        final BlockingQueue<RowBatch> freeBatches = new ArrayBlockingQueue<RowBatch>(pipelineSize);
+        final BlockingQueue<RowBatch> fullBatches = new ArrayBlockingQueue<RowBatch>(pipelineSize + 1);
+        for (int batch = 0; batch < pipelineSize; batch++) {
+            freeBatches.add(new RowBatch(ROW_BATCH_SIZE, valueHandleList.size()));
+        }
+        Future<Void> encoder = backupWriterContext.getPipelineExecutorService().submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                RowBatch batch;
+                while ((batch = fullBatches.take()) != END_BATCH) {
+                    for (int row = 0; row < batch.getSize(); row++) {
+                        writeValues(batch.get(row));
+                    }
+                    batch.clear();
+                    freeBatches.put(batch);
+                }
+                return null;
             }
-            if (!output.canWrite()) {
-                writeEnd(chunk);
-                writeStart(chunk = addChunk());
+        });
+        try {
+            ResultSet resultSet = getResultSet();
+            RowBatch batch = null;
+            long start = System.nanoTime();
+            while (backupWriterManager.canExecute(this) && resultSet.next()) {
+                if (batch == null) {
+                    batch = takeBatch(freeBatches, encoder);
+                }
+                readValues(batch.next());
+                fetchTime.recordSince(start);
+                if (batch.isFull()) {
+                    fullBatches.put(batch);
+                    batch = null;
+                }
+                start = System.nanoTime();
             }
-            Row row = new Row(chunk, values, number);
-            int index = 0;
-            for (ValueHandle valueHandle : valueHandleList) {
-                values[index++] = valueHandle.getValueFormat().getValue(
-                        valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+            if (batch != null) {
+                fullBatches.put(batch);
             }
-            output.writeValues(values);
-            chunk.incrementRowCount();
-            backupWriterManager.writeRow(this, writeQuery, row);
+            fullBatches.put(END_BATCH);
+            awaitEncoder(encoder);
+        } finally {
+            encoder.cancel(true);
         }
-        if (chunk != null) {
+    }
+
+    protected RowBatch takeBatch(BlockingQueue<RowBatch> freeBatches, Future<Void> encoder) throws Exception {
+        RowBatch batch;
+        while ((batch = freeBatches.poll(PIPELINE_TIMEOUT, MILLISECONDS)) == null) {
+            if (encoder.isDone()) {
+                awaitEncoder(encoder);
+            }
+        }
+        return batch;
+    }
+
+    protected void awaitEncoder(Future<Void> encoder) throws Exception {
+        try {
+            encoder.get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new BackupWriterException(cause);
+        }
+    }
+
+    protected void readValues(Value[] values) throws Exception {
+        int index = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            values[index] = isLob(valueHandle) ? readLob(valueHandle) :
+                    valueHandle.getValueFormat().getValue(valueHandle.getJdbcValueAccess(),
+                            valueHandle.getJdbcValueAccessOptions(), values[index]);
+            index++;
+        }
+    }
+
+    protected boolean isLob(ValueHandle valueHandle) {
+        if (backupWriterContext.getLobThreshold() == null) {
+            return false;
+        }
+        switch (valueHandle.getJdbcValueAccess().getField().getTypeCode()) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads large object inline if it fits the threshold, otherwise streams it from the source to a separate file
+     *
+     * @param valueHandle handle of a BLOB, CLOB or NCLOB column
+     * @return inline value or a lob value referring to the file
+     * @throws Exception if reading or writing fails
+     */
+    protected Value readLob(ValueHandle valueHandle) throws Exception {
+        Object value = valueHandle.getJdbcValueAccess().getValue(valueHandle.getJdbcValueAccessOptions());
+        long lobThreshold = min(backupWriterContext.getLobThreshold(), Integer.MAX_VALUE);
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            long length = blob.length();
+            return length <= lobThreshold ? binary(blob.getBytes(1, (int) length)) :
+                    new LobValue(writeLob(blob.getBinaryStream()), BINARY);
+        } else if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            long length = clob.length();
+            return length <= lobThreshold ? string(clob.getSubString(1, (int) length)) :
+                    new LobValue(writeLob(clob.getCharacterStream()), STRING);
+        } else {
+            return valueHandle.getValueType() == BINARY ? BINARY_NULL : STRING_NULL;
+        }
+    }
+
+    protected Lob writeLob(InputStream input) throws Exception {
+        Lob lob = createLob();
+        CountingOutputStream output = new CountingOutputStream(
+                backupWriterContext.getBackupOps().openOutput(lob.getName(), lob.getCompression()));
+        try {
+            copyLarge(input, output);
+        } finally {
+            closeQuietly(input);
+            output.close();
+        }
+        lob.setSize(output.getByteCount());
+        return lob;
+    }
+
+    protected Lob writeLob(Reader input) throws Exception {
+        Lob lob = createLob();
+        CountingOutputStream output = new CountingOutputStream(
+                backupWriterContext.getBackupOps().openOutput(lob.getName(), lob.getCompression()));
+        Writer writer = new OutputStreamWriter(output, LobValue.ENCODING);
+        try {
+            copyLarge(input, writer);
+        } finally {
+            closeQuietly(input);
+            writer.close();
+        }
+        lob.setSize(output.getByteCount());
+        return lob;
+    }
+
+    protected Lob createLob() {
+        Collection names = newArrayList(getRowSetName());
+        int splitIndex = getQuerySplit().getSplitIndex();
+        if (splitIndex != 0 || isHasNextQuerySplit()) {
+            names.add(splitIndex + 1);
+        }
+        names.add(LOB);
+        names.add(++lobs);
+        Compression compression = getCompression(backupWriterContext.getCompression());
+        if (compression != null) {
+            names.add(compression.getExtension());
+        }
+        return new Lob(lowerCase(StringUtils.join(names, ".")), null,
+                compression != null ? getCompressionName(compression) : null);
+    }
+
+    protected void writeValues(Value[] values) throws Exception {
+        Output output = getOutput();
+        if (chunk == null) {
+            writeStart(chunk = addChunk());
+        }
+        if (!output.canWrite()) {
             writeEnd(chunk);
+            writeStart(chunk = addChunk());
+        }
+        addLobs(chunk, values);
+        Row row = backupWriterManager.hasRowListeners() ? new Row(chunk, values, chunk.getRowCount()) : null;
+        long start = System.nanoTime();
+        output.writeValues(values);
+        encodeTime.recordSince(start);
+        chunk.incrementRowCount();
+        rowsCounter.increment();
+        rowSetRowsCounter.increment();
+        if (row != null) {
+            backupWriterManager.writeRow(this, writeQuery, row);
+        }
+        if (++rows >= ROWS_EVENT_SIZE) {
+            writeRows(chunk);
+        }
+    }
+
+    /**
+     * Reports rows written to the chunk since the last report with a single event
+     *
+     * @param chunk chunk rows were written to
+     */
+    protected void writeRows(Chunk chunk) {
+        if (rows > 0) {
+            backupWriterManager.writeRows(this, writeQuery, chunk, rows);
+            rows = 0;
+        }
+    }
+
+    /**
+     * Records lobs streamed to separate files in the chunk and writes nulls in place of them
+     */
+    protected void addLobs(Chunk chunk, Value[] values) {
+        for (int index = 0; index < values.length; index++) {
+            if (values[index] instanceof LobValue) {
+                Lob lob = ((LobValue) values[index]).getLob();
+                lob.setRow(chunk.getRowCount());
+                lob.setColumn(index);
+                chunk.addLob(lob);
+                values[index] = values[index].getValueType() == BINARY ? BINARY_NULL : STRING_NULL;
+            }
         }
-        backupWriterManager.writeEnd(this, writeQuery);
     }
 
     @Override
     public void close() throws Exception {
         super.close();
         closeQuietly(resultSet);
+        closeQuietly(outputStream);
+    }
+
+    protected Output createOutput() {
+        return backupWriterContext.getFormatFactory().createOutput(
+                backupWriterContext.getFormat(), backupWriterContext.getFormatAttributes());
+    }
+
+    /**
+     * Opens chunk file for writing. Compression is applied under the asynchronous stream of a pipelined work, so that
+     * chunk content is compressed on the file writing stage, while the bytes produced by the output are counted to
+     * record raw size of a compressed chunk and to update bytes metric.
+     *
+     * @param output output to write chunk to
+     * @param chunk  chunk to open file for
+     * @throws Exception if file can't be opened
+     */
+    protected void openOutput(Output output, Chunk chunk) throws Exception {
+        OutputStream outputStream = backupWriterContext.getBackupOps().openOutput(
+                chunk.getName(), chunk.getCompression());
+        if (isPipelined()) {
+            outputStream = new AsyncOutputStream(outputStream,
+                    backupWriterContext.getPipelineExecutorService(), backupWriterContext.getPipelineSize());
+        }
+        outputStream = rawOutputStream = new CountingOutputStream(outputStream);
+        output.setOutputStream(this.outputStream = outputStream);
     }
 
     protected void writeStart(Chunk chunk) throws Exception {
-        output.setOutputStream(backupWriterContext.getBackupOps().openOutput(chunk.getName()));
+        openOutput(output, chunk);
         output.init();
         output.writeStart();
         backupWriterManager.writeStart(this, writeQuery, chunk);
@@ -186,6 +506,14 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     protected void writeEnd(Chunk chunk) throws Exception {
         output.writeEnd();
         output.close();
+        if (rawOutputStream != null) {
+            long byteCount = rawOutputStream.getByteCount();
+            if (chunk.getCompression() != null) {
+                chunk.setRawSize(byteCount);
+            }
+            bytesCounter.add(byteCount);
+        }
+        writeRows(chunk);
         backupWriterManager.writeEnd(this, writeQuery, chunk);
     }
 
@@ -197,7 +525,17 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     protected Chunk createChunk(int chunkIndex) {
         Chunk chunk = new Chunk();
-        chunk.setName(getChunkName(chunkIndex));
+        QuerySplit querySplit = getQuerySplit();
+        chunk.setSplitIndex(querySplit.getSplitIndex());
+        chunk.setSplitCount(querySplit.getSplitCount());
+        chunk.setSplitBounds(querySplit.getSplitBounds());
+        String chunkName = getChunkName(chunkIndex);
+        Compression compression = getCompression(backupWriterContext.getCompression());
+        if (compression != null) {
+            chunk.setCompression(getCompressionName(compression));
+            chunkName += "." + compression.getExtension();
+        }
+        chunk.setName(chunkName);
         return chunk;
     }
 
@@ -215,6 +553,16 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     }
 
     protected String getRowSetName() {
+        return getRowSetName(writeQuery);
+    }
+
+    /**
+     * Names row set after the qualified name of the table or after the position of the query among the queries
+     *
+     * @param writeQuery query to name row set of, which should be added to the backup
+     * @return row set name
+     */
+    public static String getRowSetName(WriteQuery writeQuery) {
         String rowSetName;
         if (writeQuery instanceof WriteTable) {
             Table table = ((WriteTable) writeQuery).getTable();
@@ -79,6 +79,8 @@ public interface CliMessages {
     final String OUTPUT_TYPE_ARGUMENT_NAME = "com.nuodb.migrator.output.type.argument.name";
     final String OUTPUT_PATH_OPTION_DESCRIPTION = "com.nuodb.migrator.output.path.option.description";
     final String OUTPUT_PATH_ARGUMENT_NAME = "com.nuodb.migrator.output.path.argument.name";
+    final String OUTPUT_COMPRESSION_OPTION_DESCRIPTION = "com.nuodb.migrator.output.compression.option.description";
+    final String OUTPUT_COMPRESSION_ARGUMENT_NAME = "com.nuodb.migrator.output.compression.argument.name";
     final String OUTPUT_OPTION_DESCRIPTION = "com.nuodb.migrator.output.option.description";
     final String OUTPUT_OPTION_ARGUMENT_NAME = "com.nuodb.migrator.output.argument.description";
 
@@ -101,6 +103,20 @@ public interface CliMessages {
     final String EXECUTOR_GROUP_NAME = "com.nuodb.migrator.executor.group.name";
     final String THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.threads.option.description";
     final String THREADS_ARGUMENT_NAME = "com.nuodb.migrator.threads.argument.name";
+    final String REPORT_INTERVAL_OPTION_DESCRIPTION = "com.nuodb.migrator.report.interval.option.description";
+    final String REPORT_INTERVAL_ARGUMENT_NAME = "com.nuodb.migrator.report.interval.argument.name";
+    final String REPORT_FORMAT_OPTION_DESCRIPTION = "com.nuodb.migrator.report.format.option.description";
+    final String REPORT_FORMAT_ARGUMENT_NAME = "com.nuodb.migrator.report.format.argument.name";
+    final String INSPECTION_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.inspection.threads.option.description";
+    final String INSPECTION_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.inspection.threads.argument.name";
+    final String SOURCE_CONNECTIONS_OPTION_DESCRIPTION = "com.nuodb.migrator.source.connections.option.description";
+    final String SOURCE_CONNECTIONS_ARGUMENT_NAME = "com.nuodb.migrator.source.connections.argument.name";
+    final String TARGET_CONNECTIONS_OPTION_DESCRIPTION = "com.nuodb.migrator.target.connections.option.description";
+    final String TARGET_CONNECTIONS_ARGUMENT_NAME = "com.nuodb.migrator.target.connections.argument.name";
+    final String CONSTRAINT_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.constraint.threads.option.description";
+    final String CONSTRAINT_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.constraint.threads.argument.name";
+    final String INSPECTION_CACHE_OPTION_DESCRIPTION = "com.nuodb.migrator.inspection.cache.option.description";
+    final String INSPECTION_CACHE_ARGUMENT_NAME = "com.nuodb.migrator.inspection.cache.argument.name";
     final String PARALLELIZER_OPTION_DESCRIPTION = "com.nuodb.migrator.parallelizer.option.description";
     final String PARALLELIZER_ARGUMENT_NAME = "com.nuodb.migrator.parallelizer.argument.name";
     final String PARALLELIZER_ATTRIBUTES_OPTION_DESCRIPTION = "com.nuodb.migrator.parallelizer.attributes.option.description";
@@ -108,8 +124,19 @@ public interface CliMessages {
 
     final String QUERY_LIMIT_OPTION_DESCRIPTION = "com.nuodb.migrator.query.limit.option.description";
     final String QUERY_LIMIT_ARGUMENT_NAME = "com.nuodb.migrator.query.limit.argument.name";
+    final String QUERY_SPLITS_OPTION_DESCRIPTION = "com.nuodb.migrator.query.splits.option.description";
+    final String QUERY_SPLITS_ARGUMENT_NAME = "com.nuodb.migrator.query.splits.argument.name";
+    final String PIPELINE_SIZE_OPTION_DESCRIPTION = "com.nuodb.migrator.pipeline.size.option.description";
+    final String PIPELINE_SIZE_ARGUMENT_NAME = "com.nuodb.migrator.pipeline.size.argument.name";
+    final String LOB_THRESHOLD_OPTION_DESCRIPTION = "com.nuodb.migrator.lob.threshold.option.description";
+    final String LOB_THRESHOLD_ARGUMENT_NAME = "com.nuodb.migrator.lob.threshold.argument.name";
+    final String RESUME_OPTION_DESCRIPTION = "com.nuodb.migrator.resume.option.description";
+    final String SNAPSHOT_OPTION_DESCRIPTION = "com.nuodb.migrator.snapshot.option.description";
+    final String QUEUE_SIZE_OPTION_DESCRIPTION = "com.nuodb.migrator.queue.size.option.description";
+    final String QUEUE_SIZE_ARGUMENT_NAME = "com.nuodb.migrator.queue.size.argument.name";
 
     final String LOAD_GROUP_NAME = "com.nuodb.migrator.load.group.name";
+    final String COPY_GROUP_NAME = "com.nuodb.migrator.copy.group.name";
     final String TARGET_GROUP_NAME = "com.nuodb.migrator.target.group.name";
     final String TARGET_DRIVER_OPTION_DESCRIPTION = "com.nuodb.migrator.target.driver.option.description";
     final String TARGET_DRIVER_ARGUMENT_NAME = "com.nuodb.migrator.target.driver.argument.name";
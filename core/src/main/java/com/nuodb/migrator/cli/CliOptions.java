@@ -57,6 +57,7 @@ public interface CliOptions {
     final String DUMP = "dump";
     final String LOAD = "load";
     final String SCHEMA = "schema";
+    final String COPY = "copy";
 
     final String SOURCE_DRIVER = "source.driver";
     final String SOURCE_URL = "source.url";
@@ -73,6 +74,7 @@ public interface CliOptions {
     final String OUTPUT_OPTION = "output.*";
     final String OUTPUT_TYPE = "output.type";
     final String OUTPUT_PATH = "output.path";
+    final String OUTPUT_COMPRESSION = "output.compression";
 
     final String MIGRATION_MODE_DATA = "data";
     final String MIGRATION_MODE_SCHEMA = "schema";
@@ -86,8 +88,24 @@ public interface CliOptions {
     final String THREADS = "threads";
     final String THREADS_SHORT = "t";
 
+    final String REPORT_INTERVAL = "report.interval";
+    final String REPORT_FORMAT = "report.format";
+    final String INSPECTION_THREADS = "inspection.threads";
+    final String SOURCE_CONNECTIONS = "source.connections";
+    final String TARGET_CONNECTIONS = "target.connections";
+    final String CONSTRAINT_THREADS = "constraint.threads";
+    final String INSPECTION_CACHE = "inspection.cache";
+
     final String QUERY_LIMIT = "query.limit";
 
+    final String QUERY_SPLITS = "query.splits";
+    final String PIPELINE_SIZE = "pipeline.size";
+    final String LOB_THRESHOLD = "lob.threshold";
+    final String RESUME = "resume";
+    final String SNAPSHOT = "snapshot";
+
+    final String QUEUE_SIZE = "queue.size";
+
     final String QUERY = "query";
 
     final String TARGET_DRIVER = "target.driver";
@@ -32,7 +32,6 @@ import com.nuodb.migrator.cli.parse.Option;
 import com.nuodb.migrator.cli.parse.OptionSet;
 import com.nuodb.migrator.cli.parse.option.GroupBuilder;
 import com.nuodb.migrator.cli.parse.option.OptionFormat;
-import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.QuerySpec;
 
@@ -44,8 +43,6 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.utils.Priority.LOW;
 import static java.lang.Integer.MAX_VALUE;
-import static java.lang.Long.parseLong;
-import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * An implementation of {@link CliRunAdapter} which assembles dump spec from provided command line after the validation
@@ -77,6 +74,7 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         DumpJobSpec dumpJobSpec = new DumpJobSpec();
         dumpJobSpec.setSourceSpec(parseSourceGroup(optionSet, this));
         dumpJobSpec.setOutputSpec(parseOutputGroup(optionSet, this));
+        dumpJobSpec.setCompression((String) optionSet.getValue(OUTPUT_COMPRESSION));
         dumpJobSpec.setMigrationModes(parseMigrationModeGroup(optionSet, this));
         parseDataMigrationGroup(optionSet, dumpJobSpec);
         parseSchemaMigrationGroup(optionSet, dumpJobSpec);
@@ -88,12 +86,23 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         getMigrator().execute(getJobSpec(), context);
     }
 
+    @Override
+    protected void createExecutorGroup(GroupBuilder group) {
+        super.createExecutorGroup(group);
+        group.withOption(createSourceConnectionsOption());
+    }
+
     protected Option createDataMigrationGroup() {
         GroupBuilder group = newGroupBuilder().withName(getMessage(DATA_MIGRATION_GROUP_NAME));
         group.withOption(createMetaDataFilterManagerGroup());
         group.withOption(createQueryGroup());
         group.withOption(createTimeZoneOption());
         group.withOption(createQueryLimitOption());
+        group.withOption(createQuerySplitsOption());
+        group.withOption(createPipelineSizeOption());
+        group.withOption(createLobThresholdOption());
+        group.withOption(createResumeOption());
+        group.withOption(createSnapshotOption());
         return group.build();
     }
 
@@ -118,22 +127,21 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         return group.build();
     }
 
-    protected Option createQueryLimitOption() {
-        return newBasicOptionBuilder().
-                withName(QUERY_LIMIT).
-                withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION)).
-                withArgument(
-                        newArgumentBuilder().
-                                withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()
-                ).build();
-    }
-
     protected void parseDataMigrationGroup(OptionSet optionSet, DumpJobSpec jobSpec) {
         jobSpec.setMetaDataFilterManager(parseMetaDataFilterManagerGroup(optionSet, this));
         jobSpec.setQuerySpecs(parseQueryGroup(optionSet));
         jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setSourceConnections(parseSourceConnectionsOption(optionSet, this));
+        parseReportOptions(optionSet, jobSpec, this);
+        jobSpec.setInspectionThreads(parseInspectionThreadsOption(optionSet, this));
+        jobSpec.setInspectionCache(parseInspectionCacheOption(optionSet, this));
         jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        jobSpec.setQuerySplits(parseQuerySplitsOption(optionSet, this));
+        jobSpec.setPipelineSize(parsePipelineSizeOption(optionSet, this));
+        jobSpec.setLobThreshold(parseLobThresholdOption(optionSet, this));
+        jobSpec.setResume(parseResumeOption(optionSet, this));
+        jobSpec.setSnapshot(parseSnapshotOption(optionSet, this));
     }
 
     protected Collection<QuerySpec> parseQueryGroup(OptionSet optionSet) {
@@ -144,11 +152,6 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         return querySpecs;
     }
 
-    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
-        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT);
-        return !isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
-    }
-
     @Override
     protected Group createSchemaMigrationGroup() {
         GroupBuilder group = newGroupBuilder().withName(getMessage(SCHEMA_MIGRATION_GROUP_NAME));
@@ -27,7 +27,6 @@
  */
 package com.nuodb.migrator.cli.run;
 
-import com.google.common.collect.Maps;
 import com.nuodb.migrator.backup.loader.Parallelizer;
 import com.nuodb.migrator.backup.loader.RowLevelParallelizer;
 import com.nuodb.migrator.backup.loader.TableLevelParallelizer;
@@ -35,7 +34,6 @@ import com.nuodb.migrator.cli.parse.Option;
 import com.nuodb.migrator.cli.parse.OptionSet;
 import com.nuodb.migrator.cli.parse.option.GroupBuilder;
 import com.nuodb.migrator.cli.parse.option.OptionFormat;
-import com.nuodb.migrator.jdbc.query.InsertType;
 import com.nuodb.migrator.spec.LoadJobSpec;
 
 import java.util.Map;
@@ -95,30 +93,7 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
         group.withOption(createCommitGroup());
         group.withOption(createInsertTypeGroup());
         group.withOption(createTimeZoneOption());
-        return group.build();
-    }
-
-    protected Option createInsertTypeGroup() {
-        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_TYPE_GROUP_NAME));
-
-        Option replace = newBasicOptionBuilder().
-                withName(REPLACE).
-                withAlias(REPLACE_SHORT, OptionFormat.SHORT).
-                withDescription(getMessage(REPLACE_OPTION_DESCRIPTION)).build();
-        group.withOption(replace);
-
-        Option replaceType = newRegexOptionBuilder().
-                withName(TABLE_REPLACE).
-                withDescription(getMessage(TABLE_REPLACE_OPTION_DESCRIPTION)).
-                withRegex(TABLE_REPLACE, 1, LOW).build();
-        group.withOption(replaceType);
-
-        Option insertType = newRegexOptionBuilder().
-                withName(TABLE_INSERT).
-                withDescription(getMessage(TABLE_INSERT_OPTION_DESCRIPTION)).
-                withRegex(TABLE_INSERT, 1, LOW).build();
-        group.withOption(insertType);
-
+        group.withOption(createResumeOption());
         return group.build();
     }
 
@@ -149,29 +124,30 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
                                 withOptionFormat(optionFormat).withMinimum(1).withMaximum(MAX_VALUE).build()
                 ).build();
         group.withOption(parallelizerAttributes);
+        group.withOption(createTargetConnectionsOption());
+        group.withOption(createConstraintThreadsOption());
     }
 
     protected void parseDataMigrationGroup(OptionSet optionSet, LoadJobSpec jobSpec) {
         jobSpec.setMetaDataFilterManager(parseMetaDataFilterManagerGroup(optionSet, this));
         jobSpec.setCommitStrategy(parseCommitGroup(optionSet, this));
         jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
+        jobSpec.setResume(parseResumeOption(optionSet, this));
         parseInsertTypeGroup(optionSet, jobSpec);
     }
 
     protected void parseInsertTypeGroup(OptionSet optionSet, LoadJobSpec loadJobSpec) {
-        loadJobSpec.setInsertType(optionSet.hasOption(REPLACE) ? InsertType.REPLACE : InsertType.INSERT);
-        Map<String, InsertType> tableInsertTypes = Maps.newHashMap();
-        for (String table : optionSet.<String>getValues(TABLE_INSERT)) {
-            tableInsertTypes.put(table, InsertType.INSERT);
-        }
-        for (String table : optionSet.<String>getValues(TABLE_REPLACE)) {
-            tableInsertTypes.put(table, InsertType.REPLACE);
-        }
-        loadJobSpec.setTableInsertTypes(tableInsertTypes);
+        loadJobSpec.setInsertType(parseInsertType(optionSet, this));
+        loadJobSpec.setTableInsertTypes(parseTableInsertTypes(optionSet, this));
     }
 
     protected void parseExecutorGroup(OptionSet optionSet, LoadJobSpec jobSpec) {
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setTargetConnections(parseTargetConnectionsOption(optionSet, this));
+        jobSpec.setConstraintThreads(parseConstraintThreadsOption(optionSet, this));
+        parseReportOptions(optionSet, jobSpec, this);
+        jobSpec.setInspectionThreads(parseInspectionThreadsOption(optionSet, this));
+        jobSpec.setInspectionCache(parseInspectionCacheOption(optionSet, this));
         String parallelizerValue = (String) optionSet.getValue(
                 PARALLELIZER, PARALLELIZER_TABLE_LEVEL);
         Parallelizer parallelizer = createParallelizerMapping().get(parallelizerValue);
@@ -63,9 +63,12 @@ import com.nuodb.migrator.jdbc.metadata.generator.SequenceQualifyNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerAutoNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerHashNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerQualifyNamingStrategy;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.type.JdbcTypeCodes;
 import com.nuodb.migrator.spec.DriverConnectionSpec;
 import com.nuodb.migrator.spec.JdbcTypeSpec;
+import com.nuodb.migrator.spec.JobSpecBase;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.ResourceSpec;
 import com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase;
@@ -105,10 +108,13 @@ import static com.nuodb.migrator.utils.Priority.HIGH;
 import static com.nuodb.migrator.utils.Priority.LOW;
 import static com.nuodb.migrator.utils.ReflectionUtils.loadClass;
 import static com.nuodb.migrator.utils.ReflectionUtils.newInstance;
+import static com.nuodb.migrator.utils.metrics.MetricsReporter.FORMAT_CONSOLE;
+import static com.nuodb.migrator.utils.metrics.MetricsReporter.FORMAT_JSON;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.parseInt;
 import static java.lang.Long.parseLong;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
@@ -267,6 +273,15 @@ public class CliRunSupport extends CliSupport {
                 ).build();
         group.withOption(path);
 
+        Option compression = newBasicOptionBuilder().
+                withName(OUTPUT_COMPRESSION).
+                withDescription(getMessage(OUTPUT_COMPRESSION_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(OUTPUT_COMPRESSION_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(compression);
+
         OptionFormat optionFormat = new OptionFormat(getOptionFormat());
         optionFormat.setValuesSeparator(null);
 
@@ -352,6 +367,112 @@ public class CliRunSupport extends CliSupport {
                 ).build();
     }
 
+    protected Option createQueryLimitOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_LIMIT).
+                withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createQuerySplitsOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_SPLITS).
+                withDescription(getMessage(QUERY_SPLITS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_SPLITS_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createLobThresholdOption() {
+        return newBasicOptionBuilder().
+                withName(LOB_THRESHOLD).
+                withDescription(getMessage(LOB_THRESHOLD_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(LOB_THRESHOLD_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createPipelineSizeOption() {
+        return newBasicOptionBuilder().
+                withName(PIPELINE_SIZE).
+                withDescription(getMessage(PIPELINE_SIZE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(PIPELINE_SIZE_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createSourceConnectionsOption() {
+        return newBasicOptionBuilder().
+                withName(SOURCE_CONNECTIONS).
+                withDescription(getMessage(SOURCE_CONNECTIONS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(SOURCE_CONNECTIONS_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createTargetConnectionsOption() {
+        return newBasicOptionBuilder().
+                withName(TARGET_CONNECTIONS).
+                withDescription(getMessage(TARGET_CONNECTIONS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(TARGET_CONNECTIONS_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createConstraintThreadsOption() {
+        return newBasicOptionBuilder().
+                withName(CONSTRAINT_THREADS).
+                withDescription(getMessage(CONSTRAINT_THREADS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(CONSTRAINT_THREADS_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createResumeOption() {
+        return newBasicOptionBuilder().
+                withName(RESUME).
+                withDescription(getMessage(RESUME_OPTION_DESCRIPTION)).build();
+    }
+
+    protected Option createSnapshotOption() {
+        return newBasicOptionBuilder().
+                withName(SNAPSHOT).
+                withDescription(getMessage(SNAPSHOT_OPTION_DESCRIPTION)).build();
+    }
+
+    protected Option createInsertTypeGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_TYPE_GROUP_NAME));
+
+        Option replace = newBasicOptionBuilder().
+                withName(REPLACE).
+                withAlias(REPLACE_SHORT, OptionFormat.SHORT).
+                withDescription(getMessage(REPLACE_OPTION_DESCRIPTION)).build();
+        group.withOption(replace);
+
+        Option replaceType = newRegexOptionBuilder().
+                withName(TABLE_REPLACE).
+                withDescription(getMessage(TABLE_REPLACE_OPTION_DESCRIPTION)).
+                withRegex(TABLE_REPLACE, 1, LOW).build();
+        group.withOption(replaceType);
+
+        Option insertType = newRegexOptionBuilder().
+                withName(TABLE_INSERT).
+                withDescription(getMessage(TABLE_INSERT_OPTION_DESCRIPTION)).
+                withRegex(TABLE_INSERT, 1, LOW).build();
+        group.withOption(insertType);
+
+        return group.build();
+    }
+
     protected Group createTargetGroup() {
         GroupBuilder group = newGroupBuilder().
                 withName(getMessage(TARGET_GROUP_NAME));
@@ -696,6 +817,44 @@ public class CliRunSupport extends CliSupport {
                                 withName(getMessage(THREADS_ARGUMENT_NAME)).build()
                 ).build();
         group.withOption(threads);
+
+        Option reportInterval = newBasicOptionBuilder().
+                withName(REPORT_INTERVAL).
+                withDescription(getMessage(REPORT_INTERVAL_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(REPORT_INTERVAL_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(reportInterval);
+
+        Option reportFormat = newBasicOptionBuilder().
+                withName(REPORT_FORMAT).
+                withDescription(getMessage(REPORT_FORMAT_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(REPORT_FORMAT_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(reportFormat);
+
+        Option inspectionThreads = newBasicOptionBuilder().
+                withName(INSPECTION_THREADS).
+                withDescription(getMessage(INSPECTION_THREADS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSPECTION_THREADS_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(inspectionThreads);
+        group.withOption(createInspectionCacheOption());
+    }
+
+    protected Option createInspectionCacheOption() {
+        return newBasicOptionBuilder().
+                withName(INSPECTION_CACHE).
+                withDescription(getMessage(INSPECTION_CACHE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSPECTION_CACHE_ARGUMENT_NAME)).build()
+                ).build();
     }
 
     protected MetaDataFilterManager parseMetaDataFilterManagerGroup(OptionSet optionSet, Option option) {
@@ -818,6 +977,69 @@ public class CliRunSupport extends CliSupport {
         return commitStrategy;
     }
 
+    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
+        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT);
+        return !StringUtils.isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
+    }
+
+    protected Integer parseQuerySplitsOption(OptionSet optionSet, Option option) {
+        String querySplitsValue = (String) optionSet.getValue(QUERY_SPLITS);
+        return !StringUtils.isEmpty(querySplitsValue) ? parseInt(querySplitsValue) : null;
+    }
+
+    protected Integer parsePipelineSizeOption(OptionSet optionSet, Option option) {
+        String pipelineSizeValue = (String) optionSet.getValue(PIPELINE_SIZE);
+        return !StringUtils.isEmpty(pipelineSizeValue) ? parseInt(pipelineSizeValue) : null;
+    }
+
+    /**
+     * Large objects within the threshold are read inline into a single array, so the threshold is clamped to the
+     * maximum array length
+     */
+    protected Long parseLobThresholdOption(OptionSet optionSet, Option option) {
+        String lobThresholdValue = (String) optionSet.getValue(LOB_THRESHOLD);
+        return !StringUtils.isEmpty(lobThresholdValue) ?
+                min(parseLong(lobThresholdValue), MAX_VALUE) : null;
+    }
+
+    protected Integer parseSourceConnectionsOption(OptionSet optionSet, Option option) {
+        String sourceConnectionsValue = (String) optionSet.getValue(SOURCE_CONNECTIONS);
+        return !StringUtils.isEmpty(sourceConnectionsValue) ? parseInt(sourceConnectionsValue) : null;
+    }
+
+    protected Integer parseTargetConnectionsOption(OptionSet optionSet, Option option) {
+        String targetConnectionsValue = (String) optionSet.getValue(TARGET_CONNECTIONS);
+        return !StringUtils.isEmpty(targetConnectionsValue) ? parseInt(targetConnectionsValue) : null;
+    }
+
+    protected Integer parseConstraintThreadsOption(OptionSet optionSet, Option option) {
+        String constraintThreadsValue = (String) optionSet.getValue(CONSTRAINT_THREADS);
+        return !StringUtils.isEmpty(constraintThreadsValue) ? parseInt(constraintThreadsValue) : null;
+    }
+
+    protected boolean parseResumeOption(OptionSet optionSet, Option option) {
+        return optionSet.hasOption(RESUME);
+    }
+
+    protected boolean parseSnapshotOption(OptionSet optionSet, Option option) {
+        return optionSet.hasOption(SNAPSHOT);
+    }
+
+    protected InsertType parseInsertType(OptionSet optionSet, Option option) {
+        return optionSet.hasOption(REPLACE) ? InsertType.REPLACE : InsertType.INSERT;
+    }
+
+    protected Map<String, InsertType> parseTableInsertTypes(OptionSet optionSet, Option option) {
+        Map<String, InsertType> tableInsertTypes = newHashMap();
+        for (String table : optionSet.<String>getValues(TABLE_INSERT)) {
+            tableInsertTypes.put(table, InsertType.INSERT);
+        }
+        for (String table : optionSet.<String>getValues(TABLE_REPLACE)) {
+            tableInsertTypes.put(table, InsertType.REPLACE);
+        }
+        return tableInsertTypes;
+    }
+
     /**
      * Parses URL encoded properties name1=value1&name2=value2
      *
@@ -1039,6 +1261,27 @@ public class CliRunSupport extends CliSupport {
         return !StringUtils.isEmpty(threadsValue) ? parseInt(threadsValue) : null;
     }
 
+    protected Integer parseInspectionThreadsOption(OptionSet optionSet, Option option) {
+        String inspectionThreadsValue = (String) optionSet.getValue(INSPECTION_THREADS);
+        return !StringUtils.isEmpty(inspectionThreadsValue) ? parseInt(inspectionThreadsValue) : null;
+    }
+
+    protected String parseInspectionCacheOption(OptionSet optionSet, Option option) {
+        String inspectionCacheValue = (String) optionSet.getValue(INSPECTION_CACHE);
+        return !StringUtils.isEmpty(inspectionCacheValue) ? inspectionCacheValue : null;
+    }
+
+    protected void parseReportOptions(OptionSet optionSet, JobSpecBase jobSpec, Option option) {
+        String reportInterval = (String) optionSet.getValue(REPORT_INTERVAL);
+        jobSpec.setReportInterval(!StringUtils.isEmpty(reportInterval) ? parseLong(reportInterval) : null);
+        String reportFormat = (String) optionSet.getValue(REPORT_FORMAT);
+        if (reportFormat != null && !FORMAT_CONSOLE.equals(reportFormat) && !FORMAT_JSON.equals(reportFormat)) {
+            throw new OptionException(format("Unexpected value for %s option, valid values are %s",
+                    REPORT_FORMAT, asList(FORMAT_CONSOLE, FORMAT_JSON)), option);
+        }
+        jobSpec.setReportFormat(reportFormat);
+    }
+
 
     public TimeZone getDefaultTimeZone() {
         return defaultTimeZone;
@@ -61,6 +61,7 @@ public class CliSchemaJob extends CliJob<SchemaJobSpec> {
         group.withOption(createOutputGroup());
         group.withOption(createMetaDataFilterManagerGroup());
         group.withOption(createSchemaMigrationGroup());
+        group.withOption(createInspectionCacheOption());
         return group.build();
     }
 
@@ -72,6 +73,7 @@ public class CliSchemaJob extends CliJob<SchemaJobSpec> {
         schemaJobSpec.setOutputSpec(parseOutputGroup(optionSet, this));
         schemaJobSpec.setMetaDataFilterManager(parseMetaDataFilterManagerGroup(optionSet, this));
         parseSchemaMigrationGroup(optionSet, schemaJobSpec, this);
+        schemaJobSpec.setInspectionCache(parseInspectionCacheOption(optionSet, this));
         setJobSpec(schemaJobSpec);
     }
 
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.copy;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.copier.BackupCopier;
+import com.nuodb.migrator.backup.copier.CopyBackupWriter;
+import com.nuodb.migrator.backup.loader.InsertTypeFactory;
+import com.nuodb.migrator.backup.loader.SimpleInsertTypeFactory;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.TranslationConfig;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.job.ScriptGeneratorJobBase;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import com.nuodb.migrator.spec.CopyJobSpec;
+import com.nuodb.migrator.spec.MigrationMode;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static com.nuodb.migrator.backup.copier.RowQueue.CAPACITY;
+import static com.nuodb.migrator.backup.loader.BackupLoader.THREADS;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newTransactionIsolationSetter;
+import static java.sql.Connection.*;
+
+/**
+ * Copies schema and data from the source database to the target database without intermediate backup files.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("ConstantConditions")
+public class CopyJob extends ScriptGeneratorJobBase<CopyJobSpec> {
+
+    private BackupCopier backupCopier;
+
+    public CopyJob(CopyJobSpec jobSpec) {
+        super(jobSpec);
+    }
+
+    @Override
+    protected void init() throws Exception {
+        super.init();
+
+        int threads = getThreads() != null ? getThreads() : THREADS;
+
+        CopyBackupWriter backupWriter = new CopyBackupWriter();
+        backupWriter.setFormatFactory(createFormatFactory());
+        SessionFactory sourceSessionFactory = createSourceSessionFactory();
+        backupWriter.setInspectionManager(createInspectionManager(sourceSessionFactory));
+        backupWriter.setMetaDataSpec(getMetaDataSpec());
+        backupWriter.setMetricRegistry(getMetricRegistry());
+        backupWriter.setQueryLimit(getQueryLimit());
+        backupWriter.setQuerySplits(getQuerySplits());
+        backupWriter.setSourceSpec(getSourceSpec());
+        backupWriter.setSourceSessionFactory(sourceSessionFactory);
+        backupWriter.setTimeZone(getTimeZone());
+        backupWriter.setThreads(threads);
+        backupWriter.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
+
+        BackupCopier backupCopier = new BackupCopier();
+        backupCopier.setBackupWriter(backupWriter);
+        backupCopier.setCommitStrategy(getCommitStrategy());
+        backupCopier.setDialectResolver(createDialectResolver());
+        backupCopier.setFormatFactory(createFormatFactory());
+        backupCopier.setJdbcTypeSpecs(getJdbcTypeSpecs());
+        backupCopier.setGroupScriptsBy(getGroupScriptsBy());
+        backupCopier.setIdentifierNormalizer(getIdentifierNormalizer());
+        backupCopier.setIdentifierQuoting(getIdentifierQuoting());
+        backupCopier.setInsertTypeFactory(createInsertTypeMapper());
+        SessionFactory targetSessionFactory = createTargetSessionFactory();
+        backupCopier.setInspectionManager(createInspectionManager(targetSessionFactory));
+        backupCopier.setMetaDataSpec(getMetaDataSpec());
+        backupCopier.setMetricRegistry(getMetricRegistry());
+        backupCopier.setMigrationModes(getMigrationModes());
+        backupCopier.setNamingStrategies(getNamingStrategies());
+        backupCopier.setQueueSize(getQueueSize() != null ? getQueueSize() : CAPACITY);
+        backupCopier.setScriptTypes(getScriptTypes());
+        backupCopier.setMetaDataFilterManager(getMetaDataFilterManager());
+        backupCopier.setTargetSpec(getTargetSpec());
+        backupCopier.setTargetSessionFactory(targetSessionFactory);
+        backupCopier.setTimeZone(getTimeZone());
+        backupCopier.setThreads(threads);
+        backupCopier.setTranslationConfig(getTranslationConfig());
+        backupCopier.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
+        setBackupCopier(backupCopier);
+    }
+
+    protected InsertTypeFactory createInsertTypeMapper() {
+        return new SimpleInsertTypeFactory(getInsertType(), getTableInsertTypes());
+    }
+
+    protected SessionFactory createSourceSessionFactory() {
+        SessionFactory sessionFactory = newSessionFactory(
+                createConnectionProviderFactory().
+                        createConnectionProvider(getSourceSpec()), createDialectResolver());
+        if (getSourceSpec().getTransactionIsolation() == null) {
+            sessionFactory.addSessionObserver(newTransactionIsolationSetter(new int[]{
+                    TRANSACTION_SERIALIZABLE,
+                    TRANSACTION_REPEATABLE_READ,
+                    TRANSACTION_READ_COMMITTED
+            }));
+        }
+        sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return sessionFactory;
+    }
+
+    protected SessionFactory createTargetSessionFactory() {
+        SessionFactory targetSessionFactory =
+                newSessionFactory(createConnectionProviderFactory().
+                        createConnectionProvider(getTargetSpec()), createDialectResolver());
+        targetSessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return targetSessionFactory;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        try {
+            BackupCopier backupCopier = getBackupCopier();
+            backupCopier.copy();
+        } catch (MigratorException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new CopyException(exception);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+
+    protected BackupCopier getBackupCopier() {
+        return backupCopier;
+    }
+
+    protected void setBackupCopier(BackupCopier backupCopier) {
+        this.backupCopier = backupCopier;
+    }
+
+    protected CommitStrategy getCommitStrategy() {
+        return getJobSpec().getCommitStrategy();
+    }
+
+    protected InsertType getInsertType() {
+        return getJobSpec().getInsertType();
+    }
+
+    protected Collection<MigrationMode> getMigrationModes() {
+        return getJobSpec().getMigrationModes();
+    }
+
+    protected QueryLimit getQueryLimit() {
+        return getJobSpec().getQueryLimit();
+    }
+
+    protected Integer getQuerySplits() {
+        return getJobSpec().getQuerySplits();
+    }
+
+    protected Integer getQueueSize() {
+        return getJobSpec().getQueueSize();
+    }
+
+    protected ConnectionSpec getSourceSpec() {
+        return getJobSpec().getSourceSpec();
+    }
+
+    protected Map<String, InsertType> getTableInsertTypes() {
+        return getJobSpec().getTableInsertTypes();
+    }
+
+    protected TimeZone getTimeZone() {
+        return getJobSpec().getTimeZone();
+    }
+
+    protected TranslationConfig getTranslationConfig() {
+        return getJobSpec().getTranslationConfig();
+    }
+
+    protected Integer getThreads() {
+        return getJobSpec().getThreads();
+    }
+}
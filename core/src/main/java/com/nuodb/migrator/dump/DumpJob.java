@@ -46,6 +46,7 @@ import java.util.TimeZone;
 
 import static com.nuodb.migrator.backup.writer.BackupWriter.THREADS;
 import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
 import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
 import static com.nuodb.migrator.jdbc.session.SessionObservers.newTransactionIsolationSetter;
 import static java.sql.Connection.*;
@@ -76,13 +77,21 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         backupWriter.setFormat(getFormat());
         backupWriter.setFormatAttributes(getFormatAttributes());
         backupWriter.setFormatFactory(createFormatFactory());
-        backupWriter.setInspectionManager(createInspectionManager());
+        SessionFactory sourceSessionFactory = createSourceSessionFactory();
+        backupWriter.setInspectionManager(createInspectionManager(sourceSessionFactory));
         backupWriter.setMetaDataSpec(getMetaDataSpec());
         backupWriter.setMigrationModes(getMigrationModes());
         backupWriter.setQueryLimit(getQueryLimit());
+        backupWriter.setQuerySplits(getQuerySplits());
+        backupWriter.setPipelineSize(getPipelineSize());
+        backupWriter.setCompression(getCompression());
+        backupWriter.setLobThreshold(getLobThreshold());
+        backupWriter.setResume(isResume());
+        backupWriter.setSnapshot(isSnapshot());
+        backupWriter.setMetricRegistry(getMetricRegistry());
         backupWriter.setQuerySpecs(getQuerySpecs());
         backupWriter.setSourceSpec(getSourceSpec());
-        backupWriter.setSourceSessionFactory(createSourceSessionFactory());
+        backupWriter.setSourceSessionFactory(sourceSessionFactory);
         backupWriter.setTimeZone(getTimeZone());
         backupWriter.setThreads(getThreads() != null ? getThreads() : THREADS);
         backupWriter.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
@@ -90,10 +99,10 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     }
 
     protected SessionFactory createSourceSessionFactory() {
-        SessionFactory sessionFactory = newSessionFactory(
+        SessionFactory sessionFactory = newSessionPool(newSessionFactory(
                 createConnectionProviderFactory().
-                        createConnectionProvider(getSourceSpec()), createDialectResolver());
-        if (getSourceSpec().getTransactionIsolation() == null) {
+                        createConnectionProvider(getSourceSpec()), createDialectResolver()));
+        if (getSourceSpec().getTransactionIsolation() == null && !isSnapshot()) {
             sessionFactory.addSessionObserver(newTransactionIsolationSetter(new int[]{
                     TRANSACTION_SERIALIZABLE,
                     TRANSACTION_REPEATABLE_READ,
@@ -101,6 +110,7 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
             }));
         }
         sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        setMaxConnections(sessionFactory, getSourceConnections());
         return sessionFactory;
     }
 
@@ -160,6 +170,34 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         return getJobSpec().getQueryLimit();
     }
 
+    public Integer getQuerySplits() {
+        return getJobSpec().getQuerySplits();
+    }
+
+    public Integer getPipelineSize() {
+        return getJobSpec().getPipelineSize();
+    }
+
+    public String getCompression() {
+        return getJobSpec().getCompression();
+    }
+
+    public Long getLobThreshold() {
+        return getJobSpec().getLobThreshold();
+    }
+
+    public boolean isResume() {
+        return getJobSpec().isResume();
+    }
+
+    public boolean isSnapshot() {
+        return getJobSpec().isSnapshot();
+    }
+
+    public Integer getSourceConnections() {
+        return getJobSpec().getSourceConnections();
+    }
+
     protected Collection<QuerySpec> getQuerySpecs() {
         return getJobSpec().getQuerySpecs();
     }
@@ -27,8 +27,10 @@
  */
 package com.nuodb.migrator.jdbc;
 
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptProcessor;
 import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
@@ -96,6 +98,30 @@ public class JdbcUtils {
         }
     }
 
+    public static void closeQuietly(Session session, Snapshot snapshot) {
+        try {
+            if (session != null && snapshot != null) {
+                snapshot.getSnapshotHandler().closeSnapshot(session, snapshot);
+            }
+        } catch (SQLException exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Failed closing snapshot", exception);
+            }
+        }
+    }
+
+    public static void closeQuietly(SessionFactory sessionFactory) {
+        try {
+            if (sessionFactory != null) {
+                sessionFactory.close();
+            }
+        } catch (SQLException exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Failed closing session factory", exception);
+            }
+        }
+    }
+
     public static void closeQuietly(ScriptProcessor scriptProcessor) {
         try {
             if (scriptProcessor != null) {
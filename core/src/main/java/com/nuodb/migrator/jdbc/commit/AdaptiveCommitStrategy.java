@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static com.nuodb.migrator.utils.ValidationUtils.instanceOf;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batches updates as {@link BatchCommitStrategy} does, but tunes batch size of each commit executor on the fly. Batch
+ * size grows additively by a minimum batch size while batches execute within the target latency and throughput holds
+ * and is halved otherwise, staying within minimum and maximum bounds. Commits are issued at most once per commit
+ * interval rather than after each batch if the interval is set. Tuned batch size is logged per table on finish, so that
+ * it can be passed as commit.batch.size to later runs.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategy implements CommitStrategy {
+
+    public static final String ATTRIBUTE_BATCH_SIZE = "batch.size";
+    public static final String ATTRIBUTE_MIN_BATCH_SIZE = "min.batch.size";
+    public static final String ATTRIBUTE_MAX_BATCH_SIZE = "max.batch.size";
+    public static final String ATTRIBUTE_BATCH_LATENCY = "batch.latency";
+    public static final String ATTRIBUTE_COMMIT_INTERVAL = "commit.interval";
+
+    public static final long BATCH_SIZE = 1000;
+    public static final long MIN_BATCH_SIZE = 100;
+    public static final long MAX_BATCH_SIZE = 50000;
+    /**
+     * Target latency of a single batch execution in milliseconds
+     */
+    public static final long BATCH_LATENCY = 1000;
+    /**
+     * Minimum interval between commits in milliseconds, commits after each batch if 0
+     */
+    public static final long COMMIT_INTERVAL = 0;
+    /**
+     * Batch size is decreased if throughput drops below this ratio of the throughput of the previous batch
+     */
+    public static final double THROUGHPUT_DROP = 0.75;
+
+    private long batchSize = BATCH_SIZE;
+    private long minBatchSize = MIN_BATCH_SIZE;
+    private long maxBatchSize = MAX_BATCH_SIZE;
+    private long batchLatency = BATCH_LATENCY;
+    private long commitInterval = COMMIT_INTERVAL;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        Long batchSize = getLong(attributes, ATTRIBUTE_BATCH_SIZE);
+        if (batchSize != null) {
+            setBatchSize(batchSize);
+        }
+        Long minBatchSize = getLong(attributes, ATTRIBUTE_MIN_BATCH_SIZE);
+        if (minBatchSize != null) {
+            setMinBatchSize(minBatchSize);
+        }
+        Long maxBatchSize = getLong(attributes, ATTRIBUTE_MAX_BATCH_SIZE);
+        if (maxBatchSize != null) {
+            setMaxBatchSize(maxBatchSize);
+        }
+        Long batchLatency = getLong(attributes, ATTRIBUTE_BATCH_LATENCY);
+        if (batchLatency != null) {
+            setBatchLatency(batchLatency);
+        }
+        Long commitInterval = getLong(attributes, ATTRIBUTE_COMMIT_INTERVAL);
+        if (commitInterval != null) {
+            setCommitInterval(commitInterval);
+        }
+    }
+
+    protected Long getLong(Map<String, Object> attributes, String attribute) {
+        Object value = attributes.get(attribute);
+        return value instanceof String && !isEmpty((String) value) ? parseLong((String) value) : null;
+    }
+
+    @Override
+    public CommitExecutor createCommitExecutor(Statement statement, Query query) {
+        instanceOf(statement, PreparedStatement.class);
+        return new AdaptiveCommitExecutor((PreparedStatement) statement, query, this);
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public void setMinBatchSize(long minBatchSize) {
+        this.minBatchSize = minBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(long maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getBatchLatency() {
+        return batchLatency;
+    }
+
+    public void setBatchLatency(long batchLatency) {
+        this.batchLatency = batchLatency;
+    }
+
+    public long getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AdaptiveCommitStrategy that = (AdaptiveCommitStrategy) o;
+
+        if (batchSize != that.batchSize) return false;
+        if (minBatchSize != that.minBatchSize) return false;
+        if (maxBatchSize != that.maxBatchSize) return false;
+        if (batchLatency != that.batchLatency) return false;
+        if (commitInterval != that.commitInterval) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (batchSize ^ (batchSize >>> 32));
+        result = 31 * result + (int) (minBatchSize ^ (minBatchSize >>> 32));
+        result = 31 * result + (int) (maxBatchSize ^ (maxBatchSize >>> 32));
+        result = 31 * result + (int) (batchLatency ^ (batchLatency >>> 32));
+        result = 31 * result + (int) (commitInterval ^ (commitInterval >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this);
+    }
+
+    /**
+     * Commit executor measuring latency of each batch execution including commit if it's due and adjusting the size of
+     * the next batch.
+     */
+    public static class AdaptiveCommitExecutor extends CommitExecutorBase<PreparedStatement> {
+
+        private final long minBatchSize;
+        private final long maxBatchSize;
+        private final long batchLatency;
+        private final long commitInterval;
+
+        private long batchSize;
+        private long batches;
+        private boolean uncommitted;
+        private long lastCommit;
+        private double lastThroughput;
+
+        private long rows;
+        private long batchCount;
+        private long commitCount;
+        private long elapsed;
+
+        public AdaptiveCommitExecutor(PreparedStatement statement, Query query, AdaptiveCommitStrategy strategy) {
+            super(statement, query);
+            this.minBatchSize = max(strategy.getMinBatchSize(), 1);
+            this.maxBatchSize = max(strategy.getMaxBatchSize(), minBatchSize);
+            this.batchSize = min(max(strategy.getBatchSize(), minBatchSize), maxBatchSize);
+            this.batchLatency = MILLISECONDS.toNanos(strategy.getBatchLatency());
+            this.commitInterval = MILLISECONDS.toNanos(strategy.getCommitInterval());
+            this.lastCommit = nanoTime();
+        }
+
+        @Override
+        public boolean execute() throws SQLException {
+            statement.addBatch();
+            batches++;
+            if (batches >= batchSize) {
+                return executeBatch();
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            if (batches > 0) {
+                executeBatch(statement, batches);
+                rows += batches;
+                batches = 0;
+                uncommitted = true;
+            }
+            if (uncommitted) {
+                commit();
+            }
+            if (logger.isInfoEnabled()) {
+                logger.info(format("Tuned batch size for %s is %d, loaded %d rows in %d batches with %d commits " +
+                        "at %.0f rows/s", getName(), batchSize, rows, batchCount, commitCount,
+                        elapsed > 0 ? rows / (double) elapsed * SECONDS.toNanos(1) : 0D));
+            }
+        }
+
+        protected boolean executeBatch() throws SQLException {
+            long start = nanoTime();
+            executeBatch(statement, batches);
+            uncommitted = true;
+            boolean commit = start - lastCommit >= commitInterval;
+            if (commit) {
+                commit();
+            }
+            long latency = nanoTime() - start;
+            adapt(batches, latency);
+            rows += batches;
+            elapsed += latency;
+            batchCount++;
+            batches = 0;
+            return commit;
+        }
+
+        protected void commit() throws SQLException {
+            commit(statement.getConnection());
+            uncommitted = false;
+            lastCommit = nanoTime();
+            commitCount++;
+        }
+
+        /**
+         * Additive increase while the batch executes within the target latency and throughput doesn't drop,
+         * multiplicative decrease otherwise.
+         *
+         * @param rows    number of rows in the executed batch
+         * @param latency latency of batch execution including commit in nanoseconds
+         */
+        protected void adapt(long rows, long latency) {
+            double throughput = rows / (double) max(latency, 1);
+            if (latency > batchLatency || throughput < lastThroughput * THROUGHPUT_DROP) {
+                batchSize = max(batchSize / 2, minBatchSize);
+            } else {
+                batchSize = min(batchSize + minBatchSize, maxBatchSize);
+            }
+            lastThroughput = throughput;
+        }
+
+        protected String getName() {
+            return query instanceof InsertQuery ? ((InsertQuery) query).getInto().getQualifiedName(null) : "query";
+        }
+
+        protected long nanoTime() {
+            return System.nanoTime();
+        }
+
+        public long getBatchSize() {
+            return batchSize;
+        }
+
+        public long getCommitCount() {
+            return commitCount;
+        }
+    }
+}
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.jdbc.commit;
 
+import com.nuodb.migrator.jdbc.query.InsertQuery;
 import com.nuodb.migrator.jdbc.query.Query;
 import com.nuodb.migrator.utils.ObjectUtils;
 
@@ -36,6 +37,7 @@ import java.sql.Statement;
 import java.util.Map;
 
 import static com.nuodb.migrator.utils.ValidationUtils.instanceOf;
+import static java.lang.Integer.parseInt;
 import static java.lang.Long.parseLong;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -45,10 +47,13 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 public class BatchCommitStrategy implements CommitStrategy {
 
     public static final String ATTRIBUTE_BATCH_SIZE = "batch.size";
+    public static final String ATTRIBUTE_BATCH_ROWS = "batch.rows";
 
     public static final long BATCH_SIZE = 1000;
+    public static final int BATCH_ROWS = 1;
 
     private long batchSize = BATCH_SIZE;
+    private int batchRows = BATCH_ROWS;
 
     @Override
     public void setAttributes(Map<String, Object> attributes) {
@@ -56,11 +61,19 @@ public class BatchCommitStrategy implements CommitStrategy {
         if (batchSizeValue instanceof String && !isEmpty((String) batchSizeValue)) {
             setBatchSize(parseLong((String) batchSizeValue));
         }
+        Object batchRowsValue = attributes.get(ATTRIBUTE_BATCH_ROWS);
+        if (batchRowsValue instanceof String && !isEmpty((String) batchRowsValue)) {
+            setBatchRows(parseInt((String) batchRowsValue));
+        }
     }
 
     @Override
     public CommitExecutor createCommitExecutor(Statement statement, Query query) {
         instanceOf(statement, PreparedStatement.class);
+        if (isMultiRow(query)) {
+            return new MultiRowCommitExecutor((PreparedStatement) statement, (InsertQuery) query,
+                    getBatchSize(), getBatchRows());
+        }
         return new CommitExecutorBase<PreparedStatement>(
                 (PreparedStatement) statement, query) {
 
@@ -87,13 +100,25 @@ public class BatchCommitStrategy implements CommitStrategy {
             }
 
             protected void executeBatch() throws SQLException {
-                statement.executeBatch();
-                statement.getConnection().commit();
+                executeBatch(statement, batches);
+                commit(statement.getConnection());
                 batches = 0;
             }
         };
     }
 
+    /**
+     * Multi-row inserts are used for insert queries with at least one column if more than one row per statement is
+     * requested
+     *
+     * @param query query to create commit executor for
+     * @return true if rows should be inserted with multi-row statements
+     */
+    protected boolean isMultiRow(Query query) {
+        return getBatchRows() > 1 && query instanceof InsertQuery &&
+                !((InsertQuery) query).getColumns().isEmpty();
+    }
+
     public long getBatchSize() {
         return batchSize;
     }
@@ -102,6 +127,14 @@ public class BatchCommitStrategy implements CommitStrategy {
         this.batchSize = batchSize;
     }
 
+    public int getBatchRows() {
+        return batchRows;
+    }
+
+    public void setBatchRows(int batchRows) {
+        this.batchRows = batchRows;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -110,13 +143,16 @@ public class BatchCommitStrategy implements CommitStrategy {
         BatchCommitStrategy that = (BatchCommitStrategy) o;
 
         if (batchSize != that.batchSize) return false;
+        if (batchRows != that.batchRows) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (int) (batchSize ^ (batchSize >>> 32));
+        int result = (int) (batchSize ^ (batchSize >>> 32));
+        result = 31 * result + batchRows;
+        return result;
     }
 
     @Override
@@ -28,16 +28,34 @@
 package com.nuodb.migrator.jdbc.commit;
 
 import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.utils.metrics.Histogram;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
+import org.slf4j.Logger;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Statement;
 
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
 /**
  * @author Sergey Bushik
  */
 public abstract class CommitExecutorBase<S extends Statement> implements CommitExecutor<S> {
 
+    public static final String BATCH_TIME_METRIC = "commit.batch.time";
+    public static final String COMMIT_TIME_METRIC = "commit.time";
+
+    protected transient final Logger logger = getLogger(getClass());
+
     protected S statement;
     protected Query query;
+    private Histogram batchTime;
+    private Histogram commitTime;
+    private CommitListener commitListener;
 
     public CommitExecutorBase(S statement, Query query) {
         this.statement = statement;
@@ -54,6 +72,70 @@ public abstract class CommitExecutorBase<S extends Statement> implements CommitE
         return query;
     }
 
+    /**
+     * Records batch execution and commit latencies to the histograms of the given registry
+     *
+     * @param metricRegistry registry to record latencies to or null to stop recording
+     */
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        batchTime = metricRegistry != null ? metricRegistry.getHistogram(BATCH_TIME_METRIC) : null;
+        commitTime = metricRegistry != null ? metricRegistry.getHistogram(COMMIT_TIME_METRIC) : null;
+    }
+
+    /**
+     * Executes batch on the statement and logs its execution time at debug level, so that statement level timing is
+     * available without intercepting each call on the statement.
+     *
+     * @param statement statement to execute batch on
+     * @param rows      number of rows in the batch
+     * @return update counts
+     * @throws SQLException if batch execution fails
+     */
+    protected int[] executeBatch(Statement statement, long rows) throws SQLException {
+        boolean debug = logger.isDebugEnabled();
+        if (!debug && batchTime == null) {
+            return statement.executeBatch();
+        }
+        long start = nanoTime();
+        int[] updates = statement.executeBatch();
+        long elapsed = nanoTime() - start;
+        if (batchTime != null) {
+            batchTime.record(elapsed);
+        }
+        if (debug) {
+            logger.debug(format("Batch of %d rows executed in %d ms %s", rows,
+                    NANOSECONDS.toMillis(elapsed), query));
+        }
+        return updates;
+    }
+
+    public CommitListener getCommitListener() {
+        return commitListener;
+    }
+
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    /**
+     * Commits the connection, records commit latency if metrics are enabled and notifies commit listener
+     *
+     * @param connection connection to commit
+     * @throws SQLException if commit fails
+     */
+    protected void commit(Connection connection) throws SQLException {
+        if (commitTime == null) {
+            connection.commit();
+        } else {
+            long start = nanoTime();
+            connection.commit();
+            commitTime.recordSince(start);
+        }
+        if (commitListener != null) {
+            commitListener.onCommit(this);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
+/**
+ * Inserts buffered rows with INSERT INTO ... VALUES (...), (...) statements, each inserting a configured number of
+ * rows, capped so that the statement doesn't exceed the maximum number of parameters of the dialect. Statements are
+ * batched and committed once batch size rows are inserted, as with {@link BatchCommitStrategy}, rows remaining on
+ * finish are inserted with a separate tail statement. Caller adds a row with {@link #addRow(Object)} before each {@link
+ * #execute()}, values of the rows are bound with {@link RowBinder} once a statement is full.
+ *
+ * @author Sergey Bushik
+ */
+public class MultiRowCommitExecutor<R> extends CommitExecutorBase<PreparedStatement> {
+
+    private final long batchSize;
+    private final int batchRows;
+    private final List<R> rows = newArrayList();
+    private RowBinder<R> rowBinder;
+    private PreparedStatement batchStatement;
+    private long batches;
+
+    public MultiRowCommitExecutor(PreparedStatement statement, InsertQuery query, long batchSize, int batchRows) {
+        super(statement, query);
+        this.batchSize = batchSize;
+        this.batchRows = getBatchRows(query, batchRows);
+    }
+
+    /**
+     * Limits rows per statement to the maximum number of parameters of the dialect divided by the number of columns
+     *
+     * @param query     insert query.
+     * @param batchRows requested number of rows per statement.
+     * @return number of rows per statement.
+     */
+    protected int getBatchRows(InsertQuery query, int batchRows) {
+        Integer maxParameters = query.getDialect() != null ? query.getDialect().getMaxParameters() : null;
+        int columns = query.getColumns().size();
+        if (maxParameters != null && columns > 0 && (long) batchRows * columns > maxParameters) {
+            int maxBatchRows = max(1, maxParameters / columns);
+            if (logger.isInfoEnabled()) {
+                logger.info(format("Rows per statement are capped from %d to %d, as %d columns are inserted " +
+                        "with at most %d parameters", batchRows, maxBatchRows, columns, maxParameters));
+            }
+            batchRows = maxBatchRows;
+        }
+        return batchRows;
+    }
+
+    public void addRow(R row) {
+        rows.add(row);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        if (rows.size() < batchRows) {
+            return false;
+        }
+        if (batchStatement == null) {
+            batchStatement = prepareStatement(batchRows);
+        }
+        bindRows(batchStatement);
+        batchStatement.addBatch();
+        batches++;
+        if (batches * batchRows > batchSize) {
+            executeBatch();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        if (batches > 0) {
+            executeBatch(batchStatement, batches * batchRows);
+            batches = 0;
+        }
+        if (!rows.isEmpty()) {
+            PreparedStatement tailStatement = prepareStatement(rows.size());
+            try {
+                bindRows(tailStatement);
+                tailStatement.executeUpdate();
+            } finally {
+                closeQuietly(tailStatement);
+            }
+        }
+        commit(statement.getConnection());
+    }
+
+    public void close() {
+        closeQuietly(batchStatement);
+        batchStatement = null;
+    }
+
+    protected void executeBatch() throws SQLException {
+        executeBatch(batchStatement, batches * batchRows);
+        commit(statement.getConnection());
+        batches = 0;
+    }
+
+    protected void bindRows(PreparedStatement statement) throws SQLException {
+        int row = 0;
+        for (R values : rows) {
+            rowBinder.bind(statement, row++, values);
+        }
+        rows.clear();
+    }
+
+    protected PreparedStatement prepareStatement(int rows) throws SQLException {
+        InsertQuery query = getQuery();
+        InsertQuery insertQuery = new InsertQuery();
+        insertQuery.setInsertType(query.getInsertType());
+        insertQuery.setDialect(query.getDialect());
+        insertQuery.setInto(query.getInto());
+        insertQuery.setQualifyNames(query.isQualifyNames());
+        insertQuery.setColumns(query.getColumns());
+        insertQuery.setRows(rows);
+        return statement.getConnection().prepareStatement(insertQuery.toString());
+    }
+
+    @Override
+    public InsertQuery getQuery() {
+        return (InsertQuery) super.getQuery();
+    }
+
+    public RowBinder<R> getRowBinder() {
+        return rowBinder;
+    }
+
+    public void setRowBinder(RowBinder<R> rowBinder) {
+        this.rowBinder = rowBinder;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchRows() {
+        return batchRows;
+    }
+}
@@ -114,6 +114,10 @@ public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
             }
         }, newMethodMatcher(Connection.class, GET_META_DATA_METHOD)));
 
+        // statements are proxied only to capture queries, skip it altogether if they are not going to be logged
+        if (!queryLogger.isEnabled()) {
+            return;
+        }
         // statement advices
         connection.addAdvisor(newMethodAdvisor(
                 new MethodInterceptor() {
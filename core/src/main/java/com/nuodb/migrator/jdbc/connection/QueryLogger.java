@@ -32,5 +32,13 @@ package com.nuodb.migrator.jdbc.connection;
  */
 public interface QueryLogger {
 
+    /**
+     * Checks whether queries are logged at all, if not statements are handed out unproxied and their calls go straight
+     * to the driver.
+     *
+     * @return true if queries should be captured and logged
+     */
+    boolean isEnabled();
+
     void log(String query);
 }
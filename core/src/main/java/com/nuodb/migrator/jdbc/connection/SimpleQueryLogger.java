@@ -40,6 +40,11 @@ public class SimpleQueryLogger implements QueryLogger {
         this.logger = logger;
     }
 
+    @Override
+    public boolean isEnabled() {
+        return logger.isTraceEnabled();
+    }
+
     @Override
     public void log(String query) {
         if (logger.isTraceEnabled()) {
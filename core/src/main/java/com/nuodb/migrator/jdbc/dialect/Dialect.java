@@ -103,6 +103,18 @@ public interface Dialect {
 
     RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType);
 
+    boolean supportsHistogram(Table table, Column column);
+
+    HistogramHandler createHistogramHandler(Table table, Column column, String filter);
+
+    boolean supportsChangeMarkers();
+
+    ChangeMarkerHandler createChangeMarkerHandler();
+
+    boolean supportsSnapshot();
+
+    SnapshotHandler createSnapshotHandler();
+
     boolean addScriptsInCreateTable(Table table);
 
     String getNullColumnString();
@@ -167,6 +179,13 @@ public interface Dialect {
 
     Integer getMaxOpenCursors(Connection connection) throws SQLException;
 
+    /**
+     * Maximum number of bind parameters of a single statement
+     *
+     * @return maximum number of parameters or null if it's not limited by the dialect
+     */
+    Integer getMaxParameters();
+
     void setSessionTimeZone(Connection connection, TimeZone timeZone) throws SQLException;
 
     void setFetchMode(Statement statement, FetchMode fetchMode) throws SQLException;
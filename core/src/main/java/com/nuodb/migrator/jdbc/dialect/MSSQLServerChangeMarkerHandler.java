@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Uses MODIFY_DATE of SYS.OBJECTS, which changes on ALTER TABLE and when an index of a table is created or altered.
+ *
+ * @author Sergey Bushik
+ */
+public class MSSQLServerChangeMarkerHandler extends SimpleChangeMarkerHandler {
+
+    public MSSQLServerChangeMarkerHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    protected Collection<ParameterizedQuery> createQueries(String catalog, String schema) {
+        String prefix = isEmpty(catalog) ? "" : (catalog + ".");
+        SelectQuery query = new SelectQuery();
+        query.columns("S.NAME AS OWNER", "O.NAME AS TABLE_NAME", "CONVERT(VARCHAR(23), O.MODIFY_DATE, 121) AS MARKER");
+        query.from(prefix + "SYS.OBJECTS AS O");
+        query.innerJoin(prefix + "SYS.SCHEMAS AS S", "S.SCHEMA_ID=O.SCHEMA_ID");
+        query.where("O.TYPE IN ('U', 'V')");
+        Collection<Object> parameters = newArrayList();
+        if (!isEmpty(schema)) {
+            query.where("S.NAME=?");
+            parameters.add(schema);
+        }
+        return singleton(new ParameterizedQuery(query, parameters));
+    }
+}
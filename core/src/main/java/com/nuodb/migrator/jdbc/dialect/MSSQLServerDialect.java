@@ -105,6 +105,14 @@ public class MSSQLServerDialect extends SimpleDialect {
         return false;
     }
 
+    /**
+     * SQL Server accepts at most 2100 parameters per request
+     */
+    @Override
+    public Integer getMaxParameters() {
+        return 2100;
+    }
+
     @Override
     public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
         return (rowCountType == APPROX && column == null && filter == null) || rowCountType == EXACT;
@@ -145,4 +153,14 @@ public class MSSQLServerDialect extends SimpleDialect {
                                                       RowCountType rowCountType) {
         return new MSSQLServerTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public boolean supportsChangeMarkers() {
+        return true;
+    }
+
+    @Override
+    public ChangeMarkerHandler createChangeMarkerHandler() {
+        return new MSSQLServerChangeMarkerHandler(this);
+    }
 }
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Checksums table columns, index columns, constraints, key columns and foreign key rules from INFORMATION_SCHEMA, as
+ * CREATE_TIME of a table is not changed by in place ALTER TABLE statements, including the ones adding or dropping
+ * constraints.
+ *
+ * @author Sergey Bushik
+ */
+public class MySQLChangeMarkerHandler extends SimpleChangeMarkerHandler {
+
+    public MySQLChangeMarkerHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    protected Collection<ParameterizedQuery> createQueries(String catalog, String schema) {
+        SelectQuery query = new SelectQuery();
+        query.columns("T.TABLE_SCHEMA AS OWNER", "T.TABLE_NAME");
+        query.column("CONCAT_WS(':', T.CREATE_TIME, " +
+                "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(',', C.COLUMN_NAME, C.ORDINAL_POSITION, " +
+                "C.COLUMN_TYPE, C.IS_NULLABLE, C.COLUMN_DEFAULT, C.EXTRA, C.COLUMN_COMMENT))), 0)) " +
+                "FROM INFORMATION_SCHEMA.COLUMNS C " +
+                "WHERE C.TABLE_SCHEMA = T.TABLE_SCHEMA AND C.TABLE_NAME = T.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(',', S.INDEX_NAME, S.SEQ_IN_INDEX, " +
+                "S.COLUMN_NAME, S.NON_UNIQUE, S.INDEX_TYPE))), 0)) " +
+                "FROM INFORMATION_SCHEMA.STATISTICS S " +
+                "WHERE S.TABLE_SCHEMA = T.TABLE_SCHEMA AND S.TABLE_NAME = T.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(',', TC.CONSTRAINT_NAME, " +
+                "TC.CONSTRAINT_TYPE))), 0)) " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS TC " +
+                "WHERE TC.TABLE_SCHEMA = T.TABLE_SCHEMA AND TC.TABLE_NAME = T.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(',', K.CONSTRAINT_NAME, K.COLUMN_NAME, " +
+                "K.ORDINAL_POSITION, K.REFERENCED_TABLE_SCHEMA, K.REFERENCED_TABLE_NAME, " +
+                "K.REFERENCED_COLUMN_NAME))), 0)) " +
+                "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE K " +
+                "WHERE K.TABLE_SCHEMA = T.TABLE_SCHEMA AND K.TABLE_NAME = T.TABLE_NAME), " +
+                "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(',', R.CONSTRAINT_NAME, " +
+                "R.UNIQUE_CONSTRAINT_NAME, R.MATCH_OPTION, R.UPDATE_RULE, R.DELETE_RULE))), 0)) " +
+                "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS R " +
+                "WHERE R.CONSTRAINT_SCHEMA = T.TABLE_SCHEMA AND R.TABLE_NAME = T.TABLE_NAME)) AS MARKER");
+        query.from("INFORMATION_SCHEMA.TABLES T");
+        Collection<Object> parameters = newArrayList();
+        if (!isEmpty(catalog)) {
+            query.where("T.TABLE_SCHEMA=?");
+            parameters.add(catalog);
+        } else {
+            query.where("T.TABLE_SCHEMA=DATABASE()");
+        }
+        return singleton(new ParameterizedQuery(query, parameters));
+    }
+}
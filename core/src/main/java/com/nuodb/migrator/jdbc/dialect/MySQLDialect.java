@@ -263,6 +263,14 @@ public class MySQLDialect extends SimpleDialect {
         return new MySQLLimitHandler(this, query, queryLimit);
     }
 
+    /**
+     * Prepared statement placeholders are limited to 65535 by MySQL
+     */
+    @Override
+    public Integer getMaxParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
         return rowCountType == APPROX || rowCountType == EXACT;
@@ -272,4 +280,29 @@ public class MySQLDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new MySQLTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new MySQLHistogramHandler(this, table, column, filter);
+    }
+
+    @Override
+    public boolean supportsChangeMarkers() {
+        return true;
+    }
+
+    @Override
+    public ChangeMarkerHandler createChangeMarkerHandler() {
+        return new MySQLChangeMarkerHandler(this);
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return true;
+    }
+
+    @Override
+    public SnapshotHandler createSnapshotHandler() {
+        return new MySQLSnapshotHandler(this);
+    }
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Reads histograms created with ANALYZE TABLE ... UPDATE HISTOGRAM from INFORMATION_SCHEMA.COLUMN_STATISTICS, which
+ * is available since MySQL 8.0, falls back to MIN and MAX on earlier versions.
+ *
+ * @author Sergey Bushik
+ */
+public class MySQLHistogramHandler extends SimpleHistogramHandler {
+
+    private static final String BUCKETS = "buckets";
+
+    public MySQLHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        super(dialect, table, column, filter);
+    }
+
+    @Override
+    protected List<Object> getHistogram(Connection connection) throws SQLException {
+        Table table = getTable();
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("INFORMATION_SCHEMA.COLUMN_STATISTICS");
+        query.column("HISTOGRAM");
+        query.where("SCHEMA_NAME=?");
+        query.where("TABLE_NAME=?");
+        query.where("COLUMN_NAME=?");
+        try {
+            return getHistogram(connection, new ParameterizedQuery(query, newArrayList(
+                    table.getCatalog().getName(), table.getName(), getColumn().getName())));
+        } catch (SQLException exception) {
+            return null;
+        }
+    }
+
+    @Override
+    protected List<Object> getHistogram(ResultSet resultSet) throws SQLException {
+        String histogram = resultSet.next() ? resultSet.getString(1) : null;
+        try {
+            return histogram != null ? parseHistogram(histogram) : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses {"buckets": [[lower, upper, frequency, distinct], ...]} of equi-height histograms and {"buckets":
+     * [[value, frequency], ...]} of singleton histograms taking upper bounds and values correspondingly.
+     */
+    protected List<Object> parseHistogram(String histogram) throws IOException {
+        JsonParser parser = new JsonFactory().createParser(histogram);
+        try {
+            List<Object> bounds = null;
+            while (bounds == null && parser.nextToken() != null) {
+                if (parser.getCurrentToken() == FIELD_NAME && BUCKETS.equals(parser.getCurrentName())) {
+                    parser.nextToken();
+                    bounds = newArrayList();
+                    while (parser.nextToken() == START_ARRAY) {
+                        List<String> bucket = newArrayList();
+                        while (parser.nextToken() != END_ARRAY) {
+                            bucket.add(parser.getText());
+                        }
+                        Object bound = toValue(bucket.get(bucket.size() > 2 ? 1 : 0));
+                        if (bound == null) {
+                            return null;
+                        }
+                        bounds.add(bound);
+                    }
+                }
+            }
+            return bounds;
+        } finally {
+            parser.close();
+        }
+    }
+}
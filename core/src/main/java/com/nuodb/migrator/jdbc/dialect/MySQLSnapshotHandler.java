@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.session.Session;
+
+import java.sql.SQLException;
+
+import static java.sql.Connection.TRANSACTION_REPEATABLE_READ;
+
+/**
+ * Holds global read lock on the coordinator session while worker sessions start transactions with consistent
+ * snapshot, so that all of them see the same point in time. The lock is released as soon as the workers prepared up
+ * front have joined the snapshot, sessions opened later can't join it. Requires RELOAD privilege.
+ *
+ * @author Sergey Bushik
+ */
+public class MySQLSnapshotHandler extends SimpleSnapshotHandler {
+
+    public MySQLSnapshotHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    public Snapshot openSnapshot(Session session) throws SQLException {
+        execute(session, "FLUSH TABLES WITH READ LOCK");
+        return new Snapshot(this, null, false);
+    }
+
+    @Override
+    public void joinSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        begin(session, TRANSACTION_REPEATABLE_READ);
+        execute(session, "START TRANSACTION WITH CONSISTENT SNAPSHOT");
+    }
+
+    @Override
+    protected void release(Session session, Snapshot snapshot) throws SQLException {
+        execute(session, "UNLOCK TABLES");
+    }
+}
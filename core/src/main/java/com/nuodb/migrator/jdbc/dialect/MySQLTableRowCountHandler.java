@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Index;
 import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -77,10 +78,22 @@ public class MySQLTableRowCountHandler extends SimpleTableRowCountHandler {
         return new TableRowCountQuery(table, column, filter, query, EXACT);
     }
 
+    /**
+     * Reads TABLE_ROWS estimated by the storage engine if neither column nor filter are set, otherwise explains select
+     * query to get number of rows optimizer expects to read.
+     */
     @Override
     protected TableRowCountQuery createApproxRowCountQuery() {
         Table table = getTable();
         Column column = getColumn();
+        if (column == null && getFilter() == null) {
+            SelectQuery query = new SelectQuery();
+            query.column("TABLE_ROWS");
+            query.from("INFORMATION_SCHEMA.TABLES");
+            query.where("TABLE_SCHEMA='" + table.getCatalog().getName() + "'");
+            query.where("TABLE_NAME='" + table.getName() + "'");
+            return new TableRowCountQuery(table, null, null, query, APPROX);
+        }
         PrimaryKey primaryKey = table.getPrimaryKey();
         if (column == null && primaryKey != null && size(primaryKey.getColumns()) > 0) {
             column = get(primaryKey.getColumns(), 0);
@@ -111,7 +124,8 @@ public class MySQLTableRowCountHandler extends SimpleTableRowCountHandler {
                 rowCount = resultSet.next() ? resultSet.getLong(1) : null;
                 break;
             case APPROX:
-                rowCount = resultSet.next() ? resultSet.getLong("ROWS") : null;
+                rowCount = resultSet.next() ? resultSet.getLong(
+                        rowCountQuery.getQuery() instanceof ExplainQuery ? "ROWS" : "TABLE_ROWS") : null;
         }
         return rowCount;
     }
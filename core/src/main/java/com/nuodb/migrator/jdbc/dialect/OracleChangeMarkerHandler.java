@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Uses LAST_DDL_TIME of ALL_OBJECTS, which is updated by ALTER TABLE and by creation or rebuild of table indexes.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleChangeMarkerHandler extends SimpleChangeMarkerHandler {
+
+    public OracleChangeMarkerHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    protected Collection<ParameterizedQuery> createQueries(String catalog, String schema) {
+        SelectQuery query = new SelectQuery();
+        query.columns("OWNER", "OBJECT_NAME AS TABLE_NAME", "TO_CHAR(LAST_DDL_TIME, 'YYYYMMDDHH24MISS') AS MARKER");
+        query.from("ALL_OBJECTS");
+        query.where("OBJECT_TYPE IN ('TABLE', 'VIEW')");
+        Collection<Object> parameters = newArrayList();
+        if (!isEmpty(schema)) {
+            query.where("OWNER=?");
+            parameters.add(schema);
+        }
+        return singleton(new ParameterizedQuery(query, parameters));
+    }
+}
@@ -245,6 +245,14 @@ public class OracleDialect extends SimpleDialect {
         return new OracleLimitHandler(this, query, queryLimit);
     }
 
+    /**
+     * Oracle accepts at most 65535 bind variables per statement
+     */
+    @Override
+    public Integer getMaxParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
         return (rowCountType == APPROX && column == null && filter == null) || (rowCountType == EXACT);
@@ -254,4 +262,29 @@ public class OracleDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new OracleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new OracleHistogramHandler(this, table, column, filter);
+    }
+
+    @Override
+    public boolean supportsChangeMarkers() {
+        return true;
+    }
+
+    @Override
+    public ChangeMarkerHandler createChangeMarkerHandler() {
+        return new OracleChangeMarkerHandler(this);
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return true;
+    }
+
+    @Override
+    public SnapshotHandler createSnapshotHandler() {
+        return new OracleSnapshotHandler(this);
+    }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Reads histogram end points gathered by DBMS_STATS from ALL_TAB_HISTOGRAMS view. End points of DATE and TIMESTAMP
+ * columns are stored as Julian days.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleHistogramHandler extends SimpleHistogramHandler {
+
+    /**
+     * Julian day of 1970-01-01
+     */
+    private static final long JULIAN_DAY_EPOCH = 2440588;
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    public OracleHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        super(dialect, table, column, filter);
+    }
+
+    @Override
+    protected List<Object> getHistogram(Connection connection) throws SQLException {
+        Table table = getTable();
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("SYS.ALL_TAB_HISTOGRAMS");
+        query.column("ENDPOINT_VALUE");
+        query.where("ALL_TAB_HISTOGRAMS.OWNER=?");
+        query.where("ALL_TAB_HISTOGRAMS.TABLE_NAME=?");
+        query.where("ALL_TAB_HISTOGRAMS.COLUMN_NAME=?");
+        query.orderBy("ENDPOINT_NUMBER");
+        return getHistogram(connection, new ParameterizedQuery(query, newArrayList(
+                table.getSchema().getName(), table.getName(), getColumn().getName())));
+    }
+
+    @Override
+    protected Object toValue(Object value) {
+        if (value instanceof Number && isTemporal(getColumn().getTypeCode())) {
+            BigDecimal days = new BigDecimal(value.toString()).subtract(BigDecimal.valueOf(JULIAN_DAY_EPOCH));
+            return new Timestamp(days.multiply(BigDecimal.valueOf(MILLIS_PER_DAY)).longValue());
+        } else {
+            return super.toValue(value);
+        }
+    }
+}
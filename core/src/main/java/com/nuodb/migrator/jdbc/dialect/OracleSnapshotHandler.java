@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.session.Session;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Reads current system change number on the coordinator session and enables flashback query mode at this number on
+ * the worker sessions, so that their queries return data as of the same SCN without rewriting them with AS OF SCN
+ * clause. Requires EXECUTE privilege on DBMS_FLASHBACK and undo retention covering the dump.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleSnapshotHandler extends SimpleSnapshotHandler {
+
+    public OracleSnapshotHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    public Snapshot openSnapshot(Session session) throws SQLException {
+        return new Snapshot(this, executeQuery(session, "SELECT DBMS_FLASHBACK.GET_SYSTEM_CHANGE_NUMBER FROM DUAL"),
+                true);
+    }
+
+    @Override
+    public void joinSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        Connection connection = session.getConnection();
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        execute(session, "BEGIN DBMS_FLASHBACK.ENABLE_AT_SYSTEM_CHANGE_NUMBER(" + snapshot.getId() + "); END;");
+    }
+
+    @Override
+    public void leaveSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        if (!session.getConnection().isClosed()) {
+            execute(session, "BEGIN DBMS_FLASHBACK.DISABLE; END;");
+        }
+    }
+}
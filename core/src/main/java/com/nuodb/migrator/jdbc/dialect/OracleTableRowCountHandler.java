@@ -44,7 +44,10 @@ public class OracleTableRowCountHandler extends SimpleTableRowCountHandler {
 
     public static final String UPDATE_STATISTICS_QUERY = "ANALYZE TABLE %s ESTIMATE STATISTICS SAMPLE 10 PERCENT";
 
-    public static final boolean UPDATE_STATISTICS = true;
+    /**
+     * Statistics are not gathered by default, as sampling of a large table is close to counting its rows
+     */
+    public static final boolean UPDATE_STATISTICS = false;
 
     private String updateStatisticsQuery = UPDATE_STATISTICS_QUERY;
 
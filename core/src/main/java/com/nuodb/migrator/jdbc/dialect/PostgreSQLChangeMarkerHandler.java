@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Combines transaction id of the PG_CLASS row with the latest changes of table attributes, column defaults, indexes
+ * and constraints, as some of the DDL statements leave PG_CLASS row of a table intact.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLChangeMarkerHandler extends SimpleChangeMarkerHandler {
+
+    public PostgreSQLChangeMarkerHandler(Dialect dialect) {
+        super(dialect);
+    }
+
+    @Override
+    protected Collection<ParameterizedQuery> createQueries(String catalog, String schema) {
+        SelectQuery query = new SelectQuery();
+        query.columns("N.NSPNAME AS OWNER", "C.RELNAME AS TABLE_NAME");
+        query.column("C.XMIN::TEXT || ':' || " +
+                "(SELECT COUNT(*) || ':' || COALESCE(MAX(A.XMIN::TEXT::BIGINT), 0) " +
+                "FROM PG_CATALOG.PG_ATTRIBUTE A WHERE A.ATTRELID = C.OID) || ':' || " +
+                "(SELECT COUNT(*) || ':' || COALESCE(MAX(D.OID::BIGINT), 0) " +
+                "FROM PG_CATALOG.PG_ATTRDEF D WHERE D.ADRELID = C.OID) || ':' || " +
+                "(SELECT COUNT(*) || ':' || COALESCE(MAX(I.INDEXRELID::BIGINT), 0) " +
+                "FROM PG_CATALOG.PG_INDEX I WHERE I.INDRELID = C.OID) || ':' || " +
+                "(SELECT COUNT(*) || ':' || COALESCE(MAX(K.OID::BIGINT), 0) " +
+                "FROM PG_CATALOG.PG_CONSTRAINT K WHERE K.CONRELID = C.OID) AS MARKER");
+        query.from("PG_CATALOG.PG_CLASS C");
+        query.innerJoin("PG_CATALOG.PG_NAMESPACE N", "C.RELNAMESPACE = N.OID");
+        query.where("C.RELKIND IN ('r', 'v')");
+        Collection<Object> parameters = newArrayList();
+        if (!isEmpty(schema)) {
+            query.where("N.NSPNAME=?");
+            parameters.add(schema);
+        }
+        return singleton(new ParameterizedQuery(query, parameters));
+    }
+}
@@ -192,6 +192,14 @@ public class PostgreSQLDialect extends SimpleDialect {
         return new PostgreSQLLimitHandler(this, query, queryLimit);
     }
 
+    /**
+     * Bind parameters are numbered with a signed 2 byte integer by PostgreSQL JDBC driver
+     */
+    @Override
+    public Integer getMaxParameters() {
+        return 32767;
+    }
+
     @Override
     public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
         return rowCountType == APPROX || rowCountType == EXACT;
@@ -201,4 +209,29 @@ public class PostgreSQLDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new PostgreSQLTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new PostgreSQLHistogramHandler(this, table, column, filter);
+    }
+
+    @Override
+    public boolean supportsChangeMarkers() {
+        return true;
+    }
+
+    @Override
+    public ChangeMarkerHandler createChangeMarkerHandler() {
+        return new PostgreSQLChangeMarkerHandler(this);
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return true;
+    }
+
+    @Override
+    public SnapshotHandler createSnapshotHandler() {
+        return new PostgreSQLSnapshotHandler(this);
+    }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Reads equal-height histogram bounds collected by ANALYZE from PG_STATS view.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLHistogramHandler extends SimpleHistogramHandler {
+
+    public PostgreSQLHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        super(dialect, table, column, filter);
+    }
+
+    @Override
+    protected List<Object> getHistogram(Connection connection) throws SQLException {
+        Table table = getTable();
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("PG_CATALOG.PG_STATS");
+        query.column("HISTOGRAM_BOUNDS");
+        query.where("SCHEMANAME=?");
+        query.where("TABLENAME=?");
+        query.where("ATTNAME=?");
+        return getHistogram(connection, new ParameterizedQuery(query, newArrayList(
+                table.getSchema().getName(), table.getName(), getColumn().getName())));
+    }
+
+    @Override
+    protected List<Object> getHistogram(ResultSet resultSet) throws SQLException {
+        String histogram = resultSet.next() ? resultSet.getString(1) : null;
+        return histogram != null ? parseHistogram(histogram) : null;
+    }
+
+    /**
+     * Parses text representation of anyarray, i.e. {1,5,10} or {"2014-01-01 00:00:00","2014-02-01 00:00:00"}
+     */
+    protected List<Object> parseHistogram(String histogram) {
+        List<Object> bounds = newArrayList();
+        StringBuilder bound = new StringBuilder();
+        boolean quoted = false;
+        for (int index = 0; index < histogram.length(); index++) {
+            char c = histogram.charAt(index);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == ',' || c == '}')) {
+                Object value = toValue(bound.toString());
+                if (value == null) {
+                    return null;
+                }
+                bounds.add(value);
+                bound.setLength(0);
+            } else if (quoted || c != '{') {
+                bound.append(c);
+            }
+        }
+        return bounds;
+    }
+}
@@ -55,9 +55,22 @@ public class PostgreSQLTableRowCountHandler extends SimpleTableRowCountHandler {
         super(dialect, table, column, filter, rowCountType);
     }
 
+    /**
+     * Reads RELTUPLES maintained by VACUUM and ANALYZE if neither column nor filter are set, otherwise explains select
+     * query to get number of rows planner expects to return.
+     */
     @Override
     protected TableRowCountQuery createApproxRowCountQuery() {
         Table table = getTable();
+        if (getColumn() == null && getFilter() == null) {
+            SelectQuery query = new SelectQuery();
+            query.column("CAST(C.RELTUPLES AS BIGINT)");
+            query.from("PG_CATALOG.PG_CLASS C");
+            query.innerJoin("PG_CATALOG.PG_NAMESPACE N", "C.RELNAMESPACE = N.OID");
+            query.where("N.NSPNAME='" + table.getSchema().getName() + "'");
+            query.where("C.RELNAME='" + table.getName() + "'");
+            return new TableRowCountQuery(table, null, null, query, APPROX);
+        }
         PrimaryKey primaryKey = table.getPrimaryKey();
         Column column = getColumn();
         if (column == null && primaryKey != null && size(primaryKey.getColumns()) > 0) {
@@ -86,6 +99,10 @@ public class PostgreSQLTableRowCountHandler extends SimpleTableRowCountHandler {
         Long rowCount = null;
         switch (rowCountQuery.getRowCountType()) {
             case APPROX:
+                if (!(rowCountQuery.getQuery() instanceof ExplainQuery)) {
+                    rowCount = resultSet.next() ? resultSet.getLong(1) : null;
+                    break;
+                }
                 while (rowCount == null && resultSet.next()) {
                     Matcher matcher = EXPLAIN_QUERY_ROW_COUNT.matcher(resultSet.getString(1));
                     if (matcher.find()) {
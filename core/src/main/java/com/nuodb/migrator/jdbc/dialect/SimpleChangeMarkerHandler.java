@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.query.StatementFactory;
+import com.nuodb.migrator.jdbc.query.StatementTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static java.lang.String.valueOf;
+
+/**
+ * Runs change marker queries returning OWNER, TABLE_NAME and MARKER columns, where owner is a schema or a catalog for
+ * the databases without schemas. If several queries are given, markers of a table are joined in the query order.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class SimpleChangeMarkerHandler implements ChangeMarkerHandler {
+
+    private static final String MARKER_SEPARATOR = "/";
+
+    private final Dialect dialect;
+
+    protected SimpleChangeMarkerHandler(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Key of a table in the change markers map
+     *
+     * @param table to build key for.
+     * @return table name qualified with schema name or with catalog name if table has no schema.
+     */
+    public static String getKey(Table table) {
+        String owner = table.getSchema().getName();
+        return getKey(owner != null ? owner : table.getCatalog().getName(), table.getName());
+    }
+
+    public static String getKey(String owner, String table) {
+        return owner != null ? owner + "." + table : table;
+    }
+
+    @Override
+    public Map<String, String> getChangeMarkers(Connection connection, String catalog, String schema)
+            throws SQLException {
+        final Map<String, String> markers = newLinkedHashMap();
+        for (final ParameterizedQuery query : createQueries(catalog, schema)) {
+            StatementTemplate template = new StatementTemplate(connection);
+            template.executeStatement(
+                    new StatementFactory<PreparedStatement>() {
+                        @Override
+                        public PreparedStatement createStatement(Connection connection) throws SQLException {
+                            return connection.prepareStatement(query.toString());
+                        }
+                    },
+                    new StatementCallback<PreparedStatement>() {
+                        @Override
+                        public void executeStatement(PreparedStatement statement) throws SQLException {
+                            int index = 1;
+                            for (Object parameter : query.getParameters()) {
+                                statement.setObject(index++, parameter);
+                            }
+                            ResultSet resultSet = statement.executeQuery();
+                            while (resultSet.next()) {
+                                String key = getKey(resultSet.getString("OWNER"), resultSet.getString("TABLE_NAME"));
+                                String marker = valueOf(resultSet.getString("MARKER"));
+                                String previous = markers.get(key);
+                                markers.put(key, previous != null ? previous + MARKER_SEPARATOR + marker : marker);
+                            }
+                        }
+                    }
+            );
+        }
+        return markers;
+    }
+
+    protected abstract Collection<ParameterizedQuery> createQueries(String catalog, String schema);
+
+    @Override
+    public Dialect getDialect() {
+        return dialect;
+    }
+}
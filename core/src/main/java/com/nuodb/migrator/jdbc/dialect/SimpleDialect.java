@@ -70,6 +70,8 @@ import static com.nuodb.migrator.jdbc.dialect.DialectUtils.NULL;
 import static com.nuodb.migrator.jdbc.dialect.IdentifierNormalizers.NOOP;
 import static com.nuodb.migrator.jdbc.dialect.IdentifierQuotings.ALWAYS;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.dialect.SimpleHistogramHandler.isNumeric;
+import static com.nuodb.migrator.jdbc.dialect.SimpleHistogramHandler.isTemporal;
 import static java.lang.String.valueOf;
 import static java.sql.Connection.*;
 import static java.sql.Types.*;
@@ -188,6 +190,11 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return null;
     }
 
+    @Override
+    public Integer getMaxParameters() {
+        return null;
+    }
+
     @Override
     public boolean isQuotingIdentifier(String identifier, Identifiable identifiable) {
         return !isAllowedIdentifier(identifier, identifiable) || isSQLKeyword(identifier, identifiable);
@@ -441,6 +448,55 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return new SimpleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
 
+    /**
+     * Histograms are supported for numeric and temporal columns, bounds of which can be compared & interpolated.
+     *
+     * @param table  to build histogram for.
+     * @param column histogram column.
+     * @return true if column values can be split into ranges.
+     */
+    @Override
+    public boolean supportsHistogram(Table table, Column column) {
+        int typeCode = column.getTypeCode();
+        return isNumeric(typeCode) || isTemporal(typeCode);
+    }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new SimpleHistogramHandler(this, table, column, filter);
+    }
+
+    /**
+     * Change markers require access to system catalog and are provided by the dialects, which know how to tell that a
+     * table definition was altered.
+     *
+     * @return true if dialect creates change marker handler.
+     */
+    @Override
+    public boolean supportsChangeMarkers() {
+        return false;
+    }
+
+    @Override
+    public ChangeMarkerHandler createChangeMarkerHandler() {
+        return null;
+    }
+
+    /**
+     * Snapshot shared by several sessions relies on database specific statements exporting or pinning a point in time.
+     *
+     * @return true if dialect creates snapshot handler.
+     */
+    @Override
+    public boolean supportsSnapshot() {
+        return false;
+    }
+
+    @Override
+    public SnapshotHandler createSnapshotHandler() {
+        return null;
+    }
+
     @Override
     public boolean addScriptsInCreateTable(Table table) {
         return true;
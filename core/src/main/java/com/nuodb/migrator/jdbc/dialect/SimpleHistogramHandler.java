@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import com.nuodb.migrator.jdbc.query.StatementAction;
+import com.nuodb.migrator.jdbc.query.StatementFactory;
+import com.nuodb.migrator.jdbc.query.StatementTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.Math.round;
+import static java.math.RoundingMode.FLOOR;
+import static java.sql.Types.*;
+
+/**
+ * Samples MIN and MAX of a column and interpolates bounds between them linearly. Dialects exposing column statistics
+ * override {@link #getHistogram(Connection)} to return histogram bounds maintained by the database. Statistics cover
+ * all rows of the table, so they are not used if a filter is set and MIN and MAX of the filtered rows are sampled
+ * instead.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class SimpleHistogramHandler implements HistogramHandler {
+
+    private final Dialect dialect;
+    private final Table table;
+    private final Column column;
+    private final String filter;
+
+    public SimpleHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        this.dialect = dialect;
+        this.table = table;
+        this.column = column;
+        this.filter = filter;
+    }
+
+    public static boolean isNumeric(int typeCode) {
+        switch (typeCode) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case DECIMAL:
+            case NUMERIC:
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static boolean isIntegral(int typeCode) {
+        switch (typeCode) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static boolean isTemporal(int typeCode) {
+        return typeCode == DATE || typeCode == TIMESTAMP;
+    }
+
+    @Override
+    public List<Object> getBounds(Connection connection, int buckets) throws SQLException {
+        List<Object> histogram = getFilter() == null ? getHistogram(connection) : null;
+        if (histogram == null || histogram.size() < 2) {
+            histogram = getRange(connection);
+        }
+        List<Object> bounds;
+        if (histogram == null) {
+            bounds = newArrayList();
+        } else if (histogram.size() == 2) {
+            bounds = getBounds(histogram.get(0), histogram.get(1), buckets);
+        } else {
+            bounds = getBounds(histogram, buckets);
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns ascending histogram bounds from the column statistics, where every two adjacent bounds enclose roughly
+     * the same number of rows.
+     *
+     * @param connection to query statistics with.
+     * @return histogram bounds or null if statistics are not available.
+     * @throws SQLException if statistics can't be queried.
+     */
+    protected List<Object> getHistogram(Connection connection) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Executes statistics query binding its parameters and collects histogram bounds from its result set.
+     *
+     * @param connection to execute query with.
+     * @param query      selecting histogram bounds.
+     * @return histogram bounds or null if statistics are not available.
+     * @throws SQLException if query fails.
+     */
+    protected List<Object> getHistogram(Connection connection, final ParameterizedQuery query) throws SQLException {
+        return new StatementTemplate(connection).executeStatement(
+                new StatementFactory<PreparedStatement>() {
+                    @Override
+                    public PreparedStatement createStatement(Connection connection) throws SQLException {
+                        return connection.prepareStatement(query.toString());
+                    }
+                }, new StatementAction<PreparedStatement, List<Object>>() {
+                    @Override
+                    public List<Object> executeStatement(PreparedStatement statement) throws SQLException {
+                        int index = 1;
+                        for (Object parameter : query.getParameters()) {
+                            statement.setObject(index++, parameter);
+                        }
+                        return getHistogram(statement.executeQuery());
+                    }
+                }
+        );
+    }
+
+    /**
+     * Reads a bound per row from the first column, returns null if any of the bounds can't be converted.
+     */
+    protected List<Object> getHistogram(ResultSet resultSet) throws SQLException {
+        List<Object> histogram = newArrayList();
+        while (resultSet.next()) {
+            Object bound = toValue(resultSet.getObject(1));
+            if (bound == null) {
+                return null;
+            }
+            histogram.add(bound);
+        }
+        return histogram;
+    }
+
+    /**
+     * Selects MIN and MAX column values.
+     */
+    protected List<Object> getRange(Connection connection) throws SQLException {
+        final SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.setQualifyNames(true);
+        query.from(getTable());
+        String column = getColumn().getName(getDialect());
+        query.column("MIN(" + column + ")");
+        query.column("MAX(" + column + ")");
+        if (getFilter() != null) {
+            query.where(getFilter());
+        }
+        return new StatementTemplate(connection).executeStatement(
+                new StatementFactory<Statement>() {
+                    @Override
+                    public Statement createStatement(Connection connection) throws SQLException {
+                        return connection.createStatement();
+                    }
+                }, new StatementAction<Statement, List<Object>>() {
+                    @Override
+                    public List<Object> executeStatement(Statement statement) throws SQLException {
+                        ResultSet resultSet = statement.executeQuery(query.toString());
+                        List<Object> range = null;
+                        if (resultSet.next()) {
+                            Object min = toValue(resultSet.getObject(1));
+                            Object max = toValue(resultSet.getObject(2));
+                            if (min != null && max != null) {
+                                range = newArrayList(min, max);
+                            }
+                        }
+                        return range;
+                    }
+                }
+        );
+    }
+
+    /**
+     * Picks bounds of equal-height buckets from the histogram.
+     */
+    protected List<Object> getBounds(List<Object> histogram, int buckets) {
+        List<Object> bounds = newArrayList();
+        int last = histogram.size() - 1;
+        for (int bucket = 1; bucket < buckets; bucket++) {
+            addBound(bounds, histogram.get((int) round((double) bucket * last / buckets)));
+        }
+        return bounds;
+    }
+
+    /**
+     * Interpolates bounds between min and max values linearly.
+     */
+    protected List<Object> getBounds(Object min, Object max, int buckets) {
+        List<Object> bounds = newArrayList();
+        for (int bucket = 1; bucket < buckets; bucket++) {
+            Object bound = null;
+            if (min instanceof BigDecimal) {
+                BigDecimal minValue = (BigDecimal) min;
+                BigDecimal step = ((BigDecimal) max).subtract(minValue).divide(
+                        BigDecimal.valueOf(buckets), MathContext.DECIMAL64);
+                BigDecimal value = minValue.add(step.multiply(BigDecimal.valueOf(bucket)));
+                bound = isIntegral(getColumn().getTypeCode()) ? value.setScale(0, FLOOR) : value;
+            } else if (min instanceof Date) {
+                long minTime = ((Date) min).getTime();
+                long maxTime = ((Date) max).getTime();
+                bound = new Timestamp(minTime + (maxTime - minTime) / buckets * bucket);
+            }
+            if (bound != null && ((Comparable) bound).compareTo(min) > 0) {
+                addBound(bounds, bound);
+            }
+        }
+        return bounds;
+    }
+
+    protected void addBound(List<Object> bounds, Object bound) {
+        if (bounds.isEmpty() || ((Comparable) bounds.get(bounds.size() - 1)).compareTo(bound) < 0) {
+            bounds.add(bound);
+        }
+    }
+
+    /**
+     * Converts column value or its string representation from the statistics to {@link BigDecimal} for numeric
+     * columns and to {@link Timestamp} for temporal columns.
+     *
+     * @param value to convert.
+     * @return comparable value or null if value can't be converted.
+     */
+    protected Object toValue(Object value) {
+        try {
+            Object result = null;
+            int typeCode = getColumn().getTypeCode();
+            if (value instanceof BigDecimal) {
+                result = value;
+            } else if (value instanceof Number) {
+                result = new BigDecimal(value.toString());
+            } else if (value instanceof Date) {
+                result = new Timestamp(((Date) value).getTime());
+            } else if (value instanceof String) {
+                String string = ((String) value).trim();
+                if (isNumeric(typeCode)) {
+                    result = new BigDecimal(string);
+                } else if (isTemporal(typeCode)) {
+                    result = string.length() == 10 ? new Timestamp(java.sql.Date.valueOf(string).getTime()) :
+                            Timestamp.valueOf(string);
+                }
+            }
+            return result;
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    @Override
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public Table getTable() {
+        return table;
+    }
+
+    @Override
+    public Column getColumn() {
+        return column;
+    }
+
+    @Override
+    public String getFilter() {
+        return filter;
+    }
+}
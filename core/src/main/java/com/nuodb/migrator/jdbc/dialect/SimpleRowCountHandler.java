@@ -98,7 +98,8 @@ public class SimpleRowCountHandler implements RowCountHandler {
                     }
                 }
         );
-        return rowCount.getValue();
+        // statistics can be missing for the tables, which were never analyzed
+        return rowCount.getValue() != null ? rowCount.getValue() : 0;
     }
 
     protected Long getRowCount(Statement statement, RowCountQuery rowCountQuery) throws SQLException {
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionState;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.session.SessionState.getSessionState;
+
+/**
+ * Base snapshot handler running snapshot statements, releasing a snapshot once and rolling back snapshot transaction
+ * of a worker session when it leaves.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class SimpleSnapshotHandler implements SnapshotHandler {
+
+    private final Dialect dialect;
+
+    protected SimpleSnapshotHandler(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
+    @Override
+    public void leaveSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        Connection connection = session.getConnection();
+        if (!connection.isClosed() && !connection.getAutoCommit()) {
+            connection.rollback();
+        }
+    }
+
+    @Override
+    public void releaseSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        if (!snapshot.isReleased()) {
+            snapshot.setReleased(true);
+            release(session, snapshot);
+        }
+    }
+
+    protected void release(Session session, Snapshot snapshot) throws SQLException {
+    }
+
+    @Override
+    public void closeSnapshot(Session session, Snapshot snapshot) throws SQLException {
+        releaseSnapshot(session, snapshot);
+    }
+
+    /**
+     * Switches session to manual commit with the given transaction isolation, so that the next statement starts
+     * snapshot transaction. Statements issued so far in manual commit mode are committed, as the session hasn't
+     * modified any data.
+     *
+     * @param session              session to begin transaction with.
+     * @param transactionIsolation isolation level of the snapshot transaction.
+     * @throws SQLException if transaction can't be started.
+     */
+    protected void begin(Session session, int transactionIsolation) throws SQLException {
+        Connection connection = session.getConnection();
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        SessionState sessionState = getSessionState(session);
+        sessionState.setAutoCommit(session, false);
+        sessionState.setTransactionIsolation(session, new int[]{transactionIsolation});
+    }
+
+    protected void execute(Session session, String query) throws SQLException {
+        Statement statement = session.getConnection().createStatement();
+        try {
+            statement.execute(query);
+        } finally {
+            closeQuietly(statement);
+        }
+    }
+
+    protected String executeQuery(Session session, String query) throws SQLException {
+        Statement statement = session.getConnection().createStatement();
+        ResultSet resultSet = null;
+        try {
+            resultSet = statement.executeQuery(query);
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+        }
+    }
+
+    @Override
+    public Dialect getDialect() {
+        return dialect;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+/**
+ * Point in time opened by a coordinator session, which worker sessions join to read the same data. A snapshot which
+ * can't be joined late is guarded by a lock on the coordinator session, so all the worker sessions join it before the
+ * lock is released.
+ *
+ * @author Sergey Bushik
+ */
+public class Snapshot {
+
+    private final SnapshotHandler snapshotHandler;
+    private final String id;
+    private final boolean lateJoin;
+    private volatile boolean released;
+
+    public Snapshot(SnapshotHandler snapshotHandler, String id, boolean lateJoin) {
+        this.snapshotHandler = snapshotHandler;
+        this.id = id;
+        this.lateJoin = lateJoin;
+    }
+
+    public SnapshotHandler getSnapshotHandler() {
+        return snapshotHandler;
+    }
+
+    /**
+     * Identifier of the snapshot, e.g. exported snapshot name or system change number, null if snapshot is identified
+     * by the time it's joined
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Tells whether sessions can join the snapshot after it was released
+     */
+    public boolean isLateJoin() {
+        return lateJoin;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    public void setReleased(boolean released) {
+        this.released = released;
+    }
+
+    public boolean isJoinable() {
+        return lateJoin || !released;
+    }
+
+    @Override
+    public String toString() {
+        return id != null ? id : super.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.session.Session;
+
+import java.sql.SQLException;
+
+/**
+ * Coordinates a consistent snapshot read by several sessions in parallel under non locking isolation. The coordinator
+ * session opens the snapshot, worker sessions join it, the coordinator releases the snapshot once the workers prepared
+ * up front have joined it and closes the snapshot when the workers are done.
+ *
+ * @author Sergey Bushik
+ */
+public interface SnapshotHandler {
+
+    Dialect getDialect();
+
+    /**
+     * Opens snapshot on the coordinator session.
+     *
+     * @param session coordinator session.
+     * @return opened snapshot.
+     * @throws SQLException if snapshot can't be opened.
+     */
+    Snapshot openSnapshot(Session session) throws SQLException;
+
+    /**
+     * Starts a transaction of the worker session reading the snapshot.
+     *
+     * @param session  worker session.
+     * @param snapshot snapshot to join.
+     * @throws SQLException if snapshot can't be joined.
+     */
+    void joinSnapshot(Session session, Snapshot snapshot) throws SQLException;
+
+    /**
+     * Ends snapshot transaction of the worker session.
+     *
+     * @param session  worker session.
+     * @param snapshot joined snapshot.
+     * @throws SQLException if snapshot transaction can't be ended.
+     */
+    void leaveSnapshot(Session session, Snapshot snapshot) throws SQLException;
+
+    /**
+     * Releases locks guarding the snapshot, which are no longer needed once the worker sessions joined it.
+     *
+     * @param session  coordinator session.
+     * @param snapshot snapshot to release.
+     * @throws SQLException if snapshot can't be released.
+     */
+    void releaseSnapshot(Session session, Snapshot snapshot) throws SQLException;
+
+    /**
+     * Closes snapshot on the coordinator session.
+     *
+     * @param session  coordinator session.
+     * @param snapshot snapshot to close.
+     * @throws SQLException if snapshot can't be closed.
+     */
+    void closeSnapshot(Session session, Snapshot snapshot) throws SQLException;
+}
@@ -31,14 +31,17 @@ import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Set;
 
 import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.*;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static com.google.common.collect.Sets.newHashSet;
 import static com.nuodb.migrator.utils.Collections.newPrioritySet;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -55,6 +58,20 @@ public class InspectionManager {
     private final transient Logger logger = getLogger(getClass());
     private DialectResolver dialectResolver;
     private Collection<Inspector> inspectors = newPrioritySet();
+    /**
+     * Opens additional connections for parallel inspection, which is on when threads are set above 1
+     */
+    private SessionFactory sessionFactory;
+    private Integer threads;
+    /**
+     * Object types inspected table by table on separate connections in parallel inspection. Foreign keys are left out
+     * as their inspectors update referenced tables, which can belong to other threads.
+     */
+    private Set<MetaDataType> parallelObjectTypes = newHashSet(COLUMN, INDEX, PRIMARY_KEY, CHECK);
+    /**
+     * Snapshot cache of inspected meta data, all inspections go to the database if not set
+     */
+    private MetaDataCache metaDataCache;
 
     public InspectionManager() {
         InspectorResolver databaseInspector = new InspectorResolver(DATABASE, new SimpleDatabaseInspector());
@@ -80,6 +97,7 @@ public class InspectionManager {
 
         InspectorResolver indexIndex = new InspectorResolver(INDEX, new SimpleIndexInspector());
         indexIndex.register(MYSQL, new MySQLIndexInspector());
+        indexIndex.register(MSSQL_SERVER, new MSSQLServerIndexInspector());
         indexIndex.register(NUODB, new NuoDBIndexInspector());
         indexIndex.register(ORACLE, new OracleIndexInspector());
         indexIndex.register(POSTGRE_SQL, new PostgreSQLIndexInspector());
@@ -138,6 +156,9 @@ public class InspectionManager {
 
     public InspectionResults inspect(Connection connection, InspectionScope inspectionScope,
                                      MetaDataType... objectTypes) throws SQLException {
+        if (metaDataCache != null && inspectionScope instanceof TableInspectionScope) {
+            return metaDataCache.inspect(this, connection, (TableInspectionScope) inspectionScope, objectTypes);
+        }
         InspectionResults inspectionResults = createInspectionResults();
         inspect(connection, inspectionResults, inspectionScope, objectTypes);
         return inspectionResults;
@@ -203,12 +224,18 @@ public class InspectionManager {
 
     protected InspectionContext createInspectionContext(Connection connection, InspectionResults inspectionResults,
                                                         MetaDataType... objectTypes) throws SQLException {
-        InspectionContext inspectionContext = new SimpleInspectionContext(
-                this, connection, inspectionResults, objectTypes);
+        InspectionContext inspectionContext = isParallel() ?
+                new ParallelInspectionContext(this, connection, inspectionResults, sessionFactory, threads,
+                        objectTypes) :
+                new SimpleInspectionContext(this, connection, inspectionResults, objectTypes);
         inspectionContext.init();
         return inspectionContext;
     }
 
+    protected boolean isParallel() {
+        return sessionFactory != null && threads != null && threads > 1;
+    }
+
     protected void closeInspectionContext(InspectionContext inspectionContext) throws SQLException {
         if (inspectionContext != null) {
             inspectionContext.close();
@@ -227,6 +254,38 @@ public class InspectionManager {
         this.inspectors = inspectors;
     }
 
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public Set<MetaDataType> getParallelObjectTypes() {
+        return parallelObjectTypes;
+    }
+
+    public void setParallelObjectTypes(Set<MetaDataType> parallelObjectTypes) {
+        this.parallelObjectTypes = parallelObjectTypes;
+    }
+
+    public MetaDataCache getMetaDataCache() {
+        return metaDataCache;
+    }
+
+    public void setMetaDataCache(MetaDataCache metaDataCache) {
+        this.metaDataCache = metaDataCache;
+    }
+
     public DialectResolver getDialectResolver() {
         return dialectResolver;
     }
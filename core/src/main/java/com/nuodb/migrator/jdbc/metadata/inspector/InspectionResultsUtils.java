@@ -37,16 +37,21 @@ import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
 
 /**
+ * Finds or adds database objects to the inspection results. Lookup and creation of an object are done while holding
+ * the lock of the results, so that inspectors running in parallel share the same catalogs, schemas and tables.
+ *
  * @author Sergey Bushik
  */
 public class InspectionResultsUtils {
 
     public static Database addDatabase(InspectionResults results) {
-        Database database = results.getObject(DATABASE);
-        if (database == null) {
-            results.addObject(database = new Database());
+        synchronized (results) {
+            Database database = results.getObject(DATABASE);
+            if (database == null) {
+                results.addObject(database = new Database());
+            }
+            return database;
         }
-        return database;
     }
 
     public static Catalog addCatalog(InspectionResults results, String catalogName) {
@@ -54,18 +59,20 @@ public class InspectionResultsUtils {
     }
 
     public static Catalog addCatalog(InspectionResults results, String catalogName, boolean addObject) {
-        Database database = addDatabase(results);
-        Catalog catalog;
-        Identifier catalogId = valueOf(catalogName);
-        if (database.hasCatalog(catalogId)) {
-            catalog = database.getCatalog(catalogId);
-        } else {
-            catalog = database.addCatalog(catalogId);
-            if (addObject) {
-                results.addObject(catalog);
+        synchronized (results) {
+            Database database = addDatabase(results);
+            Catalog catalog;
+            Identifier catalogId = valueOf(catalogName);
+            if (database.hasCatalog(catalogId)) {
+                catalog = database.getCatalog(catalogId);
+            } else {
+                catalog = database.addCatalog(catalogId);
+                if (addObject) {
+                    results.addObject(catalog);
+                }
             }
+            return catalog;
         }
-        return catalog;
     }
 
     public static Schema addSchema(InspectionResults results, String catalogName, String schemaName) {
@@ -74,18 +81,20 @@ public class InspectionResultsUtils {
 
     public static Schema addSchema(InspectionResults results, String catalogName, String schemaName,
                                    boolean addObject) {
-        Catalog catalog = addCatalog(results, catalogName, addObject);
-        Schema schema;
-        Identifier schemaId = valueOf(schemaName);
-        if (catalog.hasSchema(schemaId)) {
-            schema = catalog.getSchema(schemaId);
-        } else {
-            schema = catalog.addSchema(schemaId);
-            if (addObject) {
-                results.addObject(schema);
+        synchronized (results) {
+            Catalog catalog = addCatalog(results, catalogName, addObject);
+            Schema schema;
+            Identifier schemaId = valueOf(schemaName);
+            if (catalog.hasSchema(schemaId)) {
+                schema = catalog.getSchema(schemaId);
+            } else {
+                schema = catalog.addSchema(schemaId);
+                if (addObject) {
+                    results.addObject(schema);
+                }
             }
+            return schema;
         }
-        return schema;
     }
 
     public static Table addTable(InspectionResults results, String catalogName, String schemaName, String tableName) {
@@ -94,17 +103,19 @@ public class InspectionResultsUtils {
 
     public static Table addTable(InspectionResults results, String catalogName, String schemaName, String tableName,
                                  boolean addObject) {
-        Schema schema = addSchema(results, catalogName, schemaName, addObject);
-        Table table;
-        Identifier tableId = valueOf(tableName);
-        if (schema.hasTable(tableId)) {
-            table = schema.getTable(tableId);
-        } else {
-            table = schema.addTable(tableId);
-            if (addObject) {
-                results.addObject(table);
+        synchronized (results) {
+            Schema schema = addSchema(results, catalogName, schemaName, addObject);
+            Table table;
+            Identifier tableId = valueOf(tableName);
+            if (schema.hasTable(tableId)) {
+                table = schema.getTable(tableId);
+            } else {
+                table = schema.addTable(tableId);
+                if (addObject) {
+                    results.addObject(table);
+                }
             }
+            return table;
         }
-        return table;
     }
 }
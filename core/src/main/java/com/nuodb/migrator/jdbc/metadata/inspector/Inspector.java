@@ -54,6 +54,16 @@ public interface Inspector<M extends MetaData, I extends InspectionScope> extend
 
     boolean supportsScope(InspectionContext inspectionContext, InspectionScope inspectionScope) throws SQLException;
 
+    /**
+     * Checks if objects are inspected schema by schema with a single query each, so that splitting objects of a schema
+     * between several inspections makes each of them query the whole schema.
+     *
+     * @param inspectionContext inspection context
+     * @return true if all objects of a schema are inspected with a single query
+     * @throws SQLException if inspector can't be resolved
+     */
+    boolean supportsSchemaScope(InspectionContext inspectionContext) throws SQLException;
+
     Statement createStatement(InspectionContext inspectionContext, I inspectionScope,
                               Query query) throws SQLException;
 
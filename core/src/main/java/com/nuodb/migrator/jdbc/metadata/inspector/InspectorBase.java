@@ -292,6 +292,11 @@ public abstract class InspectorBase<M extends MetaData, I extends InspectionScop
         return true;
     }
 
+    @Override
+    public boolean supportsSchemaScope(InspectionContext inspectionContext) {
+        return false;
+    }
+
     public MetaDataType getParentObjectType() {
         return parentObjectType;
     }
@@ -110,6 +110,12 @@ public class InspectorResolver extends MetaDataHandlerBase implements Inspector<
         return inspector != null && inspector.supportsScope(inspectionContext, inspectionScope);
     }
 
+    @Override
+    public boolean supportsSchemaScope(InspectionContext inspectionContext) throws SQLException {
+        Inspector inspector = resolve(inspectionContext);
+        return inspector != null && inspector.supportsSchemaScope(inspectionContext);
+    }
+
     @Override
     public Statement createStatement(InspectionContext inspectionContext, InspectionScope inspectionScope, Query query)
             throws SQLException {
@@ -54,4 +54,9 @@ public class MSSQLServerColumnInspector extends SimpleColumnInspector {
             column.setDefaultValue(valueOf(value, true));
         }
     }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads indexes of a table or of all tables in a schema from SYS catalog views, key columns only are returned, so
+ * included columns of non clustered indexes and heaps are skipped.
+ *
+ * @author Sergey Bushik
+ */
+public class MSSQLServerIndexInspector extends SimpleIndexInspector {
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        SelectQuery query = new SelectQuery();
+        query.columns("DB_NAME() AS TABLE_CAT", "S.NAME AS TABLE_SCHEM", "T.NAME AS TABLE_NAME");
+        query.column("CASE I.IS_UNIQUE WHEN 1 THEN 0 ELSE 1 END AS NON_UNIQUE");
+        query.columns("NULL AS INDEX_QUALIFIER", "I.NAME AS INDEX_NAME");
+        query.column("CASE I.TYPE WHEN 1 THEN 1 ELSE 3 END AS TYPE");
+        query.columns("IC.KEY_ORDINAL AS ORDINAL_POSITION", "C.NAME AS COLUMN_NAME");
+        query.column("CASE IC.IS_DESCENDING_KEY WHEN 1 THEN 'D' ELSE 'A' END AS ASC_OR_DESC");
+        query.column("NULL AS FILTER_CONDITION");
+        String catalog = isEmpty(tableInspectionScope.getCatalog()) ? "" : (tableInspectionScope.getCatalog() + ".");
+        query.from(catalog + "SYS.INDEXES AS I");
+        query.innerJoin(catalog + "SYS.TABLES AS T", "T.OBJECT_ID=I.OBJECT_ID");
+        query.innerJoin(catalog + "SYS.SCHEMAS AS S", "S.SCHEMA_ID=T.SCHEMA_ID");
+        query.innerJoin(catalog + "SYS.INDEX_COLUMNS AS IC",
+                "IC.OBJECT_ID=I.OBJECT_ID AND IC.INDEX_ID=I.INDEX_ID");
+        query.innerJoin(catalog + "SYS.COLUMNS AS C", "C.OBJECT_ID=IC.OBJECT_ID AND C.COLUMN_ID=IC.COLUMN_ID");
+        query.where("I.TYPE>0");
+        query.where("IC.KEY_ORDINAL>0");
+        Collection<Object> parameters = newArrayList();
+        if (!isEmpty(tableInspectionScope.getSchema())) {
+            query.where("S.NAME=?");
+            parameters.add(tableInspectionScope.getSchema());
+        }
+        if (!isEmpty(tableInspectionScope.getTable())) {
+            query.where("T.NAME=?");
+            parameters.add(tableInspectionScope.getTable());
+        }
+        query.orderBy("NON_UNIQUE", "TYPE", "INDEX_NAME", "ORDINAL_POSITION");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
+}
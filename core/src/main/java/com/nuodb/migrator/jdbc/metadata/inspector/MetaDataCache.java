@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.base.Charsets;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.XmlBackupOps;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Catalog;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Sequence;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.google.common.collect.Sets.newTreeSet;
+import static com.google.common.hash.Hashing.sha1;
+import static com.nuodb.migrator.jdbc.dialect.SimpleChangeMarkerHandler.getKey;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps snapshots of inspected meta data on disk keyed by connection url, user name, inspection scope and object types.
+ * Change markers of the tables are queried on each run and only the tables, which markers changed since the snapshot
+ * was taken, are inspected again together with the tables referencing them. Added tables trigger full inspection.
+ * Sequences and user defined types are always inspected again, as their values change without DDL. Dialects not
+ * supporting change markers are inspected without the cache.
+ *
+ * @author Sergey Bushik
+ */
+public class MetaDataCache {
+
+    private static final String SNAPSHOT_SUFFIX = ".xml";
+    private static final String MARKERS_SUFFIX = ".markers";
+
+    /**
+     * Types of table children, which are inspected table by table for the tables changed since snapshot
+     */
+    private static final Collection<MetaDataType> TABLE_OBJECT_TYPES =
+            asList(COLUMN, PRIMARY_KEY, INDEX, FOREIGN_KEY, CHECK, TRIGGER, COLUMN_TRIGGER);
+    /**
+     * Types inspected on every run, database is inspected again to pick up dialect & connection spec
+     */
+    private static final Collection<MetaDataType> VOLATILE_OBJECT_TYPES = asList(DATABASE, USER_DEFINED, SEQUENCE);
+
+    private final transient Logger logger = getLogger(getClass());
+    private final File directory;
+    private BackupOps backupOps = new XmlBackupOps();
+
+    public MetaDataCache(String directory) {
+        this(new File(directory));
+    }
+
+    public MetaDataCache(File directory) {
+        this.directory = directory;
+    }
+
+    public InspectionResults inspect(InspectionManager inspectionManager, Connection connection,
+                                     TableInspectionScope inspectionScope, MetaDataType... objectTypes)
+            throws SQLException {
+        InspectionResults inspectionResults = inspectionManager.createInspectionResults();
+        Dialect dialect = inspectionManager.getDialectResolver().resolve(connection);
+        if (!dialect.supportsChangeMarkers()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Dialect %s has no change markers, meta data cache is skipped", dialect));
+            }
+            inspectionManager.inspect(connection, inspectionResults, inspectionScope, objectTypes);
+            return inspectionResults;
+        }
+        Map<String, String> markers = dialect.createChangeMarkerHandler().getChangeMarkers(
+                connection, inspectionScope.getCatalog(), inspectionScope.getSchema());
+        String key = getSnapshotKey(connection, inspectionScope, objectTypes);
+        Map<String, String> cachedMarkers = readMarkers(key);
+        Database database = cachedMarkers != null && cachedMarkers.keySet().containsAll(markers.keySet()) ?
+                readSnapshot(key) : null;
+        if (database == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Meta data snapshot %s is missing or tables were added, inspecting all", key));
+            }
+            inspectionManager.inspect(connection, inspectionResults, inspectionScope, objectTypes);
+            writeSnapshot(key, inspectionResults.<Database>getObject(DATABASE), markers);
+            return inspectionResults;
+        }
+        addObjects(inspectionResults, database);
+        Collection<Table> tables = getChangedTables(database, cachedMarkers, markers);
+        if (!tables.isEmpty()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Inspecting %d tables changed since meta data snapshot %s", tables.size(), key));
+            }
+            inspectTables(inspectionManager, connection, inspectionResults, tables, markers.keySet(), objectTypes);
+        }
+        removeSequences(database);
+        Collection<MetaDataType> volatileObjectTypes = newArrayList(VOLATILE_OBJECT_TYPES);
+        volatileObjectTypes.retainAll(asList(objectTypes));
+        inspectionManager.inspect(connection, inspectionResults, inspectionScope,
+                volatileObjectTypes.toArray(new MetaDataType[volatileObjectTypes.size()]));
+        if (!tables.isEmpty()) {
+            writeSnapshot(key, database, markers);
+        }
+        inspectionResults = inspectionManager.createInspectionResults();
+        addObjects(inspectionResults, database);
+        return inspectionResults;
+    }
+
+    /**
+     * Finds cached tables which markers differ from the actual ones or which were dropped, adding the tables referencing
+     * them by foreign keys, so that the references are resolved to the inspected tables again.
+     */
+    protected Collection<Table> getChangedTables(Database database, Map<String, String> cachedMarkers,
+                                                 Map<String, String> markers) {
+        Set<Table> tables = newLinkedHashSet();
+        for (Table table : database.getTables()) {
+            String key = getKey(table);
+            String marker = cachedMarkers.get(key);
+            if (marker == null || !marker.equals(markers.get(key))) {
+                tables.add(table);
+            }
+        }
+        if (!tables.isEmpty()) {
+            for (Table table : database.getTables()) {
+                for (ForeignKey foreignKey : table.getForeignKeys()) {
+                    if (tables.contains(foreignKey.getPrimaryTable())) {
+                        tables.add(table);
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Replaces changed tables with empty ones and inspects their children, dropped tables are just removed.
+     */
+    protected void inspectTables(InspectionManager inspectionManager, Connection connection,
+                                 InspectionResults inspectionResults, Collection<Table> tables,
+                                 Collection<String> keys, MetaDataType... objectTypes) throws SQLException {
+        Collection<MetaData> objects = newArrayList();
+        for (Table table : tables) {
+            Schema schema = table.getSchema();
+            schema.removeTable(table);
+            if (keys.contains(getKey(table))) {
+                Table object = new Table(table.getIdentifier());
+                object.setType(table.getType());
+                object.setComment(table.getComment());
+                schema.addTable(object);
+                inspectionResults.addObject(object);
+                objects.add(object);
+            }
+        }
+        Collection<MetaDataType> tableObjectTypes = newTreeSet(TABLE_OBJECT_TYPES);
+        tableObjectTypes.retainAll(asList(objectTypes));
+        if (!objects.isEmpty() && !tableObjectTypes.isEmpty()) {
+            inspectionManager.inspect(connection, inspectionResults, objects,
+                    tableObjectTypes.toArray(new MetaDataType[tableObjectTypes.size()]));
+        }
+    }
+
+    protected void removeSequences(Database database) {
+        for (Schema schema : database.getSchemas()) {
+            for (Sequence sequence : newArrayList(schema.getSequences())) {
+                schema.removeSequence(sequence);
+            }
+        }
+    }
+
+    protected void addObjects(InspectionResults inspectionResults, Database database) {
+        inspectionResults.addObject(database);
+        for (Catalog catalog : database.getCatalogs()) {
+            inspectionResults.addObject(catalog);
+            for (Schema schema : catalog.getSchemas()) {
+                inspectionResults.addObject(schema);
+                inspectionResults.addObjects(schema.getUserDefined());
+                inspectionResults.addObjects(schema.getSequences());
+                for (Table table : schema.getTables()) {
+                    inspectionResults.addObject(table);
+                    inspectionResults.addObjects(table.getColumns());
+                    if (table.getPrimaryKey() != null) {
+                        inspectionResults.addObject(table.getPrimaryKey());
+                    }
+                    inspectionResults.addObjects(table.getIndexes());
+                    inspectionResults.addObjects(table.getForeignKeys());
+                    inspectionResults.addObjects(table.getChecks());
+                    inspectionResults.addObjects(table.getTriggers());
+                }
+            }
+        }
+    }
+
+    protected String getSnapshotKey(Connection connection, TableInspectionScope inspectionScope,
+                                    MetaDataType... objectTypes) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Collection<String> types = newTreeSet();
+        for (MetaDataType objectType : objectTypes) {
+            types.add(objectType.toString());
+        }
+        String key = format("%s|%s|%s|%s|%s|%s|%s", metaData.getURL(), metaData.getUserName(),
+                inspectionScope.getCatalog(), inspectionScope.getSchema(), inspectionScope.getTable(),
+                inspectionScope.getTableTypes() != null ? Arrays.toString(inspectionScope.getTableTypes()) : null,
+                types);
+        return sha1().hashString(key, Charsets.UTF_8).toString();
+    }
+
+    protected Map<String, String> readMarkers(String key) {
+        File file = new File(directory, key + MARKERS_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        InputStream input = null;
+        try {
+            Properties properties = new Properties();
+            properties.load(input = new FileInputStream(file));
+            Map<String, String> markers = newHashMap();
+            for (String name : properties.stringPropertyNames()) {
+                markers.put(name, properties.getProperty(name));
+            }
+            return markers;
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't read meta data change markers %s", file), exception);
+            }
+            return null;
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    protected Database readSnapshot(String key) {
+        File file = new File(directory, key + SNAPSHOT_SUFFIX);
+        if (!file.exists()) {
+            return null;
+        }
+        InputStream input = null;
+        try {
+            return backupOps.read(input = new FileInputStream(file)).getDatabase();
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't read meta data snapshot %s", file), exception);
+            }
+            return null;
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    /**
+     * Writes snapshot without connection spec, so that credentials are not stored in the cache, and change markers are
+     * written last, so that interrupted write is detected as a missing snapshot.
+     */
+    protected void writeSnapshot(String key, Database database, Map<String, String> markers) {
+        File markersFile = new File(directory, key + MARKERS_SUFFIX);
+        markersFile.delete();
+        if (!directory.exists() && !directory.mkdirs()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't create meta data cache directory %s", directory));
+            }
+            return;
+        }
+        ConnectionSpec connectionSpec = database.getConnectionSpec();
+        OutputStream output = null;
+        try {
+            database.setConnectionSpec(null);
+            backupOps.write(new Backup(null, database),
+                    output = new FileOutputStream(new File(directory, key + SNAPSHOT_SUFFIX)));
+            closeQuietly(output);
+            Properties properties = new Properties();
+            properties.putAll(markers);
+            properties.store(output = new FileOutputStream(markersFile), null);
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't write meta data snapshot %s", key), exception);
+            }
+        } finally {
+            database.setConnectionSpec(connectionSpec);
+            closeQuietly(output);
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public BackupOps getBackupOps() {
+        return backupOps;
+    }
+
+    public void setBackupOps(BackupOps backupOps) {
+        this.backupOps = backupOps;
+    }
+}
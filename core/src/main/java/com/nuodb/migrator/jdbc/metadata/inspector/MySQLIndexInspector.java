@@ -89,5 +89,10 @@ public class MySQLIndexInspector extends SimpleIndexInspector {
         }
          return new ParameterizedQuery(union(statisticsIndex, null), parameters);
     }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
 }
 
@@ -43,7 +43,6 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.SCHEMA;
 import static com.nuodb.migrator.jdbc.metadata.DefaultValue.valueOf;
-import static com.nuodb.migrator.jdbc.model.FieldFactory.newFieldList;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -105,11 +104,13 @@ public class OracleColumnInspector extends SimpleColumnInspector {
 
         column.setComment(columns.getString("REMARKS"));
         column.setPosition(columns.getInt("ORDINAL_POSITION"));
-        String autoIncrement =
-                newFieldList(columns.getMetaData()).get("IS_AUTOINCREMENT") != null ?
-                        columns.getString("IS_AUTOINCREMENT") : null;
-        column.setAutoIncrement("YES".equals(autoIncrement));
+        column.setAutoIncrement("YES".equals(getAutoIncrement(columns)));
         column.setNullable("YES".equals(columns.getString("IS_NULLABLE")));
         column.setDefaultValue(valueOf(defaultValue, true));
     }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
 }
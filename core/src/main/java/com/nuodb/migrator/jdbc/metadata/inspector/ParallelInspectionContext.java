@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.session.SessionState.getSessionState;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Inspection context partitioning table scoped inspection across connections opened from a session factory. Object
+ * types are inspected one after another in their natural order, so that tables are complete before columns, and
+ * columns before indexes, while the tables themselves are split between the threads for each parallel object type.
+ * Inspectors querying all tables of a schema at once are given whole schemas, so that each schema is queried once.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ParallelInspectionContext extends SimpleInspectionContext {
+
+    private final SessionFactory sessionFactory;
+    private final int threads;
+    private ExecutorService executorService;
+
+    public ParallelInspectionContext(InspectionManager inspectionManager, Connection connection,
+                                     InspectionResults inspectionResults, SessionFactory sessionFactory,
+                                     int threads, MetaDataType... objectTypes) {
+        super(inspectionManager, connection, new SynchronizedInspectionResults(inspectionResults), objectTypes);
+        this.sessionFactory = sessionFactory;
+        this.threads = threads;
+    }
+
+    @Override
+    public void init() throws SQLException {
+        super.init();
+        executorService = newFixedThreadPool(threads);
+    }
+
+    @Override
+    protected void inspect(InspectionScope scope, MetaDataType objectType) throws SQLException {
+        Inspector inspector = findInspector(objectType);
+        Collection<MetaData> tables = getInspectionResults().getObjects(MetaDataType.TABLE);
+        Collection<? extends Collection<MetaData>> partitions = isParallel(inspector, scope, objectType) ?
+                partition(inspector, tables) : null;
+        if (partitions == null || partitions.size() < 2) {
+            super.inspect(scope, objectType);
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Inspecting %s of %d tables in %d partitions by %d threads", objectType,
+                    tables.size(), partitions.size(), threads));
+        }
+        List<Future<Void>> futures = newArrayList();
+        for (Collection<MetaData> partition : partitions) {
+            futures.add(executorService.submit(createInspectTask(inspector, partition)));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Inspector is run in parallel if it's configured as parallel on the inspection manager and inspects tables one by
+     * one, as it does not support the scope directly.
+     */
+    protected boolean isParallel(Inspector inspector, InspectionScope scope, MetaDataType objectType)
+            throws SQLException {
+        return getInspectionManager().getParallelObjectTypes().contains(objectType) &&
+                !inspector.supportsScope(this, scope);
+    }
+
+    /**
+     * Splits tables between the threads evenly or by schema if the inspector queries all tables of a schema at once
+     */
+    protected Collection<? extends Collection<MetaData>> partition(Inspector inspector, Collection<MetaData> tables)
+            throws SQLException {
+        if (inspector.supportsSchemaScope(this)) {
+            Map<Schema, Collection<MetaData>> schemas = newLinkedHashMap();
+            for (MetaData table : tables) {
+                Schema schema = ((Table) table).getSchema();
+                Collection<MetaData> partition = schemas.get(schema);
+                if (partition == null) {
+                    schemas.put(schema, partition = newArrayList());
+                }
+                partition.add(table);
+            }
+            return schemas.values();
+        } else {
+            return Lists.partition(newArrayList(tables), max(1, (tables.size() + threads - 1) / threads));
+        }
+    }
+
+    protected Callable<Void> createInspectTask(final Inspector inspector, final Collection<MetaData> tables) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                Session session = sessionFactory.openSession();
+                try {
+                    InspectionContext inspectionContext = createInspectionContext(session);
+                    inspectionContext.setAttributes(newHashMap(getAttributes()));
+                    inspectionContext.init();
+                    try {
+                        inspector.inspectObjects(inspectionContext, tables);
+                    } finally {
+                        inspectionContext.close();
+                    }
+                } finally {
+                    closeQuietly(session);
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Creates inspection context on a connection of the session, the context doesn't commit the connection on close if
+     * the session has joined a snapshot, as the commit would end the snapshot transaction kept by the pooled session.
+     */
+    protected InspectionContext createInspectionContext(final Session session) {
+        return new SimpleInspectionContext(getInspectionManager(), session.getConnection(), getInspectionResults(),
+                getObjectTypes()) {
+            @Override
+            public void close() throws SQLException {
+                if (getSessionState(session).getSnapshot() == null) {
+                    super.close();
+                }
+            }
+        };
+    }
+
+    protected void await(Future<Void> future) throws SQLException {
+        try {
+            future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InspectorException(exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new InspectorException(cause);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            super.close();
+        } finally {
+            if (executorService != null) {
+                executorService.shutdownNow();
+            }
+        }
+    }
+}
@@ -86,4 +86,9 @@ public class PostgreSQL83IndexInspector extends PostgreSQLIndexInspector {
         super.processIndex(inspectionContext, indexes, index);
         index.setPrimary(indexes.getBoolean("PRIMARY"));
     }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
 }
@@ -42,4 +42,9 @@ public class PostgreSQLColumnInspector extends SimpleColumnInspector {
         super.processColumn(inspectionContext, columns, column);
         PostgreSQLColumn.processColumn(inspectionContext, column);
     }
+
+    @Override
+    protected boolean supportsSchemaScope() {
+        return true;
+    }
 }
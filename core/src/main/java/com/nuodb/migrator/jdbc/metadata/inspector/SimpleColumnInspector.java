@@ -29,7 +29,6 @@ package com.nuodb.migrator.jdbc.metadata.inspector;
 
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Table;
-import com.nuodb.migrator.jdbc.model.FieldFactory;
 import com.nuodb.migrator.jdbc.type.JdbcTypeDesc;
 
 import java.sql.ResultSet;
@@ -37,7 +36,6 @@ import java.sql.SQLException;
 
 import static com.nuodb.migrator.jdbc.metadata.DefaultValue.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
-import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static com.nuodb.migrator.utils.StringUtils.isEmpty;
 
 /**
@@ -58,11 +56,15 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
     }
 
     @Override
-    protected void processResultSet(InspectionContext inspectionContext, ResultSet columns) throws SQLException {
+    protected void processResultSet(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+                                    ResultSet columns) throws SQLException {
         InspectionResults inspectionResults = inspectionContext.getInspectionResults();
         while (columns.next()) {
-            Table table = addTable(inspectionResults, columns.getString("TABLE_CAT"),
+            Table table = getTable(inspectionContext, tableInspectionScope, columns.getString("TABLE_CAT"),
                     columns.getString("TABLE_SCHEM"), columns.getString("TABLE_NAME"));
+            if (table == null) {
+                continue;
+            }
             Column column = table.addColumn(columns.getString("COLUMN_NAME"));
             processColumn(inspectionContext, columns, column);
             inspectionResults.addObject(column);
@@ -83,14 +85,26 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
         String comment = columns.getString("REMARKS");
         column.setComment(isEmpty(comment) ? null : comment);
         column.setPosition(columns.getInt("ORDINAL_POSITION"));
-        String autoIncrement =
-                FieldFactory.newFieldList(columns.getMetaData()).get("IS_AUTOINCREMENT") != null ?
-                        columns.getString("IS_AUTOINCREMENT") : null;
-        column.setAutoIncrement("YES".equals(autoIncrement));
+        column.setAutoIncrement("YES".equals(getAutoIncrement(columns)));
         column.setNullable("YES".equals(columns.getString("IS_NULLABLE")));
         column.setDefaultValue(valueOf(columns.getString("COLUMN_DEF")));
     }
 
+    /**
+     * Reads IS_AUTOINCREMENT column added by JDBC 4.0 by its label rather than building a field list of the result set
+     * for every column.
+     *
+     * @param columns result set of columns
+     * @return value of IS_AUTOINCREMENT or null if the driver does not return it
+     */
+    protected String getAutoIncrement(ResultSet columns) {
+        try {
+            return columns.getString(columns.findColumn("IS_AUTOINCREMENT"));
+        } catch (SQLException exception) {
+            return null;
+        }
+    }
+
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getTable() != null;
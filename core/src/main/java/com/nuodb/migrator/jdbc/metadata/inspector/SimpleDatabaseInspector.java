@@ -115,6 +115,11 @@ public class SimpleDatabaseInspector extends MetaDataHandlerBase implements Insp
         return true;
     }
 
+    @Override
+    public boolean supportsSchemaScope(InspectionContext inspectionContext) {
+        return false;
+    }
+
     @Override
     public Statement createStatement(InspectionContext inspectionContext, InspectionScope inspectionScope, Query query)
             throws SQLException {
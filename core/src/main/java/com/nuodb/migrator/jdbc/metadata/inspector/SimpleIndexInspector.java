@@ -37,7 +37,6 @@ import java.sql.SQLException;
 
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.INDEX;
-import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static java.sql.DatabaseMetaData.tableIndexStatistic;
 
 /**
@@ -59,14 +58,18 @@ public class SimpleIndexInspector extends TableInspectorBase<Table, TableInspect
     }
 
     @Override
-    protected void processResultSet(InspectionContext inspectionContext, ResultSet indexes) throws SQLException {
+    protected void processResultSet(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+                                    ResultSet indexes) throws SQLException {
         InspectionResults inspectionResults = inspectionContext.getInspectionResults();
         while (indexes.next()) {
             if (indexes.getShort("TYPE") == tableIndexStatistic) {
                 continue;
             }
-            Table table = addTable(inspectionResults, indexes.getString("TABLE_CAT"),
+            Table table = getTable(inspectionContext, tableInspectionScope, indexes.getString("TABLE_CAT"),
                     indexes.getString("TABLE_SCHEM"), indexes.getString("TABLE_NAME"));
+            if (table == null) {
+                continue;
+            }
             Identifier identifier = valueOf(indexes.getString("INDEX_NAME"));
             Index index = table.hasIndex(identifier) ? table.getIndex(identifier) :
                     table.addIndex(new Index(identifier));
@@ -138,15 +138,19 @@ public class SimpleInspectionContext implements InspectionContext {
     @Override
     public void inspect(InspectionScope scope, MetaDataType... objectTypes) throws SQLException {
         for (MetaDataType objectType : newTreeSet(asList(objectTypes))) {
-            Inspector inspector = findInspector(objectType);
-            if (logger.isDebugEnabled()) {
-                logger.debug(format("Inspecting %s", objectType));
-            }
-            if (inspector.supportsScope(this, scope)) {
-                inspector.inspectScope(this, scope);
-            } else {
-                inspector.inspect(this);
-            }
+            inspect(scope, objectType);
+        }
+    }
+
+    protected void inspect(InspectionScope scope, MetaDataType objectType) throws SQLException {
+        Inspector inspector = findInspector(objectType);
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Inspecting %s", objectType));
+        }
+        if (inspector.supportsScope(this, scope)) {
+            inspector.inspectScope(this, scope);
+        } else {
+            inspector.inspect(this);
         }
     }
 
@@ -158,6 +162,14 @@ public class SimpleInspectionContext implements InspectionContext {
         }
     }
 
+    protected InspectionManager getInspectionManager() {
+        return inspectionManager;
+    }
+
+    protected MetaDataType[] getObjectTypes() {
+        return objectTypes;
+    }
+
     protected Inspector findInspector(MetaDataType objectType) {
         return getHandler(inspectionManager.getInspectors(), objectType);
     }
@@ -29,8 +29,16 @@ package com.nuodb.migrator.jdbc.metadata.inspector;
 
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Schema;
 import com.nuodb.migrator.jdbc.metadata.Table;
 
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
+
 /**
  * @author Sergey Bushik
  */
@@ -51,6 +59,65 @@ public abstract class TableInspectorBase<M extends MetaData, T extends TableInsp
         super(objectType, parentObjectType, inspectionScopeClass);
     }
 
+    /**
+     * Inspects the tables schema by schema with a single query each if {@link #supportsSchemaScope()} is on, rather
+     * than issuing a query per table.
+     *
+     * @param inspectionContext inspection context
+     * @param objects           tables to inspect
+     * @throws SQLException if inspection fails
+     */
+    @Override
+    public void inspectObjects(InspectionContext inspectionContext, Collection<? extends M> objects)
+            throws SQLException {
+        if (supportsSchemaScope()) {
+            inspectScopes(inspectionContext, (Collection<? extends T>) createSchemaTablesInspectionScopes(objects));
+        } else {
+            super.inspectObjects(inspectionContext, objects);
+        }
+    }
+
+    /**
+     * Inspectors, which query accepts a schema without a table, opt in for inspecting all tables of a schema at once
+     *
+     * @return true if all tables of a schema are inspected with a single query
+     */
+    protected boolean supportsSchemaScope() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemaScope(InspectionContext inspectionContext) {
+        return supportsSchemaScope();
+    }
+
+    protected Collection<SchemaTablesInspectionScope> createSchemaTablesInspectionScopes(
+            Collection<? extends M> objects) {
+        Map<Schema, SchemaTablesInspectionScope> inspectionScopes = newLinkedHashMap();
+        for (M object : objects) {
+            Table table = (Table) object;
+            Schema schema = table.getSchema();
+            SchemaTablesInspectionScope inspectionScope = inspectionScopes.get(schema);
+            if (inspectionScope == null) {
+                inspectionScopes.put(schema, inspectionScope =
+                        new SchemaTablesInspectionScope(table.getCatalog().getName(), schema.getName()));
+            }
+            inspectionScope.addTable(table);
+        }
+        return inspectionScopes.values();
+    }
+
+    /**
+     * Resolves table of a result set row. Rows of a schema scope are matched against the tables of the scope and
+     * skipped by returning null if the table is not listed, other scopes add the table to the inspection results.
+     */
+    protected Table getTable(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+                             String catalog, String schema, String table) {
+        return tableInspectionScope instanceof SchemaTablesInspectionScope ?
+                ((SchemaTablesInspectionScope) tableInspectionScope).getTable(table) :
+                addTable(inspectionContext.getInspectionResults(), catalog, schema, table);
+    }
+
     protected T createInspectionScope(M object) {
         return (T) createTableInspectionScope((Table) object);
     }
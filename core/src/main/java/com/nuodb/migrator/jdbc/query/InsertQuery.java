@@ -46,6 +46,7 @@ public class InsertQuery extends QueryBase {
     private Dialect dialect;
     private Table into;
     private Map<Column, String> columns = Maps.newLinkedHashMap();
+    private int rows = 1;
 
     public InsertType getInsertType() {
         return insertType;
@@ -79,6 +80,20 @@ public class InsertQuery extends QueryBase {
         this.columns = columns;
     }
 
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Sets number of value tuples rendered in VALUES clause, so that a single statement inserts the given number of
+     * rows
+     *
+     * @param rows number of rows inserted by the statement
+     */
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
     public void addColumn(Column column) {
         addColumn(column, "?");
     }
@@ -104,15 +119,25 @@ public class InsertQuery extends QueryBase {
                     query.append(", ");
                 }
             }
-            query.append(") VALUES (");
-            Iterator<String> values = columns.values().iterator();
-            while (values.hasNext()) {
-                query.append(values.next());
-                if (values.hasNext()) {
+            query.append(") VALUES ");
+            for (int row = 0; row < rows; row++) {
+                if (row > 0) {
                     query.append(", ");
                 }
+                appendValues(query);
+            }
+        }
+    }
+
+    protected void appendValues(StringBuilder query) {
+        query.append('(');
+        Iterator<String> values = columns.values().iterator();
+        while (values.hasNext()) {
+            query.append(values.next());
+            if (values.hasNext()) {
+                query.append(", ");
             }
-            query.append(')');
         }
+        query.append(')');
     }
 }
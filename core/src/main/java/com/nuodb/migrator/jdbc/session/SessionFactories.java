@@ -41,6 +41,10 @@ import java.util.Map;
  */
 public class SessionFactories {
 
+    public static SessionFactory newSessionPool(SessionFactory sessionFactory) {
+        return new SessionPool(sessionFactory);
+    }
+
     public static SessionFactory newSessionFactory(final Dialect dialect, final ConnectionSpec connectionSpec) {
         return new SessionFactoryBase() {
             @Override
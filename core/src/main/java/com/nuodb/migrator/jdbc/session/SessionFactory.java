@@ -42,4 +42,16 @@ public interface SessionFactory {
     void addSessionObserver(SessionObserver sessionObserver);
 
     void removeSessionObserver(SessionObserver sessionObserver);
+
+    /**
+     * Governor limiting number of sessions open simultaneously, null if unlimited
+     */
+    Governor getGovernor();
+
+    void setGovernor(Governor governor);
+
+    /**
+     * Releases sessions kept open by the factory, sessions opened to works are closed by the works
+     */
+    void close() throws SQLException;
 }
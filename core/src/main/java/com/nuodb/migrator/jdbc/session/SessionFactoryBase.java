@@ -27,12 +27,17 @@
  */
 package com.nuodb.migrator.jdbc.session;
 
+import com.google.common.collect.Maps;
+
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedSet;
 
 /**
  * @author Sergey Bushik
@@ -40,6 +45,8 @@ import static com.google.common.collect.Maps.newHashMap;
 public abstract class SessionFactoryBase implements SessionFactory {
 
     private Collection<SessionObserver> sessionObservers = newArrayList();
+    private Governor governor;
+    private Set<Session> governedSessions = synchronizedSet(newSetFromMap(Maps.<Session, Boolean>newIdentityHashMap()));
 
     @Override
     public Session openSession() throws SQLException {
@@ -48,11 +55,42 @@ public abstract class SessionFactoryBase implements SessionFactory {
 
     @Override
     public Session openSession(Map<Object, Object> context) throws SQLException {
-        Session session = open(context);
-        afterOpen(session);
+        Governor governor = getGovernor();
+        acquire(governor);
+        Session session = null;
+        boolean opened = false;
+        try {
+            session = open(context);
+            if (governor != null) {
+                governedSessions.add(session);
+            }
+            afterOpen(session);
+            opened = true;
+        } finally {
+            if (!opened && (session == null || governedSessions.remove(session))) {
+                release(governor);
+            }
+        }
         return session;
     }
 
+    protected void acquire(Governor governor) throws SQLException {
+        if (governor != null) {
+            try {
+                governor.acquire();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new SessionException("Interrupted while waiting for a session", exception);
+            }
+        }
+    }
+
+    protected void release(Governor governor) {
+        if (governor != null) {
+            governor.release();
+        }
+    }
+
     protected abstract Session open(Map<Object, Object> context) throws SQLException;
 
     @Override
@@ -65,6 +103,16 @@ public abstract class SessionFactoryBase implements SessionFactory {
         sessionObservers.remove(sessionObserver);
     }
 
+    @Override
+    public Governor getGovernor() {
+        return governor;
+    }
+
+    @Override
+    public void setGovernor(Governor governor) {
+        this.governor = governor;
+    }
+
     protected void afterOpen(Session session) throws SQLException {
         for (SessionObserver sessionObserver : sessionObservers) {
             sessionObserver.afterOpen(session);
@@ -78,9 +126,19 @@ public abstract class SessionFactoryBase implements SessionFactory {
     }
 
     public void closeSession(Session session) throws SQLException {
-        beforeClose(session);
-        close(session);
+        try {
+            beforeClose(session);
+            close(session);
+        } finally {
+            if (governedSessions.remove(session)) {
+                release(getGovernor());
+            }
+        }
     }
 
     protected abstract void close(Session session) throws SQLException;
+
+    @Override
+    public void close() throws SQLException {
+    }
 }
@@ -27,11 +27,14 @@
  */
 package com.nuodb.migrator.jdbc.session;
 
-import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
 
 import java.sql.SQLException;
 import java.util.TimeZone;
 
+import static com.nuodb.migrator.jdbc.session.SessionState.getSessionState;
+import static java.lang.String.format;
+
 /**
  * @author Sergey Bushik
  */
@@ -47,7 +50,7 @@ public class SessionObservers {
         return new SessionObserver() {
             @Override
             public void afterOpen(Session session) throws SQLException {
-                session.getDialect().setTransactionIsolation(session.getConnection(), levels);
+                getSessionState(session).setTransactionIsolation(session, levels);
             }
 
             @Override
@@ -56,6 +59,35 @@ public class SessionObservers {
         };
     }
 
+    /**
+     * Joins opened session to the snapshot and leaves the snapshot before the session is closed.
+     *
+     * @param snapshot to join.
+     * @return session observer.
+     */
+    public static SessionObserver newSnapshotJoiner(final Snapshot snapshot) {
+        return new SessionObserver() {
+            @Override
+            public void afterOpen(Session session) throws SQLException {
+                if (!snapshot.isJoinable()) {
+                    throw new SessionException(format("Snapshot %s is released and can't be joined, " +
+                            "open source sessions up front", snapshot));
+                }
+                snapshot.getSnapshotHandler().joinSnapshot(session, snapshot);
+                getSessionState(session).setSnapshot(snapshot);
+            }
+
+            @Override
+            public void beforeClose(Session session) throws SQLException {
+                SessionState sessionState = getSessionState(session);
+                if (sessionState.getSnapshot() == snapshot) {
+                    sessionState.setSnapshot(null);
+                    snapshot.getSnapshotHandler().leaveSnapshot(session, snapshot);
+                }
+            }
+        };
+    }
+
     /**
      * Sets session time zone of dialect supports its.
      *
@@ -66,20 +98,13 @@ public class SessionObservers {
         return new SessionObserver() {
             @Override
             public void afterOpen(Session session) throws SQLException {
-                setSessionTimeZone(session, timeZone);
+                getSessionState(session).setSessionTimeZone(session, timeZone);
             }
 
             @Override
             public void beforeClose(Session session) throws SQLException {
                 if (!session.getConnection().isClosed()) {
-                    setSessionTimeZone(session, null);
-                }
-            }
-
-            private void setSessionTimeZone(Session session, TimeZone timeZone) throws SQLException {
-                Dialect dialect = session.getDialect();
-                if (dialect.supportsSessionTimeZone()) {
-                    dialect.setSessionTimeZone(session.getConnection(), timeZone);
+                    getSessionState(session).setSessionTimeZone(session, null);
                 }
             }
         };
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import com.nuodb.migrator.spec.ConnectionSpec;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.session.SessionState.getSessionState;
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Keeps sessions opened by the underlying session factory initialized and reuses them for subsequent works instead of
+ * borrowing a connection and running session observers for every work. A closed session is returned to the pool and
+ * stays bound to the thread which used it, so that the thread gets the same session back on its next open, while a
+ * thread without a bound session takes any idle one before a new session is opened. Session observers are registered
+ * with the underlying session factory and run once per pooled session, {@link SessionState} of a pooled session is
+ * shared with every work using it.
+ *
+ * @author Sergey Bushik
+ */
+public class SessionPool extends SessionFactoryBase {
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final SessionFactory sessionFactory;
+    private final LinkedList<PooledSession> idleSessions = new LinkedList<PooledSession>();
+    private boolean closed;
+
+    private final AtomicLong openedSessions = new AtomicLong();
+    private final AtomicLong closedSessions = new AtomicLong();
+    private final AtomicLong leasedSessions = new AtomicLong();
+    private final AtomicLong reusedSessions = new AtomicLong();
+    private final AtomicLong threadBoundSessions = new AtomicLong();
+    private final AtomicLong activeSessions = new AtomicLong();
+
+    public SessionPool(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    protected Session open(Map<Object, Object> context) throws SQLException {
+        PooledSession pooledSession = takeIdleSession();
+        if (pooledSession == null) {
+            pooledSession = new PooledSession(sessionFactory.openSession());
+            openedSessions.incrementAndGet();
+        } else {
+            reusedSessions.incrementAndGet();
+        }
+        pooledSession.thread = Thread.currentThread();
+        leasedSessions.incrementAndGet();
+        activeSessions.incrementAndGet();
+        return new LeasedSession(this, pooledSession, context);
+    }
+
+    protected PooledSession takeIdleSession() {
+        Thread thread = Thread.currentThread();
+        synchronized (idleSessions) {
+            for (Iterator<PooledSession> iterator = idleSessions.iterator(); iterator.hasNext(); ) {
+                PooledSession pooledSession = iterator.next();
+                if (pooledSession.thread == thread) {
+                    iterator.remove();
+                    threadBoundSessions.incrementAndGet();
+                    return pooledSession;
+                }
+            }
+            return idleSessions.poll();
+        }
+    }
+
+    @Override
+    protected void close(Session session) throws SQLException {
+        PooledSession pooledSession = ((LeasedSession) session).release();
+        if (pooledSession == null) {
+            return;
+        }
+        activeSessions.decrementAndGet();
+        boolean idle = false;
+        try {
+            idle = reset(pooledSession.session);
+        } finally {
+            synchronized (idleSessions) {
+                if (idle && !closed) {
+                    idleSessions.addFirst(pooledSession);
+                    pooledSession = null;
+                }
+            }
+            if (pooledSession != null) {
+                closePooledSession(pooledSession);
+            }
+        }
+    }
+
+    /**
+     * Rolls back a transaction left open by the work, so that the next work starts afresh, unless the transaction
+     * reads a joined snapshot
+     *
+     * @param session session to reset
+     * @return true if session can be reused, false if its connection is closed
+     * @throws SQLException if session can't be reset
+     */
+    protected boolean reset(Session session) throws SQLException {
+        Connection connection = session.getConnection();
+        if (connection.isClosed()) {
+            return false;
+        }
+        SessionState sessionState = getSessionState(session);
+        if (sessionState.getSnapshot() != null) {
+            return true;
+        }
+        Boolean autoCommit = sessionState.getAutoCommit();
+        if (!(autoCommit != null ? autoCommit : connection.getAutoCommit())) {
+            connection.rollback();
+        }
+        return true;
+    }
+
+    protected void closePooledSession(PooledSession pooledSession) {
+        closedSessions.incrementAndGet();
+        closeQuietly(pooledSession.session);
+    }
+
+    /**
+     * Closes idle sessions, sessions still in use are closed as soon as they are returned to the pool
+     */
+    @Override
+    public void close() {
+        Iterable<PooledSession> pooledSessions;
+        synchronized (idleSessions) {
+            closed = true;
+            pooledSessions = newArrayList(idleSessions);
+            idleSessions.clear();
+        }
+        for (PooledSession pooledSession : pooledSessions) {
+            closePooledSession(pooledSession);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Session pool closed %s", this));
+        }
+    }
+
+    @Override
+    public void addSessionObserver(SessionObserver sessionObserver) {
+        sessionFactory.addSessionObserver(sessionObserver);
+    }
+
+    @Override
+    public void removeSessionObserver(SessionObserver sessionObserver) {
+        sessionFactory.removeSessionObserver(sessionObserver);
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    /**
+     * Number of sessions opened by the underlying session factory
+     */
+    public long getOpenedSessions() {
+        return openedSessions.get();
+    }
+
+    /**
+     * Number of underlying sessions closed
+     */
+    public long getClosedSessions() {
+        return closedSessions.get();
+    }
+
+    /**
+     * Number of sessions handed out to works
+     */
+    public long getLeasedSessions() {
+        return leasedSessions.get();
+    }
+
+    /**
+     * Number of sessions handed out from the idle ones
+     */
+    public long getReusedSessions() {
+        return reusedSessions.get();
+    }
+
+    /**
+     * Number of reused sessions handed out to the same thread which returned them
+     */
+    public long getThreadBoundSessions() {
+        return threadBoundSessions.get();
+    }
+
+    /**
+     * Number of sessions in use by works
+     */
+    public long getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public int getIdleSessions() {
+        synchronized (idleSessions) {
+            return idleSessions.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format("opened=%d, closed=%d, leased=%d, reused=%d, thread bound=%d, active=%d, idle=%d",
+                getOpenedSessions(), getClosedSessions(), getLeasedSessions(), getReusedSessions(),
+                getThreadBoundSessions(), getActiveSessions(), getIdleSessions());
+    }
+
+    static class PooledSession {
+
+        private final Session session;
+        private volatile Thread thread;
+
+        public PooledSession(Session session) {
+            this.session = session;
+        }
+    }
+
+    static class LeasedSession extends SessionBase {
+
+        private final PooledSession pooledSession;
+        private boolean released;
+
+        @SuppressWarnings("unchecked")
+        public LeasedSession(SessionPool sessionPool, PooledSession pooledSession, Map context) {
+            super(sessionPool, null, pooledSession.session.getDialect(), context);
+            this.pooledSession = pooledSession;
+            put(SessionState.class, getSessionState(pooledSession.session));
+        }
+
+        @Override
+        public Connection getConnection() {
+            return pooledSession.session.getConnection();
+        }
+
+        @Override
+        public ConnectionSpec getConnectionSpec() {
+            return pooledSession.session.getConnectionSpec();
+        }
+
+        protected synchronized PooledSession release() {
+            if (released) {
+                return null;
+            }
+            released = true;
+            return pooledSession;
+        }
+    }
+}
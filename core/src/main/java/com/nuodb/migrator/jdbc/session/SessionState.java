@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.TimeZone;
+
+import static com.google.common.base.Objects.equal;
+
+/**
+ * Caches state applied to a connection of a session, so that set statements are issued only when the requested state
+ * differs from the applied one. The state is kept in the session under {@link SessionState} class key and lives as
+ * long as the session's connection, which for a pooled session spans many works.
+ *
+ * @author Sergey Bushik
+ */
+public class SessionState {
+
+    private Integer transactionIsolation;
+    private Boolean autoCommit;
+    private TimeZone sessionTimeZone;
+    private boolean sessionTimeZoneSet;
+    private Snapshot snapshot;
+
+    @SuppressWarnings("unchecked")
+    public static SessionState getSessionState(Session session) {
+        SessionState sessionState = (SessionState) session.get(SessionState.class);
+        if (sessionState == null) {
+            session.put(SessionState.class, sessionState = new SessionState());
+        }
+        return sessionState;
+    }
+
+    /**
+     * Sets the first of the levels supported by the dialect unless it's the level already set
+     *
+     * @param session session to set transaction isolation for
+     * @param levels  transaction isolation levels in the order of preference
+     * @throws SQLException if transaction isolation can't be set
+     */
+    public void setTransactionIsolation(Session session, int[] levels) throws SQLException {
+        Dialect dialect = session.getDialect();
+        if (levels != null) {
+            for (int level : levels) {
+                if (dialect.supportsTransactionIsolation(level)) {
+                    if (transactionIsolation == null || transactionIsolation != level) {
+                        dialect.setTransactionIsolation(session.getConnection(), new int[]{level});
+                        transactionIsolation = level;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    public void setAutoCommit(Session session, boolean autoCommit) throws SQLException {
+        if (this.autoCommit == null || this.autoCommit != autoCommit) {
+            session.getConnection().setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+        }
+    }
+
+    /**
+     * Sets session time zone if dialect supports it, null time zone resets session time zone to the default one and
+     * is issued only if a time zone was set before
+     *
+     * @param session  session to set time zone for
+     * @param timeZone time zone to set
+     * @throws SQLException if session time zone can't be set
+     */
+    public void setSessionTimeZone(Session session, TimeZone timeZone) throws SQLException {
+        Dialect dialect = session.getDialect();
+        if (!dialect.supportsSessionTimeZone()) {
+            return;
+        }
+        if (sessionTimeZoneSet ? !equal(sessionTimeZone, timeZone) : timeZone != null) {
+            dialect.setSessionTimeZone(session.getConnection(), timeZone);
+            sessionTimeZone = timeZone;
+            sessionTimeZoneSet = timeZone != null;
+        }
+    }
+
+    public Integer getTransactionIsolation() {
+        return transactionIsolation;
+    }
+
+    public Boolean getAutoCommit() {
+        return autoCommit;
+    }
+
+    public TimeZone getSessionTimeZone() {
+        return sessionTimeZone;
+    }
+
+    /**
+     * Snapshot joined by the session, its transaction is kept open until the session leaves the snapshot
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+}
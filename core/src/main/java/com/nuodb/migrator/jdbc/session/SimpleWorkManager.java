@@ -55,6 +55,7 @@ public class SimpleWorkManager<L extends WorkListener> implements WorkManager<L>
     private Map<Work, Throwable> failures = synchronizedMap(
             Maps.<Work, Throwable>newLinkedHashMap());
     private List<L> listeners = newCopyOnWriteArrayList();
+    private volatile boolean failed;
 
     @Override
     public boolean hasListeners() {
@@ -154,6 +155,7 @@ public class SimpleWorkManager<L extends WorkListener> implements WorkManager<L>
                     work.getName(), failure.getMessage()));
         }
         failures.put(work, failure);
+        failed = true;
         onFailure(work, failure);
     }
 
@@ -183,6 +185,11 @@ public class SimpleWorkManager<L extends WorkListener> implements WorkManager<L>
         }
     }
 
+    @Override
+    public boolean hasFailures() {
+        return failed;
+    }
+
     @Override
     public Map<Work, Throwable> getFailures() {
         return failures;
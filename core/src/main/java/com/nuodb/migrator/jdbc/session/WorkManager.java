@@ -51,5 +51,12 @@ public interface WorkManager<L extends WorkListener> {
 
     void close() throws Exception;
 
+    /**
+     * Checks if any of the works has failed without locking the map of failures, so that it can be called per row.
+     *
+     * @return true if at least one work failed
+     */
+    boolean hasFailures();
+
     Map<Work, Throwable> getFailures();
 }
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.LimitHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import com.nuodb.migrator.jdbc.query.SelectQueryBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static java.util.Collections.synchronizedList;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Splits table rows into key ranges using a unique non-null key, each split is selected with a {@code WHERE (key) >
+ * (?) AND (key) <= (?) ORDER BY key} predicate, so that every split costs an index seek instead of scanning and
+ * discarding {@code offset} rows. The upper key of a split is found by reading {@code count} keys of the range
+ * following the lower key, the last split is open-ended.
+ *
+ * @author Sergey Bushik
+ */
+public class KeysetQuerySplitter extends QuerySplitterBase<PreparedStatement> {
+
+    private final Dialect dialect;
+    private final Table table;
+    private final Collection<Column> columns;
+    private final String filter;
+    private final List<Column> keyColumns;
+    /**
+     * Lower exclusive keys of the splits, the key of the first split is null
+     */
+    private final List<Object[]> lowerKeys = synchronizedList(Lists.<Object[]>newArrayList());
+    private volatile boolean lastLowerKey;
+
+    protected KeysetQuerySplitter(Dialect dialect, Table table, Collection<Column> columns, String filter,
+                                  Collection<Column> keyColumns, Query query, QueryLimit queryLimit) {
+        super(query, queryLimit, null);
+        this.dialect = dialect;
+        this.table = table;
+        this.columns = columns;
+        this.filter = filter;
+        this.keyColumns = newArrayList(keyColumns);
+        this.lowerKeys.add(null);
+    }
+
+    @Override
+    protected boolean hasNextQuerySplit(Connection connection, int splitIndex) throws SQLException {
+        return splitIndex == 0 || getLowerKey(connection, splitIndex) != null;
+    }
+
+    @Override
+    protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
+        // resolves upper key of the split on the splitting connection, before the split is handed over
+        getLowerKey(connection, splitIndex + 1);
+        return new QueryLimit(getCount(getQueryLimit()));
+    }
+
+    /**
+     * Returns lower exclusive key of the split with a given index, seeking the key from the previous one if required.
+     *
+     * @param connection  to seek keys with.
+     * @param splitIndex index of the split.
+     * @return lower key or null if split index is beyond the last split.
+     * @throws SQLException if keys can't be selected.
+     */
+    protected synchronized Object[] getLowerKey(Connection connection, int splitIndex) throws SQLException {
+        while (lowerKeys.size() <= splitIndex && !lastLowerKey) {
+            Object[] lowerKey = seekKey(connection, lowerKeys.get(lowerKeys.size() - 1));
+            if (lowerKey != null) {
+                lowerKeys.add(lowerKey);
+            } else {
+                lastLowerKey = true;
+            }
+        }
+        return splitIndex < lowerKeys.size() ? lowerKeys.get(splitIndex) : null;
+    }
+
+    /**
+     * Describes key range of the split by its lower exclusive and upper inclusive keys, null for open ends
+     */
+    @Override
+    protected String getSplitBounds(QueryLimit queryLimit, int splitIndex) {
+        return getSplitBounds(lowerKeys.get(splitIndex), getUpperKey(splitIndex));
+    }
+
+    protected Object[] getUpperKey(int splitIndex) {
+        return splitIndex + 1 < lowerKeys.size() ? lowerKeys.get(splitIndex + 1) : null;
+    }
+
+    /**
+     * Selects key of the row, which is {@code count} rows past the given lower key, by reading keys of the ordered key
+     * range following the lower key, limited to {@code count} rows. The range starts with an index seek and doesn't
+     * skip rows with an offset, which is evaluated by scanning the skipped rows on some of the databases.
+     */
+    protected Object[] seekKey(Connection connection, Object[] lowerKey) throws SQLException {
+        SelectQuery query = createSelectQuery(keyColumns, lowerKey != null, false);
+        long count = getCount(getQueryLimit());
+        LimitHandler limitHandler = dialect.createLimitHandler(query.toString(), new QueryLimit(count));
+        PreparedStatement statement = connection.prepareStatement(limitHandler.getLimitQuery(true));
+        ResultSet resultSet = null;
+        try {
+            int parameter = 1;
+            parameter += limitHandler.bindParametersAtStart(statement, parameter);
+            parameter += bindKey(statement, parameter, lowerKey);
+            limitHandler.bindParametersAtEnd(statement, parameter);
+            resultSet = statement.executeQuery();
+            Object[] key = null;
+            for (long row = 1; key == null && resultSet.next(); row++) {
+                if (row == count) {
+                    key = new Object[keyColumns.size()];
+                    for (int index = 0; index < key.length; index++) {
+                        key[index] = resultSet.getObject(index + 1);
+                    }
+                }
+            }
+            return key;
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+        }
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(Connection connection, QueryLimit queryLimit,
+                                                 int splitIndex) throws SQLException {
+        Object[] lowerKey = lowerKeys.get(splitIndex);
+        Object[] upperKey = getUpperKey(splitIndex);
+        PreparedStatement statement = connection.prepareStatement(
+                createSelectQuery(columns, lowerKey != null, upperKey != null).toString());
+        int parameter = 1;
+        parameter += bindKey(statement, parameter, lowerKey);
+        bindKey(statement, parameter, upperKey);
+        return statement;
+    }
+
+    @Override
+    protected PreparedStatement createStatement(Connection connection, QueryLimit queryLimit,
+                                                int splitIndex) throws SQLException {
+        return prepareStatement(connection, queryLimit, splitIndex);
+    }
+
+    @Override
+    protected ResultSet executeStatement(PreparedStatement statement, QueryLimit queryLimit,
+                                         int splitIndex) throws SQLException {
+        return statement.executeQuery();
+    }
+
+    protected SelectQuery createSelectQuery(Collection<Column> columns, boolean lowerKey, boolean upperKey) {
+        SelectQueryBuilder builder = new SelectQueryBuilder();
+        builder.dialect(dialect);
+        builder.from(table);
+        if (columns != null) {
+            for (Column column : columns) {
+                builder.column(column);
+            }
+        }
+        if (!isEmpty(filter)) {
+            builder.filter("(" + filter + ")");
+        }
+        if (lowerKey) {
+            builder.filter(createKeyFilter(false));
+        }
+        if (upperKey) {
+            builder.filter(createKeyFilter(true));
+        }
+        SelectQuery query = builder.build();
+        Collection<String> orderBy = newArrayList();
+        for (Column keyColumn : keyColumns) {
+            orderBy.add(keyColumn.getName(dialect));
+        }
+        query.orderBy(orderBy);
+        return query;
+    }
+
+    /**
+     * Expands row value comparison {@code (k1, k2) > (?, ?)} to {@code (k1 > ? OR k1 = ? AND k2 > ?)}, which is
+     * understood by all the dialects. Upper key filter is inclusive {@code (k1 < ? OR k1 = ? AND k2 <= ?)}.
+     *
+     * @param upperKey true if filter restricts keys from above.
+     * @return key filter.
+     */
+    protected String createKeyFilter(boolean upperKey) {
+        StringBuilder filter = new StringBuilder("(");
+        int size = keyColumns.size();
+        for (int term = 0; term < size; term++) {
+            if (term > 0) {
+                filter.append(" OR ");
+            }
+            for (int index = 0; index <= term; index++) {
+                Column keyColumn = keyColumns.get(index);
+                filter.append(keyColumn.getName(dialect));
+                if (index < term) {
+                    filter.append(" = ? AND ");
+                } else if (upperKey) {
+                    filter.append(term == size - 1 ? " <= ?" : " < ?");
+                } else {
+                    filter.append(" > ?");
+                }
+            }
+        }
+        filter.append(")");
+        return filter.toString();
+    }
+
+    protected int bindKey(PreparedStatement statement, int parameter, Object[] key) throws SQLException {
+        if (key == null) {
+            return 0;
+        }
+        int parameters = 0;
+        for (int term = 0; term < key.length; term++) {
+            for (int index = 0; index <= term; index++) {
+                statement.setObject(parameter + parameters++, key[index]);
+            }
+        }
+        return parameters;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Collection<Column> getColumns() {
+        return columns;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public Collection<Column> getKeyColumns() {
+        return keyColumns;
+    }
+}
@@ -37,7 +37,7 @@ import java.sql.*;
 
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getOffset;
-import static java.lang.Math.min;
+import static java.lang.Long.MAX_VALUE;
 
 /**
  * @author Sergey Bushik
@@ -64,11 +64,23 @@ public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
     protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
         QueryLimit queryLimit = getQueryLimit();
         long offset = splitIndex * getCount(queryLimit) + getOffset(queryLimit);
-        // long limit = getLimit(queryLimit);
-        long limit = min(getCount(queryLimit), getRowCount(connection) - offset);
+        long count = getCount(queryLimit);
+        // last split reads all remaining rows, as row count can be estimated or rows can be added after counting
+        long limit = offset + count < getRowCount(connection) ? count : MAX_VALUE - offset;
         return new QueryLimit(limit, offset);
     }
 
+    /**
+     * Evaluates split count from the row count, which can be estimated
+     */
+    @Override
+    protected Integer getSplitCount(Connection connection) throws SQLException {
+        QueryLimit queryLimit = getQueryLimit();
+        long count = getCount(queryLimit);
+        long rows = getRowCount(connection) - getOffset(queryLimit);
+        return count > 0 && rows > count ? (int) ((rows + count - 1) / count) : 1;
+    }
+
     protected long getRowCount(Connection connection) throws SQLException {
         return getRowCountStrategy().getRowCount(connection);
     }
@@ -56,6 +56,11 @@ public class NoLimitQuerySplitter extends QuerySplitterBase<Statement> {
         return null;
     }
 
+    @Override
+    protected Integer getSplitCount(Connection connection) {
+        return 1;
+    }
+
     @Override
     protected Statement createStatement(Connection connection, QueryLimit queryLimit,
                                         int splitIndex) throws SQLException {
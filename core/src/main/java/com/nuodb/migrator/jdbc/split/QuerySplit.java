@@ -42,6 +42,21 @@ public interface QuerySplit {
 
     int getSplitIndex();
 
+    /**
+     * Number of splits the query was split into when this split was created
+     *
+     * @return split count or null if it's not known upfront
+     */
+    Integer getSplitCount();
+
+    /**
+     * Describes rows selected by the split, i.e. its limit and offset or its key bounds, so that splits created by
+     * different runs can be compared
+     *
+     * @return split bounds or null if the split selects all the rows
+     */
+    String getSplitBounds();
+
     Query getQuery();
 
     QueryLimit getQueryLimit();
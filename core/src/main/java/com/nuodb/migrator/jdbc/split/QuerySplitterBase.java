@@ -37,6 +37,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import static java.util.Arrays.deepToString;
+
 /**
  * @author Sergey Bushik
  */
@@ -89,6 +91,32 @@ public abstract class QuerySplitterBase<S extends Statement> implements QuerySpl
 
     protected abstract QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException;
 
+    /**
+     * Returns number of splits the query is split into, which is evaluated once the split is created
+     *
+     * @param connection connection to evaluate split count with
+     * @return split count or null if it's not known upfront
+     * @throws SQLException if split count can't be evaluated
+     */
+    protected Integer getSplitCount(Connection connection) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Describes rows selected by the split by its limit and offset
+     *
+     * @param queryLimit limit of the split
+     * @param splitIndex index of the split
+     * @return split bounds or null if the split is not limited
+     */
+    protected String getSplitBounds(QueryLimit queryLimit, int splitIndex) {
+        return queryLimit != null ? getSplitBounds(queryLimit.getCount(), queryLimit.getOffset()) : null;
+    }
+
+    protected String getSplitBounds(Object... bounds) {
+        return deepToString(bounds);
+    }
+
     protected abstract S prepareStatement(Connection connection, QueryLimit queryLimit,
                                           int splitIndex) throws SQLException;
 
@@ -100,12 +128,24 @@ public abstract class QuerySplitterBase<S extends Statement> implements QuerySpl
 
     protected QuerySplit createQuerySplit(final Connection connection, final StatementCallback<S> callback,
                                           final QueryLimit queryLimit, final int splitIndex) throws SQLException {
+        final Integer splitCount = getSplitCount(connection);
+        final String splitBounds = getSplitBounds(queryLimit, splitIndex);
         return new QuerySplit() {
             @Override
             public int getSplitIndex() {
                 return splitIndex;
             }
 
+            @Override
+            public Integer getSplitCount() {
+                return splitCount;
+            }
+
+            @Override
+            public String getSplitBounds() {
+                return splitBounds;
+            }
+
             @Override
             public Query getQuery() {
                 return query;
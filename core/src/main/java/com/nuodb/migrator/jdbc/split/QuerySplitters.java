@@ -28,13 +28,22 @@
 package com.nuodb.migrator.jdbc.split;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
 
+import static com.google.common.collect.Iterables.get;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static com.nuodb.migrator.utils.Collections.isEmpty;
 
 /**
  * Static factories for creating query splitters.
@@ -52,6 +61,71 @@ public class QuerySplitters {
         return new LimitQuerySplitter(dialect, rowCountStrategy, query, queryLimit, null);
     }
 
+    public static boolean supportsKeysetSplitter(Dialect dialect, Table table, QueryLimit queryLimit) {
+        return dialect.supportsLimitOffset() && getCount(queryLimit) > 0 && getKeysetColumns(table) != null;
+    }
+
+    /**
+     * Returns columns of the primary key or of the first unique index without expression & filter condition, which
+     * columns are non-nullable.
+     *
+     * @param table to find key columns for.
+     * @return key columns usable for keyset splitting or null if table has no such key.
+     */
+    public static Collection<Column> getKeysetColumns(Table table) {
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey != null && !isEmpty(primaryKey.getColumns())) {
+            return primaryKey.getColumns();
+        }
+        for (Index index : table.getIndexes()) {
+            if (index.isUnique() && index.getExpression() == null && index.getFilterCondition() == null &&
+                    !isEmpty(index.getColumns()) && !isNullable(index.getColumns())) {
+                return index.getColumns();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNullable(Collection<Column> columns) {
+        for (Column column : columns) {
+            if (column.isNullable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static QuerySplitter<PreparedStatement> newKeysetSplitter(Dialect dialect, Table table,
+                                                                     Collection<Column> columns, String filter,
+                                                                     Query query, QueryLimit queryLimit) {
+        return new KeysetQuerySplitter(dialect, table, columns, filter, getKeysetColumns(table), query, queryLimit);
+    }
+
+    public static boolean supportsRangeSplitter(Dialect dialect, Table table) {
+        return getRangeColumn(dialect, table) != null;
+    }
+
+    /**
+     * Returns leading column of the key used by keyset splitting, if histogram of its values is supported.
+     *
+     * @param dialect to check histogram support with.
+     * @param table   to find column for.
+     * @return column to partition rows into ranges or null.
+     */
+    public static Column getRangeColumn(Dialect dialect, Table table) {
+        Collection<Column> columns = getKeysetColumns(table);
+        Column column = columns != null ? get(columns, 0) : null;
+        return column != null && dialect.supportsHistogram(table, column) ? column : null;
+    }
+
+    public static QuerySplitter<PreparedStatement> newRangeSplitter(Dialect dialect, Table table,
+                                                                    Collection<Column> columns, String filter,
+                                                                    Query query, int splits) {
+        HistogramHandler histogramHandler = dialect.createHistogramHandler(
+                table, getRangeColumn(dialect, table), filter);
+        return new RangeQuerySplitter(dialect, table, columns, filter, histogramHandler, splits, query);
+    }
+
     public static QuerySplitter<Statement> newNoLimitSplitter(Query query) {
         return new NoLimitQuerySplitter(query, null);
     }
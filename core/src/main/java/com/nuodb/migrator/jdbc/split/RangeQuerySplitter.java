@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQueryBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Partitions table rows into a given number of key ranges {@code key >= ? AND key < ?} using column histogram provided
+ * by {@link HistogramHandler}. Neither row count nor offset scans are required, all splits are known upfront, so they
+ * can be executed simultaneously. The first and the last ranges are open-ended, so that rows outside of the sampled
+ * histogram are not lost. Column statistics describe all rows of the table, so if a filter is set the bounds are
+ * interpolated between MIN and MAX of the filtered rows, and ranges are equal by value rather than by row count.
+ *
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitter extends QuerySplitterBase<PreparedStatement> {
+
+    private final Dialect dialect;
+    private final Table table;
+    private final Collection<Column> columns;
+    private final String filter;
+    private final HistogramHandler histogramHandler;
+    private final int splits;
+    private volatile List<Object> bounds;
+
+    protected RangeQuerySplitter(Dialect dialect, Table table, Collection<Column> columns, String filter,
+                                 HistogramHandler histogramHandler, int splits, Query query) {
+        super(query, null, null);
+        this.dialect = dialect;
+        this.table = table;
+        this.columns = columns;
+        this.filter = filter;
+        this.histogramHandler = histogramHandler;
+        this.splits = splits;
+    }
+
+    @Override
+    protected boolean hasNextQuerySplit(Connection connection, int splitIndex) throws SQLException {
+        return splitIndex <= getBounds(connection).size();
+    }
+
+    @Override
+    protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
+        return null;
+    }
+
+    @Override
+    protected Integer getSplitCount(Connection connection) throws SQLException {
+        return getBounds(connection).size() + 1;
+    }
+
+    /**
+     * Describes the range of the split by its lower inclusive and upper exclusive bounds, null for open ends
+     */
+    @Override
+    protected String getSplitBounds(QueryLimit queryLimit, int splitIndex) {
+        return getSplitBounds(splitIndex > 0 ? bounds.get(splitIndex - 1) : null,
+                splitIndex < bounds.size() ? bounds.get(splitIndex) : null);
+    }
+
+    protected List<Object> getBounds(Connection connection) throws SQLException {
+        if (bounds == null) {
+            bounds = histogramHandler.getBounds(connection, splits);
+        }
+        return bounds;
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(Connection connection, QueryLimit queryLimit,
+                                                 int splitIndex) throws SQLException {
+        Object lowerBound = splitIndex > 0 ? bounds.get(splitIndex - 1) : null;
+        Object upperBound = splitIndex < bounds.size() ? bounds.get(splitIndex) : null;
+        PreparedStatement statement = connection.prepareStatement(
+                createQuery(splitIndex > 0, splitIndex < bounds.size()).toString());
+        int parameter = 1;
+        if (lowerBound != null) {
+            statement.setObject(parameter++, lowerBound);
+        }
+        if (upperBound != null) {
+            statement.setObject(parameter, upperBound);
+        }
+        return statement;
+    }
+
+    @Override
+    protected PreparedStatement createStatement(Connection connection, QueryLimit queryLimit,
+                                                int splitIndex) throws SQLException {
+        return prepareStatement(connection, queryLimit, splitIndex);
+    }
+
+    @Override
+    protected ResultSet executeStatement(PreparedStatement statement, QueryLimit queryLimit,
+                                         int splitIndex) throws SQLException {
+        return statement.executeQuery();
+    }
+
+    protected Query createQuery(boolean lowerBound, boolean upperBound) {
+        SelectQueryBuilder builder = new SelectQueryBuilder();
+        builder.dialect(dialect);
+        builder.from(table);
+        if (columns != null) {
+            for (Column column : columns) {
+                builder.column(column);
+            }
+        }
+        if (!isEmpty(filter)) {
+            builder.filter("(" + filter + ")");
+        }
+        Column column = histogramHandler.getColumn();
+        String name = column.getName(dialect);
+        if (lowerBound) {
+            builder.filter(name + " >= ?");
+        }
+        if (upperBound) {
+            // rows with null keys go to the first range
+            builder.filter(!lowerBound && column.isNullable() ?
+                    "(" + name + " < ? OR " + name + " IS NULL)" : name + " < ?");
+        }
+        return builder.build();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Collection<Column> getColumns() {
+        return columns;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public HistogramHandler getHistogramHandler() {
+        return histogramHandler;
+    }
+
+    public int getSplits() {
+        return splits;
+    }
+}
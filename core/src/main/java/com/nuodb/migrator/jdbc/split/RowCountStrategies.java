@@ -74,6 +74,25 @@ public class RowCountStrategies {
         };
     }
 
+    /**
+     * Takes row count estimated from statistics and counts rows exactly if table has no statistics collected.
+     *
+     * @param approxStrategy estimates row count, 0 or less if statistics is missing.
+     * @param exactStrategy  counts rows.
+     * @return row count strategy preferring estimation.
+     */
+    public static RowCountStrategy newApproxStrategy(final RowCountStrategy approxStrategy,
+                                                     final RowCountStrategy exactStrategy) {
+        return new RowCountStrategy() {
+
+            @Override
+            public long getRowCount(Connection connection) throws SQLException {
+                long rowCount = approxStrategy.getRowCount(connection);
+                return rowCount > 0 ? rowCount : exactStrategy.getRowCount(connection);
+            }
+        };
+    }
+
     public static RowCountStrategy newHandlerStrategy(final RowCountHandler rowCountHandler) {
         return new RowCountStrategy() {
 
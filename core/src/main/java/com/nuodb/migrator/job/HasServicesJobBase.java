@@ -32,15 +32,25 @@ import com.nuodb.migrator.backup.format.value.ValueFormatRegistryResolver;
 import com.nuodb.migrator.jdbc.connection.ConnectionProviderFactory;
 import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
+import com.nuodb.migrator.jdbc.metadata.inspector.MetaDataCache;
+import com.nuodb.migrator.jdbc.session.Governor;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.spec.JobSpec;
+import com.nuodb.migrator.spec.JobSpecBase;
 
 import static com.nuodb.migrator.context.ContextUtils.createService;
+import static java.lang.Math.max;
 
 /**
  * @author Sergey Bushik
  */
 public abstract class HasServicesJobBase<J extends JobSpec> extends HasJobSpecBase<J> {
 
+    /**
+     * Job holds a connection for its whole duration, so its works need at least one more
+     */
+    public static final int MIN_CONNECTIONS = 2;
+
     private FormatFactory formatFactory;
     private DialectResolver dialectResolver;
     private InspectionManager inspectionManager;
@@ -82,8 +92,48 @@ public abstract class HasServicesJobBase<J extends JobSpec> extends HasJobSpecBa
         return inspectionManager;
     }
 
+    /**
+     * Creates inspection manager reusing meta data snapshots from the cache directory if job spec sets one
+     *
+     * @return inspection manager
+     */
     public InspectionManager createInspectionManager() {
-        return createService(getInspectionManager(), InspectionManager.class);
+        InspectionManager inspectionManager = createService(getInspectionManager(), InspectionManager.class);
+        J jobSpec = getJobSpec();
+        if (jobSpec instanceof JobSpecBase && ((JobSpecBase) jobSpec).getInspectionCache() != null) {
+            inspectionManager.setMetaDataCache(new MetaDataCache(((JobSpecBase) jobSpec).getInspectionCache()));
+        }
+        return inspectionManager;
+    }
+
+    /**
+     * Creates inspection manager opening additional connections from the given session factory if job spec sets
+     * inspection threads
+     *
+     * @param sessionFactory session factory of the inspected database
+     * @return inspection manager
+     */
+    public InspectionManager createInspectionManager(SessionFactory sessionFactory) {
+        InspectionManager inspectionManager = createInspectionManager();
+        J jobSpec = getJobSpec();
+        if (jobSpec instanceof JobSpecBase) {
+            inspectionManager.setSessionFactory(sessionFactory);
+            inspectionManager.setThreads(((JobSpecBase) jobSpec).getInspectionThreads());
+        }
+        return inspectionManager;
+    }
+
+    /**
+     * Limits number of connections open simultaneously by the session factory, including the connection held by the
+     * job itself, works waiting for a connection don't occupy threads of the pool
+     *
+     * @param sessionFactory session factory to limit
+     * @param maxConnections maximum number of connections or null if unlimited
+     */
+    protected void setMaxConnections(SessionFactory sessionFactory, Integer maxConnections) {
+        if (maxConnections != null && maxConnections > 0) {
+            sessionFactory.setGovernor(new Governor(max(maxConnections, MIN_CONNECTIONS)));
+        }
     }
 
     public void setInspectionManager(InspectionManager inspectionManager) {
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.job;
 
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
 import org.slf4j.Logger;
 
 import static org.slf4j.LoggerFactory.getLogger;
@@ -57,4 +58,11 @@ public abstract class JobBase implements Job {
     public JobExecution getJobExecution() {
         return jobExecution;
     }
+
+    /**
+     * Returns metrics of the current execution or a detached registry if the job is run without an executor
+     */
+    public MetricRegistry getMetricRegistry() {
+        return jobExecution != null ? jobExecution.getMetricRegistry() : new MetricRegistry();
+    }
 }
@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.job;
 
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
+
 import java.util.Map;
 
 /**
@@ -46,4 +48,6 @@ public interface JobExecution {
 
     Map<Object, Object> getContext();
 
+    MetricRegistry getMetricRegistry();
+
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.job;
+
+import com.nuodb.migrator.spec.JobSpec;
+import com.nuodb.migrator.spec.JobSpecBase;
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
+import com.nuodb.migrator.utils.metrics.MetricRegistryMBean;
+import com.nuodb.migrator.utils.metrics.MetricsReporter;
+import org.slf4j.Logger;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Publishes metrics of a running job over JMX and, if the job spec sets report interval, logs them periodically and
+ * once more when the job is finished.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsJobExecutionListener implements JobExecutionListener {
+
+    private transient final Logger logger = getLogger(getClass());
+
+    private MetricRegistryMBean metricRegistryMBean;
+    private MetricsReporter metricsReporter;
+
+    @Override
+    public void onJobExecution(JobExecutionEvent event) {
+        JobExecution execution = event.getJobExecution();
+        if (execution.getJobStatus().isRunning()) {
+            start(execution);
+        } else {
+            stop(execution);
+        }
+    }
+
+    protected void start(JobExecution execution) {
+        String name = getName(execution);
+        MetricRegistry metricRegistry = execution.getMetricRegistry();
+        metricRegistryMBean = new MetricRegistryMBean(metricRegistry);
+        try {
+            metricRegistryMBean.register(name);
+        } catch (Exception exception) {
+            metricRegistryMBean = null;
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't register %s job metrics with JMX", name), exception);
+            }
+        }
+        JobSpecBase jobSpec = getJobSpec(execution);
+        Long reportInterval = jobSpec != null ? jobSpec.getReportInterval() : null;
+        if (reportInterval != null && reportInterval > 0) {
+            metricsReporter = new MetricsReporter(name, metricRegistry, jobSpec.getReportFormat());
+            metricsReporter.start(reportInterval, SECONDS);
+        }
+    }
+
+    protected void stop(JobExecution execution) {
+        if (metricsReporter != null) {
+            metricsReporter.stop();
+            metricsReporter.run();
+            metricsReporter = null;
+        }
+        if (metricRegistryMBean != null) {
+            try {
+                metricRegistryMBean.unregister();
+            } catch (Exception exception) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Can't unregister job metrics", exception);
+                }
+            }
+            metricRegistryMBean = null;
+        }
+    }
+
+    protected String getName(JobExecution execution) {
+        JobSpec jobSpec = getJobSpec(execution);
+        return jobSpec != null && jobSpec.getType() != null ? jobSpec.getType() : execution.getJob().getName();
+    }
+
+    protected JobSpecBase getJobSpec(JobExecution execution) {
+        Job job = execution.getJob();
+        Object jobSpec = job instanceof HasJobSpec ? ((HasJobSpec) job).getJobSpec() : null;
+        return jobSpec instanceof JobSpecBase ? (JobSpecBase) jobSpec : null;
+    }
+}
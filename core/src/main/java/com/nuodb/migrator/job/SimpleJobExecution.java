@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.job;
 
+import com.nuodb.migrator.utils.metrics.MetricRegistry;
+
 import java.util.Map;
 
 import static com.google.common.collect.Maps.newHashMap;
@@ -39,6 +41,7 @@ public class SimpleJobExecution implements JobExecution {
     private Job job;
     private JobStatus jobStatus;
     private Map<Object, Object> context;
+    private MetricRegistry metricRegistry = new MetricRegistry();
 
     public SimpleJobExecution(Job job, JobStatus jobStatus, Map<Object, Object> context) {
         this.job = job;
@@ -75,4 +78,9 @@ public class SimpleJobExecution implements JobExecution {
     public Map<Object, Object> getContext() {
         return context;
     }
-}
\ No newline at end of file
+
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+}
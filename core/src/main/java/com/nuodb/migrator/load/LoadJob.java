@@ -46,6 +46,7 @@ import java.util.TimeZone;
 
 import static com.nuodb.migrator.backup.loader.BackupLoader.THREADS;
 import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
 import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
 
 /**
@@ -77,15 +78,19 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         backupLoader.setIdentifierNormalizer(getIdentifierNormalizer());
         backupLoader.setIdentifierQuoting(getIdentifierQuoting());
         backupLoader.setInsertTypeFactory(createInsertTypeMapper());
-        backupLoader.setInspectionManager(createInspectionManager());
+        SessionFactory targetSessionFactory = createTargetSessionFactory();
+        backupLoader.setInspectionManager(createInspectionManager(targetSessionFactory));
         backupLoader.setMetaDataSpec(getMetaDataSpec());
+        backupLoader.setMetricRegistry(getMetricRegistry());
         backupLoader.setMigrationModes(getMigrationModes());
         backupLoader.setNamingStrategies(getNamingStrategies());
         backupLoader.setParallelizer(getParallelizer());
+        backupLoader.setResume(isResume());
+        backupLoader.setConstraintThreads(getConstraintThreads());
         backupLoader.setScriptTypes(getScriptTypes());
         backupLoader.setMetaDataFilterManager(getMetaDataFilterManager());
         backupLoader.setTargetSpec(getTargetSpec());
-        backupLoader.setTargetSessionFactory(createTargetSessionFactory());
+        backupLoader.setTargetSessionFactory(targetSessionFactory);
         backupLoader.setTimeZone(getTimeZone());
         backupLoader.setThreads(getThreads() != null ? getThreads() : THREADS);
         backupLoader.setTranslationConfig(getTranslationConfig());
@@ -99,9 +104,10 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
 
     protected SessionFactory createTargetSessionFactory() {
         SessionFactory targetSessionFactory =
-                newSessionFactory(createConnectionProviderFactory().
-                createConnectionProvider(getTargetSpec()), createDialectResolver());
+                newSessionPool(newSessionFactory(createConnectionProviderFactory().
+                createConnectionProvider(getTargetSpec()), createDialectResolver()));
         targetSessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        setMaxConnections(targetSessionFactory, getTargetConnections());
         return targetSessionFactory;
     }
 
@@ -184,4 +190,16 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     protected Integer getThreads() {
         return getJobSpec().getThreads();
     }
+
+    protected boolean isResume() {
+        return getJobSpec().isResume();
+    }
+
+    protected Integer getTargetConnections() {
+        return getJobSpec().getTargetConnections();
+    }
+
+    protected Integer getConstraintThreads() {
+        return getJobSpec().getConstraintThreads();
+    }
 }
\ No newline at end of file
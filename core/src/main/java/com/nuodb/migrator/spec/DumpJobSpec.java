@@ -54,6 +54,13 @@ public class DumpJobSpec extends JobSpecBase {
     private MetaDataSpec metaDataSpec = new MetaDataSpec();
     private Collection<QuerySpec> querySpecs = newArrayList();
     private QueryLimit queryLimit;
+    private Integer querySplits;
+    private Integer pipelineSize;
+    private String compression;
+    private Long lobThreshold;
+    private boolean resume;
+    private boolean snapshot;
+    private Integer sourceConnections;
 
     public void addListener(BackupWriterListener listener) {
         listeners.add(listener);
@@ -155,6 +162,62 @@ public class DumpJobSpec extends JobSpecBase {
         this.queryLimit = queryLimit;
     }
 
+    public Integer getQuerySplits() {
+        return querySplits;
+    }
+
+    public void setQuerySplits(Integer querySplits) {
+        this.querySplits = querySplits;
+    }
+
+    public Integer getPipelineSize() {
+        return pipelineSize;
+    }
+
+    public void setPipelineSize(Integer pipelineSize) {
+        this.pipelineSize = pipelineSize;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public Long getLobThreshold() {
+        return lobThreshold;
+    }
+
+    public void setLobThreshold(Long lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Integer getSourceConnections() {
+        return sourceConnections;
+    }
+
+    public void setSourceConnections(Integer sourceConnections) {
+        this.sourceConnections = sourceConnections;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -163,11 +226,19 @@ public class DumpJobSpec extends JobSpecBase {
 
         DumpJobSpec that = (DumpJobSpec) o;
 
+        if (resume != that.resume) return false;
+        if (snapshot != that.snapshot) return false;
+        if (sourceConnections != null ? !sourceConnections.equals(that.sourceConnections) :
+                that.sourceConnections != null) return false;
         if (metaDataSpec != null ? !metaDataSpec.equals(that.metaDataSpec) : that.metaDataSpec != null) return false;
         if (migrationModes != null ? !migrationModes.equals(that.migrationModes) : that.migrationModes != null)
             return false;
         if (outputSpec != null ? !outputSpec.equals(that.outputSpec) : that.outputSpec != null) return false;
         if (queryLimit != null ? !queryLimit.equals(that.queryLimit) : that.queryLimit != null) return false;
+        if (querySplits != null ? !querySplits.equals(that.querySplits) : that.querySplits != null) return false;
+        if (pipelineSize != null ? !pipelineSize.equals(that.pipelineSize) : that.pipelineSize != null) return false;
+        if (compression != null ? !compression.equals(that.compression) : that.compression != null) return false;
+        if (lobThreshold != null ? !lobThreshold.equals(that.lobThreshold) : that.lobThreshold != null) return false;
         if (querySpecs != null ? !querySpecs.equals(that.querySpecs) : that.querySpecs != null) return false;
         if (sourceSpec != null ? !sourceSpec.equals(that.sourceSpec) : that.sourceSpec != null) return false;
         if (threads != null ? !threads.equals(that.threads) : that.threads != null) return false;
@@ -187,6 +258,13 @@ public class DumpJobSpec extends JobSpecBase {
         result = 31 * result + (metaDataSpec != null ? metaDataSpec.hashCode() : 0);
         result = 31 * result + (querySpecs != null ? querySpecs.hashCode() : 0);
         result = 31 * result + (queryLimit != null ? queryLimit.hashCode() : 0);
+        result = 31 * result + (querySplits != null ? querySplits.hashCode() : 0);
+        result = 31 * result + (pipelineSize != null ? pipelineSize.hashCode() : 0);
+        result = 31 * result + (compression != null ? compression.hashCode() : 0);
+        result = 31 * result + (lobThreshold != null ? lobThreshold.hashCode() : 0);
+        result = 31 * result + (resume ? 1 : 0);
+        result = 31 * result + (snapshot ? 1 : 0);
+        result = 31 * result + (sourceConnections != null ? sourceConnections.hashCode() : 0);
         return result;
     }
 }
@@ -31,4 +31,79 @@ package com.nuodb.migrator.spec;
  * @author Sergey Bushik
  */
 public class JobSpecBase extends SpecBase implements JobSpec {
+
+    /**
+     * Interval in seconds between progress reports of the job metrics, reports are disabled if not set
+     */
+    private Long reportInterval;
+    private String reportFormat;
+    /**
+     * Number of connections inspecting table meta data in parallel, inspection runs on a single connection if not set
+     */
+    private Integer inspectionThreads;
+    /**
+     * Directory with snapshots of inspected meta data, meta data is inspected from scratch if not set
+     */
+    private String inspectionCache;
+
+    public Long getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(Long reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    public String getReportFormat() {
+        return reportFormat;
+    }
+
+    public void setReportFormat(String reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    public Integer getInspectionThreads() {
+        return inspectionThreads;
+    }
+
+    public void setInspectionThreads(Integer inspectionThreads) {
+        this.inspectionThreads = inspectionThreads;
+    }
+
+    public String getInspectionCache() {
+        return inspectionCache;
+    }
+
+    public void setInspectionCache(String inspectionCache) {
+        this.inspectionCache = inspectionCache;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        JobSpecBase that = (JobSpecBase) o;
+
+        if (reportInterval != null ? !reportInterval.equals(that.reportInterval) : that.reportInterval != null)
+            return false;
+        if (reportFormat != null ? !reportFormat.equals(that.reportFormat) : that.reportFormat != null) return false;
+        if (inspectionThreads != null ? !inspectionThreads.equals(that.inspectionThreads) :
+                that.inspectionThreads != null) return false;
+        if (inspectionCache != null ? !inspectionCache.equals(that.inspectionCache) :
+                that.inspectionCache != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (reportInterval != null ? reportInterval.hashCode() : 0);
+        result = 31 * result + (reportFormat != null ? reportFormat.hashCode() : 0);
+        result = 31 * result + (inspectionThreads != null ? inspectionThreads.hashCode() : 0);
+        result = 31 * result + (inspectionCache != null ? inspectionCache.hashCode() : 0);
+        return result;
+    }
 }
\ No newline at end of file
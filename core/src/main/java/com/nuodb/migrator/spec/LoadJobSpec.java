@@ -60,6 +60,9 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
     private ConnectionSpec targetSpec;
     private TimeZone timeZone;
     private Integer threads;
+    private boolean resume;
+    private Integer targetConnections;
+    private Integer constraintThreads;
 
     public CommitStrategy getCommitStrategy() {
         return commitStrategy;
@@ -145,6 +148,30 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.parallelizer = parallelizer;
     }
 
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public Integer getTargetConnections() {
+        return targetConnections;
+    }
+
+    public void setTargetConnections(Integer targetConnections) {
+        this.targetConnections = targetConnections;
+    }
+
+    public Integer getConstraintThreads() {
+        return constraintThreads;
+    }
+
+    public void setConstraintThreads(Integer constraintThreads) {
+        this.constraintThreads = constraintThreads;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -164,6 +191,11 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         if (targetSpec != null ? !targetSpec.equals(that.targetSpec) : that.targetSpec != null) return false;
         if (timeZone != null ? !timeZone.equals(that.timeZone) : that.timeZone != null) return false;
         if (threads != null ? !threads.equals(that.threads) : that.threads != null) return false;
+        if (resume != that.resume) return false;
+        if (targetConnections != null ? !targetConnections.equals(that.targetConnections) :
+                that.targetConnections != null) return false;
+        if (constraintThreads != null ? !constraintThreads.equals(that.constraintThreads) :
+                that.constraintThreads != null) return false;
 
         return true;
     }
@@ -179,6 +211,9 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         result = 31 * result + (targetSpec != null ? targetSpec.hashCode() : 0);
         result = 31 * result + (timeZone != null ? timeZone.hashCode() : 0);
         result = 31 * result + (threads != null ? threads.hashCode() : 0);
+        result = 31 * result + (resume ? 1 : 0);
+        result = 31 * result + (targetConnections != null ? targetConnections.hashCode() : 0);
+        result = 31 * result + (constraintThreads != null ? constraintThreads.hashCode() : 0);
         return result;
     }
 }
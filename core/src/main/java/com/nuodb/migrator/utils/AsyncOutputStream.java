@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.copyOfRange;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Output stream handing written blocks over to a task writing them to the target stream, so that the caller doesn't
+ * wait for the disk. Number of blocks awaiting write is bounded by the capacity, a failure of the writing task is
+ * rethrown to the caller on the next write or on close. Stream is meant to be wrapped into a buffered stream, as each
+ * write produces a block.
+ *
+ * @author Sergey Bushik
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    private static final byte[] END = new byte[0];
+    private static final long TIMEOUT = 100;
+
+    private final OutputStream out;
+    private final BlockingQueue<byte[]> blocks;
+    private final Future<Void> writer;
+    private boolean closed;
+
+    public AsyncOutputStream(final OutputStream out, ExecutorService executorService, int capacity) {
+        this.out = out;
+        this.blocks = new ArrayBlockingQueue<byte[]>(capacity);
+        this.writer = executorService.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                byte[] block;
+                while ((block = blocks.take()) != END) {
+                    out.write(block);
+                }
+                out.flush();
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len > 0) {
+            put(copyOfRange(b, off, off + len));
+        }
+    }
+
+    protected void put(byte[] block) throws IOException {
+        try {
+            while (!blocks.offer(block, TIMEOUT, MILLISECONDS)) {
+                if (writer.isDone()) {
+                    await();
+                    throw new IOException("Stream writer is done");
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    protected void await() throws IOException {
+        try {
+            writer.get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Waits for all blocks to be written and closes the target stream.
+     *
+     * @throws IOException if writing of the blocks failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            put(END);
+            await();
+        } finally {
+            writer.cancel(true);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static com.google.common.collect.Maps.newTreeMap;
+
+/**
+ * Counter accumulating increments in a cell owned by the updating thread, so that hot paths neither contend on a
+ * shared variable nor allocate per update. Cells are summed up when the count is read.
+ *
+ * @author Sergey Bushik
+ */
+public class Counter implements Metric {
+
+    private final String name;
+    private final Collection<Cell> cells = newCopyOnWriteArrayList();
+    private final ThreadLocal<Cell> cell = new ThreadLocal<Cell>() {
+        @Override
+        protected Cell initialValue() {
+            Cell cell = new Cell(Thread.currentThread().getName());
+            cells.add(cell);
+            return cell;
+        }
+    };
+
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long value) {
+        Cell cell = this.cell.get();
+        // single writer per cell, ordered store is enough for readers to eventually see the update
+        cell.lazySet(cell.get() + value);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (Cell cell : cells) {
+            count += cell.get();
+        }
+        return count;
+    }
+
+    /**
+     * Breaks the count down by the names of the updating threads
+     *
+     * @return counts keyed by thread names
+     */
+    public Map<String, Long> getThreadCounts() {
+        Map<String, Long> counts = newTreeMap();
+        for (Cell cell : cells) {
+            Long count = counts.get(cell.getThread());
+            counts.put(cell.getThread(), count != null ? count + cell.get() : cell.get());
+        }
+        return counts;
+    }
+
+    static class Cell extends AtomicLong {
+
+        private final String thread;
+
+        public Cell(String thread) {
+            this.thread = thread;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+    }
+}
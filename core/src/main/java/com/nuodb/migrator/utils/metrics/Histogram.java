@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.max;
+
+/**
+ * Histogram of non-negative values, typically durations in nanoseconds, with log-linear buckets: each power of two
+ * range is split into {@link #SUB_BUCKETS} linear sub-buckets, which bounds relative error of the reported percentiles
+ * to about 6% over the whole range of long values. Like {@link Counter} each thread records into its own cell.
+ *
+ * @author Sergey Bushik
+ */
+public class Histogram implements Metric {
+
+    public static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final Collection<Cell> cells = newCopyOnWriteArrayList();
+    private final ThreadLocal<Cell> cell = new ThreadLocal<Cell>() {
+        @Override
+        protected Cell initialValue() {
+            Cell cell = new Cell();
+            cells.add(cell);
+            return cell;
+        }
+    };
+
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public void record(long value) {
+        value = max(value, 0);
+        Cell cell = this.cell.get();
+        int bucket = getBucket(value);
+        cell.buckets.lazySet(bucket, cell.buckets.get(bucket) + 1);
+        cell.count.lazySet(cell.count.get() + 1);
+        cell.sum.lazySet(cell.sum.get() + value);
+        if (value > cell.max.get()) {
+            cell.max.lazySet(value);
+        }
+    }
+
+    /**
+     * Records time elapsed since the start
+     *
+     * @param start start time as returned by {@link System#nanoTime()}
+     */
+    public void recordSince(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    public Snapshot getSnapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (Cell cell : cells) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                buckets[bucket] += cell.buckets.get(bucket);
+            }
+            count += cell.count.get();
+            sum += cell.sum.get();
+            max = max(max, cell.max.get());
+        }
+        return new Snapshot(buckets, count, sum, max);
+    }
+
+    protected static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns highest value falling into the bucket
+     */
+    protected static long getValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    static class Cell {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+    }
+
+    public static class Snapshot {
+
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        public Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count > 0 ? sum / (double) count : 0;
+        }
+
+        /**
+         * Gets value at the given percentile
+         *
+         * @param percentile percentile from 0 to 100
+         * @return highest value of the bucket holding the percentile, capped by the maximum recorded value
+         */
+        public long getPercentile(double percentile) {
+            long rank = (long) Math.ceil(percentile / 100 * count);
+            long total = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                total += buckets[bucket];
+                if (total >= max(rank, 1)) {
+                    return Math.min(getValue(bucket), max);
+                }
+            }
+            return max;
+        }
+    }
+}
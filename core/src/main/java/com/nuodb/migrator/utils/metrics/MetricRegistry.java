@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Maps.newTreeMap;
+import static java.lang.String.format;
+
+/**
+ * Named counters and histograms of a job. Metrics are created on first access and should be looked up once and kept
+ * by the code updating them, rather than on each update.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricRegistry {
+
+    private final ConcurrentMap<String, Metric> metrics = newConcurrentMap();
+    private final long startTime = System.currentTimeMillis();
+
+    public Counter getCounter(String name) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            Metric counter = metrics.putIfAbsent(name, metric = new Counter(name));
+            metric = counter != null ? counter : metric;
+        }
+        return cast(metric, Counter.class);
+    }
+
+    public Histogram getHistogram(String name) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            Metric histogram = metrics.putIfAbsent(name, metric = new Histogram(name));
+            metric = histogram != null ? histogram : metric;
+        }
+        return cast(metric, Histogram.class);
+    }
+
+    public Map<String, Counter> getCounters() {
+        return getMetrics(Counter.class);
+    }
+
+    public Map<String, Histogram> getHistograms() {
+        return getMetrics(Histogram.class);
+    }
+
+    /**
+     * @return time in milliseconds the registry was created at
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    protected <M extends Metric> Map<String, M> getMetrics(Class<M> type) {
+        Map<String, M> metrics = newTreeMap();
+        for (Metric metric : this.metrics.values()) {
+            if (type.isInstance(metric)) {
+                metrics.put(metric.getName(), type.cast(metric));
+            }
+        }
+        return metrics;
+    }
+
+    protected <M extends Metric> M cast(Metric metric, Class<M> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(format("Metric %s is not a %s", metric.getName(),
+                    type.getSimpleName().toLowerCase()));
+        }
+        return type.cast(metric);
+    }
+}
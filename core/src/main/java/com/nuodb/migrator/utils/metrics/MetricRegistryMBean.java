@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static javax.management.ObjectName.quote;
+
+/**
+ * Exposes metrics of a registry over JMX, counters as their counts and histograms as count, mean, percentiles and
+ * maximum attributes suffixed to the histogram name. Attributes are enumerated on each request, so metrics added
+ * while a job runs show up.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricRegistryMBean implements DynamicMBean {
+
+    public static final String DOMAIN = "com.nuodb.migrator";
+
+    private static final String COUNT = "count";
+    private static final String MEAN = "mean";
+    private static final String P50 = "p50";
+    private static final String P99 = "p99";
+    private static final String MAX = "max";
+    private static final String[] HISTOGRAM_ATTRIBUTES = {COUNT, MEAN, P50, P99, MAX};
+
+    private final MetricRegistry metricRegistry;
+    private ObjectName objectName;
+
+    public MetricRegistryMBean(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Registers the bean with the platform MBean server
+     *
+     * @param name name of the job the metrics are collected for
+     * @throws Exception if the bean can't be registered
+     */
+    public void register(String name) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        objectName = new ObjectName(format("%s:type=Metrics,name=%s", DOMAIN, quote(name)));
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(this, objectName);
+    }
+
+    public void unregister() throws Exception {
+        if (objectName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            objectName = null;
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException,
+            ReflectionException {
+        Counter counter = metricRegistry.getCounters().get(attribute);
+        if (counter != null) {
+            return counter.getCount();
+        }
+        int index = attribute.lastIndexOf('.');
+        Histogram histogram = index > 0 ? metricRegistry.getHistograms().get(attribute.substring(0, index)) : null;
+        if (histogram == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        Histogram.Snapshot snapshot = histogram.getSnapshot();
+        String value = attribute.substring(index + 1);
+        if (COUNT.equals(value)) {
+            return snapshot.getCount();
+        } else if (MEAN.equals(value)) {
+            return snapshot.getMean();
+        } else if (P50.equals(value)) {
+            return (double) snapshot.getPercentile(50);
+        } else if (P99.equals(value)) {
+            return (double) snapshot.getPercentile(99);
+        } else if (MAX.equals(value)) {
+            return (double) snapshot.getMax();
+        } else {
+            throw new AttributeNotFoundException(attribute);
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (Exception exception) {
+                // skip attributes which are unknown
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(format("Attribute %s is read only", attribute.getName()));
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String action, Object[] parameters, String[] signature) throws MBeanException,
+            ReflectionException {
+        throw new UnsupportedOperationException(action);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = newArrayList();
+        for (String counter : metricRegistry.getCounters().keySet()) {
+            attributes.add(new MBeanAttributeInfo(counter, Long.class.getName(),
+                    format("Count of %s", counter), true, false, false));
+        }
+        for (String histogram : metricRegistry.getHistograms().keySet()) {
+            for (String attribute : HISTOGRAM_ATTRIBUTES) {
+                attributes.add(new MBeanAttributeInfo(histogram + "." + attribute,
+                        (COUNT.equals(attribute) ? Long.class : Double.class).getName(),
+                        format("%s of %s", attribute, histogram), true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Job metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null,
+                new MBeanOperationInfo[0], null);
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Periodically logs counters with their average and current rates and percentiles of histograms, which are
+ * expected to hold durations in nanoseconds. Report is either human readable or a single line JSON document.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsReporter implements Runnable {
+
+    public static final String FORMAT_CONSOLE = "console";
+    public static final String FORMAT_JSON = "json";
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private transient final Logger logger = getLogger(getClass());
+
+    private final String name;
+    private final MetricRegistry metricRegistry;
+    private final String format;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, Long> lastCounts = newHashMap();
+    private long lastTime;
+    private ScheduledExecutorService executorService;
+
+    public MetricsReporter(String name, MetricRegistry metricRegistry) {
+        this(name, metricRegistry, FORMAT_CONSOLE);
+    }
+
+    public MetricsReporter(String name, MetricRegistry metricRegistry, String format) {
+        this.name = name;
+        this.metricRegistry = metricRegistry;
+        this.format = format != null ? format : FORMAT_CONSOLE;
+        this.lastTime = metricRegistry.getStartTime();
+    }
+
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executorService == null) {
+            executorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, format("%s-metrics-reporter", name));
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executorService.scheduleAtFixedRate(this, period, period, unit);
+        }
+    }
+
+    public synchronized void stop() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            report();
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Failed reporting %s metrics", name), exception);
+            }
+        }
+    }
+
+    public synchronized void report() throws IOException {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long time = System.currentTimeMillis();
+        if (FORMAT_JSON.equalsIgnoreCase(format)) {
+            logger.info(reportJson(time));
+        } else {
+            logger.info(reportConsole(time));
+        }
+        for (Map.Entry<String, Counter> counter : metricRegistry.getCounters().entrySet()) {
+            lastCounts.put(counter.getKey(), counter.getValue().getCount());
+        }
+        lastTime = time;
+    }
+
+    protected String reportConsole(long time) {
+        StringBuilder report = new StringBuilder();
+        report.append(format("Job %s metrics after %d s", name,
+                MILLISECONDS.toSeconds(time - metricRegistry.getStartTime())));
+        for (Counter counter : metricRegistry.getCounters().values()) {
+            long count = counter.getCount();
+            report.append(format("%n  %s %d (%.0f/s, now %.0f/s)", counter.getName(), count,
+                    getRate(count, 0, time - metricRegistry.getStartTime()),
+                    getRate(count, getLastCount(counter), time - lastTime)));
+        }
+        for (Histogram histogram : metricRegistry.getHistograms().values()) {
+            Histogram.Snapshot snapshot = histogram.getSnapshot();
+            report.append(format("%n  %s count %d mean %.3f ms", histogram.getName(), snapshot.getCount(),
+                    toMillis(snapshot.getMean())));
+            for (double percentile : PERCENTILES) {
+                report.append(format(" p%.0f %.3f ms", percentile, toMillis(snapshot.getPercentile(percentile))));
+            }
+            report.append(format(" max %.3f ms", toMillis(snapshot.getMax())));
+        }
+        return report.toString();
+    }
+
+    protected String reportJson(long time) throws IOException {
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeStringField("job", name);
+        generator.writeNumberField("time", time);
+        generator.writeNumberField("elapsed", time - metricRegistry.getStartTime());
+        generator.writeObjectFieldStart("counters");
+        for (Counter counter : metricRegistry.getCounters().values()) {
+            long count = counter.getCount();
+            generator.writeObjectFieldStart(counter.getName());
+            generator.writeNumberField("count", count);
+            generator.writeNumberField("rate", getRate(count, 0, time - metricRegistry.getStartTime()));
+            generator.writeNumberField("currentRate", getRate(count, getLastCount(counter), time - lastTime));
+            generator.writeObjectFieldStart("threads");
+            for (Map.Entry<String, Long> threadCount : counter.getThreadCounts().entrySet()) {
+                generator.writeNumberField(threadCount.getKey(), threadCount.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("histograms");
+        for (Histogram histogram : metricRegistry.getHistograms().values()) {
+            Histogram.Snapshot snapshot = histogram.getSnapshot();
+            generator.writeObjectFieldStart(histogram.getName());
+            generator.writeNumberField("count", snapshot.getCount());
+            generator.writeNumberField("sum", snapshot.getSum());
+            generator.writeNumberField("mean", snapshot.getMean());
+            for (double percentile : PERCENTILES) {
+                generator.writeNumberField(format("p%.0f", percentile), snapshot.getPercentile(percentile));
+            }
+            generator.writeNumberField("max", snapshot.getMax());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+        return writer.toString();
+    }
+
+    protected long getLastCount(Counter counter) {
+        Long count = lastCounts.get(counter.getName());
+        return count != null ? count : 0;
+    }
+
+    protected static double getRate(long count, long lastCount, long millis) {
+        return millis > 0 ? (count - lastCount) / (double) millis * SECONDS.toMillis(1) : 0;
+    }
+
+    protected static double toMillis(double nanos) {
+        return nanos / NANOSECONDS.convert(1, MILLISECONDS);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.compression;
+
+import com.nuodb.migrator.backup.BackupException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static com.nuodb.migrator.backup.compression.Compressions.getCompression;
+import static com.nuodb.migrator.backup.compression.Compressions.getCompressionName;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class CompressionsTest {
+
+    @DataProvider(name = "compressions")
+    public Object[][] createCompressionsData() {
+        return new Object[][]{
+                {"gzip", GzipCompression.class},
+                {"GZIP", GzipCompression.class},
+                {"deflate", DeflateCompression.class},
+                {GzipCompression.class.getName(), GzipCompression.class}
+        };
+    }
+
+    @Test(dataProvider = "compressions")
+    public void testGetCompression(String name, Class<? extends Compression> compressionClass) {
+        Compression compression = getCompression(name);
+        assertEquals(compression.getClass(), compressionClass);
+        assertEquals(getCompression(getCompressionName(compression)).getClass(), compressionClass);
+    }
+
+    @Test
+    public void testGetNoCompression() {
+        assertNull(getCompression(null));
+        assertNull(getCompression(Compressions.NONE));
+    }
+
+    @Test(expectedExceptions = BackupException.class)
+    public void testGetUnsupportedCompression() {
+        getCompression("lz5");
+    }
+
+    @Test(dataProvider = "compressions")
+    public void testCompress(String name, Class<? extends Compression> compressionClass) throws Exception {
+        Compression compression = getCompression(name);
+        StringBuilder content = new StringBuilder();
+        for (int row = 0; row < 10000; row++) {
+            content.append("row,").append(row).append('\n');
+        }
+        byte[] raw = content.toString().getBytes("UTF-8");
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        OutputStream outputStream = compression.compress(target);
+        outputStream.write(raw);
+        outputStream.close();
+        assertTrue(target.size() < raw.length);
+
+        InputStream inputStream = compression.decompress(new ByteArrayInputStream(target.toByteArray()));
+        assertEquals(toByteArray(inputStream), raw);
+        inputStream.close();
+    }
+}
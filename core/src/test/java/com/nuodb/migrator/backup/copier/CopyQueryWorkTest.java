@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.writer.BackupWriterContext;
+import com.nuodb.migrator.backup.writer.BackupWriterManager;
+import com.nuodb.migrator.backup.writer.SimpleBackupWriterContext;
+import com.nuodb.migrator.backup.writer.WriteQuery;
+import com.nuodb.migrator.backup.writer.WriteTable;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Collections;
+
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class CopyQueryWorkTest {
+
+    @Test(timeOut = 10000)
+    public void testExecute() throws Exception {
+        BackupWriterContext backupWriterContext = new SimpleBackupWriterContext();
+        BackupWriterManager backupWriterManager = mock(BackupWriterManager.class);
+        when(backupWriterManager.getBackupWriterContext()).thenReturn(backupWriterContext);
+        when(backupWriterManager.canExecute(any(CopyQueryWork.class))).thenReturn(true);
+
+        Connection connection = mock(Connection.class);
+        Session session = mock(Session.class);
+        when(session.getConnection()).thenReturn(connection);
+        when(session.getDialect()).thenReturn(mock(Dialect.class));
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        QuerySplit querySplit = mock(QuerySplit.class);
+        when(querySplit.getResultSet(any(Connection.class), any(StatementCallback.class))).thenReturn(resultSet);
+
+        Table table = createTable(null, null, "table");
+        RowSet rowSet = new TableRowSet();
+        WriteQuery writeQuery = new WriteTable(table, Collections.<Column>emptyList(), null, null, rowSet);
+        RowQueue rowQueue = new RowQueue(new Chunk());
+        rowQueue.addWriter();
+        rowQueue.seal();
+
+        CopyQueryWork copyQueryWork = new CopyQueryWork(writeQuery, querySplit, false, backupWriterManager,
+                rowQueue);
+        copyQueryWork.init(session);
+        copyQueryWork.execute();
+        copyQueryWork.close();
+
+        assertNotNull(rowQueue.readRow());
+        assertNull(rowQueue.readRow());
+        ArgumentCaptor<Chunk> chunk = ArgumentCaptor.forClass(Chunk.class);
+        verify(backupWriterManager).writeEnd(same(copyQueryWork), same(writeQuery), chunk.capture());
+        assertEquals(chunk.getValue().getRowCount(), 1L);
+        assertNull(chunk.getValue().getRawSize());
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.copier;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.longValue;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowQueueTest {
+
+    @Test(timeOut = 10000)
+    public void testReadRows() throws Exception {
+        final RowQueue rowQueue = new RowQueue(new Chunk(), 2);
+        rowQueue.addWriter();
+        rowQueue.seal();
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                RowQueueOutput output = new RowQueueOutput(rowQueue);
+                Value[] values = new Value[1];
+                for (int row = 0; row < 10; row++) {
+                    values[0] = longValue(row);
+                    output.writeValues(values);
+                }
+                rowQueue.removeWriter();
+            }
+        };
+        writer.start();
+        for (int row = 0; row < 10; row++) {
+            Row next = rowQueue.readRow();
+            assertEquals(next.getNumber(), row);
+            assertEquals(next.getValues()[0].asLong(), row);
+        }
+        assertNull(rowQueue.readRow());
+        assertNull(rowQueue.readRow());
+        writer.join();
+    }
+
+    @Test
+    public void testCopyValues() {
+        RowQueue rowQueue = new RowQueue(new Chunk());
+        rowQueue.addWriter();
+        Value[] values = new Value[]{longValue(1), string("a")};
+        new RowQueueOutput(rowQueue).writeValues(values);
+        Value[] copy = rowQueue.readRow().getValues();
+        assertNotSame(copy, values);
+        assertNotSame(copy[0], values[0]);
+        assertEquals(copy[0], values[0]);
+        assertEquals(copy[1], values[1]);
+    }
+
+    @Test(expectedExceptions = InputException.class)
+    public void testFail() {
+        RowQueue rowQueue = new RowQueue(new Chunk());
+        rowQueue.addWriter();
+        rowQueue.fail(new RuntimeException());
+        rowQueue.readRow();
+    }
+}
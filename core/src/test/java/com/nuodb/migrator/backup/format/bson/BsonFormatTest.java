@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.bson;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BsonFormatTest {
+
+    private RowSet rowSet;
+
+    @BeforeMethod
+    public void setUp() {
+        rowSet = new RowSet();
+        rowSet.addColumn("c1", LONG);
+        rowSet.addColumn("c2", DOUBLE);
+        rowSet.addColumn("c3", DECIMAL);
+        rowSet.addColumn("c4", TIMESTAMP);
+        rowSet.addColumn("c5", BOOLEAN);
+        rowSet.addColumn("c6", STRING);
+    }
+
+    @Test
+    public void testTypedValues() {
+        Timestamp timestamp = Timestamp.valueOf("2014-01-01 12:30:45.123456");
+        Value[] values = new Value[]{
+                longValue(Long.MAX_VALUE), doubleValue(0.1), decimal(new BigDecimal("12345678901234567890.01")),
+                timestamp(toMicros(timestamp)), bool(true), STRING_NULL
+        };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BsonOutput output = new BsonOutput();
+        output.setRowSet(rowSet);
+        output.setOutputStream(bytes);
+        output.init();
+        output.writeStart();
+        output.writeValues(values);
+        output.writeEnd();
+        output.close();
+
+        BsonInput input = new BsonInput();
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        input.init();
+        input.readStart();
+        Value[] result = input.readValues();
+        assertEquals(result[0].asLong(), Long.MAX_VALUE);
+        assertEquals(result[1].asDouble(), 0.1);
+        assertEquals(result[2].asDecimal(), new BigDecimal("12345678901234567890.01"));
+        assertEquals(result[3].asTimestamp(), timestamp);
+        assertEquals(result[3].asString(), "2014-01-01 12:30:45.123456");
+        assertTrue(result[4].asBoolean());
+        assertTrue(result[5].isNull());
+        assertNull(input.readValues());
+        input.close();
+    }
+
+    @Test
+    public void testTimestampMicros() {
+        Timestamp timestamp = Timestamp.valueOf("1969-12-31 23:59:59.999999");
+        assertEquals(toTimestamp(toMicros(timestamp)), timestamp);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.google.common.collect.Maps;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.ATTRIBUTE_ROW_GROUP_SIZE;
+import static com.nuodb.migrator.backup.format.value.ValueType.*;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ColumnarFormatTest {
+
+    private RowSet rowSet;
+
+    @BeforeMethod
+    public void setUp() {
+        rowSet = new RowSet();
+        rowSet.addColumn("c1", LONG);
+        rowSet.addColumn("c2", DOUBLE);
+        rowSet.addColumn("c3", DECIMAL);
+        rowSet.addColumn("c4", TIMESTAMP);
+        rowSet.addColumn("c5", BOOLEAN);
+        rowSet.addColumn("c6", STRING);
+        rowSet.addColumn("c7", BINARY);
+    }
+
+    @Test
+    public void testTypedValues() {
+        Timestamp timestamp = Timestamp.valueOf("2014-01-01 12:30:45.123456");
+        Value[] values = new Value[]{
+                longValue(Long.MAX_VALUE), doubleValue(0.1), decimal(new BigDecimal("12345678901234567890.01")),
+                timestamp(toMicros(timestamp)), bool(true), STRING_NULL, binary(new byte[]{1, 2, 3})
+        };
+        ColumnarInput input = createInput(write(Maps.<String, Object>newHashMap(), values));
+        Value[] result = input.readValues();
+        assertEquals(result[0].asLong(), Long.MAX_VALUE);
+        assertEquals(result[1].asDouble(), 0.1);
+        assertEquals(result[2].asDecimal(), new BigDecimal("12345678901234567890.01"));
+        assertEquals(result[3].asTimestamp(), timestamp);
+        assertTrue(result[4].asBoolean());
+        assertTrue(result[5].isNull());
+        assertEquals(result[6].asBytes(), new byte[]{1, 2, 3});
+        assertNull(input.readValues());
+        input.close();
+    }
+
+    /**
+     * Spreads rows over several row groups, so that every encoding is exercised on repeated, sequential and sparse
+     * values
+     */
+    @Test
+    public void testRowGroups() {
+        Timestamp timestamp = Timestamp.valueOf("2014-01-01 00:00:00");
+        List<Value[]> rows = newArrayList();
+        for (int row = 0; row < 1000; row++) {
+            rows.add(new Value[]{
+                    row % 7 == 0 ? STRING_NULL : longValue(row - 500),
+                    doubleValue(row / 3.0),
+                    decimal(new BigDecimal(row % 3 + ".50")),
+                    timestamp(toMicros(timestamp) + row * 1000000L),
+                    bool(row < 600),
+                    row % 5 == 0 ? STRING_NULL : string(row % 2 == 0 ? "even" : "odd " + row),
+                    row % 11 == 0 ? BINARY_NULL : binary(new byte[]{(byte) row})
+            });
+        }
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_ROW_GROUP_SIZE, "128");
+        ColumnarInput input = createInput(write(attributes, rows.toArray(new Value[rows.size()][])));
+        for (Value[] expected : rows) {
+            Value[] values = input.readValues();
+            for (int index = 0; index < expected.length; index++) {
+                assertEquals(values[index].asString(), expected[index].asString());
+            }
+        }
+        assertNull(input.readValues());
+        input.close();
+    }
+
+    protected byte[] write(Map<String, Object> attributes, Value[]... rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ColumnarOutput output = new ColumnarOutput();
+        output.setAttributes(attributes);
+        output.setRowSet(rowSet);
+        output.setOutputStream(bytes);
+        output.init();
+        output.writeStart();
+        for (Value[] values : rows) {
+            output.writeValues(values);
+        }
+        output.writeEnd();
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    protected ColumnarInput createInput(byte[] bytes) {
+        ColumnarInput input = new ColumnarInput();
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(bytes));
+        input.init();
+        input.readStart();
+        return input;
+    }
+}
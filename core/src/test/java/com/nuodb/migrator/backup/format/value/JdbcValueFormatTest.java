@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+
+import static com.nuodb.migrator.backup.format.value.ValueType.DECIMAL;
+import static com.nuodb.migrator.backup.format.value.ValueType.LONG;
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.valueOf;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class JdbcValueFormatTest {
+
+    @DataProvider(name = "getValue")
+    public Object[][] createGetValueData() {
+        BigInteger maxLong = valueOf(Long.MAX_VALUE);
+        BigInteger minLong = valueOf(Long.MIN_VALUE);
+        return new Object[][]{
+                {maxLong.subtract(ONE), LONG},
+                {maxLong, LONG},
+                {maxLong.add(ONE), DECIMAL},
+                {ONE.shiftLeft(64).subtract(ONE), DECIMAL},
+                {minLong, LONG},
+                {minLong.subtract(ONE), DECIMAL},
+                {maxLong.add(ONE).toString(), DECIMAL},
+                {Integer.MAX_VALUE, LONG}
+        };
+    }
+
+    @Test(dataProvider = "getValue")
+    public void testGetValue(Object result, ValueType valueType) throws Exception {
+        Field field = mock(Field.class);
+        when(field.getTypeCode()).thenReturn(Types.BIGINT);
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        when(access.getField()).thenReturn(field);
+        when(access.getValue(anyMap())).thenReturn(result);
+
+        Value value = new JdbcValueFormat().getValue(access, null, null);
+        assertEquals(value.getValueType(), valueType);
+        assertEquals(value.asString(), result.toString());
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void testDecimalOutOfLongRange() {
+        new ValueUtils.DecimalValue().set(new BigDecimal(valueOf(Long.MAX_VALUE).add(ONE))).asLong();
+    }
+}
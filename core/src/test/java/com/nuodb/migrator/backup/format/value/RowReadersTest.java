@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.Lob;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.XmlBackupOps;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.io.Files.createTempDir;
+import static com.nuodb.migrator.backup.format.csv.CsvFormat.TYPE;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowReadersTest {
+
+    private static final int CHUNKS = 4;
+    private static final int ROWS_PER_CHUNK = 3;
+
+    private File dir;
+    private XmlBackupOps backupOps;
+    private RowSet rowSet;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = createTempDir();
+        backupOps = new XmlBackupOps();
+        backupOps.setDir(dir.getAbsolutePath());
+        rowSet = new TableRowSet();
+        rowSet.setBackup(new Backup(TYPE));
+        rowSet.addColumn("id", ValueType.STRING);
+        for (int index = 0; index < CHUNKS; index++) {
+            Chunk chunk = new Chunk();
+            chunk.setName("table-" + index + ".csv");
+            StringBuilder content = new StringBuilder("id\n");
+            for (int row = 0; row < ROWS_PER_CHUNK; row++) {
+                content.append(index * ROWS_PER_CHUNK + row).append("\n");
+            }
+            writeStringToFile(new File(dir, chunk.getName()), content.toString());
+            rowSet.addChunk(chunk);
+        }
+    }
+
+    @Test
+    public void testSequentialRowReader() {
+        RowReader rowReader = RowReaders.newSequentialRowReader(rowSet, backupOps, new SimpleFormatFactory(),
+                Collections.<String, Object>emptyMap());
+        try {
+            assertEquals(readRows(rowReader), rows());
+            assertNull(rowReader.readRow());
+        } finally {
+            rowReader.close();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testPartitionedRowReaders() throws Exception {
+        List<RowReader> rowReaders = RowReaders.newPartitionedRowReaders(rowSet, backupOps,
+                new SimpleFormatFactory(), Collections.<String, Object>emptyMap(), 3);
+        ExecutorService executor = newFixedThreadPool(rowReaders.size());
+        try {
+            Collection<Future<List<String>>> futures = newArrayList();
+            for (final RowReader rowReader : rowReaders) {
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        return readRows(rowReader);
+                    }
+                }));
+            }
+            List<String> rows = newArrayList();
+            for (Future<List<String>> future : futures) {
+                rows.addAll(future.get());
+            }
+            assertEquals(rows.size(), CHUNKS * ROWS_PER_CHUNK);
+            assertEquals(newHashSet(rows), newHashSet(rows()));
+        } finally {
+            executor.shutdown();
+            for (RowReader rowReader : rowReaders) {
+                rowReader.close();
+            }
+        }
+    }
+
+    @Test
+    public void testLobValues() throws Exception {
+        Lob lob = new Lob("table.lob.1", null, null);
+        lob.setRow(ROWS_PER_CHUNK - 1);
+        lob.setColumn(0);
+        writeStringToFile(new File(dir, lob.getName()), "large object");
+        get(rowSet.getChunks(), 1).addLob(lob);
+
+        RowReader rowReader = RowReaders.newSequentialRowReader(rowSet, backupOps, new SimpleFormatFactory(),
+                Collections.<String, Object>emptyMap());
+        try {
+            Row row;
+            while ((row = rowReader.readRow()) != null) {
+                Value value = row.getValues()[0];
+                if (row.getChunk() == get(rowSet.getChunks(), 1) && row.getNumber() == ROWS_PER_CHUNK - 1) {
+                    assertTrue(value instanceof LobValue);
+                    assertEquals(value.asString(), "large object");
+                } else {
+                    assertTrue(!(value instanceof LobValue));
+                }
+            }
+        } finally {
+            rowReader.close();
+        }
+    }
+
+    protected List<String> readRows(RowReader rowReader) {
+        List<String> rows = newArrayList();
+        Row row;
+        while ((row = rowReader.readRow()) != null) {
+            rows.add(row.getValues()[0].asString());
+        }
+        return rows;
+    }
+
+    protected List<String> rows() {
+        List<String> rows = newArrayList();
+        for (int row = 0; row < CHUNKS * ROWS_PER_CHUNK; row++) {
+            rows.add(String.valueOf(row));
+        }
+        return rows;
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        deleteDirectory(dir);
+    }
+}
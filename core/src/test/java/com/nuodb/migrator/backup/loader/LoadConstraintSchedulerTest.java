@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.WorkEvent;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadConstraintSchedulerTest {
+
+    private BackupLoader backupLoader;
+    private BackupLoaderManager backupLoaderManager;
+    private LoadTables loadTables;
+    private LoadConstraints loadConstraints;
+
+    @BeforeMethod
+    public void setUp() {
+        BackupLoaderContext backupLoaderContext = new SimpleBackupLoaderContext();
+        backupLoaderContext.setLoadTables(loadTables = new LoadTables());
+        backupLoaderContext.setLoadConstraints(loadConstraints = new LoadConstraints());
+        backupLoader = mock(BackupLoader.class);
+        backupLoaderManager = mock(BackupLoaderManager.class);
+        when(backupLoaderManager.getBackupLoaderContext()).thenReturn(backupLoaderContext);
+    }
+
+    @Test
+    public void testHeaviestFirst() {
+        Table small = createLoadTable("small", 10L).getTable();
+        Table large = createLoadTable("large", 100L).getTable();
+        LoadConstraint smallPrimaryKey = addPrimaryKey(small);
+        LoadConstraint largePrimaryKey = addPrimaryKey(large);
+        LoadConstraint foreignKey = addForeignKey(small, large);
+
+        LoadConstraintScheduler loadConstraintScheduler =
+                new LoadConstraintScheduler(backupLoader, backupLoaderManager, 1);
+        loadConstraintScheduler.start();
+        loadConstraintScheduler.onExecuteEnd(createEvent(largePrimaryKey));
+        loadConstraintScheduler.onExecuteEnd(createEvent(smallPrimaryKey));
+        verify(backupLoaderManager, never()).loadConstraintsDone();
+        loadConstraintScheduler.onExecuteEnd(createEvent(foreignKey));
+
+        InOrder order = inOrder(backupLoader, backupLoaderManager);
+        order.verify(backupLoader).loadConstraint(largePrimaryKey, backupLoaderManager);
+        order.verify(backupLoader).loadConstraint(smallPrimaryKey, backupLoaderManager);
+        order.verify(backupLoader).loadConstraint(foreignKey, backupLoaderManager);
+        order.verify(backupLoaderManager).loadConstraintsDone();
+    }
+
+    @Test
+    public void testForeignKeyBeforeOtherTablesLoaded() {
+        when(backupLoaderManager.isLoadData()).thenReturn(true);
+        LoadTable parent = createLoadTable("parent", 10L);
+        LoadTable child = createLoadTable("child", 10L);
+        LoadTable other = createLoadTable("other", 1000L);
+        LoadConstraint foreignKey = addForeignKey(child.getTable(), parent.getTable());
+        LoadConstraint otherPrimaryKey = addPrimaryKey(other.getTable());
+
+        LoadConstraintScheduler loadConstraintScheduler =
+                new LoadConstraintScheduler(backupLoader, backupLoaderManager, null);
+        loadConstraintScheduler.start();
+        loadConstraintScheduler.onExecuteEnd(createEvent(parent));
+        verify(backupLoader, never()).loadConstraint(any(LoadConstraint.class), same(backupLoaderManager));
+        loadConstraintScheduler.onExecuteEnd(createEvent(child));
+        verify(backupLoader).loadConstraint(foreignKey, backupLoaderManager);
+        verify(backupLoader, never()).loadConstraint(otherPrimaryKey, backupLoaderManager);
+        loadConstraintScheduler.onExecuteEnd(createEvent(foreignKey));
+        verify(backupLoaderManager, never()).loadConstraintsDone();
+
+        loadConstraintScheduler.onExecuteEnd(createEvent(other));
+        verify(backupLoader).loadConstraint(otherPrimaryKey, backupLoaderManager);
+        loadConstraintScheduler.onExecuteEnd(createEvent(otherPrimaryKey));
+        verify(backupLoaderManager).loadConstraintsDone();
+    }
+
+    private LoadTable createLoadTable(String name, long rowCount) {
+        RowSet rowSet = new TableRowSet();
+        rowSet.setRowCount(rowCount);
+        LoadTable loadTable = new LoadTable(rowSet, createTable(null, null, name), null);
+        loadTables.addLoadTable(loadTable);
+        when(backupLoader.getTable(loadTable, backupLoaderManager.getBackupLoaderContext())).thenReturn(
+                loadTable.getTable());
+        return loadTable;
+    }
+
+    private LoadConstraint addPrimaryKey(Table table) {
+        PrimaryKey primaryKey = new PrimaryKey(valueOf(table.getName() + "_pk"));
+        table.setPrimaryKey(primaryKey);
+        return loadConstraints.addPrimaryKey(primaryKey);
+    }
+
+    private LoadConstraint addForeignKey(Table foreignTable, Table primaryTable) {
+        ForeignKey foreignKey = new ForeignKey(valueOf(foreignTable.getName() + "_fk"));
+        foreignKey.setForeignTable(foreignTable);
+        foreignKey.setPrimaryTable(primaryTable);
+        return loadConstraints.addForeignKey(foreignKey);
+    }
+
+    private WorkEvent createEvent(LoadTable loadTable) {
+        LoadTableWork loadTableWork = mock(LoadTableWork.class);
+        when(loadTableWork.getLoadTable()).thenReturn(loadTable);
+        return new WorkEvent(loadTableWork);
+    }
+
+    private WorkEvent createEvent(LoadConstraint loadConstraint) {
+        return new WorkEvent(new LoadConstraintWork(loadConstraint, backupLoaderManager));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.BitSet;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadJournalTest {
+
+    private File file;
+    private Chunk chunk;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = createTempFile("load", "journal");
+        chunk = new Chunk();
+        chunk.setName("table.csv");
+        chunk.setRowCount(4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testCommit() throws Exception {
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        loadJournal.commit(rows(chunk, 1, 2));
+        assertEquals(loadJournal.getCommittedRows(chunk), 2);
+        loadJournal.commit(rows(chunk, 0, 1));
+        assertEquals(loadJournal.getCommittedRows(chunk), 3);
+        assertFalse(loadJournal.isLoaded(chunk));
+        loadJournal.commit(rows(chunk, 3));
+        assertTrue(loadJournal.isLoaded(chunk));
+        loadJournal.close();
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        Table table = createTable("catalog", "schema", "table");
+        PrimaryKey primaryKey = new PrimaryKey(valueOf("primary"));
+        table.setPrimaryKey(primaryKey);
+        LoadConstraint loadConstraint = new LoadConstraint(primaryKey);
+
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        loadJournal.schemaLoaded();
+        loadJournal.commit(rows(chunk, 0, 1));
+        loadJournal.loaded(loadConstraint);
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isSchemaLoaded());
+        assertTrue(loadJournal.isLoaded(loadConstraint));
+        assertEquals(loadJournal.getCommittedRows(chunk), 2);
+        loadJournal.close();
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        assertFalse(loadJournal.isSchemaLoaded());
+        assertEquals(loadJournal.getCommittedRows(chunk), 0);
+        loadJournal.close();
+    }
+
+    /**
+     * Threads sharing a row reader commit interleaved rows of the chunk, the resumed load skips exactly the rows
+     * committed by either of them
+     */
+    @Test
+    public void testResumeOutOfOrder() throws Exception {
+        chunk.setRowCount(6);
+        final LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        Thread thread1 = new Thread() {
+            @Override
+            public void run() {
+                loadJournal.commit(rows(chunk, 1, 3));
+            }
+        };
+        Thread thread2 = new Thread() {
+            @Override
+            public void run() {
+                loadJournal.commit(rows(chunk, 0, 2));
+            }
+        };
+        thread1.start();
+        thread1.join();
+        thread2.start();
+        thread2.join();
+        loadJournal.close();
+
+        LoadJournal resumed = new LoadJournal(file);
+        resumed.open(true);
+        assertTrue(resumed.isCommitted(chunk, 0));
+        assertTrue(resumed.isCommitted(chunk, 1));
+        assertTrue(resumed.isCommitted(chunk, 2));
+        assertTrue(resumed.isCommitted(chunk, 3));
+        assertFalse(resumed.isCommitted(chunk, 4));
+        assertFalse(resumed.isCommitted(chunk, 5));
+        assertEquals(resumed.getCommittedRows(chunk), 4);
+        assertFalse(resumed.isLoaded(chunk));
+        resumed.close();
+    }
+
+    @Test
+    public void testResumeTruncated() throws Exception {
+        LoadJournal loadJournal = new LoadJournal(file);
+        loadJournal.open(false);
+        loadJournal.commit(rows(chunk, 0, 2));
+        loadJournal.close();
+        writeStringToFile(file, "chunk\ttable.csv\t3", true);
+
+        loadJournal = new LoadJournal(file);
+        loadJournal.open(true);
+        assertTrue(loadJournal.isCommitted(chunk, 0));
+        assertFalse(loadJournal.isCommitted(chunk, 1));
+        assertTrue(loadJournal.isCommitted(chunk, 2));
+        assertFalse(loadJournal.isCommitted(chunk, 3));
+        loadJournal.close();
+    }
+
+    private static Map<Chunk, BitSet> rows(Chunk chunk, int... numbers) {
+        BitSet bits = new BitSet();
+        for (int number : numbers) {
+            bits.set(number);
+        }
+        Map<Chunk, BitSet> rows = newIdentityHashMap();
+        rows.put(chunk, bits);
+        return rows;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadTablesWorkTest {
+
+    @Test
+    public void testGetLoadTables() {
+        LoadTables loadTables = new LoadTables();
+        LoadTable small = createLoadTable(loadTables, 10L);
+        LoadTable large = createLoadTable(loadTables, 1000L);
+        LoadTable medium = createLoadTable(loadTables, 100L);
+
+        BackupLoaderContext backupLoaderContext = mock(BackupLoaderContext.class);
+        when(backupLoaderContext.getLoadTables()).thenReturn(loadTables);
+        when(backupLoaderContext.getBackupOps()).thenReturn(mock(BackupOps.class));
+        BackupLoaderManager backupLoaderManager = mock(BackupLoaderManager.class);
+        when(backupLoaderManager.getBackupLoaderContext()).thenReturn(backupLoaderContext);
+
+        List<LoadTable> ordered = new LoadTablesWork(backupLoaderManager).getLoadTables();
+        assertEquals(ordered.get(0), large);
+        assertEquals(ordered.get(1), medium);
+        assertEquals(ordered.get(2), small);
+    }
+
+    private static LoadTable createLoadTable(LoadTables loadTables, Long size) {
+        RowSet rowSet = new TableRowSet();
+        rowSet.setSize(size);
+        LoadTable loadTable = new LoadTable(rowSet, null, null);
+        loadTables.addLoadTable(loadTable);
+        return loadTable;
+    }
+}
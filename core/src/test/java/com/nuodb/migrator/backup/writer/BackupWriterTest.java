@@ -27,9 +27,37 @@
  */
 package com.nuodb.migrator.backup.writer;
 
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
+import com.nuodb.migrator.jdbc.dialect.SnapshotHandler;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionResults;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.SessionObserver;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
 
+import java.sql.Connection;
+import java.util.Collections;
+
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 
 /**
  * @author Sergey Bushik
@@ -42,4 +70,67 @@ public class BackupWriterTest {
     public void setUp() {
         backupWriter = spy(new BackupWriter());
     }
+
+    /**
+     * Verifies that meta data is inspected between opening snapshot and joining it by the sessions of the works
+     * without committing the connection of the session holding the snapshot
+     */
+    @Test
+    public void testInspectBeforeJoinSnapshot() throws Exception {
+        Dialect dialect = mock(Dialect.class);
+        SnapshotHandler snapshotHandler = mock(SnapshotHandler.class);
+        Snapshot snapshot = new Snapshot(snapshotHandler, "00000003-1", true);
+        when(dialect.supportsSnapshot()).thenReturn(true);
+        when(dialect.createSnapshotHandler()).thenReturn(snapshotHandler);
+        when(snapshotHandler.openSnapshot(any(Session.class))).thenReturn(snapshot);
+
+        Session sourceSession = mockSession(dialect);
+        Session snapshotSession = mockSession(dialect);
+        SessionFactory sourceSessionFactory = mock(SessionFactory.class);
+        when(sourceSessionFactory.openSession()).thenReturn(sourceSession, snapshotSession);
+
+        InspectionManager inspectionManager = mock(InspectionManager.class);
+        InspectionResults inspectionResults = mock(InspectionResults.class);
+        Database database = new Database();
+        when(inspectionResults.getObject(DATABASE)).thenReturn(database);
+        when(inspectionManager.inspect(any(Connection.class), any(InspectionScope.class),
+                (MetaDataType[]) anyVararg())).thenReturn(inspectionResults);
+
+        backupWriter.setSnapshot(true);
+        backupWriter.setSourceSessionFactory(sourceSessionFactory);
+        backupWriter.setInspectionManager(inspectionManager);
+        doReturn(null).when(backupWriter).createValueFormatRegistry(any(Session.class));
+        doReturn(null).when(backupWriter).getInspectionScope();
+        doReturn(Collections.<MetaDataType>emptyList()).when(backupWriter).getObjectTypes();
+
+        BackupWriterContext backupWriterContext = new SimpleBackupWriterContext();
+        backupWriter.openSourceSession(backupWriterContext);
+
+        assertSame(backupWriterContext.getSnapshot(), snapshot);
+        assertSame(backupWriterContext.getSnapshotSession(), snapshotSession);
+        assertSame(backupWriterContext.getDatabase(), database);
+        verify(snapshotHandler).openSnapshot(snapshotSession);
+        verify(snapshotHandler).releaseSnapshot(snapshotSession, snapshot);
+
+        ArgumentCaptor<Connection> connection = ArgumentCaptor.forClass(Connection.class);
+        verify(inspectionManager).inspect(connection.capture(), any(InspectionScope.class),
+                (MetaDataType[]) anyVararg());
+        assertNotSame(connection.getValue(), snapshotSession.getConnection());
+        verify(snapshotSession.getConnection(), never()).commit();
+
+        ArgumentCaptor<SessionObserver> sessionObserver = ArgumentCaptor.forClass(SessionObserver.class);
+        verify(sourceSessionFactory).addSessionObserver(sessionObserver.capture());
+        assertNotNull(sessionObserver.getValue());
+        Session workSession = mockSession(dialect);
+        sessionObserver.getValue().afterOpen(workSession);
+        verify(snapshotHandler).joinSnapshot(same(workSession), same(snapshot));
+    }
+
+    private static Session mockSession(Dialect dialect) {
+        Session session = mock(Session.class);
+        Connection connection = mock(Connection.class);
+        when(session.getDialect()).thenReturn(dialect);
+        when(session.getConnection()).thenReturn(connection);
+        return session;
+    }
 }
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.writer;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.jdbc.split.RowCountStrategy;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newLimitSplitter;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newRangeSplitter;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class WriteQueriesWorkTest {
+
+    private Connection connection;
+    private Table table;
+    private WriteQueriesWork writeQueriesWork;
+
+    @BeforeMethod
+    public void setUp() {
+        connection = mock(Connection.class);
+        table = createTable(null, "schema", "table");
+        Column column = table.addColumn("column");
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.addColumn(column, 0);
+        table.setPrimaryKey(primaryKey);
+
+        BackupWriterContext backupWriterContext = mock(BackupWriterContext.class);
+        when(backupWriterContext.getSourceSession()).thenReturn(mock(Session.class));
+        BackupWriterManager backupWriterManager = mock(BackupWriterManager.class);
+        when(backupWriterManager.getBackupWriterContext()).thenReturn(backupWriterContext);
+        writeQueriesWork = new WriteQueriesWork(backupWriterManager);
+    }
+
+    @Test
+    public void testNextWriteQuery() throws Exception {
+        WriteQuery writeQuery1 = mock(WriteQuery.class);
+        WriteQuery writeQuery2 = mock(WriteQuery.class);
+        WriteQuery writeQuery3 = mock(WriteQuery.class);
+        WriteQuery writeQuery4 = mock(WriteQuery.class);
+        Map<WriteQuery, Long> costs = newIdentityHashMap();
+        costs.put(writeQuery1, -1L);
+        costs.put(writeQuery2, 10L);
+        costs.put(writeQuery3, -1L);
+        costs.put(writeQuery4, 100L);
+        List<WriteQuery> writeQueries = newArrayList(writeQuery1, writeQuery2, writeQuery3, writeQuery4);
+        assertSame(writeQueriesWork.nextWriteQuery(writeQueries, costs), writeQuery4);
+        assertSame(writeQueriesWork.nextWriteQuery(writeQueries, costs), writeQuery2);
+        assertSame(writeQueriesWork.nextWriteQuery(writeQueries, costs), writeQuery1);
+        assertSame(writeQueriesWork.nextWriteQuery(writeQueries, costs), writeQuery3);
+        assertTrue(writeQueries.isEmpty());
+    }
+
+    @Test
+    public void testLimitSplits() throws Exception {
+        Map<Integer, Collection<Chunk>> resumeChunks = getResumeChunks(getLimitSplits(250L), 0, 1);
+        assertTrue(writeQueriesWork.isResumable(getLimitSplits(250L), resumeChunks));
+        assertFalse(writeQueriesWork.isResumable(getLimitSplits(350L), resumeChunks));
+    }
+
+    @Test
+    public void testRangeSplits() throws Exception {
+        Map<Integer, Collection<Chunk>> resumeChunks = getResumeChunks(getRangeSplits(10, 20), 0, 1);
+        assertTrue(writeQueriesWork.isResumable(getRangeSplits(10, 20), resumeChunks));
+        assertFalse(writeQueriesWork.isResumable(getRangeSplits(10, 25), resumeChunks));
+        assertFalse(writeQueriesWork.isResumable(getRangeSplits(10), resumeChunks));
+    }
+
+    private List<QuerySplit> getLimitSplits(final long rowCount) throws Exception {
+        RowCountStrategy rowCountStrategy = mock(RowCountStrategy.class);
+        when(rowCountStrategy.getRowCount(connection)).thenReturn(rowCount);
+        return getQuerySplits(newLimitSplitter(new NuoDBDialect(), rowCountStrategy,
+                newQuery(table, table.getColumns(), null), new QueryLimit(100L)));
+    }
+
+    private List<QuerySplit> getRangeSplits(Object... bounds) throws Exception {
+        Dialect dialect = mock(Dialect.class);
+        when(dialect.supportsHistogram(any(Table.class), any(Column.class))).thenReturn(true);
+        HistogramHandler histogramHandler = mock(HistogramHandler.class);
+        when(histogramHandler.getBounds(connection, 3)).thenReturn(newArrayList(bounds));
+        when(dialect.createHistogramHandler(any(Table.class), any(Column.class), anyString())).thenReturn(
+                histogramHandler);
+        return getQuerySplits(newRangeSplitter(dialect, table, table.getColumns(), null,
+                newQuery(table, table.getColumns(), null), 3));
+    }
+
+    private List<QuerySplit> getQuerySplits(QuerySplitter querySplitter) throws Exception {
+        List<QuerySplit> querySplits = newArrayList();
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplits.add(querySplitter.getNextQuerySplit(connection));
+        }
+        return querySplits;
+    }
+
+    /**
+     * Creates chunks checkpointed by the given splits
+     */
+    private static Map<Integer, Collection<Chunk>> getResumeChunks(List<QuerySplit> querySplits, int... splitIndexes) {
+        Map<Integer, Collection<Chunk>> resumeChunks = newHashMap();
+        for (int splitIndex : splitIndexes) {
+            QuerySplit querySplit = querySplits.get(splitIndex);
+            Chunk chunk = new Chunk();
+            chunk.setSplitIndex(querySplit.getSplitIndex());
+            chunk.setSplitCount(querySplit.getSplitCount());
+            chunk.setSplitBounds(querySplit.getSplitBounds());
+            resumeChunks.put(splitIndex, newArrayList(chunk));
+        }
+        return resumeChunks;
+    }
+}
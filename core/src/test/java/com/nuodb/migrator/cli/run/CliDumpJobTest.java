@@ -78,7 +78,8 @@ public class CliDumpJobTest {
                 "--table.type=SYSTEM TABLE",
 
                 "--query=SELECT id, name, definition FROM definitions",
-                "--time.zone=GMT"
+                "--time.zone=GMT",
+                "--lob.threshold=4294967296"
         };
         parser.parse(arguments, cliDumpJob);
 
@@ -115,6 +116,7 @@ public class CliDumpJobTest {
         dumpSpec.setQuerySpecs(asList(new QuerySpec("SELECT id, name, definition FROM definitions")));
         dumpSpec.setTableTypes(new String[]{"TABLE", "SYSTEM TABLE"});
         dumpSpec.setTimeZone(TimeZone.getTimeZone("GMT"));
+        dumpSpec.setLobThreshold((long) Integer.MAX_VALUE);
         return dumpSpec;
     }
 }
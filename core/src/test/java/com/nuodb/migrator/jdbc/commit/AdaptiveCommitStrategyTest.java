@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy.AdaptiveCommitExecutor;
+import com.nuodb.migrator.jdbc.query.Query;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategyTest {
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private AdaptiveCommitStrategy commitStrategy;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        given(statement.getConnection()).willReturn(connection);
+
+        Map<String, Object> attributes = newHashMap();
+        attributes.put("batch.size", "20");
+        attributes.put("min.batch.size", "10");
+        attributes.put("max.batch.size", "40");
+        attributes.put("batch.latency", "100");
+        commitStrategy = new AdaptiveCommitStrategy();
+        commitStrategy.setAttributes(attributes);
+    }
+
+    @Test
+    public void testAdapt() throws Exception {
+        TestCommitExecutor commitExecutor = new TestCommitExecutor(statement, null, commitStrategy);
+        commitExecutor.latency = 10;
+        execute(commitExecutor, 20);
+        assertEquals(commitExecutor.getBatchSize(), 30);
+        execute(commitExecutor, 30);
+        assertEquals(commitExecutor.getBatchSize(), 40);
+        execute(commitExecutor, 40);
+        assertEquals(commitExecutor.getBatchSize(), 40);
+
+        commitExecutor.latency = 200;
+        execute(commitExecutor, 40);
+        assertEquals(commitExecutor.getBatchSize(), 20);
+        execute(commitExecutor, 20);
+        assertEquals(commitExecutor.getBatchSize(), 10);
+        execute(commitExecutor, 10);
+        assertEquals(commitExecutor.getBatchSize(), 10);
+
+        commitExecutor.finish();
+        verify(statement, times(6)).executeBatch();
+        verify(connection, times(6)).commit();
+    }
+
+    @Test
+    public void testCommitInterval() throws Exception {
+        commitStrategy.setCommitInterval(1000);
+        TestCommitExecutor commitExecutor = new TestCommitExecutor(statement, null, commitStrategy);
+        commitExecutor.latency = 10;
+        execute(commitExecutor, 20);
+        execute(commitExecutor, 30);
+        execute(commitExecutor, 40);
+        commitExecutor.execute();
+        commitExecutor.finish();
+        verify(statement, times(4)).executeBatch();
+        verify(connection, times(1)).commit();
+    }
+
+    protected void execute(CommitExecutor commitExecutor, int rows) throws Exception {
+        for (int row = 0; row < rows; row++) {
+            commitExecutor.execute();
+        }
+    }
+
+    /**
+     * Advances clock by the given latency on each reading
+     */
+    static class TestCommitExecutor extends AdaptiveCommitExecutor {
+
+        private long time;
+        private long latency;
+
+        public TestCommitExecutor(PreparedStatement statement, Query query, AdaptiveCommitStrategy strategy) {
+            super(statement, query, strategy);
+        }
+
+        @Override
+        protected long nanoTime() {
+            time += MILLISECONDS.toNanos(latency) / 2;
+            return time;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.InsertQueryBuilder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class MultiRowCommitExecutorTest {
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private PreparedStatement batchStatement;
+    private PreparedStatement tailStatement;
+    private InsertQuery query;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Table table = createTable(null, null, "table");
+        table.addColumn("column");
+        query = new InsertQueryBuilder().into(table).dialect(new NuoDBDialect()).qualifyNames(false).build();
+
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        batchStatement = mock(PreparedStatement.class);
+        tailStatement = mock(PreparedStatement.class);
+        given(statement.getConnection()).willReturn(connection);
+        given(connection.prepareStatement("INSERT INTO \"table\" (\"column\") VALUES (?), (?)")).
+                willReturn(batchStatement);
+        given(connection.prepareStatement("INSERT INTO \"table\" (\"column\") VALUES (?)")).
+                willReturn(tailStatement);
+    }
+
+    @Test
+    public void testCreateCommitExecutor() {
+        BatchCommitStrategy commitStrategy = new BatchCommitStrategy();
+        commitStrategy.setBatchRows(2);
+        assertTrue(commitStrategy.createCommitExecutor(statement, query) instanceof MultiRowCommitExecutor);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        MultiRowCommitExecutor<Integer> commitExecutor = new MultiRowCommitExecutor<Integer>(statement, query, 3, 2);
+        commitExecutor.setRowBinder(new RowBinder<Integer>() {
+            @Override
+            public void bind(PreparedStatement statement, int row, Integer values) throws SQLException {
+                statement.setInt(row + 1, values);
+            }
+        });
+        for (int row = 0; row < 5; row++) {
+            commitExecutor.addRow(row);
+            commitExecutor.execute();
+        }
+        commitExecutor.finish();
+        commitExecutor.close();
+
+        verify(batchStatement).setInt(1, 0);
+        verify(batchStatement).setInt(2, 1);
+        verify(batchStatement).setInt(1, 2);
+        verify(batchStatement).setInt(2, 3);
+        verify(batchStatement, times(2)).addBatch();
+        verify(batchStatement).executeBatch();
+        verify(batchStatement).close();
+        verify(tailStatement).setInt(1, 4);
+        verify(tailStatement).executeUpdate();
+        verify(tailStatement).close();
+        verify(tailStatement, never()).addBatch();
+        verify(connection, times(2)).commit();
+    }
+
+    @Test
+    public void testMaxParameters() throws Exception {
+        NuoDBDialect dialect = spy(new NuoDBDialect());
+        doReturn(3).when(dialect).getMaxParameters();
+        query.setDialect(dialect);
+        MultiRowCommitExecutor<Integer> commitExecutor = new MultiRowCommitExecutor<Integer>(statement, query, 3, 5);
+        assertEquals(commitExecutor.getBatchRows(), 3);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoggingConnectionProviderTest {
+
+    private static final String QUERY = "INSERT INTO T (C) VALUES (?)";
+
+    private ConnectionProvider connectionProvider;
+    private PreparedStatement statement;
+    private QueryLogger queryLogger;
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        given(connection.prepareStatement(QUERY)).willReturn(statement);
+
+        connectionProvider = mock(ConnectionProvider.class);
+        given(connectionProvider.getConnection()).willReturn(connection);
+        queryLogger = mock(QueryLogger.class);
+    }
+
+    @Test
+    public void testLoggingDisabled() throws SQLException {
+        given(queryLogger.isEnabled()).willReturn(false);
+        Connection connection = createConnectionProvider().getConnection();
+        assertTrue(connection instanceof ConnectionProxy);
+
+        PreparedStatement prepared = connection.prepareStatement(QUERY);
+        assertSame(prepared, statement);
+        prepared.setInt(1, 1);
+        prepared.executeUpdate();
+        verify(queryLogger, never()).log(QUERY);
+    }
+
+    @Test
+    public void testLoggingEnabled() throws SQLException {
+        given(queryLogger.isEnabled()).willReturn(true);
+        Connection connection = createConnectionProvider().getConnection();
+
+        PreparedStatement prepared = connection.prepareStatement(QUERY);
+        assertNotSame(prepared, statement);
+        prepared.setInt(1, 1);
+        prepared.executeUpdate();
+        verify(statement).setInt(1, 1);
+        verify(statement).executeUpdate();
+    }
+
+    protected ConnectionProvider createConnectionProvider() {
+        return new LoggingConnectionProvider(connectionProvider, new SimpleQueryFormatFactory(), queryLogger);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.TIMESTAMP;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class HistogramHandlerTest {
+
+    private Table table;
+    private Column column;
+
+    @BeforeMethod
+    public void setUp() {
+        table = createTable(null, "schema", "table");
+        column = table.addColumn("column");
+        column.setTypeCode(INTEGER);
+    }
+
+    @Test
+    public void testInterpolateBounds() {
+        SimpleHistogramHandler histogramHandler = new SimpleHistogramHandler(
+                new NuoDBDialect(), table, column, null);
+        assertEquals(histogramHandler.getBounds(new BigDecimal(0), new BigDecimal(10), 4),
+                newArrayList(new BigDecimal(2), new BigDecimal(5), new BigDecimal(7)));
+        assertEquals(histogramHandler.getBounds(new BigDecimal(0), new BigDecimal(1), 4),
+                newArrayList());
+    }
+
+    @Test
+    public void testHistogramBounds() {
+        SimpleHistogramHandler histogramHandler = new SimpleHistogramHandler(
+                new NuoDBDialect(), table, column, null);
+        List<Object> histogram = newArrayList();
+        for (int bound = 0; bound <= 100; bound += 10) {
+            histogram.add(new BigDecimal(bound));
+        }
+        assertEquals(histogramHandler.getBounds(histogram, 2), newArrayList(new BigDecimal(50)));
+    }
+
+    @Test
+    public void testPostgreSQLHistogram() {
+        column.setTypeCode(TIMESTAMP);
+        PostgreSQLHistogramHandler histogramHandler = new PostgreSQLHistogramHandler(
+                new PostgreSQLDialect(new DatabaseInfo("PostgreSQL")), table, column, null);
+        assertEquals(histogramHandler.parseHistogram("{\"2014-01-01 00:00:00\",\"2014-02-01 12:00:00\"}"),
+                newArrayList(Timestamp.valueOf("2014-01-01 00:00:00"), Timestamp.valueOf("2014-02-01 12:00:00")));
+        assertNull(histogramHandler.parseHistogram("{abc,def}"));
+    }
+
+    @Test
+    public void testHistogramParameters() throws Exception {
+        table = createTable(null, "schema", "o'table");
+        column = table.addColumn("column");
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        new PostgreSQLHistogramHandler(new PostgreSQLDialect(new DatabaseInfo("PostgreSQL")), table, column, null).
+                getHistogram(connection);
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(query.capture());
+        assertFalse(query.getValue().contains("o'table"), query.getValue());
+        verify(statement).setObject(1, "schema");
+        verify(statement).setObject(2, "o'table");
+        verify(statement).setObject(3, "column");
+    }
+
+    @Test
+    public void testFilterSkipsHistogram() throws Exception {
+        Connection connection = mock(Connection.class);
+        SimpleHistogramHandler histogramHandler = spy(new PostgreSQLHistogramHandler(
+                new PostgreSQLDialect(new DatabaseInfo("PostgreSQL")), table, column, "column > 5"));
+        doReturn(newArrayList(new BigDecimal(5), new BigDecimal(15))).when(histogramHandler).getRange(connection);
+        assertEquals(histogramHandler.getBounds(connection, 2), newArrayList(new BigDecimal(10)));
+        verify(histogramHandler, never()).getHistogram(connection);
+    }
+
+    @Test
+    public void testMySQLHistogram() throws Exception {
+        MySQLHistogramHandler histogramHandler = new MySQLHistogramHandler(
+                new MySQLDialect(new DatabaseInfo("MySQL")), table, column, null);
+        assertEquals(histogramHandler.parseHistogram(
+                "{\"buckets\": [[1, 10, 0.5, 10], [11, 20, 1.0, 10]], \"histogram-type\": \"equi-height\"}"),
+                newArrayList(new BigDecimal(10), new BigDecimal(20)));
+        assertEquals(histogramHandler.parseHistogram(
+                "{\"buckets\": [[1, 0.5], [2, 1.0]], \"histogram-type\": \"singleton\"}"),
+                newArrayList(new BigDecimal(1), new BigDecimal(2)));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.session.Session;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.MYSQL;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.POSTGRE_SQL;
+import static java.sql.Connection.TRANSACTION_REPEATABLE_READ;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class SnapshotHandlerTest {
+
+    private Connection connection;
+    private Statement statement;
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    protected Session createSession(Dialect dialect) {
+        Session session = mock(Session.class);
+        when(session.getConnection()).thenReturn(connection);
+        when(session.getDialect()).thenReturn(dialect);
+        return session;
+    }
+
+    @Test
+    public void testPostgreSQLSnapshot() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("00000003-0000001B-1");
+        when(statement.executeQuery("SELECT pg_export_snapshot()")).thenReturn(resultSet);
+
+        Dialect dialect = new PostgreSQLDialect(POSTGRE_SQL);
+        assertTrue(dialect.supportsSnapshot());
+        Session session = createSession(dialect);
+        SnapshotHandler snapshotHandler = dialect.createSnapshotHandler();
+        Snapshot snapshot = snapshotHandler.openSnapshot(session);
+        assertEquals(snapshot.getId(), "00000003-0000001B-1");
+        assertTrue(snapshot.isLateJoin());
+        verify(connection).setAutoCommit(false);
+        verify(connection).setTransactionIsolation(TRANSACTION_REPEATABLE_READ);
+
+        snapshotHandler.releaseSnapshot(session, snapshot);
+        assertTrue(snapshot.isJoinable());
+        snapshotHandler.joinSnapshot(session, snapshot);
+        verify(statement).execute("SET TRANSACTION SNAPSHOT '00000003-0000001B-1'");
+    }
+
+    @Test
+    public void testMySQLSnapshot() throws SQLException {
+        Dialect dialect = new MySQLDialect(MYSQL);
+        Session session = createSession(dialect);
+        SnapshotHandler snapshotHandler = dialect.createSnapshotHandler();
+        Snapshot snapshot = snapshotHandler.openSnapshot(session);
+        verify(statement).execute("FLUSH TABLES WITH READ LOCK");
+        assertFalse(snapshot.isLateJoin());
+
+        snapshotHandler.joinSnapshot(session, snapshot);
+        verify(statement).execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+
+        snapshotHandler.releaseSnapshot(session, snapshot);
+        snapshotHandler.closeSnapshot(session, snapshot);
+        verify(statement, times(1)).execute("UNLOCK TABLES");
+        assertFalse(snapshot.isJoinable());
+    }
+}
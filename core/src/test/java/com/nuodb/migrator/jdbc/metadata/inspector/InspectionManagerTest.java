@@ -1,6 +1,8 @@
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
@@ -8,11 +10,14 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.sql.Connection;
+import java.util.Collection;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyVararg;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.assertNotNull;
 
@@ -69,4 +74,35 @@ public class InspectionManagerTest {
         assertNotNull(inspectionManager.inspect(mock(Connection.class), objectType));
         verify(inspector).inspectScope(any(InspectionContext.class), any(InspectionScope.class));
     }
+
+    /**
+     * Verifies that tables are split between connections opened from the session factory in parallel inspection.
+     *
+     * @throws Exception
+     */
+    @Test(timeOut = 10000)
+    public void testInspectParallel() throws Exception {
+        Inspector inspector = mock(Inspector.class);
+        when(inspector.supports(COLUMN)).thenReturn(true);
+        when(inspector.supportsScope(any(InspectionContext.class), any(InspectionScope.class))).thenReturn(false);
+
+        Session session = mock(Session.class);
+        when(session.getConnection()).thenReturn(mock(Connection.class));
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openSession()).thenReturn(session);
+
+        InspectionManager inspectionManager = new InspectionManager();
+        inspectionManager.addInspector(inspector);
+        inspectionManager.setSessionFactory(sessionFactory);
+        inspectionManager.setThreads(2);
+
+        InspectionResults inspectionResults = new SimpleInspectionResults();
+        for (int table = 0; table < 4; table++) {
+            addTable(inspectionResults, null, null, "t" + table);
+        }
+        inspectionManager.inspect(mock(Connection.class), inspectionResults, new TableInspectionScope(), COLUMN);
+
+        verify(sessionFactory, times(2)).openSession();
+        verify(inspector, times(2)).inspectObjects(any(InspectionContext.class), any(Collection.class));
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.dialect.MSSQLServerDialect;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.MSSQL_SERVER;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.INDEX;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MSSQLServerIndexInspectorTest extends InspectorTestBase {
+
+    public MSSQLServerIndexInspectorTest() {
+        super(MSSQLServerIndexInspector.class);
+    }
+
+    /**
+     * Indexes of all tables of a schema are read with a single query and rows of not inspected tables are skipped
+     */
+    @Test
+    public void testInspectSchema() throws Exception {
+        willResolveDialect(getInspectionManager(), new MSSQLServerDialect(MSSQL_SERVER));
+        PreparedStatement query = mock(PreparedStatement.class);
+        given(getConnection().prepareStatement(anyString(), anyInt(), anyInt())).willReturn(query);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        given(query.executeQuery()).willReturn(resultSet);
+        given(resultSet.next()).willReturn(true, true, true, false);
+        given(resultSet.getString("TABLE_CAT")).willReturn("catalog");
+        given(resultSet.getString("TABLE_SCHEM")).willReturn("schema");
+        given(resultSet.getString("TABLE_NAME")).willReturn("table1", "view", "table2");
+        given(resultSet.getString("INDEX_NAME")).willReturn("index1", "index2", "index3");
+        given(resultSet.getString("COLUMN_NAME")).willReturn("column");
+        given(resultSet.getShort("TYPE")).willReturn((short) 3);
+        given(resultSet.getInt("ORDINAL_POSITION")).willReturn(1);
+
+        Collection<MetaData> tables = newArrayList();
+        Table table1 = createTable("catalog", "schema", "table1");
+        tables.add(table1);
+        Table table2 = table1.getSchema().addTable("table2");
+        tables.add(table2);
+
+        InspectionResults inspectionResults = getInspectionManager().inspect(getConnection(), tables, INDEX);
+        verify(getConnection(), times(1)).prepareStatement(anyString(), anyInt(), anyInt());
+
+        Collection<Index> indexes = inspectionResults.getObjects(INDEX);
+        assertEquals(indexes.size(), 2);
+        assertEquals(table1.getIndexes().size(), 1);
+        assertEquals(table2.getIndexes().size(), 1);
+    }
+}
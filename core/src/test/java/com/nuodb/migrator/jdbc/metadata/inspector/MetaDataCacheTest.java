@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.dialect.ChangeMarkerHandler;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.DialectResolver;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MetaDataCacheTest {
+
+    private File directory;
+    private Connection connection;
+    private Map<String, String> markers;
+    private CountingInspectionManager inspectionManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        directory = File.createTempFile("metadata", "cache");
+        directory.delete();
+
+        connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getURL()).thenReturn("jdbc:test://localhost/test");
+
+        markers = newHashMap();
+        markers.put("schema.t1", "1");
+        markers.put("schema.t2", "1");
+        ChangeMarkerHandler changeMarkerHandler = mock(ChangeMarkerHandler.class);
+        when(changeMarkerHandler.getChangeMarkers(any(Connection.class), anyString(), anyString())).thenReturn(markers);
+        Dialect dialect = mock(Dialect.class);
+        when(dialect.supportsChangeMarkers()).thenReturn(true);
+        when(dialect.createChangeMarkerHandler()).thenReturn(changeMarkerHandler);
+        DialectResolver dialectResolver = mock(DialectResolver.class);
+        when(dialectResolver.resolve(any(Connection.class))).thenReturn(dialect);
+
+        inspectionManager = new CountingInspectionManager();
+        inspectionManager.setDialectResolver(dialectResolver);
+        inspectionManager.setMetaDataCache(new MetaDataCache(directory));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    /**
+     * Verifies that the snapshot is reused while change markers stay the same and that only the altered table is
+     * inspected again once its marker changes
+     */
+    @Test
+    public void testInspect() throws Exception {
+        TableInspectionScope inspectionScope = new TableInspectionScope(null, "schema");
+        MetaDataType[] objectTypes = new MetaDataType[]{DATABASE, CATALOG, SCHEMA, TABLE, COLUMN};
+
+        Database database = inspectionManager.inspect(connection, inspectionScope, objectTypes).getObject(DATABASE);
+        assertEquals(database.getTables().size(), 2);
+        assertEquals(inspectionManager.inspections, 1);
+
+        database = inspectionManager.inspect(connection, inspectionScope, objectTypes).getObject(DATABASE);
+        assertEquals(database.getTables().size(), 2);
+        assertNotNull(database.getCatalog((String) null).getSchema("schema").getTable("t1"));
+        assertEquals(inspectionManager.inspections, 1);
+        assertEquals(inspectionManager.tables.size(), 0);
+
+        markers.put("schema.t2", "2");
+        database = inspectionManager.inspect(connection, inspectionScope, objectTypes).getObject(DATABASE);
+        assertEquals(database.getTables().size(), 2);
+        assertEquals(inspectionManager.inspections, 1);
+        assertEquals(inspectionManager.tables.size(), 1);
+        assertEquals(((Table) inspectionManager.tables.iterator().next()).getName(), "t2");
+
+        markers.put("schema.t3", "1");
+        inspectionManager.inspect(connection, inspectionScope, objectTypes);
+        assertEquals(inspectionManager.inspections, 2);
+    }
+
+    /**
+     * Imitates inspection of tables from the scope and records the tables inspected one by one
+     */
+    static class CountingInspectionManager extends InspectionManager {
+
+        private int inspections;
+        private Collection<MetaData> tables = newArrayList();
+
+        @Override
+        public void inspect(Connection connection, InspectionResults inspectionResults,
+                            InspectionScope inspectionScope, MetaDataType... objectTypes) throws SQLException {
+            if (asList(objectTypes).contains(TABLE)) {
+                addTable(inspectionResults, null, "schema", "t1");
+                addTable(inspectionResults, null, "schema", "t2");
+                inspections++;
+            }
+        }
+
+        @Override
+        public void inspect(Connection connection, InspectionResults inspectionResults, Collection<MetaData> objects,
+                            MetaDataType... objectTypes) throws SQLException {
+            tables.addAll(objects);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.dialect.Snapshot;
+import com.nuodb.migrator.jdbc.dialect.SnapshotHandler;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.SessionState;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
+import static java.util.Collections.synchronizedList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ParallelInspectionContextTest {
+
+    private InspectionManager inspectionManager;
+    private InspectionResults inspectionResults;
+    private SessionFactory sessionFactory;
+    private ParallelInspectionContext inspectionContext;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        inspectionManager = new InspectionManager();
+        inspectionManager.setParallelObjectTypes(newHashSet(COLUMN));
+        inspectionResults = new SimpleInspectionResults();
+        sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openSession()).thenAnswer(new Answer<Session>() {
+            @Override
+            public Session answer(InvocationOnMock invocation) throws Throwable {
+                return mockSession(new SessionState());
+            }
+        });
+        inspectionContext = new ParallelInspectionContext(inspectionManager, mock(Connection.class),
+                inspectionResults, sessionFactory, 2);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        inspectionContext.close();
+    }
+
+    @Test
+    public void testInspectTables() throws Exception {
+        addTable(inspectionResults, "catalog", "schema", "table1");
+        addTable(inspectionResults, "catalog", "schema", "table2");
+        addTable(inspectionResults, "catalog", "schema", "table3");
+        addTable(inspectionResults, "catalog", "schema", "table4");
+        List<Collection<Table>> partitions = inspect(false);
+        assertEquals(partitions.size(), 2);
+        assertEquals(partitions.get(0).size(), 2);
+        assertEquals(partitions.get(1).size(), 2);
+    }
+
+    /**
+     * Inspector querying all tables of a schema at once is run in parallel for whole schemas, so that no schema is
+     * queried by more than a single thread
+     */
+    @Test
+    public void testInspectSchemas() throws Exception {
+        addTable(inspectionResults, "catalog", "schema1", "table1");
+        addTable(inspectionResults, "catalog", "schema1", "table2");
+        addTable(inspectionResults, "catalog", "schema1", "table3");
+        addTable(inspectionResults, "catalog", "schema2", "table4");
+        List<Collection<Table>> partitions = inspect(true);
+        assertEquals(partitions.size(), 2);
+        Collection<Schema> schemas = newHashSet();
+        for (Collection<Table> partition : partitions) {
+            Schema schema = get(partition, 0).getSchema();
+            for (Table table : partition) {
+                assertSame(table.getSchema(), schema);
+            }
+            assertTrue(schemas.add(schema));
+        }
+    }
+
+    @Test
+    public void testInspectSchema() throws Exception {
+        addTable(inspectionResults, "catalog", "schema", "table1");
+        addTable(inspectionResults, "catalog", "schema", "table2");
+        Inspector inspector = mockInspector(true);
+        inspectionContext.init();
+        inspectionContext.inspect(new TableInspectionScope(), COLUMN);
+        verify(inspector).inspect(inspectionContext);
+        verify(sessionFactory, never()).openSession();
+    }
+
+    private List<Collection<Table>> inspect(boolean schemaScope) throws Exception {
+        final List<Collection<Table>> partitions = synchronizedList(new ArrayList<Collection<Table>>());
+        Inspector inspector = mockInspector(schemaScope);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                partitions.add(newArrayList((Collection<Table>) invocation.getArguments()[1]));
+                return null;
+            }
+        }).when(inspector).inspectObjects(any(InspectionContext.class), anyCollection());
+        inspectionContext.init();
+        inspectionContext.inspect(new TableInspectionScope(), COLUMN);
+        return partitions;
+    }
+
+    private Inspector mockInspector(boolean schemaScope) throws Exception {
+        Inspector inspector = mock(Inspector.class);
+        when(inspector.supports(COLUMN)).thenReturn(true);
+        when(inspector.supportsSchemaScope(any(InspectionContext.class))).thenReturn(schemaScope);
+        inspectionManager.setInspectors(Collections.<Inspector>singleton(inspector));
+        return inspector;
+    }
+
+    @Test
+    public void testCloseCommits() throws Exception {
+        Session session = mockSession(new SessionState());
+        inspectionContext.createInspectionContext(session).close();
+        verify(session.getConnection()).commit();
+    }
+
+    @Test
+    public void testCloseLeavesSnapshot() throws Exception {
+        SessionState sessionState = new SessionState();
+        sessionState.setSnapshot(new Snapshot(mock(SnapshotHandler.class), "00000003-1", true));
+        Session session = mockSession(sessionState);
+        inspectionContext.createInspectionContext(session).close();
+        verify(session.getConnection(), never()).commit();
+    }
+
+    private static Session mockSession(SessionState sessionState) {
+        Session session = mock(Session.class);
+        when(session.getConnection()).thenReturn(mock(Connection.class));
+        when(session.get(SessionState.class)).thenReturn(sessionState);
+        return session;
+    }
+}
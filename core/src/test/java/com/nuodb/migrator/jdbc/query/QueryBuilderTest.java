@@ -83,6 +83,19 @@ public class QueryBuilderTest {
         assertEquals(insertQuery.toString(), query);
     }
 
+    @Test
+    public void testMultiRowInsertQueryBuilder() {
+        Table table = createTable(null, "schema", "table");
+        table.addColumn("column1");
+        table.addColumn("column2");
+        InsertQuery insertQuery = new InsertQueryBuilder().into(table).dialect(new NuoDBDialect()).
+                qualifyNames(false).rows(3).build();
+
+        assertEquals(insertQuery.getRows(), 3);
+        assertEquals(insertQuery.toString(),
+                "INSERT INTO \"table\" (\"column1\", \"column2\") VALUES (?, ?), (?, ?), (?, ?)");
+    }
+
     @DataProvider(name = "selectQueryBuilder")
     public Object[][] createSelectQueryBuilderData() {
         Table table = createTable(null, "schema", "table");
@@ -64,4 +64,17 @@ public class SessionFactoryTest {
         Connection connection = session.getConnection();
         fail(format("Connection less session should not return a connection %s", connection));
     }
+
+    @Test(dataProvider = "connectionLessSession")
+    public void testGovernedSession(Dialect dialect, DriverConnectionSpec connectionSpec) throws SQLException {
+        SessionFactory sessionFactory = newSessionFactory(dialect, connectionSpec);
+        Governor governor = new Governor(2);
+        sessionFactory.setGovernor(governor);
+
+        Session session = sessionFactory.openSession();
+        assertEquals(governor.getAvailablePermits(), 1);
+        session.close();
+        session.close();
+        assertEquals(governor.getAvailablePermits(), 2);
+    }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class SessionPoolTest {
+
+    private SessionFactory sessionFactory;
+    private Connection connection;
+    private Session session;
+    private SessionPool sessionPool;
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        session = mock(Session.class);
+        when(session.getConnection()).thenReturn(connection);
+        sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openSession()).thenReturn(session);
+        sessionPool = new SessionPool(sessionFactory);
+    }
+
+    @Test
+    public void testReuseSession() throws SQLException {
+        Session session1 = sessionPool.openSession();
+        assertEquals(session1.getConnection(), connection);
+        session1.close();
+        session1.close();
+
+        Session session2 = sessionPool.openSession();
+        assertEquals(session2.getConnection(), connection);
+        session2.close();
+
+        verify(sessionFactory, times(1)).openSession();
+        assertEquals(sessionPool.getOpenedSessions(), 1);
+        assertEquals(sessionPool.getLeasedSessions(), 2);
+        assertEquals(sessionPool.getReusedSessions(), 1);
+        assertEquals(sessionPool.getThreadBoundSessions(), 1);
+        assertEquals(sessionPool.getActiveSessions(), 0);
+        assertEquals(sessionPool.getIdleSessions(), 1);
+
+        sessionPool.close();
+        verify(session).close();
+        assertEquals(sessionPool.getClosedSessions(), 1);
+        assertEquals(sessionPool.getIdleSessions(), 0);
+    }
+
+    @Test
+    public void testRollbackOnRelease() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+        sessionPool.openSession().close();
+        verify(connection).rollback();
+        assertEquals(sessionPool.getIdleSessions(), 1);
+    }
+
+    @Test
+    public void testDiscardClosedConnection() throws SQLException {
+        Session leasedSession = sessionPool.openSession();
+        when(connection.isClosed()).thenReturn(true);
+        leasedSession.close();
+        verify(session).close();
+        assertEquals(sessionPool.getIdleSessions(), 0);
+    }
+}
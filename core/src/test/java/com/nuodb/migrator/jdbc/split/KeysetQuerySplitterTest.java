@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createIndex;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.getKeysetColumns;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class KeysetQuerySplitterTest {
+
+    private Dialect dialect;
+    private Table table;
+    private Column column1;
+    private Column column2;
+
+    @BeforeMethod
+    public void setUp() {
+        dialect = new NuoDBDialect();
+        table = createTable(null, "schema", "table");
+        table.getDatabase().setDialect(dialect);
+        column1 = table.addColumn("column1");
+        column2 = table.addColumn("column2");
+    }
+
+    @Test
+    public void testPrimaryKeyColumns() {
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.addColumn(column1, 0);
+        primaryKey.addColumn(column2, 1);
+        table.setPrimaryKey(primaryKey);
+        assertEquals(getKeysetColumns(table), newArrayList(column1, column2));
+    }
+
+    @Test
+    public void testUniqueIndexColumns() {
+        column1.setNullable(true);
+        table.addIndex(createIndex("index1", newArrayList(column1), true));
+        assertNull(getKeysetColumns(table));
+
+        column2.setNullable(false);
+        table.addIndex(createIndex("index2", newArrayList(column2), true));
+        assertEquals(getKeysetColumns(table), newArrayList(column2));
+    }
+
+    @Test
+    public void testKeyFilter() {
+        KeysetQuerySplitter querySplitter = createQuerySplitter(newArrayList(column1, column2), 10);
+        assertEquals(querySplitter.createKeyFilter(false),
+                "(\"column1\" > ? OR \"column1\" = ? AND \"column2\" > ?)");
+        assertEquals(querySplitter.createKeyFilter(true),
+                "(\"column1\" < ? OR \"column1\" = ? AND \"column2\" <= ?)");
+        assertEquals(querySplitter.createSelectQuery(table.getColumns(), true, false).toString(),
+                "SELECT \"column1\", \"column2\" FROM \"schema\".\"table\" " +
+                        "WHERE (\"column1\" > ? OR \"column1\" = ? AND \"column2\" > ?) " +
+                        "ORDER BY \"column1\", \"column2\"");
+    }
+
+    @Test
+    public void testSplits() throws Exception {
+        KeysetQuerySplitter querySplitter = createQuerySplitter(newArrayList(column1), 2);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        // each seek reads up to 2 keys, the last one reads a single key left
+        when(resultSet.next()).thenReturn(true, true, true, true, true, false);
+        when(resultSet.getObject(1)).thenReturn(10, 20);
+
+        Collection<QuerySplit> querySplits = newArrayList();
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplits.add(querySplitter.getNextQuerySplit(connection));
+        }
+        assertEquals(querySplits.size(), 3);
+        assertNull(querySplitter.getLowerKey(connection, 0));
+        assertEquals(querySplitter.getLowerKey(connection, 1), new Object[]{10});
+        assertEquals(querySplitter.getLowerKey(connection, 2), new Object[]{20});
+        assertNull(querySplitter.getUpperKey(2));
+        verify(statement, times(3)).executeQuery();
+        verify(resultSet, times(2)).getObject(1);
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(connection, times(3)).prepareStatement(query.capture());
+        for (String seekQuery : query.getAllValues()) {
+            assertFalse(seekQuery.contains("OFFSET"), seekQuery);
+        }
+    }
+
+    protected KeysetQuerySplitter createQuerySplitter(Collection<Column> keyColumns, long count) {
+        return new KeysetQuerySplitter(dialect, table, table.getColumns(), null, keyColumns,
+                newQuery(table, table.getColumns(), null), new QueryLimit(count));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitterTest {
+
+    private Dialect dialect;
+    private Table table;
+    private Column column;
+    private HistogramHandler histogramHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        dialect = new NuoDBDialect();
+        table = createTable(null, "schema", "table");
+        column = table.addColumn("column");
+        column.setNullable(true);
+        histogramHandler = mock(HistogramHandler.class);
+        when(histogramHandler.getColumn()).thenReturn(column);
+    }
+
+    @Test
+    public void testSplits() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(histogramHandler.getBounds(connection, 3)).thenReturn(newArrayList((Object) 10, 20));
+
+        RangeQuerySplitter querySplitter = new RangeQuerySplitter(dialect, table, table.getColumns(), null,
+                histogramHandler, 3, newQuery(table, table.getColumns(), null));
+        int splits = 0;
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplitter.getNextQuerySplit(connection).getResultSet();
+            splits++;
+        }
+        assertEquals(splits, 3);
+        verify(histogramHandler, times(1)).getBounds(any(Connection.class), anyInt());
+        verify(connection).prepareStatement(
+                "SELECT \"column\" FROM \"schema\".\"table\" WHERE (\"column\" < ? OR \"column\" IS NULL)");
+        verify(connection).prepareStatement(
+                "SELECT \"column\" FROM \"schema\".\"table\" WHERE \"column\" >= ? AND \"column\" < ?");
+        verify(connection).prepareStatement(
+                "SELECT \"column\" FROM \"schema\".\"table\" WHERE \"column\" >= ?");
+    }
+}
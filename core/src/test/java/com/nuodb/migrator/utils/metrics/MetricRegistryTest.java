@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2014, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MetricRegistryTest {
+
+    @Test(timeOut = 10000)
+    public void testCounter() throws Exception {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        final Counter counter = metricRegistry.getCounter("rows");
+        assertSame(metricRegistry.getCounter("rows"), counter);
+        ExecutorService executorService = newFixedThreadPool(4);
+        try {
+            Collection<Future<Void>> futures = newArrayList();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int row = 0; row < 1000; row++) {
+                            counter.increment();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(counter.getCount(), 4000);
+        assertEquals(counter.getThreadCounts().size(), 4);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMetricTypeMismatch() {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        metricRegistry.getCounter("time");
+        metricRegistry.getHistogram("time");
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram("time");
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        Histogram.Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(snapshot.getCount(), 1000);
+        assertEquals(snapshot.getMax(), 1000);
+        assertEquals(snapshot.getMean(), 500.5, 0.001);
+        assertPercentile(snapshot.getPercentile(50), 500);
+        assertPercentile(snapshot.getPercentile(99), 990);
+    }
+
+    @Test
+    public void testReportJson() throws Exception {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        metricRegistry.getCounter("dump.rows").add(10);
+        metricRegistry.getHistogram("dump.fetch.time").record(1000000);
+        String report = new MetricsReporter("dump", metricRegistry, MetricsReporter.FORMAT_JSON).
+                reportJson(System.currentTimeMillis());
+        assertTrue(report.contains("\"dump.rows\""), report);
+        assertTrue(report.contains("\"dump.fetch.time\""), report);
+    }
+
+    /**
+     * Buckets of the histogram keep values with relative error bound by the number of sub buckets
+     */
+    private static void assertPercentile(long actual, long expected) {
+        assertTrue(Math.abs(actual - expected) <= expected / Histogram.SUB_BUCKETS,
+                "Percentile " + actual + " is too far from " + expected);
+    }
+}